@@ -0,0 +1,124 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.core.attribute;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory evaluation of {@link Text} predicates, as done for conditions that cannot be answered
+ * by a mixed index, over product descriptions of a few dozen words. Run with {@code -prof gc} to report the
+ * bytes allocated per evaluated value ({@code gc.alloc.rate.norm} divided by {@link #values}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TextPredicateBenchmark {
+
+    private static final String[] WORDS = {
+        "wireless", "headphones", "with", "active", "noise", "cancelling", "and", "up", "to", "30", "hours",
+        "of", "battery", "life", "lightweight", "stainless-steel", "water", "bottle", "keeps", "drinks", "cold",
+        "for", "24", "ideal", "hiking", "camping", "ergonomic", "office", "chair", "adjustable", "lumbar",
+        "support", "breathable", "mesh", "back", "4K", "ultra", "HD", "smart", "TV", "built-in", "streaming",
+        "apps", "voice", "control", "organic", "cotton", "t-shirt", "available", "in", "sizes", "S-XXL",
+        "compatible", "USB-C", "fast", "charging", "durable", "aluminium", "frame", "dishwasher-safe"
+    };
+
+    @Param({"CONTAINS", "CONTAINS_PREFIX", "CONTAINS_REGEX", "CONTAINS_FUZZY", "REGEX", "FUZZY"})
+    public Text predicate;
+
+    @Param({"1000"})
+    public int values;
+
+    private String[] texts;
+    private String condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        texts = new String[values];
+        for (int i = 0; i < values; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = 10 + random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                if (j > 0) text.append(random.nextInt(8) == 0 ? ", " : " ");
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            texts[i] = predicate == Text.FUZZY ? WORDS[random.nextInt(WORDS.length)] : text.toString();
+        }
+        switch (predicate) {
+            case CONTAINS:
+                condition = "battery life";
+                break;
+            case CONTAINS_PREFIX:
+                condition = "cancel";
+                break;
+            case CONTAINS_REGEX:
+                condition = "ca(mp|nc)[a-z]+";
+                break;
+            case CONTAINS_FUZZY:
+            case FUZZY:
+                condition = "headphnes";
+                break;
+            case REGEX:
+                condition = ".*(battery|charging).*hours.*";
+                break;
+            default:
+                throw new AssertionError("Unexpected predicate: " + predicate);
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(predicate.test(text, condition));
+        }
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(Text.tokenize(text));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(TextPredicateBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
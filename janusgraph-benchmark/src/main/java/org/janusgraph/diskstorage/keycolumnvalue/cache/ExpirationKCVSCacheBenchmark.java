@@ -0,0 +1,150 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures slice lookups in the {@link ExpirationKCVSCache} which the database level cache puts in front of the
+ * edge and index stores, for single keys and for batches of keys as used by multi-queries. All slices are cached
+ * before the measurement, so this measures cache hits only. Run with {@code -prof gc} to report the bytes allocated
+ * per lookup ({@code gc.alloc.rate.norm} divided by {@link #lookups}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExpirationKCVSCacheBenchmark {
+
+    private static final int MULTI_QUERY_SIZE = 10;
+
+    @Param({"1000"})
+    public int keys;
+
+    @Param({"10"})
+    public int columns;
+
+    @Param({"1000"})
+    public int lookups;
+
+    private InMemoryStoreManager storeManager;
+    private ExpirationKCVSCache cache;
+    private StoreTransaction tx;
+    private SliceQuery slice;
+    private KeySliceQuery[] queries;
+    private List<List<StaticBuffer>> multiQueries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws BackendException {
+        storeManager = new InMemoryStoreManager();
+        KeyColumnValueStore store = storeManager.openDatabase("edgestore");
+        StoreTransaction storeTx = storeManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+        for (int i = 0; i < keys; i++) {
+            List<Entry> additions = new ArrayList<>(columns);
+            for (int j = 0; j < columns; j++) {
+                additions.add(StaticArrayEntry.of(BufferUtil.getIntBuffer(j), BufferUtil.getLongBuffer(i * (long) columns + j)));
+            }
+            store.mutate(BufferUtil.getIntBuffer(i), additions, KeyColumnValueStore.NO_DELETIONS, storeTx);
+        }
+        storeTx.commit();
+
+        cache = new ExpirationKCVSCache(store, null, TimeUnit.HOURS.toMillis(1), TimeUnit.SECONDS.toMillis(1), 1L << 30);
+        tx = new CacheTransaction(storeManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO)),
+            storeManager, 1024, Duration.ofSeconds(10), false);
+        slice = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(4));
+
+        Random random = new Random(42);
+        queries = new KeySliceQuery[lookups];
+        for (int i = 0; i < lookups; i++) {
+            queries[i] = new KeySliceQuery(BufferUtil.getIntBuffer(random.nextInt(keys)), slice);
+        }
+        multiQueries = new ArrayList<>(lookups / MULTI_QUERY_SIZE);
+        for (int i = 0; i < lookups; i += MULTI_QUERY_SIZE) {
+            List<StaticBuffer> batch = new ArrayList<>(MULTI_QUERY_SIZE);
+            for (int j = 0; j < MULTI_QUERY_SIZE; j++) {
+                batch.add(BufferUtil.getIntBuffer(random.nextInt(keys)));
+            }
+            multiQueries.add(batch);
+        }
+        for (int i = 0; i < keys; i++) {
+            cache.getSlice(new KeySliceQuery(BufferUtil.getIntBuffer(i), slice), tx);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws BackendException {
+        tx.rollback();
+        cache.close();
+        storeManager.close();
+    }
+
+    @Benchmark
+    public void getSlice(Blackhole blackhole) throws BackendException {
+        for (KeySliceQuery query : queries) {
+            blackhole.consume(cache.getSlice(query, tx));
+        }
+    }
+
+    @Benchmark
+    public void getMultiSlice(Blackhole blackhole) throws BackendException {
+        for (List<StaticBuffer> batch : multiQueries) {
+            blackhole.consume(cache.getSlice(batch, slice, tx));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ExpirationKCVSCacheBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of {@link StaticArrayEntryList}s from the entries of a slice, both from individual
+ * {@link Entry}s as done by the caches and from column and value {@link ByteBuffer}s as done by the CQL backend,
+ * as well as iterating over the constructed list. Run with {@code -prof gc} to report the bytes allocated per
+ * constructed list ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StaticArrayEntryListBenchmark {
+
+    private static final StaticArrayEntry.GetColVal<ByteBuffer[], ByteBuffer> BYTE_BUFFER_GETTER = new StaticArrayEntry.GetColVal<ByteBuffer[], ByteBuffer>() {
+        @Override
+        public ByteBuffer getColumn(ByteBuffer[] element) {
+            return element[0];
+        }
+
+        @Override
+        public ByteBuffer getValue(ByteBuffer[] element) {
+            return element[1];
+        }
+
+        @Override
+        public EntryMetaData[] getMetaSchema(ByteBuffer[] element) {
+            return StaticArrayEntry.EMPTY_SCHEMA;
+        }
+
+        @Override
+        public Object getMetaData(ByteBuffer[] element, EntryMetaData meta) {
+            throw new UnsupportedOperationException("Unsupported meta data: " + meta);
+        }
+    };
+
+    @Param({"10", "1000"})
+    public int entries;
+
+    @Param({"32"})
+    public int valueSize;
+
+    private List<Entry> entryList;
+    private List<ByteBuffer[]> byteBuffers;
+    private EntryList list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        entryList = new ArrayList<>(entries);
+        byteBuffers = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            byte[] value = new byte[valueSize];
+            random.nextBytes(value);
+            ByteBuffer column = ByteBuffer.allocate(8).putLong(0, i);
+            entryList.add(StaticArrayEntry.of(StaticArrayBuffer.of(column), StaticArrayBuffer.of(value)));
+            byteBuffers.add(new ByteBuffer[]{column, ByteBuffer.wrap(value)});
+        }
+        list = StaticArrayEntryList.of(entryList);
+    }
+
+    @Benchmark
+    public EntryList ofEntries() {
+        return StaticArrayEntryList.of(entryList);
+    }
+
+    @Benchmark
+    public EntryList ofByteBuffers() {
+        return StaticArrayEntryList.ofByteBuffer(byteBuffers, BYTE_BUFFER_GETTER);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Entry entry : list) {
+            blackhole.consume(entry.getColumn());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(StaticArrayEntryListBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
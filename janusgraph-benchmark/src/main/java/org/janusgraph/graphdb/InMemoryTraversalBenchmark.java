@@ -0,0 +1,149 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end traversals against the in-memory storage backend, each in a new transaction so that vertices
+ * and relations are read and deserialized from the store. This covers query optimization, the transaction's caches,
+ * the edge serializer and the store together. Run with {@code -prof gc} to report the bytes allocated per traversal
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InMemoryTraversalBenchmark {
+
+    @Param({"10000"})
+    public int vertices;
+
+    @Param({"10"})
+    public int degree;
+
+    private StandardJanusGraph graph;
+    private long[] vertexIds;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = (StandardJanusGraph) JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        JanusGraphManagement mgmt = graph.openManagement();
+        PropertyKey name = mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makePropertyKey("weight").dataType(Double.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        mgmt.buildIndex("byName", JanusGraphVertex.class).addKey(name).buildCompositeIndex();
+        mgmt.commit();
+
+        random = new Random(42);
+        JanusGraphTransaction tx = graph.newTransaction();
+        JanusGraphVertex[] created = new JanusGraphVertex[vertices];
+        for (int i = 0; i < vertices; i++) {
+            created[i] = tx.addVertex("name", "person-" + i);
+        }
+        for (JanusGraphVertex vertex : created) {
+            for (int j = 0; j < degree; j++) {
+                vertex.addEdge("knows", created[random.nextInt(vertices)], "weight", random.nextDouble());
+            }
+        }
+        tx.commit();
+        vertexIds = new long[vertices];
+        for (int i = 0; i < vertices; i++) {
+            vertexIds[i] = created[i].longId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public Object vertexProperty() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            return tx.traversal().V(vertexIds[random.nextInt(vertices)]).values("name").next();
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public Object indexLookup() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            return tx.traversal().V().has("name", "person-" + random.nextInt(vertices)).toList();
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public Object edgeProperties() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            return tx.traversal().V(vertexIds[random.nextInt(vertices)]).outE("knows").values("weight").sum().next();
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public Object twoHops() {
+        JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            GraphTraversalSource g = tx.traversal();
+            return g.V(vertexIds[random.nextInt(vertices)]).out("knows").out("knows").dedup().count().next();
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(InMemoryTraversalBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database;
+
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link EdgeSerializer#writeRelation} and {@link EdgeSerializer#parseRelation} for
+ * edges and properties. Run with {@code -prof gc} to report the bytes allocated per serialized or parsed relation
+ * ({@code gc.alloc.rate.norm} divided by {@link #relations}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EdgeSerializerBenchmark {
+
+    @Param({"1000"})
+    public int relations;
+
+    private StandardJanusGraph graph;
+    private StandardJanusGraphTx tx;
+    private EdgeSerializer edgeSerializer;
+    private InternalRelation[] edges;
+    private InternalRelation[] properties;
+    private Entry[] edgeEntries;
+    private Entry[] propertyEntries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = (StandardJanusGraph) JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        JanusGraphManagement mgmt = graph.openManagement();
+        mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makePropertyKey("weight").dataType(Double.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        mgmt.commit();
+
+        edgeSerializer = graph.getEdgeSerializer();
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        edges = new InternalRelation[relations];
+        properties = new InternalRelation[relations];
+        JanusGraphVertex previous = tx.addVertex();
+        for (int i = 0; i < relations; i++) {
+            JanusGraphVertex vertex = tx.addVertex();
+            properties[i] = (InternalRelation) vertex.property("name", "vertex-" + i);
+            InternalRelation edge = (InternalRelation) previous.addEdge("knows", vertex);
+            edge.property("weight", i / 10.0);
+            edges[i] = edge;
+            previous = vertex;
+        }
+        edgeEntries = new Entry[relations];
+        propertyEntries = new Entry[relations];
+        for (int i = 0; i < relations; i++) {
+            edgeEntries[i] = edgeSerializer.writeRelation(edges[i], 0, tx);
+            propertyEntries[i] = edgeSerializer.writeRelation(properties[i], 0, tx);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public void writeEdges(Blackhole blackhole) {
+        for (InternalRelation edge : edges) {
+            Entry entry = edgeSerializer.writeRelation(edge, 0, tx);
+            blackhole.consume(entry);
+        }
+    }
+
+    @Benchmark
+    public void writeProperties(Blackhole blackhole) {
+        for (InternalRelation property : properties) {
+            Entry entry = edgeSerializer.writeRelation(property, 0, tx);
+            blackhole.consume(entry);
+        }
+    }
+
+    @Benchmark
+    public void parseEdges(Blackhole blackhole) {
+        for (Entry entry : edgeEntries) {
+            blackhole.consume(edgeSerializer.parseRelation(entry, false, tx));
+        }
+    }
+
+    @Benchmark
+    public void parseProperties(Blackhole blackhole) {
+        for (Entry entry : propertyEntries) {
+            blackhole.consume(edgeSerializer.parseRelation(entry, false, tx));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(EdgeSerializerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,121 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.serialize;
+
+import org.janusgraph.core.attribute.Geoshape;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing and reading attribute values of the common property data types with the {@link StandardSerializer},
+ * as done for every property that is written or read. Run with {@code -prof gc} to report the bytes allocated per
+ * value ({@code gc.alloc.rate.norm} divided by {@link #values}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StandardSerializerBenchmark {
+
+    @Param({"String", "Long", "Double", "Date", "Instant", "UUID", "Geoshape"})
+    public String dataType;
+
+    @Param({"1000"})
+    public int values;
+
+    private StandardSerializer serializer;
+    private Class<?> type;
+    private Object[] attributes;
+    private StaticBuffer[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = new StandardSerializer();
+        Random random = new Random(42);
+        attributes = new Object[values];
+        serialized = new StaticBuffer[values];
+        for (int i = 0; i < values; i++) {
+            attributes[i] = createAttribute(random);
+            serialized[i] = serializer.getDataOutput(64).writeObjectNotNull(attributes[i]).getStaticBuffer();
+        }
+        type = attributes[0].getClass();
+    }
+
+    private Object createAttribute(Random random) {
+        switch (dataType) {
+            case "String":
+                return "value-" + random.nextInt() + "-" + Long.toHexString(random.nextLong());
+            case "Long":
+                return random.nextLong();
+            case "Double":
+                return random.nextDouble();
+            case "Date":
+                return new Date(random.nextInt(Integer.MAX_VALUE) * 1000L);
+            case "Instant":
+                return Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE), random.nextInt(1000000000));
+            case "UUID":
+                return new UUID(random.nextLong(), random.nextLong());
+            case "Geoshape":
+                return Geoshape.point(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+            default:
+                throw new IllegalArgumentException("Unexpected data type: " + dataType);
+        }
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole) {
+        for (Object attribute : attributes) {
+            blackhole.consume(serializer.getDataOutput(64).writeObjectNotNull(attribute).getStaticBuffer());
+        }
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        for (StaticBuffer buffer : serialized) {
+            blackhole.consume(serializer.readObjectNotNull(buffer.asReadBuffer(), type));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(StandardSerializerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
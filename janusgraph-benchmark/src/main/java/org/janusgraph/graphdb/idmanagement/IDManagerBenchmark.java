@@ -0,0 +1,92 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.idmanagement;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion between vertex ids and the keys under which the vertices are stored, which is done for
+ * every vertex that is read or written. Run with {@code -prof gc} to report the bytes allocated per converted id
+ * ({@code gc.alloc.rate.norm} divided by {@link #vertices}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IDManagerBenchmark {
+
+    @Param({"1000"})
+    public int vertices;
+
+    private IDManager idManager;
+    private long[] vertexIds;
+    private StaticBuffer[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        idManager = new IDManager();
+        vertexIds = new long[vertices];
+        keys = new StaticBuffer[vertices];
+        for (int i = 0; i < vertices; i++) {
+            long partition = random.nextInt((int) idManager.getPartitionBound());
+            vertexIds[i] = idManager.getVertexID(1 + random.nextInt(1 << 20), partition, IDManager.VertexIDType.NormalVertex);
+            keys[i] = idManager.getKey(vertexIds[i]);
+        }
+    }
+
+    @Benchmark
+    public void getKey(Blackhole blackhole) {
+        for (long vertexId : vertexIds) {
+            blackhole.consume(idManager.getKey(vertexId));
+        }
+    }
+
+    @Benchmark
+    public void getKeyID(Blackhole blackhole) {
+        for (StaticBuffer key : keys) {
+            blackhole.consume(idManager.getKeyID(key));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(IDManagerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,129 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.transaction.vertexcache;
+
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.util.datastructures.Retriever;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures vertex lookups in a transaction's {@link VertexCache} for loaded vertices. With a {@link #cacheSize}
+ * smaller than the number of {@link #vertices}, most lookups miss the cache and evict another vertex. Run with
+ * {@code -prof gc} to report the bytes allocated per lookup ({@code gc.alloc.rate.norm} divided by {@link #lookups}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class VertexCacheBenchmark {
+
+    @Param({"1000"})
+    public int vertices;
+
+    @Param({"100", "20000"})
+    public int cacheSize;
+
+    @Param({"1000"})
+    public int lookups;
+
+    private StandardJanusGraph graph;
+    private JanusGraphTransaction tx;
+    private VertexCache cache;
+    private Retriever<Long, InternalVertex> retriever;
+    private long[] lookupIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = (StandardJanusGraph) JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        JanusGraphTransaction writeTx = graph.newTransaction();
+        long[] ids = new long[vertices];
+        for (int i = 0; i < vertices; i++) {
+            ids[i] = writeTx.addVertex().longId();
+        }
+        writeTx.commit();
+
+        tx = graph.newTransaction();
+        Map<Long, InternalVertex> loaded = new HashMap<>(vertices);
+        for (long id : ids) {
+            loaded.put(id, (InternalVertex) tx.getVertex(id));
+        }
+        retriever = loaded::get;
+        cache = new VertexCache(cacheSize, 1, 32);
+        // fill the cache up front so that contains() measures lookups of cached vertices rather than an empty cache
+        for (long id : ids) {
+            cache.get(id, retriever);
+        }
+
+        Random random = new Random(42);
+        lookupIds = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            lookupIds[i] = ids[random.nextInt(vertices)];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (long id : lookupIds) {
+            blackhole.consume(cache.get(id, retriever));
+        }
+    }
+
+    @Benchmark
+    public void contains(Blackhole blackhole) {
+        for (long id : lookupIds) {
+            blackhole.consume(cache.contains(id));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(VertexCacheBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
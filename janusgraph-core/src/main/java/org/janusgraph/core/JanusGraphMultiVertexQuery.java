@@ -123,7 +123,8 @@ public interface JanusGraphMultiVertexQuery<Q extends JanusGraphMultiVertexQuery
     Map<JanusGraphVertex, Iterable<JanusGraphVertexProperty>> properties();
 
     /**
-     * Makes a call to properties to pre-fetch the properties into the vertex cache
+     * Makes a call to properties to pre-fetch the properties into the vertex cache. The properties of several keys are
+     * retrieved with a single backend call.
      */
     void preFetch();
 
@@ -153,4 +154,13 @@ public interface JanusGraphMultiVertexQuery<Q extends JanusGraphMultiVertexQuery
      */
     Map<JanusGraphVertex, VertexList> vertexIds();
 
+    /**
+     * Returns the number of edges that match this query for each of the query's central vertices.
+     * <p>
+     * The edges are counted without retrieving them whenever possible.
+     *
+     * @return The number of matching edges for each of the query's central vertices
+     */
+    Map<JanusGraphVertex, Long> edgeCount();
+
 }
@@ -19,16 +19,18 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.text.similarity.LevenshteinDistance;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * Comparison relations for text objects. These comparisons are based on a tokenized representation
@@ -51,12 +53,14 @@ public enum Text implements JanusGraphPredicate {
 
         @Override
         public boolean evaluateRaw(String value, String terms) {
-            Set<String> tokens = Sets.newHashSet(tokenize(value.toLowerCase()));
+            String text = value.toLowerCase();
             terms = terms.trim();
             List<String> tokenTerms = tokenize(terms.toLowerCase());
             if (!terms.isEmpty() && tokenTerms.isEmpty()) return false;
             for (String term : tokenTerms) {
-                if (!tokens.contains(term)) return false;
+                if (!anyToken(text, (str, start, end) -> end - start == term.length() && str.startsWith(term, start))) {
+                    return false;
+                }
             }
             return true;
         }
@@ -84,10 +88,9 @@ public enum Text implements JanusGraphPredicate {
 
         @Override
         public boolean evaluateRaw(String value, String prefix) {
-            for (String token : tokenize(value.toLowerCase())) {
-                if (PREFIX.evaluateRaw(token,prefix.toLowerCase())) return true;
-            }
-            return false;
+            String tokenPrefix = prefix.toLowerCase().trim();
+            return anyToken(value.toLowerCase(),
+                    (str, start, end) -> end - start >= tokenPrefix.length() && str.startsWith(tokenPrefix, start));
         }
 
         @Override
@@ -114,10 +117,9 @@ public enum Text implements JanusGraphPredicate {
 
         @Override
         public boolean evaluateRaw(String value, String regex) {
-            for (String token : tokenize(value.toLowerCase())) {
-                if (REGEX.evaluateRaw(token,regex)) return true;
-            }
-            return false;
+            String text = value.toLowerCase();
+            Matcher matcher = compile(regex).matcher(text);
+            return anyToken(text, (str, start, end) -> matcher.region(start, end).matches());
         }
 
         @Override
@@ -170,7 +172,7 @@ public enum Text implements JanusGraphPredicate {
         }
 
         public boolean evaluateRaw(String value, String regex) {
-            return value.matches(regex);
+            return compile(regex).matcher(value).matches();
         }
 
         @Override
@@ -201,7 +203,8 @@ public enum Text implements JanusGraphPredicate {
 
         @Override
         public boolean evaluateRaw(String value, String term) {
-            return isFuzzy(term.trim(),value.trim());
+            String text = value.trim();
+            return new FuzzyTerm(term.trim()).matches(text, 0, text.length());
         }
 
         @Override
@@ -231,10 +234,8 @@ public enum Text implements JanusGraphPredicate {
 
         @Override
         public boolean evaluateRaw(String value, String term) {
-            for (String token : tokenize(value.toLowerCase())) {
-                if (isFuzzy(term.toLowerCase(), token)) return true;
-            }
-            return false;
+            FuzzyTerm fuzzyTerm = new FuzzyTerm(term.toLowerCase().trim());
+            return anyToken(value.toLowerCase(), fuzzyTerm::matches);
         }
 
         @Override
@@ -249,24 +250,77 @@ public enum Text implements JanusGraphPredicate {
     };
 
     /**
-     * Whether {@code term} is at X Lenvenstein of a {@code value} 
+     * A term of a fuzzy condition which matches all values that are at X Lenvenstein of the term
      * with X=:
      * - 0 for strings of one or two characters
      * - 1 for strings of three, four or five characters
      * - 2 for strings of more than five characters
-     * @return true if {@code term} is similar to {@code value} 
+     * The edit distance is computed row by row and the computation stops as soon as the distance is known to
+     * exceed X. The rows are reused across values, hence instances must not be shared between threads.
      */
-    private static boolean isFuzzy(String term, String value){
-        int distance;
-        term = term.trim();
-        if (term.length() < 3) {
-            distance = 0;
-        } else if (term.length() < 6) {
-            distance = 1;
-        } else {
-            distance = 2;
-        }
-        return LevenshteinDistance.getDefaultInstance().apply(value, term)<=distance;
+    private static class FuzzyTerm {
+
+        private final String term;
+        private final int maxDistance;
+        private int[] previousRow;
+        private int[] currentRow;
+
+        private FuzzyTerm(String term) {
+            this.term = term;
+            if (term.length() < 3) {
+                maxDistance = 0;
+            } else if (term.length() < 6) {
+                maxDistance = 1;
+            } else {
+                maxDistance = 2;
+            }
+        }
+
+        /**
+         * @return true if the region [start, end) of {@code value} is similar to the term
+         */
+        private boolean matches(String value, int start, int end) {
+            int length = end - start;
+            if (Math.abs(length - term.length()) > maxDistance) return false;
+            if (maxDistance == 0) return value.startsWith(term, start);
+            if (previousRow == null) {
+                previousRow = new int[term.length() + 1];
+                currentRow = new int[term.length() + 1];
+            }
+            for (int j = 0; j <= term.length(); j++) previousRow[j] = j;
+            for (int i = 1; i <= length; i++) {
+                char c = value.charAt(start + i - 1);
+                currentRow[0] = i;
+                int rowMinimum = i;
+                for (int j = 1; j <= term.length(); j++) {
+                    int substitution = previousRow[j - 1] + (term.charAt(j - 1) == c ? 0 : 1);
+                    currentRow[j] = Math.min(substitution, Math.min(previousRow[j], currentRow[j - 1]) + 1);
+                    rowMinimum = Math.min(rowMinimum, currentRow[j]);
+                }
+                if (rowMinimum > maxDistance) return false;
+                int[] row = previousRow;
+                previousRow = currentRow;
+                currentRow = row;
+            }
+            return previousRow[term.length()] <= maxDistance;
+        }
+    }
+
+    private static final int PATTERN_CACHE_SIZE = 1000;
+
+    /**
+     * Regular expressions of REGEX and CONTAINS_REGEX conditions, compiled once and shared across evaluations
+     */
+    private static final Cache<String, Pattern> PATTERN_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(PATTERN_CACHE_SIZE).build();
+
+    private static Pattern compile(String regex) {
+        Pattern pattern = PATTERN_CACHE.getIfPresent(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            PATTERN_CACHE.put(regex, pattern);
+        }
+        return pattern;
     }
 
     private static final Logger log = LoggerFactory.getLogger(Text.class);
@@ -293,6 +347,25 @@ public enum Text implements JanusGraphPredicate {
         return tokens;
     }
 
+    private interface TokenPredicate {
+        boolean test(String str, int start, int end);
+    }
+
+    /**
+     * Whether any of the tokens that {@link #tokenize(String)} would return for the given string satisfies the
+     * predicate. Tokens are passed to the predicate as regions of the string so that no substrings are allocated.
+     */
+    private static boolean anyToken(String str, TokenPredicate predicate) {
+        int previous = 0;
+        for (int p = 0; p < str.length(); p++) {
+            if (!Character.isLetterOrDigit(str.charAt(p))) {
+                if (p > previous + MIN_TOKEN_LENGTH && predicate.test(str, previous, p)) return true;
+                previous = p + 1;
+            }
+        }
+        return previous + MIN_TOKEN_LENGTH < str.length() && predicate.test(str, previous, str.length());
+    }
+
     @Override
     public boolean isValidValueType(Class<?> clazz) {
         Preconditions.checkNotNull(clazz);
@@ -43,6 +43,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.NoKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
 import org.janusgraph.diskstorage.locking.Locker;
 import org.janusgraph.diskstorage.locking.LockerProvider;
@@ -52,8 +53,12 @@ import org.janusgraph.diskstorage.log.Log;
 import org.janusgraph.diskstorage.log.LogManager;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLogManager;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.diskstorage.util.BackendOperation;
+import org.janusgraph.diskstorage.util.DeflateCompression;
+import org.janusgraph.diskstorage.util.FairShareExecutor;
 import org.janusgraph.diskstorage.util.MetricInstrumentedStoreManager;
+import org.janusgraph.diskstorage.util.SharedExecutors;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.graphdb.transaction.TransactionConfiguration;
@@ -62,15 +67,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BASIC_METRICS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BUFFER_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_DICTIONARIES;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_ENABLED;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_LEVEL;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_MIN_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_CLEAN_WAIT;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_SIZE;
@@ -81,7 +97,12 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.JO
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.JOB_START_TIME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MANAGEMENT_LOG;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_MERGE_STORES;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_PREFIX;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.PARALLEL_BACKEND_OPS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SHARED_LOG_THREADS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SHARED_POOL_GRAPH_TASKS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SHARED_POOL_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SHARED_RESOURCES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_BATCH;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_READ_WAITTIME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_WRITE_WAITTIME;
@@ -152,7 +173,9 @@ public class Backend implements LockerProvider, AutoCloseable {
     private final Duration maxWriteTime;
     private final Duration maxReadTime;
     private final boolean cacheEnabled;
-    private final ExecutorService threadPool;
+    private final Executor threadPool;
+    private final int sharedPoolSize;
+    private final int sharedLogThreads;
 
     private final ConcurrentHashMap<String, Locker> lockers = new ConcurrentHashMap<>();
     private final Configuration configuration;
@@ -160,43 +183,77 @@ public class Backend implements LockerProvider, AutoCloseable {
     public Backend(Configuration configuration, KeyColumnValueStoreManager manager) {
         this.configuration = configuration;
 
-        storeManager = configuration.get(BASIC_METRICS) ? new MetricInstrumentedStoreManager(manager, METRICS_STOREMANAGER_NAME, configuration.get(METRICS_MERGE_STORES), METRICS_MERGED_STORE) : manager;
+        KeyColumnValueStoreManager instrumentedManager = configuration.get(BASIC_METRICS) ? new MetricInstrumentedStoreManager(manager, METRICS_STOREMANAGER_NAME, configuration.get(METRICS_MERGE_STORES), METRICS_MERGED_STORE) : manager;
+        storeManager = configuration.get(COMPRESSION_ENABLED) ? new CompressionKCVSManager(instrumentedManager, getCompression(configuration), EDGESTORE_NAME, INDEXSTORE_NAME) : instrumentedManager;
 
         indexes = getIndexes(configuration);
         storeFeatures = storeManager.getFeatures();
 
-        managementLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(MANAGEMENT_LOG));
-        txLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(TRANSACTION_LOG));
-        userLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(USER_LOG));
+        //Shared resources are acquired from registries, so they must be released again if a later step fails
+        int acquiredLogThreads = 0;
+        int acquiredPoolSize = 0;
+        ExecutorService ownPool = null;
+        try {
+            if (configuration.get(SHARED_RESOURCES)) {
+                sharedLogThreads = configuration.get(SHARED_LOG_THREADS);
+                ScheduledExecutorService logExecutor = SharedExecutors.acquireLogExecutor(sharedLogThreads);
+                acquiredLogThreads = sharedLogThreads;
+                managementLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(MANAGEMENT_LOG), logExecutor);
+                txLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(TRANSACTION_LOG), logExecutor);
+                userLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(USER_LOG), logExecutor);
+            } else {
+                sharedLogThreads = 0;
+                managementLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(MANAGEMENT_LOG));
+                txLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(TRANSACTION_LOG));
+                userLogManager = new KCVSLogManager(storeManager, configuration.restrictTo(USER_LOG));
+            }
 
-        cacheEnabled = !configuration.get(STORAGE_BATCH) && configuration.get(DB_CACHE);
+            cacheEnabled = !configuration.get(STORAGE_BATCH) && configuration.get(DB_CACHE);
 
-        int bufferSizeTmp = configuration.get(BUFFER_SIZE);
-        Preconditions.checkArgument(bufferSizeTmp > 0, "Buffer size must be positive");
-        if (!storeFeatures.hasBatchMutation()) {
-            bufferSize = Integer.MAX_VALUE;
-        } else bufferSize = bufferSizeTmp;
+            int bufferSizeTmp = configuration.get(BUFFER_SIZE);
+            Preconditions.checkArgument(bufferSizeTmp > 0, "Buffer size must be positive");
+            if (!storeFeatures.hasBatchMutation()) {
+                bufferSize = Integer.MAX_VALUE;
+            } else bufferSize = bufferSizeTmp;
 
-        maxWriteTime = configuration.get(STORAGE_WRITE_WAITTIME);
-        maxReadTime = configuration.get(STORAGE_READ_WAITTIME);
+            maxWriteTime = configuration.get(STORAGE_WRITE_WAITTIME);
+            maxReadTime = configuration.get(STORAGE_READ_WAITTIME);
 
-        if (!storeFeatures.hasLocking()) {
-            Preconditions.checkArgument(storeFeatures.isKeyConsistent(), "Store needs to support some form of locking");
-            storeManagerLocking = new ExpectedValueCheckingStoreManager(storeManager, LOCK_STORE_SUFFIX, this, maxReadTime);
-        } else {
-            storeManagerLocking = storeManager;
-        }
+            if (!storeFeatures.hasLocking()) {
+                Preconditions.checkArgument(storeFeatures.isKeyConsistent(), "Store needs to support some form of locking");
+                storeManagerLocking = new ExpectedValueCheckingStoreManager(storeManager, LOCK_STORE_SUFFIX, this, maxReadTime);
+            } else {
+                storeManagerLocking = storeManager;
+            }
 
-        if (configuration.get(PARALLEL_BACKEND_OPS)) {
-            int poolSize = Runtime.getRuntime().availableProcessors() * THREAD_POOL_SIZE_SCALE_FACTOR;
-            threadPool = Executors.newFixedThreadPool(poolSize);
-            LOG.debug("Initiated backend operations thread pool of size {}", poolSize);
-        } else {
-            threadPool = null;
-        }
+            if (configuration.get(PARALLEL_BACKEND_OPS) && configuration.get(SHARED_RESOURCES)) {
+                int poolSize = configuration.get(SHARED_POOL_SIZE);
+                if (poolSize == 0) poolSize = Runtime.getRuntime().availableProcessors() * THREAD_POOL_SIZE_SCALE_FACTOR;
+                int maxGraphTasks = configuration.get(SHARED_POOL_GRAPH_TASKS);
+                if (maxGraphTasks == 0) maxGraphTasks = Runtime.getRuntime().availableProcessors();
+                sharedPoolSize = poolSize;
+                ExecutorService backendPool = SharedExecutors.acquireBackendPool(poolSize);
+                acquiredPoolSize = poolSize;
+                threadPool = new FairShareExecutor(backendPool, maxGraphTasks,
+                    configuration.get(BASIC_METRICS) ? configuration.get(METRICS_PREFIX) : null, METRICS_STOREMANAGER_NAME);
+                LOG.debug("Using shared backend operations thread pool of size {} with at most {} tasks of this graph", poolSize, maxGraphTasks);
+            } else if (configuration.get(PARALLEL_BACKEND_OPS)) {
+                int poolSize = Runtime.getRuntime().availableProcessors() * THREAD_POOL_SIZE_SCALE_FACTOR;
+                sharedPoolSize = 0;
+                ownPool = Executors.newFixedThreadPool(poolSize);
+                threadPool = ownPool;
+                LOG.debug("Initiated backend operations thread pool of size {}", poolSize);
+            } else {
+                sharedPoolSize = 0;
+                threadPool = null;
+            }
 
-        scanner = new StandardScanner(storeManager);
-        initialize();
+            scanner = new StandardScanner(storeManager);
+            initialize();
+        } catch (RuntimeException | Error e) {
+            releaseThreadPools(acquiredPoolSize, ownPool, acquiredLogThreads);
+            throw e;
+        }
     }
 
     //Method invoked by ExpectedValueCheckingStoreManager, which is only used when Backend does not support native locking.
@@ -355,6 +412,25 @@ public class Backend implements LockerProvider, AutoCloseable {
         return builder.build();
     }
 
+    /**
+     * Returns the compression of the values of the edge and index stores as configured for the graph, which is also
+     * needed to read these values directly from the storage backend, e.g. by the Hadoop input formats.
+     *
+     * @return the configured compression or {@link BackendCompression#NO_COMPRESSION} if compression is disabled
+     */
+    public static BackendCompression getCompression(Configuration config) {
+        if (!config.get(COMPRESSION_ENABLED)) return BackendCompression.NO_COMPRESSION;
+        List<byte[]> dictionaries = new ArrayList<>();
+        for (String file : config.get(COMPRESSION_DICTIONARIES)) {
+            try {
+                dictionaries.add(Files.readAllBytes(Paths.get(file)));
+            } catch (IOException e) {
+                throw new JanusGraphConfigurationException("Could not read compression dictionary: " + file, e);
+            }
+        }
+        return new DeflateCompression(config.get(COMPRESSION_LEVEL), config.get(COMPRESSION_MIN_SIZE), dictionaries);
+    }
+
     public static <T> T getImplementationClass(Configuration config, String className, Map<String, String> registeredImplementations) {
         if (registeredImplementations.containsKey(className.toLowerCase())) {
             className = registeredImplementations.get(className.toLowerCase());
@@ -375,6 +451,13 @@ public class Backend implements LockerProvider, AutoCloseable {
         return storeManager;
     }
 
+    /**
+     * @return the thread pool of this graph for parallel backend operations or null if they are disabled
+     */
+    public Executor getThreadPool() {
+        return threadPool;
+    }
+
     /**
      * Returns the {@link IndexFeatures} of all configured index backends
      */
@@ -423,9 +506,7 @@ public class Backend implements LockerProvider, AutoCloseable {
                 for (IndexProvider index : indexes.values()) index.close();
             } finally {
                 storeManager.close();
-                if (threadPool != null) {
-                    threadPool.shutdown();
-                }
+                releaseThreadPools();
             }
         } else {
             LOG.debug("Backend {} has already been closed or cleared", this);
@@ -455,11 +536,27 @@ public class Backend implements LockerProvider, AutoCloseable {
                 index.clearStorage();
                 index.close();
             }
+            releaseThreadPools();
         } else {
             LOG.warn("Backend {} has already been closed or cleared", this);
         }
     }
 
+    private void releaseThreadPools() {
+        releaseThreadPools(sharedPoolSize, sharedPoolSize > 0 ? null : (ExecutorService) threadPool, sharedLogThreads);
+    }
+
+    private static void releaseThreadPools(int sharedPoolSize, ExecutorService ownPool, int sharedLogThreads) {
+        if (sharedPoolSize > 0) {
+            SharedExecutors.releaseBackendPool(sharedPoolSize);
+        } else if (ownPool != null) {
+            ownPool.shutdown();
+        }
+        if (sharedLogThreads > 0) {
+            SharedExecutors.releaseLogExecutor(sharedLogThreads);
+        }
+    }
+
     private ModifiableConfiguration buildJobConfiguration() {
         return new ModifiableConfiguration(JOB_NS, new CommonsConfiguration(new BaseConfiguration()),
                 BasicConfiguration.Restriction.NONE);
@@ -19,9 +19,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
@@ -43,6 +49,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
+import org.janusgraph.diskstorage.util.BackendCosts;
 import org.janusgraph.diskstorage.util.BackendOperation;
 import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.graphdb.database.serialize.DataOutput;
@@ -76,6 +83,8 @@ public class BackendTransaction implements LoggableTransaction {
 
     private final Map<String, IndexTransaction> indexTx;
 
+    private final BackendCosts costs;
+
     private boolean cacheEnabled = true;
 
     public BackendTransaction(CacheTransaction storeTx, BaseTransactionConfig txConfig, StoreFeatures features,
@@ -90,6 +99,14 @@ public class BackendTransaction implements LoggableTransaction {
         this.maxReadTime = maxReadTime;
         this.indexTx = indexTx;
         this.threadPool = threadPool;
+        this.costs = storeTx != null ? storeTx.getCosts() : new BackendCosts();
+    }
+
+    /**
+     * Returns the cost of the reads this transaction has issued against the storage and index backends so far.
+     */
+    public BackendCosts getCosts() {
+        return costs;
     }
 
     public ExternalCachePersistor getTxLogPersistor() {
@@ -118,18 +135,62 @@ public class BackendTransaction implements LoggableTransaction {
         storeTx.commit();
     }
 
+    /**
+     * Commits all index transactions and collects the failures by index name. When a thread pool is available,
+     * the index transactions are committed concurrently so that the commit latency is bounded by the slowest
+     * index rather than the sum of all of them.
+     *
+     * @return map from index name to the exception that caused its commit to fail
+     */
     public Map<String, Throwable> commitIndexes() {
         final Map<String, Throwable> exceptions = new HashMap<>(indexTx.size());
+        if (threadPool == null || indexTx.size() < MIN_TASKS_TO_PARALLELIZE) {
+            for (Map.Entry<String, IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+                try {
+                    indexTransactionEntry.getValue().commit();
+                } catch (Throwable e) {
+                    exceptions.put(indexTransactionEntry.getKey(), e);
+                }
+            }
+            return exceptions;
+        }
+        final Map<String, CompletableFuture<Void>> commits = new HashMap<>(indexTx.size());
         for (Map.Entry<String, IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+            commits.put(indexTransactionEntry.getKey(), commitAsync(indexTransactionEntry.getValue()));
+        }
+        boolean interrupted = false;
+        for (Map.Entry<String, CompletableFuture<Void>> commit : commits.entrySet()) {
             try {
-                indexTransactionEntry.getValue().commit();
-            } catch (Throwable e) {
-                exceptions.put(indexTransactionEntry.getKey(), e);
+                commit.getValue().get();
+            } catch (ExecutionException e) {
+                exceptions.put(commit.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                interrupted = true;
+                exceptions.put(commit.getKey(), e);
             }
         }
+        if (interrupted) Thread.currentThread().interrupt();
         return exceptions;
     }
 
+    private CompletableFuture<Void> commitAsync(IndexTransaction itx) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final Runnable commit = () -> {
+            try {
+                itx.commit();
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        try {
+            threadPool.execute(commit);
+        } catch (RejectedExecutionException e) {
+            commit.run();
+        }
+        return result;
+    }
+
     @Override
     public void commit() throws BackendException {
         storeTx.commit();
@@ -201,7 +262,7 @@ public class BackendTransaction implements LoggableTransaction {
      */
 
     public EntryList edgeStoreQuery(KeySliceQuery query) {
-        return executeRead(new Callable<EntryList>() {
+        final EntryList result = executeRead(new Callable<EntryList>() {
             @Override
             public EntryList call() throws Exception {
                 return cacheEnabled ? edgeStore.getSlice(query, storeTx) : edgeStore.getSliceNoCache(query, storeTx);
@@ -212,11 +273,35 @@ public class BackendTransaction implements LoggableTransaction {
                 return "EdgeStoreQuery";
             }
         });
+        costs.addEdgeStoreSlice(result);
+        return result;
+    }
+
+    /**
+     * Asynchronous variant of {@link #edgeStoreQuery(KeySliceQuery)}, which does not block a thread while the read is
+     * in flight if the storage backend supports non-blocking reads. Reads which fail temporarily are retried within
+     * the same maximum read time as blocking reads. The returned future fails with a {@link JanusGraphException}.
+     */
+    public CompletableFuture<EntryList> edgeStoreQueryAsync(KeySliceQuery query) {
+        return executeReadAsync(new Supplier<CompletableFuture<EntryList>>() {
+            @Override
+            public CompletableFuture<EntryList> get() {
+                return cacheEnabled ? edgeStore.getSliceAsync(query, storeTx) : edgeStore.getSliceNoCacheAsync(query, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "EdgeStoreQuery";
+            }
+        }).thenApply(result -> {
+            costs.addEdgeStoreSlice(result);
+            return result;
+        });
     }
 
     public Map<StaticBuffer, EntryList> edgeStoreMultiQuery(List<StaticBuffer> keys, SliceQuery query) {
         if (storeFeatures.hasMultiQuery()) {
-            return executeRead(new Callable<Map<StaticBuffer, EntryList>>() {
+            final Map<StaticBuffer, EntryList> results = executeRead(new Callable<Map<StaticBuffer, EntryList>>() {
                 @Override
                 public Map<StaticBuffer, EntryList> call() throws Exception {
                     return cacheEnabled ? edgeStore.getSlice(keys, query, storeTx) : edgeStore.getSliceNoCache(keys, query, storeTx);
@@ -227,45 +312,58 @@ public class BackendTransaction implements LoggableTransaction {
                     return "MultiEdgeStoreQuery";
                 }
             });
+            costs.addEdgeStoreSlices(results);
+            return results;
         } else {
-            Map<StaticBuffer, EntryList> results = new HashMap<>(keys.size());
-            if (threadPool == null || keys.size() < MIN_TASKS_TO_PARALLELIZE) {
-                for (StaticBuffer key : keys) {
-                    results.put(key, edgeStoreQuery(new KeySliceQuery(key, query)));
-                }
-            } else {
-                CountDownLatch doneSignal = new CountDownLatch(keys.size());
-                AtomicInteger failureCount = new AtomicInteger(0);
-                EntryList[] resultArray = new EntryList[keys.size()];
-                for (int i = 0; i < keys.size(); i++) {
-                    threadPool.execute(new SliceQueryRunner(new KeySliceQuery(keys.get(i), query), doneSignal, failureCount, resultArray, i));
-                }
-                try {
-                    doneSignal.await();
-                } catch (InterruptedException e) {
-                    throw new JanusGraphException("Interrupted while waiting for multi-query to complete", e);
-                }
-                if (failureCount.get() > 0) {
-                    throw new JanusGraphException("Could not successfully complete multi-query. " + failureCount.get() + " individual queries failed.");
-                }
-                for (int i = 0; i < keys.size(); i++) {
-                    results.put(keys.get(i), resultArray[i]);
-                }
+            return executeMultiQuery(keys, query, this::edgeStoreQuery);
+        }
+    }
+
+    /**
+     * Fallback for storage backends without multi-query support: runs one query per key, in parallel on the backend
+     * thread pool if there is one.
+     */
+    private Map<StaticBuffer, EntryList> executeMultiQuery(List<StaticBuffer> keys, SliceQuery query,
+                                                           Function<KeySliceQuery, EntryList> singleQuery) {
+        Map<StaticBuffer, EntryList> results = new HashMap<>(keys.size());
+        if (threadPool == null || keys.size() < MIN_TASKS_TO_PARALLELIZE) {
+            for (StaticBuffer key : keys) {
+                results.put(key, singleQuery.apply(new KeySliceQuery(key, query)));
+            }
+        } else {
+            CountDownLatch doneSignal = new CountDownLatch(keys.size());
+            AtomicInteger failureCount = new AtomicInteger(0);
+            EntryList[] resultArray = new EntryList[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                threadPool.execute(new SliceQueryRunner(new KeySliceQuery(keys.get(i), query), singleQuery, doneSignal, failureCount, resultArray, i));
+            }
+            try {
+                doneSignal.await();
+            } catch (InterruptedException e) {
+                throw new JanusGraphException("Interrupted while waiting for multi-query to complete", e);
+            }
+            if (failureCount.get() > 0) {
+                throw new JanusGraphException("Could not successfully complete multi-query. " + failureCount.get() + " individual queries failed.");
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                results.put(keys.get(i), resultArray[i]);
             }
-            return results;
         }
+        return results;
     }
 
-    private class SliceQueryRunner implements Runnable {
+    private static class SliceQueryRunner implements Runnable {
         final KeySliceQuery kq;
+        final Function<KeySliceQuery, EntryList> query;
         final CountDownLatch doneSignal;
         final AtomicInteger failureCount;
         final Object[] resultArray;
         final int resultPosition;
 
-        private SliceQueryRunner(KeySliceQuery kq, CountDownLatch doneSignal, AtomicInteger failureCount,
-                                 Object[] resultArray, int resultPosition) {
+        private SliceQueryRunner(KeySliceQuery kq, Function<KeySliceQuery, EntryList> query, CountDownLatch doneSignal,
+                                 AtomicInteger failureCount, Object[] resultArray, int resultPosition) {
             this.kq = kq;
+            this.query = query;
             this.doneSignal = doneSignal;
             this.failureCount = failureCount;
             this.resultArray = resultArray;
@@ -276,7 +374,7 @@ public class BackendTransaction implements LoggableTransaction {
         public void run() {
             try {
                 List<Entry> result;
-                result = edgeStoreQuery(kq);
+                result = query.apply(kq);
                 resultArray[resultPosition] = result;
             } catch (Exception e) {
                 failureCount.incrementAndGet();
@@ -324,7 +422,7 @@ public class BackendTransaction implements LoggableTransaction {
     }
 
     public EntryList indexQuery(KeySliceQuery query) {
-        return executeRead(new Callable<EntryList>() {
+        final EntryList result = executeRead(new Callable<EntryList>() {
             @Override
             public EntryList call() throws Exception {
                 return cacheEnabled ? indexStore.getSlice(query, storeTx) : indexStore.getSliceNoCache(query, storeTx);
@@ -335,12 +433,59 @@ public class BackendTransaction implements LoggableTransaction {
                 return "VertexIndexQuery";
             }
         });
+        costs.addIndexStoreSlice(result);
+        return result;
+
+    }
+
+    /**
+     * Asynchronous variant of {@link #indexQuery(KeySliceQuery)}, see {@link #edgeStoreQueryAsync(KeySliceQuery)}.
+     */
+    public CompletableFuture<EntryList> indexQueryAsync(KeySliceQuery query) {
+        return executeReadAsync(new Supplier<CompletableFuture<EntryList>>() {
+            @Override
+            public CompletableFuture<EntryList> get() {
+                return cacheEnabled ? indexStore.getSliceAsync(query, storeTx) : indexStore.getSliceNoCacheAsync(query, storeTx);
+            }
 
+            @Override
+            public String toString() {
+                return "VertexIndexQuery";
+            }
+        }).thenApply(result -> {
+            costs.addIndexStoreSlice(result);
+            return result;
+        });
+    }
+
+    /**
+     * Retrieves the given slice of the index store for all keys, as a single multi-key query if the storage backend
+     * supports it or as individual queries otherwise.
+     */
+    public Map<StaticBuffer, EntryList> indexMultiQuery(List<StaticBuffer> keys, SliceQuery query) {
+        if (storeFeatures.hasMultiQuery()) {
+            final Map<StaticBuffer, EntryList> results = executeRead(new Callable<Map<StaticBuffer, EntryList>>() {
+                @Override
+                public Map<StaticBuffer, EntryList> call() throws Exception {
+                    return cacheEnabled ? indexStore.getSlice(keys, query, storeTx) : indexStore.getSliceNoCache(keys, query, storeTx);
+                }
+
+                @Override
+                public String toString() {
+                    return "MultiVertexIndexQuery";
+                }
+            });
+            costs.addIndexStoreSlices(results);
+            return results;
+        } else {
+            return executeMultiQuery(keys, query, this::indexQuery);
+        }
     }
 
 
     public Stream<String> indexQuery(String index, IndexQuery query) {
         IndexTransaction indexTx = getIndexTransaction(index);
+        costs.addMixedIndexCall();
         return executeRead(new Callable<Stream<String>>() {
             @Override
             public Stream<String> call() throws Exception {
@@ -356,6 +501,7 @@ public class BackendTransaction implements LoggableTransaction {
 
     public Stream<RawQuery.Result<String>> rawQuery(String index, RawQuery query) {
         IndexTransaction indexTx = getIndexTransaction(index);
+        costs.addMixedIndexCall();
         return executeRead(new Callable<Stream<RawQuery.Result<String>>>() {
             @Override
             public Stream<RawQuery.Result<String>> call() throws Exception {
@@ -391,11 +537,29 @@ public class BackendTransaction implements LoggableTransaction {
 
     public Long totals(String index, RawQuery query) {
         IndexTransaction indexTx = getIndexTransaction(index);
+        costs.addMixedIndexCall();
         return executeRead(new TotalsCallable(query, indexTx));
     }
 
+    public Long totals(String index, IndexQuery query) {
+        IndexTransaction indexTx = getIndexTransaction(index);
+        costs.addMixedIndexCall();
+        return executeRead(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                return indexTx.totals(query);
+            }
+
+            @Override
+            public String toString() {
+                return "Totals";
+            }
+        });
+    }
+
 
     private <V> V executeRead(Callable<V> exe) throws JanusGraphException {
+        final long start = System.nanoTime();
         try {
             return BackendOperation.execute(exe, maxReadTime);
         } catch (JanusGraphException e) {
@@ -403,7 +567,21 @@ public class BackendTransaction implements LoggableTransaction {
             // TODO: Refactor to allow direct propagation of underlying interrupt exception
             if (Thread.interrupted()) throw new TraversalInterruptedException();
             throw e;
+        } finally {
+            costs.addBackendTime(System.nanoTime() - start);
         }
     }
 
+    private <V> CompletableFuture<V> executeReadAsync(Supplier<CompletableFuture<V>> exe) {
+        final long start = System.nanoTime();
+        return BackendOperation.executeAsync(exe, maxReadTime).handle((result, e) -> {
+            costs.addBackendTime(System.nanoTime() - start);
+            if (e != null) {
+                final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                throw new JanusGraphException("Could not execute operation due to backend exception", cause);
+            }
+            return result;
+        });
+    }
+
 }
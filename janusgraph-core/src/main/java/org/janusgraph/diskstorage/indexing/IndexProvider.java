@@ -120,6 +120,23 @@ public interface IndexProvider extends IndexInformation {
      */
     Long totals(RawQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException;
 
+    /**
+     * Counts the documents matching the given query. The limit and order of the query are ignored.
+     * <p>
+     * The default implementation retrieves and counts all matching document ids. Implementations should override this
+     * with a native count where the index supports it.
+     *
+     * @param query Query to execute
+     * @param information Information on the keys used in the query accessible through {@link KeyInformation.IndexRetriever}.
+     * @param tx Enclosing transaction
+     * @return Long total hits for query
+     * @throws org.janusgraph.diskstorage.BackendException
+     * @see IndexQuery
+     */
+    default Long totals(IndexQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
+        return query(new IndexQuery(query.getStore(), query.getCondition()), information, tx).count();
+    }
+
     /**
      * Returns a transaction handle for a new index transaction.
      *
@@ -123,6 +123,10 @@ public class IndexTransaction implements BaseTransaction, LoggableTransaction {
         return index.totals(query, keyInformation, indexTx);
     }
 
+    public Long totals(IndexQuery query) throws BackendException {
+        return index.totals(query, keyInformation, indexTx);
+    }
+
     public void restore(Map<String, Map<String, List<IndexEntry>>> documents) throws BackendException {
         index.restore(documents, keyInformation, indexTx);
     }
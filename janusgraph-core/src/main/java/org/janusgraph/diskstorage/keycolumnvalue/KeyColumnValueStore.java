@@ -22,6 +22,7 @@ import org.janusgraph.diskstorage.StaticBuffer;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to a data store that has a BigTable like representation of its data. In other words, the data store is comprised of a set of rows
@@ -50,6 +51,28 @@ public interface KeyColumnValueStore {
      */
     EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException;
 
+    /**
+     * Asynchronous variant of {@link #getSlice(KeySliceQuery, StoreTransaction)}. Stores whose backend supports
+     * non-blocking reads override this method so that no thread is blocked while the read is in flight; failures
+     * are reported through the returned future and never thrown by this method.
+     * <p>
+     * The default implementation executes {@link #getSlice(KeySliceQuery, StoreTransaction)} in the calling thread
+     * and returns a completed future.
+     *
+     * @param query Query to get results for
+     * @param txh   Transaction
+     * @return Future of the list of entries up to a maximum of "limit" entries
+     */
+    default CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        final CompletableFuture<EntryList> result = new CompletableFuture<>();
+        try {
+            result.complete(getSlice(query, txh));
+        } catch (BackendException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     /**
      * Retrieves the list of entries (i.e. column-value pairs) as specified by the given {@link SliceQuery} for all
      * of the given keys together.
@@ -26,6 +26,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BackendCosts;
 import org.janusgraph.diskstorage.util.BackendOperation;
 import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.graphdb.database.idhandling.VariableLong;
@@ -49,6 +50,7 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
 
     private int numMutations;
     private final Map<KCVSCache, Map<StaticBuffer, KCVEntryMutation>> mutations;
+    private final BackendCosts costs;
 
     public CacheTransaction(StoreTransaction tx, KeyColumnValueStoreManager manager, int persistChunkSize, Duration maxWriteTime, boolean batchLoading) {
         Preconditions.checkArgument(tx != null && manager != null && persistChunkSize > 0);
@@ -59,12 +61,17 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
         this.persistChunkSize = persistChunkSize;
         this.maxWriteTime = maxWriteTime;
         this.mutations = new HashMap<>(2);
+        this.costs = new BackendCosts();
     }
 
     public StoreTransaction getWrappedTransaction() {
         return tx;
     }
 
+    public BackendCosts getCosts() {
+        return costs;
+    }
+
     void mutate(KCVSCache store, StaticBuffer key, List<Entry> additions, List<Entry> deletions) throws BackendException {
         Preconditions.checkNotNull(store);
         if (additions.isEmpty() && deletions.isEmpty()) return;
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -103,6 +104,24 @@ public class ExpirationKCVSCache extends KCVSCache {
         }
     }
 
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        incActionBy(1, CacheMetricsAction.RETRIEVAL, txh);
+        if (isExpired(query)) {
+            incActionBy(1, CacheMetricsAction.MISS, txh);
+            return store.getSliceAsync(query, unwrapTx(txh));
+        }
+
+        final EntryList cached = cache.getIfPresent(query);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        incActionBy(1, CacheMetricsAction.MISS, txh);
+        //Unlike the blocking read, concurrent misses of the same query are not coalesced into a single backend read
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(result -> {
+            cache.put(query, result);
+            return result;
+        });
+    }
+
     @Override
     public Map<StaticBuffer, EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
         final Map<StaticBuffer, EntryList> results = new HashMap<>(keys.size());
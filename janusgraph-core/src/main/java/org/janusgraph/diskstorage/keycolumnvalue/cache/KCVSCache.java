@@ -29,6 +29,7 @@ import org.janusgraph.util.stats.MetricManager;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 public abstract class KCVSCache extends KCVSProxy {
@@ -47,6 +48,9 @@ public abstract class KCVSCache extends KCVSProxy {
     }
 
     protected void incActionBy(int by, CacheMetricsAction action, StoreTransaction txh) {
+        if (txh instanceof CacheTransaction) {
+            ((CacheTransaction) txh).getCosts().addCacheAction(action, by);
+        }
         if (metricsName != null && txh.getConfiguration().hasGroupName()) {
             MetricManager.INSTANCE.getCounter(txh.getConfiguration().getGroupName(), metricsName, action.getName()).inc(by);
         }
@@ -74,6 +78,10 @@ public abstract class KCVSCache extends KCVSProxy {
         return store.getSlice(query, unwrapTx(txh));
     }
 
+    public CompletableFuture<EntryList> getSliceNoCacheAsync(KeySliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(query, unwrapTx(txh));
+    }
+
     public Map<StaticBuffer, EntryList> getSliceNoCache(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
         return store.getSlice(keys, query, unwrapTx(txh));
     }
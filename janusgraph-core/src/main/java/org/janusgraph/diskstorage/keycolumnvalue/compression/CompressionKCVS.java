@@ -0,0 +1,228 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import com.google.common.collect.Maps;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.KeyColumn;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Compresses the values of all entries written to the wrapped store with a {@link BackendCompression} and
+ * decompresses them on retrieval. Columns are left untouched so that slice queries and sort order are unaffected.
+ * Entry meta data (e.g. TTL or timestamps) is carried over in both directions.
+ *
+ * @see CompressionKCVSManager
+ */
+public class CompressionKCVS extends KCVSProxy {
+
+    private final BackendCompression compression;
+
+    public CompressionKCVS(KeyColumnValueStore store, BackendCompression compression) {
+        super(store);
+        this.compression = compression;
+    }
+
+    @Override
+    public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
+        store.mutate(key, compress(additions), deletions, unwrapTx(txh));
+    }
+
+    /**
+     * The same value can be stored in different ways, e.g. uncompressed if it was written before compression was
+     * enabled or with different compression settings. The expected value is therefore compared with the decompressed
+     * value of the column and the wrapped store is asked to lock the column with the value as it is actually stored.
+     */
+    @Override
+    public void acquireLock(StaticBuffer key, StaticBuffer column, StaticBuffer expectedValue,
+                            StoreTransaction txh) throws BackendException {
+        if (expectedValue == null) {
+            store.acquireLock(key, column, null, unwrapTx(txh));
+            return;
+        }
+        StaticBuffer storedValue = null;
+        final KeySliceQuery query = new KeySliceQuery(key, column, BufferUtil.nextBiggerBuffer(column));
+        for (Entry entry : store.getSlice(query, unwrapTx(txh))) {
+            if (entry.getColumn().equals(column)) storedValue = entry.getValue();
+        }
+        final StaticBuffer actualValue = storedValue == null ? null : compression.decompress(storedValue);
+        if (!expectedValue.equals(actualValue)) {
+            throw new PermanentLockingException("Expected value mismatch for " + new KeyColumn(key, column)
+                + ": expected=" + expectedValue + " vs actual=" + actualValue);
+        }
+        store.acquireLock(key, column, storedValue, unwrapTx(txh));
+    }
+
+    @Override
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
+        return decompress(store.getSlice(query, unwrapTx(txh)));
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(entries -> {
+            try {
+                return decompress(entries);
+            } catch (BackendException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public Map<StaticBuffer, EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
+        final Map<StaticBuffer, EntryList> results = store.getSlice(keys, query, unwrapTx(txh));
+        final Map<StaticBuffer, EntryList> decompressed = Maps.newHashMapWithExpectedSize(results.size());
+        for (Map.Entry<StaticBuffer, EntryList> result : results.entrySet()) {
+            decompressed.put(result.getKey(), decompress(result.getValue()));
+        }
+        return decompressed;
+    }
+
+    @Override
+    public KeyIterator getKeys(KeyRangeQuery keyQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(keyQuery, unwrapTx(txh)));
+    }
+
+    @Override
+    public KeyIterator getKeys(SliceQuery columnQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(columnQuery, unwrapTx(txh)));
+    }
+
+    List<Entry> compress(List<Entry> additions) {
+        if (additions.isEmpty()) return additions;
+        final List<Entry> compressed = new ArrayList<>(additions.size());
+        for (Entry entry : additions) {
+            compressed.add(StaticArrayEntry.ofStaticBuffer(entry, compressingGetter));
+        }
+        return compressed;
+    }
+
+    private EntryList decompress(EntryList entries) throws BackendException {
+        if (entries.isEmpty()) return entries;
+        try {
+            return StaticArrayEntryList.ofStaticBuffer(entries.iterator(), decompressingGetter);
+        } catch (JanusGraphException e) {
+            //Values which cannot be decompressed are reported with the backend exception of the compression
+            if (e.getCause() instanceof BackendException) throw (BackendException) e.getCause();
+            throw e;
+        }
+    }
+
+    private final StaticArrayEntry.GetColVal<Entry, StaticBuffer> compressingGetter = new ValueMappingGetter() {
+        @Override
+        public StaticBuffer getValue(Entry entry) {
+            return compression.compress(entry.getValue());
+        }
+    };
+
+    private final StaticArrayEntry.GetColVal<Entry, StaticBuffer> decompressingGetter = new ValueMappingGetter() {
+        @Override
+        public StaticBuffer getValue(Entry entry) {
+            try {
+                return compression.decompress(entry.getValue());
+            } catch (BackendException e) {
+                throw new JanusGraphException("Could not decompress the value of column " + entry.getColumn(), e);
+            }
+        }
+    };
+
+    private abstract static class ValueMappingGetter implements StaticArrayEntry.GetColVal<Entry, StaticBuffer> {
+
+        @Override
+        public StaticBuffer getColumn(Entry entry) {
+            return entry.getColumn();
+        }
+
+        @Override
+        public EntryMetaData[] getMetaSchema(Entry entry) {
+            return StaticArrayEntry.ENTRY_GETTER.getMetaSchema(entry);
+        }
+
+        @Override
+        public Object getMetaData(Entry entry, EntryMetaData meta) {
+            return StaticArrayEntry.ENTRY_GETTER.getMetaData(entry, meta);
+        }
+    }
+
+    private class DecompressingKeyIterator implements KeyIterator {
+
+        private final KeyIterator iterator;
+
+        private DecompressingKeyIterator(KeyIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public RecordIterator<Entry> getEntries() {
+            final RecordIterator<Entry> entries = iterator.getEntries();
+            return new RecordIterator<Entry>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Entry next() {
+                    return StaticArrayEntry.ofStaticBuffer(entries.next(), decompressingGetter);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    entries.close();
+                }
+            };
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public StaticBuffer next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.StoreMetaData;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSManagerProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BackendCompression;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compresses the values of the given stores with a {@link BackendCompression}, see {@link CompressionKCVS}.
+ * All other stores (logs, locks, ids, system properties) are passed through unchanged.
+ * <p>
+ * Mutations issued through {@link #mutateMany(Map, StoreTransaction)} are compressed as well, so that batch
+ * loading and single store mutations produce the same format.
+ */
+public class CompressionKCVSManager extends KCVSManagerProxy {
+
+    private final BackendCompression compression;
+    private final Set<String> compressedStoreNames;
+    private final Map<String, CompressionKCVS> compressedStores = new ConcurrentHashMap<>();
+
+    public CompressionKCVSManager(KeyColumnValueStoreManager manager, BackendCompression compression, String... storeNames) {
+        super(manager);
+        Preconditions.checkArgument(storeNames.length > 0, "Need to specify at least one store to compress");
+        this.compression = Preconditions.checkNotNull(compression);
+        this.compressedStoreNames = ImmutableSet.copyOf(storeNames);
+    }
+
+    @Override
+    public KeyColumnValueStore openDatabase(String name) throws BackendException {
+        return openDatabase(name, StoreMetaData.EMPTY);
+    }
+
+    @Override
+    public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+        if (!compressedStoreNames.contains(name)) return manager.openDatabase(name, metaData);
+        CompressionKCVS store = compressedStores.get(name);
+        if (store == null) {
+            store = new CompressionKCVS(manager.openDatabase(name, metaData), compression);
+            final CompressionKCVS existing = compressedStores.putIfAbsent(name, store);
+            if (existing != null) store = existing;
+        }
+        return store;
+    }
+
+    @Override
+    public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+        final Map<String, Map<StaticBuffer, KCVMutation>> compressed = Maps.newHashMapWithExpectedSize(mutations.size());
+        for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+            if (!compressedStoreNames.contains(storeMutations.getKey())) {
+                compressed.put(storeMutations.getKey(), storeMutations.getValue());
+                continue;
+            }
+            final CompressionKCVS store = (CompressionKCVS) openDatabase(storeMutations.getKey());
+            final Map<StaticBuffer, KCVMutation> keyMutations = Maps.newHashMapWithExpectedSize(storeMutations.getValue().size());
+            for (Map.Entry<StaticBuffer, KCVMutation> keyMutation : storeMutations.getValue().entrySet()) {
+                final KCVMutation mutation = keyMutation.getValue();
+                keyMutations.put(keyMutation.getKey(), new KCVMutation(store.compress(mutation.getAdditions()), mutation.getDeletions()));
+            }
+            compressed.put(storeMutations.getKey(), keyMutations);
+        }
+        manager.mutateMany(compressed, txh);
+    }
+}
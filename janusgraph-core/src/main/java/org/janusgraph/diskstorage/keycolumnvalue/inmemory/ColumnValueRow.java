@@ -0,0 +1,42 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.inmemory;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+
+import java.util.List;
+
+/**
+ * A row in the in-memory implementation {@link InMemoryKeyColumnValueStore} which is comprised of column-value pairs.
+ */
+interface ColumnValueRow {
+
+    boolean isEmpty(StoreTransaction txh);
+
+    EntryList getSlice(KeySliceQuery query, StoreTransaction txh);
+
+    void mutate(List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh);
+
+    /**
+     * Returns the current column-value array of this row, e.g. to write it to a snapshot. The returned data
+     * must not be modified.
+     */
+    ColumnValueStore.Data getData();
+
+}
@@ -37,17 +37,22 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.ST
  * column-value pairs. This data is held in a sorted array for space and retrieval efficiency.
  */
 
-class ColumnValueStore {
+class ColumnValueStore implements ColumnValueRow {
 
     private static final double SIZE_THRESHOLD = 0.66;
 
-    private Data data;
+    private volatile Data data;
 
     ColumnValueStore() {
-        data = new Data(new Entry[0], 0);
+        this(new Data(new Entry[0], 0));
     }
 
-    boolean isEmpty(StoreTransaction txh) {
+    ColumnValueStore(Data data) {
+        this.data = data;
+    }
+
+    @Override
+    public boolean isEmpty(StoreTransaction txh) {
         Lock lock = getLock(txh);
         lock.lock();
         try {
@@ -57,30 +62,39 @@ class ColumnValueStore {
         }
     }
 
-    EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
+    @Override
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
         Lock lock = getLock(txh);
         lock.lock();
         try {
-            Data datacp = data;
-            int start = datacp.getIndex(query.getSliceStart());
-            if (start < 0) start = (-start - 1);
-            int end = datacp.getIndex(query.getSliceEnd());
-            if (end < 0) end = (-end - 1);
-            if (start < end) {
-                MemoryEntryList result = new MemoryEntryList(end - start);
-                for (int i = start; i < end; i++) {
-                    if (query.hasLimit() && result.size() >= query.getLimit()) break;
-                    result.add(datacp.get(i));
-                }
-                return result;
-            } else {
-                return EntryList.EMPTY_LIST;
-            }
+            return getSlice(data, query);
         } finally {
             lock.unlock();
         }
     }
 
+    @Override
+    public Data getData() {
+        return data;
+    }
+
+    static EntryList getSlice(Data datacp, KeySliceQuery query) {
+        int start = datacp.getIndex(query.getSliceStart());
+        if (start < 0) start = (-start - 1);
+        int end = datacp.getIndex(query.getSliceEnd());
+        if (end < 0) end = (-end - 1);
+        if (start < end) {
+            MemoryEntryList result = new MemoryEntryList(end - start);
+            for (int i = start; i < end; i++) {
+                if (query.hasLimit() && result.size() >= query.getLimit()) break;
+                result.add(datacp.get(i));
+            }
+            return result;
+        } else {
+            return EntryList.EMPTY_LIST;
+        }
+    }
+
     private static class MemoryEntryList extends ArrayList<Entry> implements EntryList {
 
         MemoryEntryList(int size) {
@@ -103,7 +117,8 @@ class ColumnValueStore {
     }
 
 
-    synchronized void mutate(List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) {
+    @Override
+    public synchronized void mutate(List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) {
         //Prepare data
         Entry[] add;
         if (!additions.isEmpty()) {
@@ -200,7 +215,7 @@ class ColumnValueStore {
         } else return NoLock.INSTANCE;
     }
 
-    private static class Data {
+    static class Data {
         final Entry[] array;
         final int size;
 
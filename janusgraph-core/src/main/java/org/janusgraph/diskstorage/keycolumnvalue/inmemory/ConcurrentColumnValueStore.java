@@ -0,0 +1,172 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.inmemory;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A row in the in-memory implementation {@link InMemoryKeyColumnValueStore} which is updated without locks. Like
+ * {@link ColumnValueStore}, the column-value pairs are held in a sorted array, which is never modified once published.
+ * Readers therefore see a consistent snapshot of the row without any synchronization.
+ * <p>
+ * Writers enqueue their mutation and one of them, the combiner, merges all enqueued mutations into a single copy of the
+ * array, so that concurrent writes to a popular row copy the array once per batch rather than once per mutation.
+ * A mutation is visible to readers when {@link #mutate(List, List, StoreTransaction)} returns.
+ */
+class ConcurrentColumnValueStore implements ColumnValueRow {
+
+    private static final double SIZE_THRESHOLD = 0.66;
+
+    private static final ColumnValueStore.Data EMPTY = new ColumnValueStore.Data(new Entry[0], 0);
+
+    private volatile ColumnValueStore.Data data;
+
+    private final Queue<Mutation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean combining = new AtomicBoolean(false);
+
+    ConcurrentColumnValueStore() {
+        this(EMPTY);
+    }
+
+    ConcurrentColumnValueStore(ColumnValueStore.Data data) {
+        this.data = data;
+    }
+
+    @Override
+    public boolean isEmpty(StoreTransaction txh) {
+        return data.isEmpty();
+    }
+
+    @Override
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
+        return ColumnValueStore.getSlice(data, query);
+    }
+
+    @Override
+    public ColumnValueStore.Data getData() {
+        return data;
+    }
+
+    @Override
+    public void mutate(List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) {
+        if (additions.isEmpty() && deletions.isEmpty()) return;
+        final Mutation mutation = new Mutation(additions, deletions);
+        pending.add(mutation);
+        while (!mutation.applied) {
+            if (combining.compareAndSet(false, true)) {
+                try {
+                    applyPending();
+                } finally {
+                    combining.set(false);
+                }
+            } else {
+                //Another writer is merging, which likely includes this mutation
+                Thread.yield();
+            }
+        }
+        if (mutation.failure != null) throw mutation.failure;
+    }
+
+    /**
+     * Merges all enqueued mutations into a new copy of the row. Must only be called by the combiner.
+     */
+    private void applyPending() {
+        final List<Mutation> batch = new ArrayList<>();
+        Mutation mutation;
+        while ((mutation = pending.poll()) != null) {
+            batch.add(mutation);
+        }
+        if (batch.isEmpty()) return;
+
+        RuntimeException failure = null;
+        try {
+            data = merge(data, batch);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (Mutation m : batch) {
+            m.failure = failure;
+            m.applied = true;
+        }
+    }
+
+    private static ColumnValueStore.Data merge(ColumnValueStore.Data old, List<Mutation> batch) {
+        //Later mutations take precedence, and additions take precedence over deletions of the same mutation.
+        //A null value marks a deleted column.
+        final TreeMap<Entry, Entry> changes = new TreeMap<>();
+        int numAdditions = 0;
+        for (Mutation m : batch) {
+            for (StaticBuffer deletion : m.deletions) {
+                changes.put(StaticArrayEntry.of(deletion), null);
+            }
+            for (Entry addition : m.additions) {
+                changes.put(addition, addition);
+            }
+            numAdditions += m.additions.size();
+        }
+
+        Entry[] newData = new Entry[old.size + Math.min(numAdditions, changes.size())];
+        final Iterator<Map.Entry<Entry, Entry>> changeIterator = changes.entrySet().iterator();
+        Map.Entry<Entry, Entry> change = changeIterator.next();
+        int i = 0, indexOld = 0;
+        while (indexOld < old.size || change != null) {
+            final int compare;
+            if (change == null) compare = -1;
+            else if (indexOld >= old.size) compare = 1;
+            else compare = old.get(indexOld).compareTo(change.getKey());
+
+            if (compare < 0) {
+                newData[i++] = old.get(indexOld++);
+            } else {
+                if (change.getValue() != null) newData[i++] = change.getValue();
+                if (compare == 0) indexOld++;
+                change = changeIterator.hasNext() ? changeIterator.next() : null;
+            }
+        }
+        if (i * 1.0 / newData.length < SIZE_THRESHOLD) {
+            //shrink array to free space
+            newData = Arrays.copyOf(newData, i);
+        }
+        return new ColumnValueStore.Data(newData, i);
+    }
+
+    private static class Mutation {
+
+        private final List<Entry> additions;
+        private final List<StaticBuffer> deletions;
+        private RuntimeException failure;
+        private volatile boolean applied = false;
+
+        private Mutation(List<Entry> additions, List<StaticBuffer> deletions) {
+            this.additions = additions;
+            this.deletions = deletions;
+        }
+    }
+}
@@ -36,23 +36,42 @@ import java.util.concurrent.ConcurrentSkipListMap;
  * An in-memory implementation of {@link KeyColumnValueStore}.
  * This implementation is thread-safe. All data is held in memory, which means that the capacity of this store is
  * determined by the available heap space. No data is persisted and all data lost when the jvm terminates or store closed.
+ * <p>
+ * Rows are either {@link ColumnValueStore}s, which lock while mutated, or {@link ConcurrentColumnValueStore}s, which
+ * batch concurrent mutations without locks.
  *
  */
 
 public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
 
     private final String name;
-    private final ConcurrentNavigableMap<StaticBuffer, ColumnValueStore> kcv;
+    private final boolean concurrentRows;
+    private final boolean retainRowsOnClose;
+    private final ConcurrentNavigableMap<StaticBuffer, ColumnValueRow> kcv;
 
     public InMemoryKeyColumnValueStore(String name) {
+        this(name, false);
+    }
+
+    public InMemoryKeyColumnValueStore(String name, boolean concurrentRows) {
+        this(name, concurrentRows, false);
+    }
+
+    /**
+     * @param retainRowsOnClose whether {@link #close()} keeps the rows, so that the store manager can still write them
+     *                          to a snapshot after the stores have been closed
+     */
+    InMemoryKeyColumnValueStore(String name, boolean concurrentRows, boolean retainRowsOnClose) {
         Preconditions.checkArgument(StringUtils.isNotBlank(name));
         this.name = name;
+        this.concurrentRows = concurrentRows;
+        this.retainRowsOnClose = retainRowsOnClose;
         this.kcv = new ConcurrentSkipListMap<>();
     }
 
     @Override
     public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
-        ColumnValueStore cvs = kcv.get(query.getKey());
+        ColumnValueRow cvs = kcv.get(query.getKey());
         if (cvs == null) return EntryList.EMPTY_LIST;
         else return cvs.getSlice(query, txh);
     }
@@ -66,9 +85,9 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
 
     @Override
     public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
-        ColumnValueStore cvs = kcv.get(key);
+        ColumnValueRow cvs = kcv.get(key);
         if (cvs == null) {
-            kcv.putIfAbsent(key, new ColumnValueStore());
+            kcv.putIfAbsent(key, concurrentRows ? new ConcurrentColumnValueStore() : new ColumnValueStore());
             cvs = kcv.get(key);
         }
         cvs.mutate(additions, deletions, txh);
@@ -98,22 +117,38 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
         kcv.clear();
     }
 
+    /**
+     * Returns all rows of this store in key order. Used to write snapshots of the store.
+     */
+    Iterable<Map.Entry<StaticBuffer, ColumnValueRow>> getRows() {
+        return kcv.entrySet();
+    }
+
+    /**
+     * Replaces the row with the given key by the given entries, which must be sorted and free of duplicate columns.
+     * Used to restore snapshots of the store.
+     */
+    void restoreRow(StaticBuffer key, Entry[] entries) {
+        ColumnValueStore.Data data = new ColumnValueStore.Data(entries, entries.length);
+        kcv.put(key, concurrentRows ? new ConcurrentColumnValueStore(data) : new ColumnValueStore(data));
+    }
+
     @Override
     public void close() throws BackendException {
-        kcv.clear();
+        if (!retainRowsOnClose) kcv.clear();
     }
 
 
     private static class RowIterator implements KeyIterator {
-        private final Iterator<Map.Entry<StaticBuffer, ColumnValueStore>> rows;
+        private final Iterator<Map.Entry<StaticBuffer, ColumnValueRow>> rows;
         private final SliceQuery columnSlice;
         private final StoreTransaction transaction;
 
-        private Map.Entry<StaticBuffer, ColumnValueStore> currentRow;
-        private Map.Entry<StaticBuffer, ColumnValueStore> nextRow;
+        private Map.Entry<StaticBuffer, ColumnValueRow> currentRow;
+        private Map.Entry<StaticBuffer, ColumnValueRow> nextRow;
         private boolean isClosed;
 
-        public RowIterator(Iterator<Map.Entry<StaticBuffer, ColumnValueStore>> rows,
+        public RowIterator(Iterator<Map.Entry<StaticBuffer, ColumnValueRow>> rows,
                            @Nullable SliceQuery columns,
                            final StoreTransaction transaction) {
             this.rows = Iterators.filter(rows, entry -> entry != null && !entry.getValue().isEmpty(transaction));
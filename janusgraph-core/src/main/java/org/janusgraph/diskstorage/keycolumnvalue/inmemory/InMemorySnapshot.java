@@ -0,0 +1,318 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.inmemory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary snapshot format of the stores of an {@link InMemoryStoreManager}.
+ * <p>
+ * A snapshot starts with a header holding the names of all stores, followed by a sequence of blocks. Each block holds
+ * complete, consecutive rows of a single store and starts with its own header (store index, number of rows, raw and
+ * stored length), so that blocks can be located without decoding them. Blocks are optionally compressed individually.
+ * <p>
+ * Writing streams all rows to the file sequentially. Restoring first scans the block headers and then decodes the
+ * blocks in parallel from memory-mapped regions of the file. Each row is copied into a single byte array shared by all
+ * of its entries.
+ * <p>
+ * Entry meta data, such as TTLs and timestamps, is not part of the snapshot.
+ */
+final class InMemorySnapshot {
+
+    private static final int MAGIC = 0x4A47534E;
+    private static final int VERSION = 1;
+
+    private static final int END_OF_SNAPSHOT = -1;
+    private static final int BLOCK_HEADER_LENGTH = 16;
+
+    static final int BLOCK_SIZE = 1 << 20;
+
+    private InMemorySnapshot() {
+    }
+
+    /**
+     * Writes all rows of the given stores to the given file. The snapshot is first written to a temporary file, which
+     * then atomically replaces the given file, so that an existing snapshot is never left half-written.
+     */
+    static void write(Collection<InMemoryKeyColumnValueStore> stores, Path file, boolean compress) throws IOException {
+        final List<InMemoryKeyColumnValueStore> storeList = new ArrayList<>(stores);
+        final Path parent = file.toAbsolutePath().getParent();
+        final Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                 BlockWriter blocks = new BlockWriter(out, compress)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeBoolean(compress);
+                out.writeInt(storeList.size());
+                for (InMemoryKeyColumnValueStore store : storeList) {
+                    out.writeUTF(store.getName());
+                }
+                for (int i = 0; i < storeList.size(); i++) {
+                    for (Map.Entry<StaticBuffer, ColumnValueRow> row : storeList.get(i).getRows()) {
+                        ColumnValueStore.Data data = row.getValue().getData();
+                        if (!data.isEmpty()) blocks.add(i, row.getKey(), data);
+                    }
+                    blocks.flush();
+                }
+                out.writeInt(END_OF_SNAPSHOT);
+                out.flush();
+                //The snapshot must be durable before it replaces the previous one
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Restores all rows of the snapshot in the given file into the stores returned by the given function, using the
+     * given number of threads. Rows which already exist in a store are replaced.
+     */
+    static void read(Path file, Function<String, InMemoryKeyColumnValueStore> openStore, int threads) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+            if (in.readInt() != MAGIC) throw new IOException("Not a snapshot of an in-memory store: " + file);
+            final int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            final boolean compressed = in.readBoolean();
+            final InMemoryKeyColumnValueStore[] stores = new InMemoryKeyColumnValueStore[in.readInt()];
+            for (int i = 0; i < stores.length; i++) {
+                stores[i] = openStore.apply(in.readUTF());
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("InMemorySnapshotRestore[%d]")
+                .build());
+            try {
+                final List<Future<?>> futures = new ArrayList<>();
+                final ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_LENGTH);
+                long position = channel.position();
+                while (true) {
+                    header.clear();
+                    header.limit(4);
+                    readFully(channel, header, position);
+                    final int storeIndex = header.getInt(0);
+                    if (storeIndex == END_OF_SNAPSHOT) break;
+                    if (storeIndex < 0 || storeIndex >= stores.length) {
+                        throw new IOException("Corrupt snapshot, invalid store index " + storeIndex + ": " + file);
+                    }
+                    header.limit(BLOCK_HEADER_LENGTH);
+                    readFully(channel, header, position + 4);
+                    final InMemoryKeyColumnValueStore store = stores[storeIndex];
+                    final int numRows = header.getInt(4);
+                    final int rawLength = header.getInt(8);
+                    final int storedLength = header.getInt(12);
+                    final long offset = position + BLOCK_HEADER_LENGTH;
+                    futures.add(executor.submit(() -> {
+                        ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset, storedLength);
+                        if (compressed) block = ByteBuffer.wrap(inflate(block, rawLength));
+                        readRows(block, numRows, store);
+                        return null;
+                    }));
+                    position = offset + storedLength;
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while restoring snapshot: " + file, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IOException("Could not restore snapshot: " + file, e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of snapshot");
+            position += read;
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer block, int rawLength) throws IOException {
+        final byte[] input = new byte[block.remaining()];
+        block.get(input);
+        final byte[] raw = new byte[rawLength];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                final int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) break;
+                length += inflated;
+            }
+            if (length != rawLength) throw new IOException("Corrupt snapshot, truncated compressed block");
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt snapshot, invalid compressed block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readRows(ByteBuffer block, int numRows, InMemoryKeyColumnValueStore store) {
+        for (int r = 0; r < numRows; r++) {
+            final byte[] key = new byte[block.getInt()];
+            block.get(key);
+            final Entry[] entries = new Entry[block.getInt()];
+            final byte[] rowData = new byte[block.getInt()];
+            final int[] entryHeaders = new int[entries.length * 2];
+            for (int i = 0; i < entryHeaders.length; i++) {
+                entryHeaders[i] = block.getInt();
+            }
+            block.get(rowData);
+            int offset = 0;
+            for (int i = 0; i < entries.length; i++) {
+                final int length = entryHeaders[2 * i];
+                entries[i] = new StaticArrayEntry(rowData, offset, offset + length, entryHeaders[2 * i + 1]);
+                offset += length;
+            }
+            store.restoreRow(new StaticArrayBuffer(key), entries);
+        }
+    }
+
+    /**
+     * Buffers complete rows of a single store until the buffer reaches {@link #BLOCK_SIZE} and then writes them as one
+     * block, compressing it if requested.
+     */
+    private static class BlockWriter implements Closeable {
+
+        private final DataOutputStream out;
+        private final Deflater deflater;
+
+        private final BlockBuffer raw = new BlockBuffer();
+        private final DataOutputStream rows = new DataOutputStream(raw);
+        private final BlockBuffer compressed;
+        private final byte[] deflateBuffer;
+
+        private int storeIndex;
+        private int numRows;
+
+        BlockWriter(DataOutputStream out, boolean compress) {
+            this.out = out;
+            this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            this.compressed = compress ? new BlockBuffer() : null;
+            this.deflateBuffer = compress ? new byte[1 << 16] : null;
+        }
+
+        void add(int storeIndex, StaticBuffer key, ColumnValueStore.Data data) throws IOException {
+            if (numRows > 0 && (storeIndex != this.storeIndex || raw.size() >= BLOCK_SIZE)) flush();
+            this.storeIndex = storeIndex;
+
+            rows.writeInt(key.length());
+            write(key);
+            rows.writeInt(data.size);
+            int rowBytes = 0;
+            for (int i = 0; i < data.size; i++) {
+                rowBytes += data.get(i).length();
+            }
+            rows.writeInt(rowBytes);
+            for (int i = 0; i < data.size; i++) {
+                final Entry entry = data.get(i);
+                rows.writeInt(entry.length());
+                rows.writeInt(entry.getValuePosition());
+            }
+            for (int i = 0; i < data.size; i++) {
+                write(data.get(i));
+            }
+            numRows++;
+        }
+
+        private void write(StaticBuffer buffer) {
+            buffer.as((array, offset, limit) -> {
+                raw.write(array, offset, limit - offset);
+                return null;
+            });
+        }
+
+        void flush() throws IOException {
+            if (numRows == 0) return;
+            BlockBuffer stored = raw;
+            if (deflater != null) {
+                deflater.reset();
+                deflater.setInput(raw.array(), 0, raw.size());
+                deflater.finish();
+                compressed.reset();
+                while (!deflater.finished()) {
+                    compressed.write(deflateBuffer, 0, deflater.deflate(deflateBuffer));
+                }
+                stored = compressed;
+            }
+            out.writeInt(storeIndex);
+            out.writeInt(numRows);
+            out.writeInt(raw.size());
+            out.writeInt(stored.size());
+            out.write(stored.array(), 0, stored.size());
+            raw.reset();
+            numRows = 0;
+        }
+
+        @Override
+        public void close() {
+            if (deflater != null) deflater.end();
+        }
+    }
+
+    private static class BlockBuffer extends ByteArrayOutputStream {
+
+        BlockBuffer() {
+            super(BLOCK_SIZE + (BLOCK_SIZE >> 2));
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
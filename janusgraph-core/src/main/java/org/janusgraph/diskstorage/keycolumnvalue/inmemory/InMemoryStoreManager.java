@@ -15,7 +15,9 @@
 package org.janusgraph.diskstorage.keycolumnvalue.inmemory;
 
 import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.StoreMetaData;
@@ -24,12 +26,20 @@ import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * In-memory backend storage engine.
+ * <p>
+ * The stores can be written to a binary snapshot with {@link #snapshot(Path, boolean)} and restored from it with
+ * {@link #restore(Path, int)}. When {@link GraphDatabaseConfiguration#INMEMORY_SNAPSHOT_FILE} is configured, an existing
+ * snapshot is restored when the store manager is opened, and optionally written again when it is closed.
  *
  */
 
@@ -39,6 +49,12 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     private final StoreFeatures features;
 
+    private final boolean concurrentRows;
+
+    private final Path snapshotFile;
+    private final boolean snapshotOnClose;
+    private final boolean snapshotCompression;
+
     public InMemoryStoreManager() {
         this(Configuration.EMPTY);
     }
@@ -46,6 +62,11 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
     public InMemoryStoreManager(Configuration configuration) {
 
         stores = new ConcurrentHashMap<>();
+        concurrentRows = configuration.get(GraphDatabaseConfiguration.INMEMORY_CONCURRENT_ROWS);
+        snapshotFile = configuration.has(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_FILE)
+            ? Paths.get(configuration.get(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_FILE)) : null;
+        snapshotOnClose = configuration.get(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_ON_CLOSE);
+        snapshotCompression = configuration.get(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_COMPRESSION);
 
         features = new StandardStoreFeatures.Builder()
             .orderedScan(true)
@@ -55,6 +76,47 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             .optimisticLocking(true)
             .keyConsistent(GraphDatabaseConfiguration.buildGraphConfiguration())
             .build();
+
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            int threads = configuration.get(GraphDatabaseConfiguration.INMEMORY_RESTORE_THREADS);
+            try {
+                restore(snapshotFile, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            } catch (BackendException e) {
+                throw new JanusGraphException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes all rows of all stores to the given file. Rows are read without blocking concurrent mutations, so a
+     * snapshot taken while the stores are being mutated is not necessarily consistent across rows.
+     *
+     * @param file the snapshot file, which is replaced atomically if it exists
+     * @param compress whether to compress the snapshot
+     */
+    public void snapshot(Path file, boolean compress) throws BackendException {
+        try {
+            InMemorySnapshot.write(stores.values(), file, compress);
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not write snapshot to " + file, e);
+        }
+    }
+
+    /**
+     * Restores all rows of the snapshot in the given file, opening stores as needed. Rows which already exist are
+     * replaced by the rows of the snapshot.
+     *
+     * @param file the snapshot file
+     * @param threads the number of threads which rebuild the rows
+     */
+    public void restore(Path file, int threads) throws BackendException {
+        Preconditions.checkArgument(threads > 0, "Invalid number of threads: %s", threads);
+        try {
+            InMemorySnapshot.read(file, name -> stores.computeIfAbsent(name,
+                this::newStore), threads);
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not restore snapshot from " + file, e);
+        }
     }
 
     @Override
@@ -64,8 +126,14 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public void close() throws BackendException {
+        // The backend closes all stores before the store manager, so their rows are retained until the snapshot is
+        // written. A closed store manager has no stores left, which must not overwrite the snapshot.
+        if (snapshotFile != null && snapshotOnClose && !stores.isEmpty()) {
+            snapshot(snapshotFile, snapshotCompression);
+        }
         for (InMemoryKeyColumnValueStore store : stores.values()) {
             store.close();
+            store.clear();
         }
         stores.clear();
     }
@@ -76,6 +144,13 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             store.clear();
         }
         stores.clear();
+        if (snapshotFile != null) {
+            try {
+                Files.deleteIfExists(snapshotFile);
+            } catch (IOException e) {
+                throw new PermanentBackendException("Could not delete snapshot " + snapshotFile, e);
+            }
+        }
     }
 
     @Override
@@ -91,13 +166,17 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
     @Override
     public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
         if (!stores.containsKey(name)) {
-            stores.putIfAbsent(name, new InMemoryKeyColumnValueStore(name));
+            stores.putIfAbsent(name, newStore(name));
         }
         KeyColumnValueStore store = stores.get(name);
         Preconditions.checkNotNull(store);
         return store;
     }
 
+    private InMemoryKeyColumnValueStore newStore(String name) {
+        return new InMemoryKeyColumnValueStore(name, concurrentRows, snapshotFile != null && snapshotOnClose);
+    }
+
     @Override
     public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
         for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMut : mutations.entrySet()) {
@@ -23,6 +23,7 @@ import org.janusgraph.diskstorage.TemporaryBackendException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 
 
@@ -103,6 +104,7 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
     private static final String M_DELETE = "delete";
     private static final String M_CALLS = "calls";
     private static final String M_EXCEPTIONS = "exceptions";
+    private static final String M_TIME = "time";
 
     /**
      * Abstract builder for this Locker implementation. See
@@ -293,6 +295,15 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
             MetricManager.INSTANCE.getCounter(tx.getConfiguration().getGroupName(), M_LOCKS, M_WRITE, M_CALLS).inc();
         }
 
+        final Timer.Context timer = startTimer(tx, M_WRITE);
+        try {
+            doWriteLock(lockID, tx);
+        } finally {
+            if (null != timer) timer.stop();
+        }
+    }
+
+    private void doWriteLock(KeyColumn lockID, StoreTransaction tx) throws TemporaryLockingException, PermanentLockingException {
         if (lockState.has(tx, lockID)) {
             log.debug("Transaction {} already wrote lock on {}", tx, lockID);
             return;
@@ -341,6 +352,8 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
             return; // no locks for this tx
         }
 
+        final Timer.Context timer = startTimer(tx, M_CHECK);
+
         // We never receive interrupts in normal operation; one can only appear
         // during Thread.sleep(), and in that case it probably means the entire
         // JanusGraph process is shutting down; for this reason, we return ASAP on an
@@ -361,6 +374,7 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
             if (!ok && null != tx.getConfiguration().getGroupName()) {
                 MetricManager.INSTANCE.getCounter(tx.getConfiguration().getGroupName(), M_LOCKS, M_CHECK, M_CALLS).inc();
             }
+            if (null != timer) timer.stop();
         }
     }
 
@@ -372,6 +386,15 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
 
         Map<KeyColumn, S> m = lockState.getLocksForTx(tx);
 
+        final Timer.Context timer = m.isEmpty() ? null : startTimer(tx, M_DELETE);
+        try {
+            doDeleteLocks(m, tx);
+        } finally {
+            if (null != timer) timer.stop();
+        }
+    }
+
+    private void doDeleteLocks(Map<KeyColumn, S> m, StoreTransaction tx) {
         final Iterator<Map.Entry<KeyColumn, S>> iterator = m.entrySet().iterator();
         while (iterator.hasNext()) {
             final Map.Entry<KeyColumn, S> entry = iterator.next();
@@ -393,6 +416,11 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
         }
     }
 
+    private Timer.Context startTimer(StoreTransaction tx, String operation) {
+        if (null == tx.getConfiguration().getGroupName()) return null;
+        return MetricManager.INSTANCE.getTimer(tx.getConfiguration().getGroupName(), M_LOCKS, operation, M_TIME).time();
+    }
+
     private boolean lockLocally(KeyColumn lockID, StoreTransaction tx) {
         return lockLocally(lockID, times.getTime().plus(lockExpire), tx);
     }
@@ -14,6 +14,7 @@
 
 package org.janusgraph.diskstorage.log.kcvs;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
@@ -49,6 +50,7 @@ import org.janusgraph.diskstorage.util.WriteByteBuffer;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.graphdb.database.serialize.DataOutput;
+import org.janusgraph.util.stats.MetricManager;
 import org.janusgraph.util.system.BackgroundThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,11 +66,15 @@ import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BASIC_METRICS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_NS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_NUM_BUCKETS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_READ_BATCH_SIZE;
@@ -76,6 +82,7 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LO
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_READ_THREADS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_SEND_BATCH_SIZE;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_SEND_DELAY;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_SYSTEM_PREFIX_DEFAULT;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TIMESTAMP_PROVIDER;
 
 /**
@@ -191,6 +198,13 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
     private static final Duration TWO_MICROSECONDS =
             Duration.of(2L, ChronoUnit.MICROS);
 
+    private static final String M_LOG = "log";
+    private static final String M_SEND = "send";
+    private static final String M_READ = "read";
+    private static final String M_CALLS = "calls";
+    private static final String M_TIME = "time";
+    private static final String M_MESSAGES = "messages";
+
     /**
      * Associated {@link LogManager}
      */
@@ -226,6 +240,24 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
      * Background thread which periodically writes out the queued up messages. TODO: consider batching messages across ALL logs
      */
     private final SendThread sendThread;
+    /**
+     * Executor shared with other logs on which the queued up messages are written and messages are read instead of
+     * this LOG's own threads, or null if this LOG uses threads of its own. See {@link KCVSLogManager#sharedExecutor}.
+     */
+    private final ScheduledExecutorService sharedExecutor;
+    /**
+     * Periodic tasks of this LOG, which are cancelled when this LOG is closed if they run on the shared executor
+     */
+    private final List<ScheduledFuture<?>> sharedTasks = new ArrayList<>();
+    /**
+     * Ensures that queued up messages are written by one thread of the shared executor at a time
+     */
+    private final Object sendLock = new Object();
+    /**
+     * Whether a send of the queued up messages has been submitted to the shared executor and has not started yet, so
+     * that producers which fill up a batch concurrently submit a single send
+     */
+    private final AtomicBoolean sendPending = new AtomicBoolean(false);
 
     private final int numReadThreads;
     private final int maxReadMsg;
@@ -263,6 +295,10 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
      * Source of timestamps since UNIX Epoch; also provides our time resolution (e.g. microseconds)
      */
     private final TimestampProvider times;
+    /**
+     * Prefix of the metrics of this LOG's backend operations, or null if metrics are disabled
+     */
+    private final String metricsPrefix;
 
     public KCVSLog(String name, KCVSLogManager manager, KeyColumnValueStore store, Configuration config) {
         Preconditions.checkArgument(manager != null && name != null && store != null && config != null);
@@ -271,6 +307,7 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         this.store = store;
 
         this.times = config.get(TIMESTAMP_PROVIDER);
+        this.metricsPrefix = config.get(BASIC_METRICS) ? METRICS_SYSTEM_PREFIX_DEFAULT : null;
         this.keyConsistentOperations = config.get(LOG_KEY_CONSISTENT);
         this.numBuckets = config.get(LOG_NUM_BUCKETS);
         Preconditions.checkArgument(numBuckets >= 1 && numBuckets <= Integer.MAX_VALUE);
@@ -285,7 +322,13 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         readLagTime = config.get(LOG_READ_LAG_TIME).plus(maxSendDelay);
         maxReadTime = config.get(LOG_MAX_READ_TIME);
 
-        if (MIN_DELIVERY_DELAY.compareTo(maxSendDelay) <= 0) { // No need to locally queue messages since they will be sent immediately
+        sharedExecutor = manager.sharedExecutor;
+        if (MIN_DELIVERY_DELAY.compareTo(maxSendDelay) <= 0 && sharedExecutor != null) {
+            outgoingMsg = new ArrayBlockingQueue<>(sendBatchSize * BATCH_SIZE_MULTIPLIER);
+            sendThread = null;
+            sharedTasks.add(sharedExecutor.scheduleWithFixedDelay(this::sendQueuedMessages,
+                maxSendDelay.toNanos(), maxSendDelay.toNanos(), TimeUnit.NANOSECONDS));
+        } else if (MIN_DELIVERY_DELAY.compareTo(maxSendDelay) <= 0) { // No need to locally queue messages since they will be sent immediately
             outgoingMsg = new ArrayBlockingQueue<>(sendBatchSize * BATCH_SIZE_MULTIPLIER);
             sendThread = new SendThread();
             sendThread.start();
@@ -317,6 +360,33 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
     public synchronized void close() throws BackendException {
         if (!isOpen) return;
         this.isOpen = false;
+        if (sharedExecutor != null) {
+            closeSharedTasks();
+        } else {
+            closeThreads();
+        }
+        writeSetting(manager.senderId, MESSAGE_COUNTER_COLUMN, numMsgCounter.get());
+        store.close();
+        manager.closedLog(this);
+    }
+
+    private void closeSharedTasks() {
+        for (ScheduledFuture<?> task : sharedTasks) {
+            task.cancel(false);
+        }
+        if (outgoingMsg != null) {
+            //Send all remaining messages
+            sendQueuedMessages();
+        }
+        if (msgPullers != null) {
+            //Pullers synchronize on themselves, so this waits for running pullers to finish
+            for (MessagePuller puller : msgPullers) {
+                puller.close();
+            }
+        }
+    }
+
+    private void closeThreads() {
         if (readExecutor != null) readExecutor.shutdown();
         if (sendThread != null) sendThread.close(CLOSE_DOWN_WAIT);
         if (readExecutor != null) {
@@ -334,9 +404,6 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
                 }
             }
         }
-        writeSetting(manager.senderId, MESSAGE_COUNTER_COLUMN, numMsgCounter.get());
-        store.close();
-        manager.closedLog(this);
     }
 
     @Override
@@ -458,6 +525,18 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
             try {
                 outgoingMsg.put(envelope); //Produces back pressure when full
                 LOG.debug("Enqueued {} for partition {}", envelope, partitionId);
+                if (sharedExecutor != null && outgoingMsg.size() >= sendBatchSize && sendPending.compareAndSet(false, true)) {
+                    //Don't wait for the next scheduled send when a full batch is available
+                    try {
+                        sharedExecutor.execute(() -> {
+                            sendPending.set(false);
+                            sendQueuedMessages();
+                        });
+                    } catch (RejectedExecutionException e) {
+                        //The shared executor has been shut down, the queued messages are sent when this LOG is closed
+                        sendPending.set(false);
+                    }
+                }
             } catch (InterruptedException e) {
                 throw new JanusGraphException("Got interrupted waiting to send message", e);
             }
@@ -507,7 +586,12 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
                         muts.put(key, new KCVMutation(mutations.get(key), KeyColumnValueStore.NO_DELETIONS));
                         LOG.debug("Built mutation on key {} with {} additions", key, mutations.get(key).size());
                     }
-                    manager.storeManager.mutateMany(ImmutableMap.of(store.getName(), muts), txh);
+                    final Timer.Context timer = startTimer(M_SEND, msgEnvelopes.size());
+                    try {
+                        manager.storeManager.mutateMany(ImmutableMap.of(store.getName(), muts), txh);
+                    } finally {
+                        if (null != timer) timer.stop();
+                    }
                     LOG.debug("Wrote {} total envelopes with operation timestamp {}", msgEnvelopes.size(), txh.getConfiguration().getCommitTime());
                     return Boolean.TRUE;
                 }
@@ -528,6 +612,26 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         }
     }
 
+    /**
+     * Writes out the locally queued up messages in batches of up to the batch-send-size number of messages. This takes
+     * the place of the {@link SendThread} when the LOG runs on an executor shared with other logs.
+     */
+    private void sendQueuedMessages() {
+        synchronized (sendLock) {
+            final List<MessageEnvelope> toSend = new ArrayList<>(sendBatchSize);
+            while (outgoingMsg.drainTo(toSend, sendBatchSize) > 0) {
+                try {
+                    sendMessages(toSend);
+                } catch (RuntimeException e) {
+                    //The messages of the batch have been failed, keep sending the remaining ones
+                    LOG.error("Could not send messages of KCVSLog " + name, e);
+                } finally {
+                    toSend.clear();
+                }
+            }
+        }
+    }
+
     /**
      * This background thread only gets started when messages are locally queued for up to a maximum number of microseconds
      * or until the maximum number of local messages is reached.
@@ -637,8 +741,12 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
             if (!this.readers.contains(reader)) this.readers.add(reader);
         }
         if (firstRegistration && !this.readers.isEmpty()) {
-            //Custom rejection handler so that messages are processed in-thread when executor has been closed
-            readExecutor = new ScheduledThreadPoolExecutor(numReadThreads, (r, executor) -> r.run());
+            if (sharedExecutor != null) {
+                readExecutor = sharedExecutor;
+            } else {
+                //Custom rejection handler so that messages are processed in-thread when executor has been closed
+                readExecutor = new ScheduledThreadPoolExecutor(numReadThreads, (r, executor) -> r.run());
+            }
             msgPullers = new MessagePuller[manager.readPartitionIds.length * numBuckets];
             int pos = 0;
             for (int partitionId : manager.readPartitionIds) {
@@ -646,19 +754,19 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
                     msgPullers[pos] = new MessagePuller(partitionId, bucketId);
 
                     LOG.debug("Creating LOG read executor: initialDelay={} delay={} unit={}", INITIAL_READER_DELAY.toNanos(), readPollingInterval.toNanos(), TimeUnit.NANOSECONDS);
-                    readExecutor.scheduleWithFixedDelay(
+                    sharedTasks.add(readExecutor.scheduleWithFixedDelay(
                             msgPullers[pos],
                             INITIAL_READER_DELAY.toNanos(),
                             readPollingInterval.toNanos(),
-                            TimeUnit.NANOSECONDS);
+                            TimeUnit.NANOSECONDS));
                     pos++;
                 }
             }
-            readExecutor.scheduleWithFixedDelay(
+            sharedTasks.add(readExecutor.scheduleWithFixedDelay(
                     new MessageReaderStateUpdater(),
                     INITIAL_READER_DELAY.toNanos(),
                     readPollingInterval.toNanos(),
-                    TimeUnit.NANOSECONDS);
+                    TimeUnit.NANOSECONDS));
         }
     }
 
@@ -668,6 +776,64 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         return this.readers.remove(reader);
     }
 
+    /**
+     * Reads all messages that were added to this LOG with a timestamp in the interval [start, end) and passes them
+     * to the given reader in the calling thread. Messages are delivered per partition and bucket in timestamp order.
+     * <p>
+     * In contrast to {@link #registerReaders(ReadMarker, Iterable)}, this is a bounded, one-off replay of the LOG:
+     * no reader threads are started and no read marker is persisted. Since messages are delivered with a delay, this
+     * method first waits until the read lag time has passed beyond {@code end}.
+     *
+     * @param start  Inclusive lower bound on the message timestamps to read
+     * @param end    Exclusive upper bound on the message timestamps to read
+     * @param reader The reader to pass the messages to
+     * @return The number of messages read
+     */
+    public long readMessages(Instant start, Instant end, MessageReader reader) {
+        ResourceUnavailableException.verifyOpen(isOpen, "Log", name);
+        Preconditions.checkArgument(start != null && end != null && reader != null);
+        Preconditions.checkArgument(start.compareTo(end) <= 0, "Invalid time interval: [%s,%s)", start, end);
+        try {
+            times.sleepPast(end.plus(readLagTime));
+        } catch (InterruptedException e) {
+            throw new JanusGraphException("Got interrupted waiting to read messages", e);
+        }
+        StaticBuffer sliceEnd = BufferUtil.getLongBuffer(times.getTime(end));
+        long numMessages = 0;
+        for (int timeslice = getTimeSlice(start); timeslice <= getTimeSlice(end); timeslice++) {
+            for (int partitionId : manager.readPartitionIds) {
+                for (int bucketId = 0; bucketId < numBuckets; bucketId++) {
+                    StaticBuffer logKey = getLogKey(partitionId, bucketId, timeslice);
+                    StaticBuffer sliceStart = BufferUtil.getLongBuffer(times.getTime(start));
+                    List<Entry> entries;
+                    do {
+                        KeySliceQuery query = new KeySliceQuery(logKey, sliceStart, sliceEnd);
+                        query.setLimit(maxReadMsg);
+                        entries = BackendOperation.execute(new BackendOperation.Transactional<List<Entry>>() {
+                            @Override
+                            public List<Entry> call(StoreTransaction txh) throws BackendException {
+                                return store.getSlice(query, txh);
+                            }
+
+                            @Override
+                            public String toString() {
+                                return "messageReplay@" + query;
+                            }
+                        }, KCVSLog.this, times, maxReadTime);
+                        for (Entry entry : entries) {
+                            reader.read(parseMessage(entry));
+                            numMessages++;
+                        }
+                        if (!entries.isEmpty()) {
+                            sliceStart = BufferUtil.nextBiggerBuffer(entries.get(entries.size() - 1).getColumn());
+                        }
+                    } while (entries.size() >= maxReadMsg);
+                }
+            }
+        }
+        return numMessages;
+    }
+
     private class MessageReaderStateUpdater implements Runnable {
         @Override
         public void run() {
@@ -697,7 +863,7 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         }
 
         @Override
-        public void run() {
+        public synchronized void run() {
             try {
                 setReadMarker();
 
@@ -804,7 +970,7 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
             }
         }
 
-        private void close() {
+        private synchronized void close() {
             setReadMarker();
         }
 
@@ -812,7 +978,16 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
             return new BackendOperation.Transactional<List<Entry>>() {
                 @Override
                 public List<Entry> call(StoreTransaction txh) throws BackendException {
-                    return store.getSlice(query, txh);
+                    final Timer.Context timer = startTimer(M_READ, 0);
+                    try {
+                        final List<Entry> entries = store.getSlice(query, txh);
+                        if (null != timer) {
+                            MetricManager.INSTANCE.getCounter(metricsPrefix, M_LOG, name, M_READ, M_MESSAGES).inc(entries.size());
+                        }
+                        return entries;
+                    } finally {
+                        if (null != timer) timer.stop();
+                    }
                 }
 
                 @Override
@@ -846,6 +1021,14 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         return out.getStaticBuffer();
     }
 
+    private Timer.Context startTimer(String operation, int messages) {
+        if (null == metricsPrefix) return null;
+        final MetricManager mgr = MetricManager.INSTANCE;
+        mgr.getCounter(metricsPrefix, M_LOG, name, operation, M_CALLS).inc();
+        if (messages > 0) mgr.getCounter(metricsPrefix, M_LOG, name, operation, M_MESSAGES).inc(messages);
+        return mgr.getTimer(metricsPrefix, M_LOG, name, operation, M_TIME).time();
+    }
+
     private long readSetting(String identifier, StaticBuffer column, long defaultValue) {
         StaticBuffer key = getSettingKey(identifier);
         StaticBuffer value = BackendOperation.execute(new BackendOperation.Transactional<StaticBuffer>() {
@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.*;
 
@@ -106,11 +107,25 @@ public class KCVSLogManager implements LogManager {
      */
     private final int indexStoreTTL;
 
+    /**
+     * Executor on which the logs send and read their messages if it is shared with other LOG managers, else null.
+     */
+    final ScheduledExecutorService sharedExecutor;
+
     /**
      * Opens a LOG manager against the provided KCVS store with the given configuration.
      */
     public KCVSLogManager(KeyColumnValueStoreManager storeManager, Configuration config) {
-        this(storeManager, config, null);
+        this(storeManager, config, null, null);
+    }
+
+    /**
+     * Opens a LOG manager against the provided KCVS store with the given configuration. The opened logs send and read
+     * their messages on the provided executor, which may be shared with other LOG managers, instead of starting
+     * threads of their own.
+     */
+    public KCVSLogManager(KeyColumnValueStoreManager storeManager, Configuration config, ScheduledExecutorService sharedExecutor) {
+        this(storeManager, config, null, Preconditions.checkNotNull(sharedExecutor));
     }
 
     /**
@@ -118,8 +133,10 @@ public class KCVSLogManager implements LogManager {
      * of read-partition-ids. These only apply when readers are registered against an opened LOG. In that case,
      * the readers only read from the provided list of partition ids.
      */
-    private KCVSLogManager(KeyColumnValueStoreManager storeManager, Configuration config, int[] readPartitionIds) {
+    private KCVSLogManager(KeyColumnValueStoreManager storeManager, Configuration config, int[] readPartitionIds,
+                           ScheduledExecutorService sharedExecutor) {
         Preconditions.checkArgument(storeManager != null && config != null);
+        this.sharedExecutor = sharedExecutor;
         if (config.has(LOG_STORE_TTL)) {
             indexStoreTTL = getTTLSeconds(config.get(LOG_STORE_TTL));
             StoreFeatures storeFeatures = storeManager.getFeatures();
@@ -14,6 +14,7 @@
 
 package org.janusgraph.diskstorage.util;
 
+import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 
 
@@ -22,7 +23,7 @@ public interface BackendCompression {
 
     StaticBuffer compress(StaticBuffer value);
 
-    StaticBuffer decompress(StaticBuffer value);
+    StaticBuffer decompress(StaticBuffer value) throws BackendException;
 
     BackendCompression NO_COMPRESSION = new BackendCompression() {
         @Override
@@ -0,0 +1,133 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.EntryList;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the cost of the reads a single transaction issues against the storage and index backends:
+ * slice queries, entries and bytes returned, cache retrievals and misses, mixed index calls and the time spent
+ * waiting for all of those. Counting is cheap enough to be always on, and safe for transactions shared by
+ * multiple threads.
+ */
+public class BackendCosts {
+
+    private final LongAdder edgeStoreSlices = new LongAdder();
+    private final LongAdder indexStoreSlices = new LongAdder();
+    private final LongAdder mixedIndexCalls = new LongAdder();
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder cacheRetrievals = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder backendTimeNs = new LongAdder();
+
+    public void addEdgeStoreSlice(EntryList result) {
+        edgeStoreSlices.increment();
+        addEntries(result);
+    }
+
+    public void addEdgeStoreSlices(Map<?, EntryList> results) {
+        edgeStoreSlices.add(results.size());
+        results.values().forEach(this::addEntries);
+    }
+
+    public void addIndexStoreSlice(EntryList result) {
+        indexStoreSlices.increment();
+        addEntries(result);
+    }
+
+    public void addIndexStoreSlices(Map<?, EntryList> results) {
+        indexStoreSlices.add(results.size());
+        results.values().forEach(this::addEntries);
+    }
+
+    private void addEntries(EntryList result) {
+        if (result == null) return;
+        entries.add(result.size());
+        bytes.add(result.getByteSize());
+    }
+
+    public void addMixedIndexCall() {
+        mixedIndexCalls.increment();
+    }
+
+    public void addCacheAction(CacheMetricsAction action, int by) {
+        switch (action) {
+            case RETRIEVAL: cacheRetrievals.add(by); break;
+            case MISS: cacheMisses.add(by); break;
+            default: //Expirations are not attributed to transactions
+        }
+    }
+
+    public void addBackendTime(long nanos) {
+        backendTimeNs.add(nanos);
+    }
+
+    public long getEdgeStoreSlices() {
+        return edgeStoreSlices.sum();
+    }
+
+    public long getIndexStoreSlices() {
+        return indexStoreSlices.sum();
+    }
+
+    /**
+     * @return the number of slice queries against both the edge and the index store
+     */
+    public long getSlices() {
+        return getEdgeStoreSlices() + getIndexStoreSlices();
+    }
+
+    public long getMixedIndexCalls() {
+        return mixedIndexCalls.sum();
+    }
+
+    public long getEntries() {
+        return entries.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getCacheRetrievals() {
+        return cacheRetrievals.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getBackendTime(TimeUnit unit) {
+        return unit.convert(backendTimeNs.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "edgestore-slices=" + getEdgeStoreSlices() +
+            ", indexstore-slices=" + getIndexStoreSlices() +
+            ", mixed-index-calls=" + getMixedIndexCalls() +
+            ", entries=" + getEntries() +
+            ", bytes=" + getBytes() +
+            ", cache-retrievals=" + getCacheRetrievals() +
+            ", cache-misses=" + getCacheMisses() +
+            ", backend-time=" + getBackendTime(TimeUnit.MILLISECONDS) + "ms";
+    }
+}
@@ -15,6 +15,7 @@
 package org.janusgraph.diskstorage.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.PermanentBackendException;
@@ -27,6 +28,13 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class BackendOperation {
 
@@ -56,14 +64,7 @@ public class BackendOperation {
             try {
                 return exe.call();
             } catch (Throwable e) {
-                //Find inner-most StorageException
-                Throwable ex = e;
-                BackendException storeEx = null;
-                do {
-                    if (ex instanceof BackendException) storeEx = (BackendException) ex;
-                } while ((ex = ex.getCause()) != null);
-
-
+                BackendException storeEx = getInnermostBackendException(e);
                 if (storeEx instanceof TemporaryBackendException) {
                     lastException = storeEx; // if this is a temporary exception, don't throw immediately but retry for a totalWaitTime time before throwing
                 } else if (e instanceof BackendException) {
@@ -90,6 +91,75 @@ public class BackendOperation {
         throw new TemporaryBackendException("Could not successfully complete backend operation due to repeated temporary exceptions after " + totalWaitTime, lastException);
     }
 
+    /**
+     * Asynchronous variant of {@link #executeDirect(Callable, Duration)}. Operations which fail with a
+     * {@link TemporaryBackendException} are retried with the same backoff for up to {@code totalWaitTime}, but the
+     * retries are scheduled instead of waited for, so no thread is blocked in between.
+     *
+     * @param exe starts the operation, once per attempt
+     * @param totalWaitTime the maximum time during which failed attempts are retried
+     * @return future which completes with the result of the first successful attempt, or exceptionally with a
+     * {@link BackendException}
+     */
+    public static <V> CompletableFuture<V> executeAsync(Supplier<CompletableFuture<V>> exe, Duration totalWaitTime) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final long maxTime = System.currentTimeMillis() + totalWaitTime.toMillis();
+        attemptAsync(exe, totalWaitTime, maxTime, pertubTime(BASE_REATTEMPT_TIME), result);
+        return result;
+    }
+
+    private static <V> void attemptAsync(Supplier<CompletableFuture<V>> exe, Duration totalWaitTime, long maxTime,
+                                         Duration waitTime, CompletableFuture<V> result) {
+        CompletableFuture<V> attempt;
+        try {
+            attempt = exe.get();
+        } catch (Throwable e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+        attempt.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            final Throwable e = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            final BackendException storeEx = getInnermostBackendException(e);
+            if (!(storeEx instanceof TemporaryBackendException)) {
+                result.completeExceptionally(e instanceof BackendException ? e
+                    : new PermanentBackendException("Permanent exception while executing backend operation " + exe.toString(), e));
+            } else if (System.currentTimeMillis() + waitTime.toMillis() < maxTime) {
+                LOG.info("Temporary exception during backend operation [" + exe.toString() + "]. Attempting backoff retry.", storeEx);
+                RetryScheduler.INSTANCE.schedule(() -> RetryScheduler.ATTEMPTS.execute(
+                    () -> attemptAsync(exe, totalWaitTime, maxTime, pertubTime(waitTime.multipliedBy(2)), result)),
+                    waitTime.toMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                result.completeExceptionally(new TemporaryBackendException("Could not successfully complete backend operation due to repeated temporary exceptions after " + totalWaitTime, storeEx));
+            }
+        });
+    }
+
+    private static BackendException getInnermostBackendException(Throwable e) {
+        Throwable ex = e;
+        BackendException storeEx = null;
+        do {
+            if (ex instanceof BackendException) storeEx = (BackendException) ex;
+        } while ((ex = ex.getCause()) != null);
+        return storeEx;
+    }
+
+    /**
+     * Schedules the retries of asynchronous operations. Created on first use. The scheduling thread only hands the
+     * retries over to {@link #ATTEMPTS}, since starting an attempt may block, e.g. in the blocking default of
+     * {@link org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore#getSliceAsync}, and would then delay all
+     * other retries.
+     */
+    private static class RetryScheduler {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("JanusGraphBackendRetryScheduler[%d]").build());
+        private static final ExecutorService ATTEMPTS = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("JanusGraphBackendRetry[%d]").build());
+    }
+
     public static <R> R execute(Transactional<R> exe, TransactionalProvider provider, TimestampProvider times) throws BackendException {
         StoreTransaction txh = null;
         try {
@@ -0,0 +1,218 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.ReadBuffer;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.graphdb.database.idhandling.VariableLong;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link BackendCompression} which compresses values with the zlib format of {@link Deflater}, optionally primed
+ * with a preset dictionary trained from sample values (see {@link #trainDictionary(Iterable, int)}).
+ * <p>
+ * A compressed value starts with the {@link #MARKER} byte and the format {@link #VERSION}, followed by its
+ * uncompressed length and the zlib stream. All other values, i.e. values which are shorter than the configured
+ * minimum size, did not compress or were written before compression was enabled, are stored as is. A value is only
+ * read as compressed if it starts with the marker and version followed by a valid length and zlib header, so that
+ * uncompressed values which happen to start with the marker are still read as is. Uncompressed values which start
+ * with the marker are always written compressed. A compressed value which does not inflate to exactly the recorded
+ * length with a matching checksum is corrupt and fails with a {@link PermanentBackendException}.
+ * <p>
+ * The zlib stream records the checksum of the dictionary it was compressed with, so values written with older
+ * dictionaries remain readable as long as those dictionaries are still passed to the constructor. Reading a value
+ * which requires a dictionary which is not passed to the constructor fails with a {@link PermanentBackendException}.
+ */
+public class DeflateCompression implements BackendCompression {
+
+    public static final byte MARKER = (byte) 0xC5;
+    public static final byte VERSION = 1;
+
+    private static final int MIN_SEGMENT_LENGTH = 8;
+    //Upper bound of the compression ratio of deflate, used to reject lengths of values which are not compressed
+    private static final int MAX_DEFLATE_RATIO = 1032;
+    //Flag of the zlib header which indicates that the stream was compressed with a preset dictionary
+    private static final int FDICT = 0x20;
+
+    private final int minSize;
+    private final byte[] dictionary;
+    private final Map<Integer, byte[]> dictionaries;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+    /**
+     * @param level the {@link Deflater} compression level
+     * @param minSize values shorter than this many bytes are not compressed
+     * @param dictionaries preset dictionaries, the first one is used to compress values, all of them to decompress
+     *                     values. May be empty.
+     */
+    public DeflateCompression(int level, int minSize, List<byte[]> dictionaries) {
+        Preconditions.checkArgument(level == Deflater.DEFAULT_COMPRESSION
+            || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION), "Invalid compression level: %s", level);
+        Preconditions.checkArgument(minSize >= 0, "Invalid minimum size: %s", minSize);
+        this.minSize = minSize;
+        this.dictionary = dictionaries.isEmpty() ? null : dictionaries.get(0);
+        this.dictionaries = new HashMap<>(dictionaries.size());
+        for (byte[] dict : dictionaries) {
+            Preconditions.checkArgument(dict.length > 0, "Empty compression dictionary");
+            this.dictionaries.put(checksum(dict), dict);
+        }
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        final int length = value.length();
+        if (length == 0) return value;
+        //Values starting with the marker must be compressed, otherwise they could not be told apart from compressed ones
+        final boolean marked = value.getByte(0) == MARKER;
+        final int headerLength = 2 + VariableLong.positiveLength(length);
+        if (!marked && (length < minSize || length <= headerLength)) return value;
+
+        final byte[] input = value.as(StaticBuffer.ARRAY_FACTORY);
+        final Deflater deflater = deflaters.get();
+        deflater.reset();
+        if (dictionary != null) deflater.setDictionary(dictionary);
+        deflater.setInput(input);
+        deflater.finish();
+        //Unless it has to be compressed, a value is only worth compressing if it gets smaller
+        byte[] output = new byte[marked ? length + length / 16 + 64 : length - headerLength];
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == output.length) {
+                if (!marked) return value;
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            compressedLength += deflater.deflate(output, compressedLength, output.length - compressedLength);
+        }
+        final WriteByteBuffer out = new WriteByteBuffer(headerLength + compressedLength);
+        out.putByte(MARKER);
+        out.putByte(VERSION);
+        VariableLong.writePositive(out, length);
+        out.putBytes(new StaticArrayBuffer(output, 0, compressedLength));
+        return out.getStaticBuffer();
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) throws PermanentBackendException {
+        if (value.length() < 3 || value.getByte(0) != MARKER || value.getByte(1) != VERSION) return value;
+        final ReadBuffer in = value.asReadBuffer();
+        in.movePositionTo(2);
+        final long length;
+        try {
+            length = VariableLong.readPositive(in);
+        } catch (IndexOutOfBoundsException e) {
+            return value;
+        }
+        final int position = in.getPosition();
+        if (position + 2 > value.length() || length <= 0 || length > (long) value.length() * MAX_DEFLATE_RATIO
+            || !isZlibHeader(value.getByte(position), value.getByte(position + 1))) return value;
+        if ((value.getByte(position + 1) & FDICT) != 0) {
+            if (position + 6 > value.length()) return value;
+            final int dictionaryId = value.getInt(position + 2);
+            if (!dictionaries.containsKey(dictionaryId)) {
+                throw new PermanentBackendException("Value was compressed with a dictionary which is not configured " +
+                    "(Adler-32 checksum " + Integer.toHexString(dictionaryId) + ")");
+            }
+        }
+        final StaticBuffer inflated = value.as((array, offset, limit) -> inflate(array, offset + position, limit, (int) length));
+        if (inflated == null) {
+            throw new PermanentBackendException("Compressed value is corrupt and could not be inflated to " + length + " bytes");
+        }
+        return inflated;
+    }
+
+    /**
+     * @return whether the two bytes are a zlib header (RFC 1950) of a deflate stream as written by {@link Deflater}
+     */
+    private static boolean isZlibHeader(byte cmf, byte flg) {
+        return (cmf & 0x0F) == Deflater.DEFLATED && (cmf & 0xF0) <= 0x70 && (((cmf & 0xFF) << 8) | (flg & 0xFF)) % 31 == 0;
+    }
+
+    /**
+     * @return the inflated value or null if the given bytes are not a valid zlib stream of the given length
+     */
+    private StaticBuffer inflate(byte[] array, int offset, int limit, int length) {
+        final Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(array, offset, limit - offset);
+        final byte[] output = new byte[length];
+        try {
+            int inflatedLength = 0;
+            while (!inflater.finished()) {
+                final int inflated = inflater.inflate(output, inflatedLength, output.length - inflatedLength);
+                if (inflated == 0 && inflater.needsDictionary()) {
+                    final byte[] dict = dictionaries.get(inflater.getAdler());
+                    if (dict == null) return null;
+                    inflater.setDictionary(dict);
+                } else if (inflated == 0 && (inflater.needsInput() || inflatedLength == output.length)) {
+                    //Truncated stream or longer than the recorded length
+                    return null;
+                }
+                inflatedLength += inflated;
+            }
+            if (inflatedLength != output.length || inflater.getRemaining() > 0) return null;
+        } catch (DataFormatException e) {
+            return null;
+        }
+        return new StaticArrayBuffer(output);
+    }
+
+    private static int checksum(byte[] dictionary) {
+        final Adler32 adler = new Adler32();
+        adler.update(dictionary);
+        return (int) adler.getValue();
+    }
+
+    /**
+     * Builds a preset dictionary of at most {@code maxSize} bytes from the byte sequences which occur most frequently
+     * across the given sample values. The most frequent sequences are placed at the end of the dictionary where they
+     * can be referenced with the shortest distances.
+     *
+     * @param samples representative (uncompressed) values, e.g. sampled from an existing graph
+     * @param maxSize maximum dictionary size in bytes, deflate only uses the last 32KB
+     * @return the dictionary, empty if the samples do not contain any repeated sequences
+     */
+    public static byte[] trainDictionary(Iterable<StaticBuffer> samples, int maxSize) {
+        Preconditions.checkArgument(maxSize > 0, "Invalid dictionary size: %s", maxSize);
+        final Map<StaticBuffer, Integer> counts = new HashMap<>();
+        for (StaticBuffer sample : samples) {
+            for (int i = 0; i + MIN_SEGMENT_LENGTH <= sample.length(); i += MIN_SEGMENT_LENGTH / 2) {
+                counts.merge(sample.subrange(i, MIN_SEGMENT_LENGTH), 1, Integer::sum);
+            }
+        }
+        final List<Map.Entry<StaticBuffer, Integer>> segments = new ArrayList<>(counts.entrySet());
+        segments.removeIf(e -> e.getValue() < 2);
+        segments.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        final int numSegments = Math.min(segments.size(), maxSize / MIN_SEGMENT_LENGTH);
+        final byte[] dict = new byte[numSegments * MIN_SEGMENT_LENGTH];
+        for (int i = 0; i < numSegments; i++) {
+            final byte[] segment = segments.get(i).getKey().as(StaticBuffer.ARRAY_FACTORY);
+            System.arraycopy(segment, 0, dict, dict.length - (i + 1) * MIN_SEGMENT_LENGTH, MIN_SEGMENT_LENGTH);
+        }
+        return dict;
+    }
+}
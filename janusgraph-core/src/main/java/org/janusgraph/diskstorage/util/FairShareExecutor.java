@@ -0,0 +1,109 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.util.stats.MetricManager;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The share of a single graph in an executor which is shared with other graphs. At most {@code maxRunning} tasks of
+ * this share run on the shared executor at any time; further tasks wait in a queue local to the share. This keeps a
+ * single busy graph from occupying all threads of the shared executor.
+ * <p>
+ * If a metrics prefix is given, the number of executed tasks and the number of tasks which had to wait for a running
+ * task of the same share to complete are counted.
+ */
+public class FairShareExecutor implements Executor {
+
+    public static final String M_SHARED_POOL = "sharedPool";
+    public static final String M_TASKS = "tasks";
+    public static final String M_QUEUED = "queued";
+
+    private final Executor executor;
+    private final int maxRunning;
+    private final String metricsPrefix;
+    private final String metricsName;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    public FairShareExecutor(Executor executor, int maxRunning, String metricsPrefix, String metricsName) {
+        Preconditions.checkArgument(maxRunning > 0, "Invalid number of running tasks: %s", maxRunning);
+        this.executor = Preconditions.checkNotNull(executor);
+        this.maxRunning = maxRunning;
+        this.metricsPrefix = metricsPrefix;
+        this.metricsName = metricsName;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Preconditions.checkNotNull(task);
+        if (metricsPrefix != null) {
+            MetricManager.INSTANCE.getCounter(metricsPrefix, metricsName, M_SHARED_POOL, M_TASKS).inc();
+            if (running.get() >= maxRunning) {
+                MetricManager.INSTANCE.getCounter(metricsPrefix, metricsName, M_SHARED_POOL, M_QUEUED).inc();
+            }
+        }
+        queue.add(task);
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            final int current = running.get();
+            if (current >= maxRunning) return; //A running task dispatches the queue when it completes
+            if (!running.compareAndSet(current, current + 1)) continue;
+
+            final Runnable task = queue.poll();
+            if (task == null) {
+                running.decrementAndGet();
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        running.decrementAndGet();
+                        dispatch();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the number of tasks of this share which are currently running on the shared executor
+     */
+    public int getRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return the number of tasks of this share which wait for one of its running tasks to complete
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+}
@@ -16,10 +16,12 @@ package org.janusgraph.diskstorage.util;
 
 import java.io.IOException;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.util.stats.MetricManager;
 import org.apache.commons.lang.StringUtils;
 
 /**
@@ -27,6 +29,9 @@ import org.apache.commons.lang.StringUtils;
  * time, method invocation counts, and exceptions thrown by the methods on
  * {@link RecordIterator} instances returned from
  * {@link MetricInstrumentedStore#getSlice(org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery, org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction)}.
+ * It also measures the wall clock time of the whole iteration, from the creation
+ * of the iterator until it is closed, and the methods of the entry iterators
+ * returned by {@link #getEntries()}.
  * 
  * @author Dan LaRocque (dalaro@hopcount.org)
  */
@@ -34,9 +39,12 @@ public class MetricInstrumentedIterator implements KeyIterator {
     
     private final KeyIterator iterator;
     private final String p;
+    private Timer.Context iteration;
     
     private static final String M_HAS_NEXT = "hasNext";
     private static final String M_NEXT = "next";
+    private static final String M_ITERATION = "iteration";
+    private static final String M_ENTRIES = "entries";
     static final String M_CLOSE = "close";
 
     /**
@@ -66,6 +74,7 @@ public class MetricInstrumentedIterator implements KeyIterator {
     private MetricInstrumentedIterator(KeyIterator i, String p) {
         this.iterator = i;
         this.p = p;
+        this.iteration = MetricManager.INSTANCE.getTimer(p, M_ITERATION, MetricInstrumentedStore.M_TIME).time();
     }
 
     @Override
@@ -82,16 +91,41 @@ public class MetricInstrumentedIterator implements KeyIterator {
     
     @Override
     public void close() throws IOException {
-        MetricInstrumentedStore.runWithMetrics(p, MetricInstrumentedIterator.M_CLOSE, (IOCallable<Void>) () -> {
-            iterator.close();
-            return null;
-        });
+        try {
+            MetricInstrumentedStore.runWithMetrics(p, MetricInstrumentedIterator.M_CLOSE, (IOCallable<Void>) () -> {
+                iterator.close();
+                return null;
+            });
+        } finally {
+            if (null != iteration) {
+                iteration.stop();
+                iteration = null;
+            }
+        }
     }
 
     @Override
     public RecordIterator<Entry> getEntries() {
-        // TODO: add metrics to entries if ever needed
-        return iterator.getEntries();
+        final RecordIterator<Entry> entries = iterator.getEntries();
+        final String ep = p + "." + M_ENTRIES;
+        return new RecordIterator<Entry>() {
+            @Override
+            public boolean hasNext() {
+                return MetricInstrumentedStore.runWithMetrics(ep, M_HAS_NEXT,
+                        (UncheckedCallable<Boolean>) entries::hasNext);
+            }
+
+            @Override
+            public Entry next() {
+                return MetricInstrumentedStore.runWithMetrics(ep, M_NEXT,
+                        (UncheckedCallable<Entry>) entries::next);
+            }
+
+            @Override
+            public void close() throws IOException {
+                entries.close();
+            }
+        };
     }
 
     @Override
@@ -17,6 +17,7 @@ package org.janusgraph.diskstorage.util;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.Entry;
@@ -107,6 +108,22 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         });
     }
 
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        if (!txh.getConfiguration().hasGroupName()) {
+            return backend.getSliceAsync(query, txh);
+        }
+        final String prefix = txh.getConfiguration().getGroupName();
+        final MetricManager mgr = MetricManager.INSTANCE;
+        mgr.getCounter(prefix, metricsStoreName, M_GET_SLICE, M_CALLS).inc();
+        final Timer.Context tc = mgr.getTimer(prefix, metricsStoreName, M_GET_SLICE, M_TIME).time();
+        return backend.getSliceAsync(query, txh).whenComplete((result, e) -> {
+            tc.stop();
+            if (e != null) mgr.getCounter(prefix, metricsStoreName, M_GET_SLICE, M_EXCEPTIONS).inc();
+            else recordSliceMetrics(txh, result);
+        });
+    }
+
     @Override
     public Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys,
                                       final SliceQuery query,
@@ -221,13 +238,13 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         Preconditions.checkNotNull(impl);
 
         final MetricManager mgr = MetricManager.INSTANCE;
-        mgr.getCounter(prefix, null, MetricInstrumentedIterator.M_CLOSE, M_CALLS).inc();
-        final Timer.Context tc = mgr.getTimer(prefix, null, MetricInstrumentedIterator.M_CLOSE, M_TIME).time();
+        mgr.getCounter(prefix, null, name, M_CALLS).inc();
+        final Timer.Context tc = mgr.getTimer(prefix, null, name, M_TIME).time();
 
         try {
             impl.call();
         } catch (IOException e) {
-            mgr.getCounter(prefix, null, MetricInstrumentedIterator.M_CLOSE, M_EXCEPTIONS).inc();
+            mgr.getCounter(prefix, null, name, M_EXCEPTIONS).inc();
             throw e;
         } finally {
             tc.stop();
@@ -0,0 +1,72 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.util.system.ReferenceCountedRegistry;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pools shared by all graphs of this JVM which are configured to share their backend resources, so that the
+ * number of threads does not grow with the number of open graphs. Pools are keyed by their size, created when first
+ * acquired and shut down when released by the last graph using them.
+ */
+public class SharedExecutors {
+
+    private static final ReferenceCountedRegistry<Integer, ExecutorService> BACKEND_POOLS = new ReferenceCountedRegistry<>();
+    private static final ReferenceCountedRegistry<Integer, ScheduledExecutorService> LOG_EXECUTORS = new ReferenceCountedRegistry<>();
+
+    private SharedExecutors() {
+    }
+
+    /**
+     * Acquires the pool which runs parallel backend operations, see {@link org.janusgraph.diskstorage.BackendTransaction}.
+     */
+    public static ExecutorService acquireBackendPool(int size) {
+        return BACKEND_POOLS.acquire(size, () -> Executors.newFixedThreadPool(size, threadFactory("JanusGraphSharedBackend")));
+    }
+
+    public static void releaseBackendPool(int size) {
+        BACKEND_POOLS.release(size, ExecutorService::shutdown);
+    }
+
+    /**
+     * Acquires the executor which sends and reads the messages of {@link org.janusgraph.diskstorage.log.kcvs.KCVSLog}s.
+     */
+    public static ScheduledExecutorService acquireLogExecutor(int size) {
+        //Tasks submitted after the executor has been shut down are rejected rather than run on the submitting thread,
+        //which would make a graph's producer threads read the messages of the logs
+        return LOG_EXECUTORS.acquire(size, () -> new ScheduledThreadPoolExecutor(size, threadFactory("JanusGraphSharedLog")));
+    }
+
+    public static void releaseLogExecutor(int size) {
+        LOG_EXECUTORS.release(size, ExecutorService::shutdown);
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            final Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -142,4 +142,12 @@ public class WriteByteBuffer implements WriteBuffer {
         for (int i=from;i<to;i++) b.put(i,(byte)~b.get(i));
         return StaticArrayBuffer.of(b);
     }
+
+    /**
+     * Continues writing into the given buffer, starting at its current position. Its backing array is written to
+     * directly until it runs out of space, in which case the written bytes are moved to a newly allocated buffer.
+     */
+    protected void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
 }
@@ -34,6 +34,7 @@ import org.janusgraph.diskstorage.configuration.converter.ReadConfigurationConve
 import org.janusgraph.diskstorage.idmanagement.ConflictAvoidanceMode;
 import org.janusgraph.diskstorage.idmanagement.ConsistentKeyIDAuthority;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.util.BackendCosts;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.diskstorage.util.time.TimestampProviders;
 import org.janusgraph.graphdb.configuration.converter.RegisteredAttributeClassesConverter;
@@ -61,6 +62,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 /**
  * Provides functionality to configure a {@link org.janusgraph.core.JanusGraph} INSTANCE.
@@ -188,6 +191,25 @@ public class GraphDatabaseConfiguration {
                     "Must be longer than the maximum allowed write time.",
             ConfigOption.Type.GLOBAL, Duration.ofSeconds(10));
 
+    public static final ConfigOption<Integer> PARALLEL_PREPARE_THRESHOLD = new ConfigOption<>(TRANSACTION_NS, "parallel-prepare-threshold",
+            "Minimum number of mutated vertices in a transaction for its added relations to be serialized in parallel " +
+            "on the thread pool for parallel backend operations when committing. Useful for large batch-loading " +
+            "transactions. Set to 0 to always serialize on the committing thread.",
+            ConfigOption.Type.MASKABLE, 0);
+
+    public static final ConfigNamespace SLOW_TRANSACTION_NS = new ConfigNamespace(TRANSACTION_NS, "slow-log",
+            "Configuration options for logging transactions whose reads are expensive against the storage and index backends");
+
+    public static final ConfigOption<Duration> SLOW_TRANSACTION_BACKEND_TIME = new ConfigOption<>(SLOW_TRANSACTION_NS, "backend-time",
+            "Log the backend cost breakdown and the graph-centric queries of a transaction when it is closed if its reads " +
+            "spent at least this much time in the storage and index backends. Set to 0 to disable.",
+            ConfigOption.Type.MASKABLE, Duration.ZERO);
+
+    public static final ConfigOption<Integer> SLOW_TRANSACTION_SLICES = new ConfigOption<>(SLOW_TRANSACTION_NS, "slices",
+            "Log the backend cost breakdown and the graph-centric queries of a transaction when it is closed if it " +
+            "issued at least this many slice queries against the storage backend. Set to 0 to disable.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
 
     public static final ConfigNamespace TRANSACTION_RECOVERY_NS = new ConfigNamespace(TRANSACTION_NS, "recovery",
             "Configuration options for transaction recovery processes");
@@ -238,6 +260,18 @@ public class GraphDatabaseConfiguration {
                     "lead to significant performance improvement if there are many edges to adjacent vertices and there is a non-trivial latency to the backend.",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final ConfigOption<Boolean> PROJECTED_PROPERTY_PREFETCHING = new ConfigOption<>(QUERY_NS, "projected-property-prefetch",
+            "Whether the vertices returned by a graph or vertex step that is directly followed by a values(), properties() or valueMap() step " +
+                    "should have the projected properties pre-fetched in batches against the storage backend. All projected keys of a batch are " +
+                    "retrieved with a single backend call instead of one call per vertex. This is independent of query.batch-property-prefetch.",
+            ConfigOption.Type.MASKABLE, true);
+
+    public static final ConfigOption<Integer> TRAVERSAL_PLAN_CACHE_SIZE = new ConfigOption<>(QUERY_NS, "plan-cache-size",
+            "Maximum number of optimized traversal plans kept by the graph's traversal plan cache. Traversals reuse the plan " +
+                    "of a previously optimized traversal with the same bytecode shape instead of applying the traversal strategies " +
+                    "again. Set to 0 to disable the cache.",
+            ConfigOption.Type.MASKABLE, 1000, ConfigOption.nonnegativeInt());
+
     // ################ SCHEMA #######################
     // ################################################
 
@@ -266,6 +300,29 @@ public class GraphDatabaseConfiguration {
                     "default", JanusGraphDefaultSchemaMaker.INSTANCE,
                     "tp3", Tp3DefaultSchemaMaker.INSTANCE);
 
+    public static final ConfigOption<Boolean> REINDEX_CATCH_UP = new ConfigOption<>(SCHEMA_NS, "reindex-catch-up",
+            "Whether a REINDEX job should record the time at which its scan started and, once the scan completes, replay " +
+                    "the transaction log from that point to index all elements modified while the scan was running before " +
+                    "the index is enabled. With this option, REINDEX may also be started on an INSTALLED index, which is then " +
+                    "registered once the scan completes so that no writes are missed. Requires transaction logging to be enabled.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Boolean> REINDEX_BULK_WRITE = new ConfigOption<>(SCHEMA_NS, "reindex-bulk-write",
+            "Whether REINDEX jobs on composite indexes should write index entries straight to the index store in key-sorted " +
+                    "batches instead of going through the transaction cache. Entries written this way do not invalidate " +
+                    "the database cache, so they may not be visible to cached reads until the cache expires.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Integer> REINDEX_BATCH_SIZE = new ConfigOption<>(SCHEMA_NS, "reindex-batch-size",
+            "Number of index entries that are buffered and written together when schema.reindex-bulk-write is enabled",
+            ConfigOption.Type.MASKABLE, 10000, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> REINDEX_MAX_WRITE_RATE = new ConfigOption<>(SCHEMA_NS, "reindex-max-write-rate",
+            "Maximum number of index entries per second that each REINDEX worker thread writes when " +
+                    "schema.reindex-bulk-write is enabled. Use this to keep an index rebuild from starving regular " +
+                    "traffic on the storage backend. Set to 0 to disable throttling.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
     // ################ CACHE #######################
     // ################################################
 
@@ -465,6 +522,34 @@ public class GraphDatabaseConfiguration {
             "Whether JanusGraph should attempt to parallelize storage operations",
             ConfigOption.Type.MASKABLE, true);
 
+    public static final ConfigNamespace SHARED_RESOURCES_NS = new ConfigNamespace(STORAGE_NS, "shared-resources",
+            "Configuration options for sharing storage sessions and threads with the other graphs of this JVM");
+
+    /**
+     * If enabled, the graph shares its storage backend driver session (for backends which support it), its parallel
+     * backend operations thread pool and the threads sending and reading its logs with all other graphs of this JVM
+     * which enable this option. This keeps the number of threads and connections independent of the number of graphs,
+     * e.g. when hosting many small graphs through the ConfiguredGraphFactory.
+     */
+    public static final ConfigOption<Boolean> SHARED_RESOURCES = new ConfigOption<>(SHARED_RESOURCES_NS, "enabled",
+            "Whether to share the storage backend session, the parallel backend operations thread pool and the log " +
+            "threads with the other graphs of this JVM which enable this option",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Integer> SHARED_POOL_SIZE = new ConfigOption<>(SHARED_RESOURCES_NS, "pool-size",
+            "Number of threads of the shared parallel backend operations thread pool. Set to 0 to use twice the number of processors.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> SHARED_POOL_GRAPH_TASKS = new ConfigOption<>(SHARED_RESOURCES_NS, "max-graph-tasks",
+            "Maximum number of parallel backend operations of this graph which run on the shared thread pool at the same time. " +
+            "Further operations of this graph wait until one of them completes, so that a single busy graph cannot occupy the " +
+            "whole pool. Set to 0 to use the number of processors.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> SHARED_LOG_THREADS = new ConfigOption<>(SHARED_RESOURCES_NS, "log-threads",
+            "Number of threads which send and read the messages of the logs of all graphs sharing their resources",
+            ConfigOption.Type.MASKABLE, 4, ConfigOption.positiveInt());
+
     public static final ConfigOption<String[]> STORAGE_HOSTS = new ConfigOption<>(STORAGE_NS, "hostname",
             "The hostname or comma-separated list of hostnames of storage backend servers.  " +
                     "This is only applicable to some storage backends, such as cassandra and hbase.",
@@ -582,6 +667,62 @@ public class GraphDatabaseConfiguration {
                             "the default is generally only useful in testing.", ConfigOption.Type.LOCAL, String.class);
 
 
+    // ################ STORAGE - IN-MEMORY #######################
+
+    public static final ConfigNamespace INMEMORY_NS = new ConfigNamespace(STORAGE_NS, "inmemory",
+            "Configuration options for the in-memory storage backend");
+
+    public static final ConfigOption<Boolean> INMEMORY_CONCURRENT_ROWS = new ConfigOption<>(INMEMORY_NS, "concurrent-rows",
+            "Whether the rows of the in-memory storage backend are updated without locks. Concurrent mutations of the same row " +
+            "are then merged into its column-value array in batches, and reads see an immutable snapshot of the row. " +
+            "This scales better when many threads write to the same rows.",
+            ConfigOption.Type.LOCAL, false);
+
+    public static final ConfigOption<String> INMEMORY_SNAPSHOT_FILE = new ConfigOption<>(INMEMORY_NS, "snapshot-file",
+            "Path of a binary snapshot of the in-memory storage backend. If this file exists when the backend is opened, " +
+            "all stores are restored from it. When not set, the in-memory storage backend does not persist any data.",
+            ConfigOption.Type.LOCAL, String.class);
+
+    public static final ConfigOption<Boolean> INMEMORY_SNAPSHOT_ON_CLOSE = new ConfigOption<>(INMEMORY_NS, "snapshot-on-close",
+            "Whether to write a snapshot of all stores to the snapshot file when the in-memory storage backend is closed",
+            ConfigOption.Type.LOCAL, false);
+
+    public static final ConfigOption<Boolean> INMEMORY_SNAPSHOT_COMPRESSION = new ConfigOption<>(INMEMORY_NS, "snapshot-compression",
+            "Whether snapshots of the in-memory storage backend are compressed. Compressed snapshots are smaller but " +
+            "take longer to write and restore.",
+            ConfigOption.Type.LOCAL, false);
+
+    public static final ConfigOption<Integer> INMEMORY_RESTORE_THREADS = new ConfigOption<>(INMEMORY_NS, "restore-threads",
+            "Number of threads used to restore the rows of a snapshot of the in-memory storage backend. " +
+            "0 uses one thread per available processor.",
+            ConfigOption.Type.LOCAL, 0, ConfigOption.nonnegativeInt());
+
+    // ################ STORAGE - COMPRESSION #######################
+
+    public static final ConfigNamespace COMPRESSION_NS = new ConfigNamespace(STORAGE_NS, "compression",
+            "Options for compressing the values of the edge and index stores before they are sent to the storage backend");
+
+    public static final ConfigOption<Boolean> COMPRESSION_ENABLED = new ConfigOption<>(COMPRESSION_NS, "enabled",
+            "Whether JanusGraph compresses the values of the edge and index stores. It can be enabled for an existing " +
+                    "graph since values written without compression remain readable, but it must not be disabled again " +
+                    "while compressed values are stored.",
+            ConfigOption.Type.GLOBAL_OFFLINE, false);
+
+    public static final ConfigOption<Integer> COMPRESSION_LEVEL = new ConfigOption<>(COMPRESSION_NS, "level",
+            "The deflate compression level from 0 (no compression) to 9 (best compression), or -1 for the default level",
+            ConfigOption.Type.MASKABLE, Deflater.BEST_SPEED, level -> level != null && level >= -1 && level <= 9);
+
+    public static final ConfigOption<Integer> COMPRESSION_MIN_SIZE = new ConfigOption<>(COMPRESSION_NS, "min-size",
+            "Values shorter than this many bytes are stored uncompressed",
+            ConfigOption.Type.MASKABLE, 32, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<String[]> COMPRESSION_DICTIONARIES = new ConfigOption<>(COMPRESSION_NS, "dictionaries",
+            "Files holding preset compression dictionaries trained from sample values. The first dictionary is used to " +
+                    "compress new values, all of them are used to read existing values. Dictionaries must never be removed " +
+                    "while values compressed with them are still stored. The same dictionary files must be available " +
+                    "at these paths to every instance.",
+            ConfigOption.Type.GLOBAL_OFFLINE, new String[0]);
+
     // ################ STORAGE - META #######################
 
     public static final ConfigNamespace STORE_META_NS = new ConfigNamespace(STORAGE_NS, "meta", "Meta data to include in storage backend retrievals", true);
@@ -927,6 +1068,34 @@ public class GraphDatabaseConfiguration {
             "Whether to aggregate measurements for the edge store, vertex index, edge index, and ID store",
             ConfigOption.Type.MASKABLE, true);
 
+    public static final ConfigNamespace METRICS_HDR_NS = new ConfigNamespace(METRICS_NS, "hdr-histogram",
+            "Configuration options for recording timers and histograms with HdrHistogram");
+
+    /**
+     * Whether to back timers and histograms by HdrHistogram instead of the
+     * sampling reservoir of Metrics. HdrHistogram records every value, so tail
+     * percentiles such as p99.9 of backend operations are exact up to the
+     * configured number of significant digits.
+     */
+    public static final ConfigOption<Boolean> METRICS_HDR_ENABLED = new ConfigOption<>(METRICS_HDR_NS, "enabled",
+            "Whether to record timers and histograms with HdrHistogram instead of the sampling reservoir of Metrics. " +
+            "This reports accurate tail latencies at the cost of some memory per metric.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Integer> METRICS_HDR_SIGNIFICANT_DIGITS = new ConfigOption<>(METRICS_HDR_NS, "significant-digits",
+            "The number of significant decimal digits to which HdrHistogram keeps recorded values, between 0 and 5",
+            ConfigOption.Type.MASKABLE, 3, ConfigOption.nonnegativeInt());
+
+    /**
+     * If true, each report of an HdrHistogram-backed metric covers only the
+     * values recorded since the previous report. Since snapshots are shared,
+     * this should only be used with a single reporter.
+     */
+    public static final ConfigOption<Boolean> METRICS_HDR_INTERVAL = new ConfigOption<>(METRICS_HDR_NS, "interval",
+            "Whether each report of an HdrHistogram timer or histogram covers only the values recorded since the previous " +
+            "report instead of all values. Only use this with a single reporter, since the reporters share the intervals.",
+            ConfigOption.Type.MASKABLE, false);
+
     public static final ConfigNamespace METRICS_CONSOLE_NS = new ConfigNamespace(METRICS_NS, "console", "Configuration options for metrics reporting to console");
 
 
@@ -1133,6 +1302,25 @@ public class GraphDatabaseConfiguration {
             "A Graphite-specific prefix for reported metrics",
             ConfigOption.Type.MASKABLE, String.class);
 
+    public static final ConfigNamespace METRICS_PROMETHEUS_NS = new ConfigNamespace(METRICS_NS, "prometheus",
+            "Configuration options for metrics reporting to a file in the Prometheus text format");
+
+    /**
+     * Metrics Prometheus reporter interval. Leaving {@link #METRICS_PROMETHEUS_FILE}
+     * absent or null disables the Prometheus reporter.
+     */
+    public static final ConfigOption<Duration> METRICS_PROMETHEUS_INTERVAL = new ConfigOption<>(METRICS_PROMETHEUS_NS, "interval",
+            "Time between rewrites of the Prometheus metrics file, in milliseconds",
+            ConfigOption.Type.MASKABLE, Duration.ofSeconds(15));
+
+    /**
+     * The file into which Metrics are written in the Prometheus text format,
+     * e.g. in the directory of the textfile collector of the node exporter.
+     */
+    public static final ConfigOption<String> METRICS_PROMETHEUS_FILE = new ConfigOption<>(METRICS_PROMETHEUS_NS, "file",
+            "The file which is periodically replaced with all metrics in the Prometheus text format",
+            ConfigOption.Type.MASKABLE, String.class);
+
     public static final ConfigNamespace GREMLIN_NS = new ConfigNamespace(ROOT_NS, "gremlin",
             "Gremlin configuration options");
 
@@ -1162,7 +1350,11 @@ public class GraphDatabaseConfiguration {
     private boolean adjustQueryLimit;
     private Boolean useMultiQuery;
     private Boolean batchPropertyPrefetching;
+    private boolean projectedPropertyPrefetching;
     private boolean logTransactions;
+    private int parallelPrepareThreshold;
+    private Duration slowTransactionBackendTime;
+    private int slowTransactionSlices;
     private String metricsPrefix;
     private String unknownIndexKeyName;
 
@@ -1241,6 +1433,10 @@ public class GraphDatabaseConfiguration {
         return batchPropertyPrefetching;
     }
 
+    public boolean projectedPropertyPrefetching() {
+        return projectedPropertyPrefetching;
+    }
+
     public boolean adjustQueryLimit() {
         return adjustQueryLimit;
     }
@@ -1253,6 +1449,23 @@ public class GraphDatabaseConfiguration {
         return logTransactions;
     }
 
+    public int getParallelPrepareThreshold() {
+        return parallelPrepareThreshold;
+    }
+
+    public boolean hasSlowTransactionLog() {
+        return !slowTransactionBackendTime.isZero() || slowTransactionSlices > 0;
+    }
+
+    /**
+     * Whether a transaction with the given backend costs exceeds any of the configured slow transaction thresholds.
+     */
+    public boolean isSlowTransaction(BackendCosts costs) {
+        return (!slowTransactionBackendTime.isZero() &&
+                    costs.getBackendTime(TimeUnit.NANOSECONDS) >= slowTransactionBackendTime.toNanos()) ||
+               (slowTransactionSlices > 0 && costs.getSlices() >= slowTransactionSlices);
+    }
+
     public TimestampProvider getTimestampProvider() {
         return configuration.get(TIMESTAMP_PROVIDER);
     }
@@ -1330,8 +1543,13 @@ public class GraphDatabaseConfiguration {
         propertyPrefetching = configuration.get(PROPERTY_PREFETCHING);
         useMultiQuery = configuration.get(USE_MULTIQUERY);
         batchPropertyPrefetching = configuration.get(BATCH_PROPERTY_PREFETCHING);
+        projectedPropertyPrefetching = configuration.get(PROJECTED_PROPERTY_PREFETCHING);
         adjustQueryLimit = configuration.get(ADJUST_LIMIT);
         logTransactions = configuration.get(SYSTEM_LOG_TRANSACTIONS);
+        parallelPrepareThreshold = configuration.get(PARALLEL_PREPARE_THRESHOLD);
+        Preconditions.checkArgument(parallelPrepareThreshold >= 0, "Invalid parallel prepare threshold: %s", parallelPrepareThreshold);
+        slowTransactionBackendTime = configuration.get(SLOW_TRANSACTION_BACKEND_TIME);
+        slowTransactionSlices = configuration.get(SLOW_TRANSACTION_SLICES);
 
         unknownIndexKeyName = configuration.get(IGNORE_UNKNOWN_INDEX_FIELD) ? UNKNOWN_FIELD_NAME : null;
 
@@ -1349,12 +1567,23 @@ public class GraphDatabaseConfiguration {
             Preconditions.checkNotNull(metricsPrefix);
         }
 
+        configureMetricsHistograms();
+
         configureMetricsConsoleReporter();
         configureMetricsCsvReporter();
         configureMetricsJmxReporter();
         configureMetricsSlf4jReporter();
         configureMetricsGangliaReporter();
         configureMetricsGraphiteReporter();
+        configureMetricsPrometheusReporter();
+    }
+
+    private void configureMetricsHistograms() {
+        if (configuration.get(METRICS_HDR_ENABLED)) {
+            int significantDigits = configuration.get(METRICS_HDR_SIGNIFICANT_DIGITS);
+            Preconditions.checkArgument(significantDigits <= 5, "Invalid number of significant digits: %s", significantDigits);
+            MetricManager.INSTANCE.useHdrHistograms(significantDigits, configuration.get(METRICS_HDR_INTERVAL));
+        }
     }
 
     private void configureMetricsConsoleReporter() {
@@ -1423,4 +1652,11 @@ public class GraphDatabaseConfiguration {
         }
     }
 
+    private void configureMetricsPrometheusReporter() {
+        if (configuration.has(METRICS_PROMETHEUS_FILE)) {
+            MetricManager.INSTANCE.addPrometheusReporter(configuration.get(METRICS_PROMETHEUS_INTERVAL),
+                    configuration.get(METRICS_PROMETHEUS_FILE));
+        }
+    }
+
 }
@@ -231,86 +231,90 @@ public class EdgeSerializer implements RelationReader {
         long typeId = type.longId();
         DirectionID dirID = getDirID(dir, relation.isProperty() ? RelationCategory.PROPERTY : RelationCategory.EDGE);
 
-        DataOutput out = serializer.getDataOutput(DEFAULT_CAPACITY);
-        int valuePosition;
-        IDHandler.writeRelationType(out, typeId, dirID, type.isInvisibleType());
-        Multiplicity multiplicity = type.multiplicity();
-
-        long[] sortKey = type.getSortKey();
-        int keyStartPos = out.getPosition();
-        if (!multiplicity.isConstrained()) {
-            writeInlineTypes(sortKey, relation, out, tx, InlineType.KEY);
-        }
-        int keyEndPos = out.getPosition();
+        DataOutput out = serializer.getReusableDataOutput(DEFAULT_CAPACITY);
+        try {
+            int valuePosition;
+            IDHandler.writeRelationType(out, typeId, dirID, type.isInvisibleType());
+            Multiplicity multiplicity = type.multiplicity();
+
+            long[] sortKey = type.getSortKey();
+            int keyStartPos = out.getPosition();
+            if (!multiplicity.isConstrained()) {
+                writeInlineTypes(sortKey, relation, out, tx, InlineType.KEY);
+            }
+            int keyEndPos = out.getPosition();
 
-        long relationId = relation.longId();
+            long relationId = relation.longId();
 
-        //How multiplicity is handled for edges and properties is slightly different
-        if (relation.isEdge()) {
-            long otherVertexId = relation.getVertex((position + 1) % 2).longId();
-            if (multiplicity.isConstrained()) {
-                if (multiplicity.isUnique(dir)) {
-                    valuePosition = out.getPosition();
-                    VariableLong.writePositive(out, otherVertexId);
+            //How multiplicity is handled for edges and properties is slightly different
+            if (relation.isEdge()) {
+                long otherVertexId = relation.getVertex((position + 1) % 2).longId();
+                if (multiplicity.isConstrained()) {
+                    if (multiplicity.isUnique(dir)) {
+                        valuePosition = out.getPosition();
+                        VariableLong.writePositive(out, otherVertexId);
+                    } else {
+                        VariableLong.writePositiveBackward(out, otherVertexId);
+                        valuePosition = out.getPosition();
+                    }
+                    VariableLong.writePositive(out, relationId);
                 } else {
                     VariableLong.writePositiveBackward(out, otherVertexId);
+                    VariableLong.writePositiveBackward(out, relationId);
                     valuePosition = out.getPosition();
                 }
-                VariableLong.writePositive(out, relationId);
             } else {
-                VariableLong.writePositiveBackward(out, otherVertexId);
-                VariableLong.writePositiveBackward(out, relationId);
-                valuePosition = out.getPosition();
-            }
-        } else {
-            Preconditions.checkArgument(relation.isProperty());
-            Object value = ((JanusGraphVertexProperty) relation).value();
-            Preconditions.checkNotNull(value);
-            PropertyKey key = (PropertyKey) type;
-
-            if (multiplicity.isConstrained()) {
-                if (multiplicity.isUnique(dir)) { //Cardinality=SINGLE
+                Preconditions.checkArgument(relation.isProperty());
+                Object value = ((JanusGraphVertexProperty) relation).value();
+                Preconditions.checkNotNull(value);
+                PropertyKey key = (PropertyKey) type;
+
+                if (multiplicity.isConstrained()) {
+                    if (multiplicity.isUnique(dir)) { //Cardinality=SINGLE
+                        valuePosition = out.getPosition();
+                        writePropertyValue(out, key, value);
+                    } else { //Cardinality=SET
+                        writePropertyValue(out, key, value);
+                        valuePosition = out.getPosition();
+                    }
+                    VariableLong.writePositive(out, relationId);
+                } else {
+                    VariableLong.writePositiveBackward(out, relationId);
                     valuePosition = out.getPosition();
                     writePropertyValue(out, key, value);
-                } else { //Cardinality=SET
-                    writePropertyValue(out, key, value);
-                    valuePosition = out.getPosition();
                 }
-                VariableLong.writePositive(out, relationId);
-            } else {
-                VariableLong.writePositiveBackward(out, relationId);
-                valuePosition = out.getPosition();
-                writePropertyValue(out, key, value);
             }
-        }
 
-        //Write signature
-        long[] signature = type.getSignature();
-        writeInlineTypes(signature, relation, out, tx, InlineType.SIGNATURE);
+            //Write signature
+            long[] signature = type.getSignature();
+            writeInlineTypes(signature, relation, out, tx, InlineType.SIGNATURE);
 
-        //Write remaining properties
-        LongSet writtenTypes = new LongHashSet(sortKey.length + signature.length);
-        if (sortKey.length > 0 || signature.length > 0) {
-            for (long id : sortKey) writtenTypes.add(id);
-            for (long id : signature) writtenTypes.add(id);
-        }
-        LongArrayList remainingTypes = new LongArrayList(8);
-        for (PropertyKey t : relation.getPropertyKeysDirect()) {
-            if (!(t instanceof ImplicitKey) && !writtenTypes.contains(t.longId())) {
-                remainingTypes.add(t.longId());
+            //Write remaining properties
+            LongSet writtenTypes = new LongHashSet(sortKey.length + signature.length);
+            if (sortKey.length > 0 || signature.length > 0) {
+                for (long id : sortKey) writtenTypes.add(id);
+                for (long id : signature) writtenTypes.add(id);
+            }
+            LongArrayList remainingTypes = new LongArrayList(8);
+            for (PropertyKey t : relation.getPropertyKeysDirect()) {
+                if (!(t instanceof ImplicitKey) && !writtenTypes.contains(t.longId())) {
+                    remainingTypes.add(t.longId());
+                }
+            }
+            //Sort types before writing to ensure that value is always written the same way
+            long[] remaining = remainingTypes.toArray();
+            Arrays.sort(remaining);
+            for (long tid : remaining) {
+                PropertyKey t = tx.getExistingPropertyKey(tid);
+                writeInline(out, t, relation.getValueDirect(t), InlineType.NORMAL);
             }
-        }
-        //Sort types before writing to ensure that value is always written the same way
-        long[] remaining = remainingTypes.toArray();
-        Arrays.sort(remaining);
-        for (long tid : remaining) {
-            PropertyKey t = tx.getExistingPropertyKey(tid);
-            writeInline(out, t, relation.getValueDirect(t), InlineType.NORMAL);
-        }
 
-        return new StaticArrayEntry(type.getSortOrder() == Order.DESC ?
-                out.getStaticBufferFlipBytes(keyStartPos, keyEndPos) :
-                out.getStaticBuffer(), valuePosition);
+            return new StaticArrayEntry(type.getSortOrder() == Order.DESC ?
+                    out.getStaticBufferFlipBytes(keyStartPos, keyEndPos) :
+                    out.getStaticBuffer(), valuePosition);
+        } finally {
+            serializer.releaseDataOutput(out);
+        }
     }
 
     private enum InlineType {
@@ -18,9 +18,11 @@ import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Streams;
 import org.apache.commons.lang.StringUtils;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.janusgraph.core.Cardinality;
@@ -65,6 +67,7 @@ import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.InternalVertex;
 import org.janusgraph.graphdb.internal.OrderList;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
+import org.janusgraph.graphdb.query.Query;
 import org.janusgraph.graphdb.query.condition.Condition;
 import org.janusgraph.graphdb.query.condition.ConditionUtil;
 import org.janusgraph.graphdb.query.condition.PredicateCondition;
@@ -90,6 +93,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -409,6 +413,56 @@ public class IndexSerializer {
         return indexEntries;
     }
 
+    /**
+     * Returns the deletions of all entries of the given composite vertex index which were derived from one of the
+     * given removed properties of the vertex. The remaining fields of the index are matched against the current
+     * properties of the vertex as well as the removed ones, so that the entries of removed vertices are covered.
+     */
+    public Set<IndexUpdate<StaticBuffer, Entry>> getRemovedEntries(JanusGraphVertex vertex, Collection<JanusGraphVertexProperty> removedProperties,
+                                                                   CompositeIndexType index) {
+        Preconditions.checkArgument(index.getElement() == ElementCategory.VERTEX, "Not a vertex index: %s", index);
+        Set<IndexUpdate<StaticBuffer, Entry>> deletions = Sets.newHashSet();
+        IndexField[] fields = index.getFieldKeys();
+        for (JanusGraphVertexProperty removed : removedProperties) {
+            List<List<RecordEntry>> candidates = new ArrayList<>(fields.length);
+            boolean matchesField = false;
+            for (IndexField field : fields) {
+                PropertyKey key = field.getFieldKey();
+                List<RecordEntry> values = new ArrayList<>();
+                if (key.equals(removed.propertyKey())) {
+                    values.add(new RecordEntry(removed));
+                    matchesField = true;
+                } else {
+                    for (JanusGraphVertexProperty p : vertex.query().keys(key.name()).properties()) {
+                        values.add(new RecordEntry(p));
+                    }
+                    for (JanusGraphVertexProperty p : removedProperties) {
+                        if (key.equals(p.propertyKey())) values.add(new RecordEntry(p));
+                    }
+                }
+                candidates.add(values);
+            }
+            if (!matchesField) continue;
+            IndexRecords records = new IndexRecords();
+            combineRecords(candidates, new RecordEntry[fields.length], records, 0);
+            for (RecordEntry[] record : records) {
+                deletions.add(new IndexUpdate<>(index, IndexUpdate.Type.DELETE, getIndexKey(index, record), getIndexEntry(index, record, vertex), vertex));
+            }
+        }
+        return deletions;
+    }
+
+    private static void combineRecords(List<List<RecordEntry>> candidates, RecordEntry[] current, IndexRecords records, int pos) {
+        if (pos >= current.length) {
+            records.add(current);
+            return;
+        }
+        for (RecordEntry value : candidates.get(pos)) {
+            current[pos] = value;
+            combineRecords(candidates, current, records, pos + 1);
+        }
+    }
+
     private static RecordEntry[] indexMatch(JanusGraphRelation relation, CompositeIndexType index) {
         IndexField[] fields = index.getFieldKeys();
         RecordEntry[] match = new RecordEntry[fields.length];
@@ -520,26 +574,38 @@ public class IndexSerializer {
         IndexType index = query.getIndex();
         if (index.isCompositeIndex()) {
             MultiKeySliceQuery sq = query.getCompositeQuery();
-            List<EntryList> rs = sq.execute(tx);
-            List<Object> results = new ArrayList<>(rs.get(0).size());
-            for (EntryList r : rs) {
-                for (java.util.Iterator<Entry> iterator = r.reuseIterator(); iterator.hasNext(); ) {
-                    Entry entry = iterator.next();
-                    ReadBuffer entryValue = entry.asReadBuffer();
-                    entryValue.movePositionTo(entry.getValuePosition());
-                    if (index.getElement() == ElementCategory.VERTEX) {
-                        results.add(VariableLong.readPositive(entryValue));
-                    } else {
-                        results.add(bytebuffer2RelationId(entryValue));
-                    }
+            //Lazily retrieves the keys in batches as the element ids are consumed
+            Iterator<Entry> entries = Iterators.concat(Iterators.transform(sq.execute(tx), EntryList::reuseIterator));
+            Iterator<Object> results = Iterators.transform(entries, entry -> {
+                ReadBuffer entryValue = entry.asReadBuffer();
+                entryValue.movePositionTo(entry.getValuePosition());
+                if (index.getElement() == ElementCategory.VERTEX) {
+                    return VariableLong.readPositive(entryValue);
+                } else {
+                    return bytebuffer2RelationId(entryValue);
                 }
-            }
-            return results.stream();
+            });
+            return Streams.stream(results).limit(sq.getLimit());
         } else {
             return tx.indexQuery(index.getBackingIndexName(), query.getMixedQuery()).map(IndexSerializer::string2ElementId);
         }
     }
 
+    /**
+     * Counts the elements matching the given subquery without retrieving them. Mixed indexes count the matching
+     * documents natively, composite indexes count the distinct element ids of the matching index entries.
+     * The limit of the subquery is ignored.
+     */
+    public long count(JointIndexQuery.Subquery query, BackendTransaction tx) {
+        IndexType index = query.getIndex();
+        if (index.isCompositeIndex()) {
+            //A multi-valued property can match several of the queried values for the same element
+            return query(query.updateLimit(Query.NO_LIMIT), tx).distinct().count();
+        } else {
+            return tx.totals(index.getBackingIndexName(), query.getMixedQuery());
+        }
+    }
+
     public MultiKeySliceQuery getQuery(CompositeIndexType index, List<Object[]> values) {
         List<KeySliceQuery> ksqs = new ArrayList<>(values.size());
         for (Object[] value : values) {
@@ -723,23 +789,27 @@ public class IndexSerializer {
     }
 
     private StaticBuffer getIndexKey(CompositeIndexType index, Object[] values) {
-        DataOutput out = serializer.getDataOutput(8 * DEFAULT_OBJECT_BYTELEN + 8);
-        VariableLong.writePositive(out, index.getID());
-        IndexField[] fields = index.getFieldKeys();
-        Preconditions.checkArgument(fields.length > 0 && fields.length == values.length);
-        for (int i = 0; i < fields.length; i++) {
-            IndexField f = fields[i];
-            Object value = values[i];
-            Preconditions.checkNotNull(value);
-            if (AttributeUtil.hasGenericDataType(f.getFieldKey())) {
-                out.writeClassAndObject(value);
-            } else {
-                out.writeObjectNotNull(value);
+        DataOutput out = serializer.getReusableDataOutput(8 * DEFAULT_OBJECT_BYTELEN + 8);
+        try {
+            VariableLong.writePositive(out, index.getID());
+            IndexField[] fields = index.getFieldKeys();
+            Preconditions.checkArgument(fields.length > 0 && fields.length == values.length);
+            for (int i = 0; i < fields.length; i++) {
+                IndexField f = fields[i];
+                Object value = values[i];
+                Preconditions.checkNotNull(value);
+                if (AttributeUtil.hasGenericDataType(f.getFieldKey())) {
+                    out.writeClassAndObject(value);
+                } else {
+                    out.writeObjectNotNull(value);
+                }
             }
+            StaticBuffer key = out.getStaticBuffer();
+            if (hashKeys) key = HashingUtil.hashPrefixKey(hashLength, key);
+            return key;
+        } finally {
+            serializer.releaseDataOutput(out);
         }
-        StaticBuffer key = out.getStaticBuffer();
-        if (hashKeys) key = HashingUtil.hashPrefixKey(hashLength, key);
-        return key;
     }
 
     public long getIndexIdFromKey(StaticBuffer key) {
@@ -748,26 +818,30 @@ public class IndexSerializer {
     }
 
     private Entry getIndexEntry(CompositeIndexType index, RecordEntry[] record, JanusGraphElement element) {
-        DataOutput out = serializer.getDataOutput(1 + 8 + 8 * record.length + 4 * 8);
-        out.putByte(FIRST_INDEX_COLUMN_BYTE);
-        if (index.getCardinality() != Cardinality.SINGLE) {
-            VariableLong.writePositive(out, element.longId());
-            if (index.getCardinality() != Cardinality.SET) {
-                for (RecordEntry re : record) {
-                    VariableLong.writePositive(out, re.relationId);
+        DataOutput out = serializer.getReusableDataOutput(1 + 8 + 8 * record.length + 4 * 8);
+        try {
+            out.putByte(FIRST_INDEX_COLUMN_BYTE);
+            if (index.getCardinality() != Cardinality.SINGLE) {
+                VariableLong.writePositive(out, element.longId());
+                if (index.getCardinality() != Cardinality.SET) {
+                    for (RecordEntry re : record) {
+                        VariableLong.writePositive(out, re.relationId);
+                    }
                 }
             }
+            int valuePosition = out.getPosition();
+            if (element instanceof JanusGraphVertex) {
+                VariableLong.writePositive(out, element.longId());
+            } else {
+                RelationIdentifier rid = (RelationIdentifier) element.id();
+                long[] longs = rid.getLongRepresentation();
+                Preconditions.checkArgument(longs.length == 3 || longs.length == 4);
+                for (long aLong : longs) VariableLong.writePositive(out, aLong);
+            }
+            return new StaticArrayEntry(out.getStaticBuffer(), valuePosition);
+        } finally {
+            serializer.releaseDataOutput(out);
         }
-        int valuePosition = out.getPosition();
-        if (element instanceof JanusGraphVertex) {
-            VariableLong.writePositive(out, element.longId());
-        } else {
-            RelationIdentifier rid = (RelationIdentifier) element.id();
-            long[] longs = rid.getLongRepresentation();
-            Preconditions.checkArgument(longs.length == 3 || longs.length == 4);
-            for (long aLong : longs) VariableLong.writePositive(out, aLong);
-        }
-        return new StaticArrayEntry(out.getStaticBuffer(), valuePosition);
     }
 
     private static RelationIdentifier bytebuffer2RelationId(ReadBuffer b) {
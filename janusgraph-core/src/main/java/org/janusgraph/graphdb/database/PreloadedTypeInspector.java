@@ -0,0 +1,115 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.RelationType;
+import org.janusgraph.core.VertexLabel;
+import org.janusgraph.graphdb.internal.InternalRelationType;
+import org.janusgraph.graphdb.types.TypeInspector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TypeInspector} which allows relations of a (not thread-safe) transaction to be serialized from multiple
+ * threads while the transaction itself is blocked in its commit.
+ * <p>
+ * Relation types have to be {@link #preload(InternalRelationType) preloaded} on the committing thread. This resolves
+ * their relation indexes and the schema definitions that {@link EdgeSerializer#writeRelation} consults, so that the
+ * serializing threads only read fully loaded schema vertices. Property keys which are not preloaded are resolved
+ * through the transaction one at a time.
+ */
+class PreloadedTypeInspector implements TypeInspector {
+
+    private final TypeInspector tx;
+    private final Map<Long, RelationType> types = new ConcurrentHashMap<>();
+    private final Map<InternalRelationType, List<InternalRelationType>> relationIndexes = new ConcurrentHashMap<>();
+
+    PreloadedTypeInspector(TypeInspector tx) {
+        this.tx = tx;
+    }
+
+    /**
+     * Loads everything needed to serialize relations of the given type. Must be called from the thread owning the
+     * transaction before serialization starts.
+     *
+     * @return the relation indexes of the given type
+     */
+    List<InternalRelationType> preload(InternalRelationType baseType) {
+        return relationIndexes.computeIfAbsent(baseType, t -> {
+            final List<InternalRelationType> indexes = ImmutableList.copyOf(t.getRelationIndexes());
+            t.getTTL();
+            for (InternalRelationType type : indexes) {
+                type.getStatus();
+                type.multiplicity();
+                type.getSortOrder();
+                type.isInvisibleType();
+                for (Direction dir : Direction.values()) type.isUnidirected(dir);
+                for (long keyId : type.getSortKey()) resolve(keyId);
+                for (long keyId : type.getSignature()) resolve(keyId);
+                if (type.isPropertyKey()) ((PropertyKey) type).dataType();
+            }
+            return indexes;
+        });
+    }
+
+    List<InternalRelationType> getRelationIndexes(InternalRelationType baseType) {
+        final List<InternalRelationType> indexes = relationIndexes.get(baseType);
+        Preconditions.checkState(indexes != null, "Relation type has not been preloaded: %s", baseType);
+        return indexes;
+    }
+
+    private synchronized RelationType resolve(long id) {
+        RelationType type = types.get(id);
+        if (type == null) {
+            type = tx.getExistingRelationType(id);
+            if (type.isPropertyKey()) ((PropertyKey) type).dataType();
+            types.put(id, type);
+        }
+        return type;
+    }
+
+    @Override
+    public RelationType getExistingRelationType(long id) {
+        final RelationType type = types.get(id);
+        return type != null ? type : resolve(id);
+    }
+
+    @Override
+    public VertexLabel getExistingVertexLabel(long id) {
+        synchronized (this) {
+            return tx.getExistingVertexLabel(id);
+        }
+    }
+
+    @Override
+    public boolean containsRelationType(String name) {
+        synchronized (this) {
+            return tx.containsRelationType(name);
+        }
+    }
+
+    @Override
+    public RelationType getRelationType(String name) {
+        synchronized (this) {
+            return tx.getRelationType(name);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -87,17 +88,23 @@ import org.janusgraph.graphdb.tinkerpop.JanusGraphFeatures;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphIoRegistry;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphIoRegistryV1d0;
 import org.janusgraph.graphdb.tinkerpop.optimize.AdjacentVertexFilterOptimizerStrategy;
+import org.janusgraph.graphdb.tinkerpop.optimize.CachingTraversalStrategies;
+import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphCountStrategy;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphIoRegistrationStrategy;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphLocalQueryOptimizerStrategy;
+import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphPropertyPrefetchStrategy;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphStepStrategy;
+import org.janusgraph.graphdb.tinkerpop.optimize.TraversalPlanCache;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.janusgraph.graphdb.transaction.StandardTransactionBuilder;
 import org.janusgraph.graphdb.transaction.TransactionConfiguration;
 import org.janusgraph.graphdb.types.CompositeIndexType;
 import org.janusgraph.graphdb.types.MixedIndexType;
+import org.janusgraph.graphdb.types.TypeInspector;
 import org.janusgraph.graphdb.types.system.BaseKey;
 import org.janusgraph.graphdb.types.system.BaseRelationType;
 import org.janusgraph.graphdb.types.vertices.JanusGraphSchemaVertex;
+import org.janusgraph.util.stats.MetricManager;
 import org.janusgraph.util.system.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -108,6 +115,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -115,12 +123,18 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REGISTRATION_TIME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REPLACE_INSTANCE_IF_EXISTS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TRAVERSAL_PLAN_CACHE_SIZE;
 
 public class StandardJanusGraph implements JanusGraph {
 
@@ -132,9 +146,11 @@ public class StandardJanusGraph implements JanusGraph {
     private static final Predicate<InternalRelation> NO_FILTER = internalRelation -> true;
 
     static {
-        TraversalStrategies graphStrategies = TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone()
+        TraversalStrategies graphStrategies = new CachingTraversalStrategies()
+                .addStrategies(TraversalStrategies.GlobalCache.getStrategies(Graph.class).toList().toArray(new TraversalStrategy<?>[0]))
                 .addStrategies(AdjacentVertexFilterOptimizerStrategy.instance(),
                         JanusGraphLocalQueryOptimizerStrategy.instance(), JanusGraphStepStrategy.instance(),
+                        JanusGraphCountStrategy.instance(), JanusGraphPropertyPrefetchStrategy.instance(),
                         JanusGraphIoRegistrationStrategy.instance());
 
         //Register with cache
@@ -157,6 +173,7 @@ public class StandardJanusGraph implements JanusGraph {
     public final SliceQuery vertexExistenceQuery;
     private final RelationQueryCache queryCache;
     private final SchemaCache schemaCache;
+    private final TraversalPlanCache traversalPlanCache;
 
     //Log
     private final ManagementLogger managementLogger;
@@ -196,6 +213,7 @@ public class StandardJanusGraph implements JanusGraph {
         // Collaborators (Caches)
         this.queryCache = new RelationQueryCache(this.edgeSerializer);
         this.schemaCache = configuration.getTypeCache(typeCacheRetrieval);
+        this.traversalPlanCache = new TraversalPlanCache(configuration.getConfiguration().get(TRAVERSAL_PLAN_CACHE_SIZE));
 
 
         // Log Manager
@@ -481,6 +499,10 @@ public class StandardJanusGraph implements JanusGraph {
         return schemaCache;
     }
 
+    public TraversalPlanCache getTraversalPlanCache() {
+        return traversalPlanCache;
+    }
+
     public GraphDatabaseConfiguration getConfiguration() {
         return config;
     }
@@ -732,38 +754,16 @@ public class StandardJanusGraph implements JanusGraph {
         }
 
         //5) Add relation mutations
-        for (Long vertexId : mutations.keySet()) {
-            Preconditions.checkArgument(vertexId > 0, "Vertex has no id: %s", vertexId);
-            List<InternalRelation> edges = mutations.get(vertexId);
-            List<Entry> additions = new ArrayList<>(edges.size());
-            List<Entry> deletions = new ArrayList<>(Math.max(10, edges.size() / 10));
-            for (InternalRelation edge : edges) {
-                InternalRelationType baseType = (InternalRelationType) edge.getType();
-
-                for (InternalRelationType type : baseType.getRelationIndexes()) {
-                    if (type.getStatus() == SchemaStatus.DISABLED) continue;
-                    for (int pos = 0; pos < edge.getArity(); pos++) {
-                        if (!type.isUnidirected(Direction.BOTH) && !type.isUnidirected(EdgeDirection.fromPosition(pos)))
-                            continue; //Directionality is not covered
-                        if (edge.getVertex(pos).longId() == vertexId) {
-                            StaticArrayEntry entry = edgeSerializer.writeRelation(edge, type, pos, tx);
-                            if (edge.isRemoved()) {
-                                deletions.add(entry);
-                            } else {
-                                Preconditions.checkArgument(edge.isNew());
-                                int ttl = getTTL(edge);
-                                if (ttl > 0) {
-                                    entry.setMetaData(EntryMetaData.TTL, ttl);
-                                }
-                                additions.add(entry);
-                            }
-                        }
-                    }
-                }
+        if (config.getParallelPrepareThreshold() > 0 && mutations.keySet().size() >= config.getParallelPrepareThreshold()
+                && backend.getThreadPool() != null) {
+            addRelationMutationsInParallel(mutations, mutator, tx);
+        } else {
+            for (Long vertexId : mutations.keySet()) {
+                Preconditions.checkArgument(vertexId > 0, "Vertex has no id: %s", vertexId);
+                final RelationMutation mutation = serializeRelations(vertexId, mutations.get(vertexId),
+                    InternalRelationType::getRelationIndexes, StandardJanusGraph::getTTL, tx);
+                mutator.mutateEdges(idManager.getKey(vertexId), mutation.additions, mutation.deletions);
             }
-
-            StaticBuffer vertexKey = idManager.getKey(vertexId);
-            mutator.mutateEdges(vertexKey, additions, deletions);
         }
 
         //6) Add index updates
@@ -789,6 +789,142 @@ public class StandardJanusGraph implements JanusGraph {
         return new ModificationSummary(!mutations.isEmpty(), has2iMods);
     }
 
+    private static class RelationMutation {
+        final List<Entry> additions;
+        final List<Entry> deletions;
+
+        private RelationMutation(List<Entry> additions, List<Entry> deletions) {
+            this.additions = additions;
+            this.deletions = deletions;
+        }
+    }
+
+    private RelationMutation serializeRelations(long vertexId, List<InternalRelation> edges,
+                                                Function<InternalRelationType, Iterable<InternalRelationType>> relationIndexes,
+                                                ToIntFunction<InternalRelation> ttls, TypeInspector tx) {
+        List<Entry> additions = new ArrayList<>(edges.size());
+        List<Entry> deletions = new ArrayList<>(Math.max(10, edges.size() / 10));
+        for (InternalRelation edge : edges) {
+            InternalRelationType baseType = (InternalRelationType) edge.getType();
+
+            for (InternalRelationType type : relationIndexes.apply(baseType)) {
+                if (type.getStatus() == SchemaStatus.DISABLED) continue;
+                for (int pos = 0; pos < edge.getArity(); pos++) {
+                    if (!type.isUnidirected(Direction.BOTH) && !type.isUnidirected(EdgeDirection.fromPosition(pos)))
+                        continue; //Directionality is not covered
+                    if (edge.getVertex(pos).longId() == vertexId) {
+                        StaticArrayEntry entry = edgeSerializer.writeRelation(edge, type, pos, tx);
+                        if (edge.isRemoved()) {
+                            deletions.add(entry);
+                        } else {
+                            Preconditions.checkArgument(edge.isNew());
+                            int ttl = ttls.applyAsInt(edge);
+                            if (ttl > 0) {
+                                entry.setMetaData(EntryMetaData.TTL, ttl);
+                            }
+                            additions.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+        return new RelationMutation(additions, deletions);
+    }
+
+    /**
+     * Serializes the added relations of each mutated vertex on the thread pool of the graph. Everything that needs the
+     * (not thread-safe) transaction is resolved upfront on the committing thread. This includes the deleted relations,
+     * since loaded relations read their properties through the transaction. The committing thread takes part in the
+     * serialization, so that it completes even if no thread of the pool is available. The resulting mutations are
+     * handed to the backend transaction in the same order as when serializing sequentially.
+     */
+    private void addRelationMutationsInParallel(ListMultimap<Long, InternalRelation> mutations, BackendTransaction mutator,
+                                                StandardJanusGraphTx tx) throws BackendException {
+        final int numVertices = mutations.keySet().size();
+        final long[] vertexIds = new long[numVertices];
+        final List<List<InternalRelation>> additions = new ArrayList<>(numVertices);
+        final List<List<Entry>> deletions = new ArrayList<>(numVertices);
+        final PreloadedTypeInspector types = new PreloadedTypeInspector(tx);
+        final Map<InternalRelation, Integer> ttls = new IdentityHashMap<>();
+        for (Long vertexId : mutations.keySet()) {
+            Preconditions.checkArgument(vertexId > 0, "Vertex has no id: %s", vertexId);
+            final List<InternalRelation> added = new ArrayList<>();
+            final List<InternalRelation> removed = new ArrayList<>();
+            for (InternalRelation relation : mutations.get(vertexId)) {
+                if (relation.isRemoved()) {
+                    removed.add(relation);
+                    continue;
+                }
+                types.preload((InternalRelationType) relation.getType());
+                final int ttl = getTTL(relation);
+                if (ttl > 0) ttls.put(relation, ttl);
+                added.add(relation);
+            }
+            vertexIds[additions.size()] = vertexId;
+            additions.add(added);
+            deletions.add(removed.isEmpty() ? Collections.emptyList() : serializeRelations(vertexId, removed,
+                InternalRelationType::getRelationIndexes, StandardJanusGraph::getTTL, tx).deletions);
+        }
+
+        final RelationMutation[] serialized = new RelationMutation[numVertices];
+        final AtomicInteger next = new AtomicInteger();
+        final Runnable serializer = () -> {
+            for (int pos = next.getAndIncrement(); pos < numVertices; pos = next.getAndIncrement()) {
+                serialized[pos] = serializeRelations(vertexIds[pos], additions.get(pos),
+                    types::getRelationIndexes, relation -> ttls.getOrDefault(relation, 0), types);
+            }
+        };
+        final int numHelpers = Math.min(numVertices, Runtime.getRuntime().availableProcessors()) - 1;
+        final List<FutureTask<Void>> helpers = new ArrayList<>(numHelpers);
+        for (int i = 0; i < numHelpers; i++) {
+            final FutureTask<Void> helper = new FutureTask<>(serializer, null);
+            try {
+                backend.getThreadPool().execute(helper);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+            helpers.add(helper);
+        }
+        if (null != tx.getConfiguration().getGroupName()) {
+            MetricManager.INSTANCE.getCounter(tx.getConfiguration().getGroupName(), "tx", "prepare.parallel").inc();
+        }
+        try {
+            serializer.run();
+        } finally {
+            //Helpers which have not started yet are not needed anymore, the others are waited for
+            for (FutureTask<Void> helper : helpers) helper.cancel(false);
+            awaitHelpers(helpers);
+        }
+
+        for (int pos = 0; pos < numVertices; pos++) {
+            mutator.mutateEdges(idManager.getKey(vertexIds[pos]), serialized[pos].additions, deletions.get(pos));
+        }
+    }
+
+    private static void awaitHelpers(List<FutureTask<Void>> helpers) {
+        RuntimeException failure = null;
+        boolean interrupted = false;
+        for (FutureTask<Void> helper : helpers) {
+            while (!helper.isCancelled()) {
+                try {
+                    helper.get();
+                    break;
+                } catch (InterruptedException e) {
+                    //The helper writes into the serialized mutations, so it has to complete before they are used
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                            : new JanusGraphException("Could not serialize relations", e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (failure != null) throw failure;
+    }
+
     public void commit(Collection<InternalRelation> addedRelations, Collection<InternalRelation> deletedRelations, StandardJanusGraphTx tx) {
         if (addedRelations.isEmpty() && deletedRelations.isEmpty()) {
             return;
@@ -825,6 +961,9 @@ public class StandardJanusGraph implements JanusGraph {
             //    transactional isolation
             boolean hasSchemaElements = !Iterables.isEmpty(Iterables.filter(deletedRelations, SCHEMA_FILTER::test)) || !Iterables.isEmpty(Iterables.filter(addedRelations, SCHEMA_FILTER::test));
 
+            //Traversal plans may depend on which types exist
+            if (hasSchemaElements) traversalPlanCache.invalidate();
+
             if (hasSchemaElements && !hasTxIsolation) {
                 /*
                  * On storage without transactional isolation, create separate
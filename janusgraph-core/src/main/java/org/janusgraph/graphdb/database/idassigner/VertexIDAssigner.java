@@ -34,6 +34,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.graphdb.database.idassigner.placement.IDPlacementStrategy;
+import org.janusgraph.graphdb.database.idassigner.placement.NeighborPlacementStrategy;
 import org.janusgraph.graphdb.database.idassigner.placement.PartitionAssignment;
 import org.janusgraph.graphdb.database.idassigner.placement.PartitionIDRange;
 import org.janusgraph.graphdb.database.idassigner.placement.SimpleBulkPlacementStrategy;
@@ -75,7 +76,9 @@ public class VertexIDAssigner implements AutoCloseable {
     public static final ConfigOption<String> PLACEMENT_STRATEGY = new ConfigOption<>(IDS_NS, "placement",
             "Name of the vertex placement strategy or full class name", ConfigOption.Type.MASKABLE, "simple");
 
-    private static final Map<String, String> REGISTERED_PLACEMENT_STRATEGIES = ImmutableMap.of("simple", SimpleBulkPlacementStrategy.class.getName());
+    private static final Map<String, String> REGISTERED_PLACEMENT_STRATEGIES = ImmutableMap.of(
+            "simple", SimpleBulkPlacementStrategy.class.getName(),
+            "neighbor", NeighborPlacementStrategy.class.getName());
 
 
     private final ConcurrentMap<Integer, PartitionIDPool> idPools;
@@ -0,0 +1,161 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.graphdb.database.idassigner.placement;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.AtomicLongMap;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.util.stats.MetricManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A placement strategy that places new vertices in the partition of their neighbors.
+ * <p>
+ * The new vertices of a transaction are grouped into components which are connected through the edges added in that
+ * transaction. Each component is placed in the partition which the most edges of the component lead to, provided that
+ * the component has edges to vertices which already have an id, and that this partition is neither exhausted nor
+ * overfull. All other components are placed like {@link SimpleBulkPlacementStrategy} places vertices.
+ * <p>
+ * A partition is overfull once it holds more than the configured multiple of the average number of vertices placed
+ * per partition. Only the vertices placed by this instance are taken into account. If metrics are enabled, the number
+ * of edges from placed vertices to identified neighbors in the same partition and in a different partition are
+ * reported.
+ */
+@PreInitializeConfigOptions
+public class NeighborPlacementStrategy extends SimpleBulkPlacementStrategy {
+
+    public static final ConfigOption<Double> MAX_PARTITION_IMBALANCE = new ConfigOption<>(GraphDatabaseConfiguration.IDS_NS,
+            "max-partition-imbalance", "Maximum ratio between the number of vertices placed in a partition and the average " +
+            "number of vertices placed per partition, beyond which vertices are no longer placed next to their neighbors " +
+            "in that partition", ConfigOption.Type.MASKABLE, 1.5, d -> d != null && d >= 1.0);
+
+    /**
+     * Partitions are not considered overfull before they hold this many vertices
+     */
+    public static final long MIN_BALANCED_PARTITION_SIZE = 1000;
+
+    public static final String METRICS_NAME = "idplacement";
+    public static final String METRICS_LOCAL_EDGES = "edges-local";
+    public static final String METRICS_CUT_EDGES = "edges-cut";
+
+    private final double maxImbalance;
+    private final boolean metricsEnabled;
+    private final AtomicLongMap<Integer> partitionSizes = AtomicLongMap.create();
+    private final AtomicLong placedVertices = new AtomicLong();
+    private IDManager idManager;
+
+    public NeighborPlacementStrategy(Configuration config) {
+        super(config);
+        this.maxImbalance = config.get(MAX_PARTITION_IMBALANCE);
+        this.metricsEnabled = config.get(GraphDatabaseConfiguration.BASIC_METRICS);
+    }
+
+    public NeighborPlacementStrategy(int concurrentPartitions, double maxImbalance) {
+        super(concurrentPartitions);
+        Preconditions.checkArgument(maxImbalance >= 1.0, "Invalid imbalance: %s", maxImbalance);
+        this.maxImbalance = maxImbalance;
+        this.metricsEnabled = false;
+    }
+
+    @Override
+    public void injectIDManager(IDManager idManager) {
+        Preconditions.checkNotNull(idManager);
+        this.idManager = idManager;
+    }
+
+    @Override
+    public void getPartitions(Map<InternalVertex, PartitionAssignment> vertices) {
+        Preconditions.checkState(idManager != null, "NeighborPlacementStrategy has not been initialized correctly");
+        super.getPartitions(vertices);
+        final Set<InternalVertex> visited = new HashSet<>(vertices.size());
+        for (InternalVertex vertex : vertices.keySet()) {
+            if (visited.add(vertex)) placeComponent(vertex, vertices, visited);
+        }
+    }
+
+    /**
+     * Collects the new vertices connected to the given one and places them in the partition of their neighbors
+     */
+    private void placeComponent(InternalVertex start, Map<InternalVertex, PartitionAssignment> vertices, Set<InternalVertex> visited) {
+        final List<InternalVertex> component = new ArrayList<>();
+        final Map<Integer, Integer> neighborPartitions = new HashMap<>();
+        final Queue<InternalVertex> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final InternalVertex vertex = queue.remove();
+            component.add(vertex);
+            for (InternalRelation edge : vertex.getAddedRelations(InternalRelation::isEdge)) {
+                for (int pos = 0; pos < edge.getArity(); pos++) {
+                    final InternalVertex neighbor = edge.getVertex(pos);
+                    if (neighbor.equals(vertex)) continue;
+                    if (vertices.containsKey(neighbor)) {
+                        if (visited.add(neighbor)) queue.add(neighbor);
+                    } else if (neighbor.hasId() && idManager.isUserVertexId(neighbor.longId())
+                            && !idManager.isPartitionedVertex(neighbor.longId())) {
+                        neighborPartitions.merge((int) idManager.getPartitionId(neighbor.longId()), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        final int defaultPartition = vertices.get(start).getPartitionID();
+        final int partition = neighborPartitions.entrySet().stream()
+            .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder()))
+            .map(Map.Entry::getKey)
+            .filter(p -> !isExhaustedPartition(p) && !isOverfull(p, component.size()))
+            .findFirst().orElse(defaultPartition);
+        if (partition != defaultPartition) {
+            final PartitionAssignment assignment = new SimplePartitionAssignment(partition);
+            for (InternalVertex vertex : component) vertices.put(vertex, assignment);
+        }
+        partitionSizes.addAndGet(partition, component.size());
+        placedVertices.addAndGet(component.size());
+
+        if (metricsEnabled && !neighborPartitions.isEmpty()) {
+            final int total = neighborPartitions.values().stream().mapToInt(Integer::intValue).sum();
+            final int local = neighborPartitions.getOrDefault(partition, 0);
+            incEdges(METRICS_LOCAL_EDGES, local);
+            incEdges(METRICS_CUT_EDGES, total - local);
+        }
+    }
+
+    private boolean isOverfull(int partition, int additionalVertices) {
+        final double average = (double) (placedVertices.get() + additionalVertices) / idManager.getPartitionBound();
+        return partitionSizes.get(partition) + additionalVertices > Math.max(MIN_BALANCED_PARTITION_SIZE, maxImbalance * average);
+    }
+
+    private static void incEdges(String type, long count) {
+        if (count > 0) {
+            MetricManager.INSTANCE.getCounter(GraphDatabaseConfiguration.METRICS_SYSTEM_PREFIX_DEFAULT, METRICS_NAME, type).inc(count);
+        }
+    }
+}
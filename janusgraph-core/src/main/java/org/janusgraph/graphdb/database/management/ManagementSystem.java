@@ -70,6 +70,7 @@ import org.janusgraph.graphdb.internal.JanusGraphSchemaCategory;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.internal.Token;
 import org.janusgraph.graphdb.olap.VertexJobConverter;
+import org.janusgraph.graphdb.olap.job.IndexCatchUpJob;
 import org.janusgraph.graphdb.olap.job.IndexRemoveJob;
 import org.janusgraph.graphdb.olap.job.IndexRepairJob;
 import org.janusgraph.graphdb.query.QueryUtil;
@@ -119,6 +120,7 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REGISTRATION_NS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REINDEX_CATCH_UP;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REGISTRATION_TIME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.ROOT_NS;
 import static org.janusgraph.graphdb.database.management.RelationTypeIndexWrapper.RELATION_INDEX_SEPARATOR;
@@ -240,6 +242,7 @@ public class ManagementSystem implements JanusGraphManagement {
             for (JanusGraphSchemaVertex schemaVertex : updatedTypes) {
                 schemaCache.expireSchemaElement(schemaVertex.longId());
             }
+            graph.getTraversalPlanCache().invalidate();
         }
 
         if (graphShutdownRequired) graph.close();
@@ -796,6 +799,21 @@ public class ManagementSystem implements JanusGraphManagement {
     Schema Update
      --------------- */
 
+    /**
+     * A REINDEX with {@code schema.reindex-catch-up} enabled may also start on an INSTALLED index, which is
+     * then registered before the transaction log is replayed.
+     */
+    private Set<SchemaStatus> getApplicableStatus(SchemaAction updateAction) {
+        if (updateAction == SchemaAction.REINDEX && graph.getConfiguration().getConfiguration().get(REINDEX_CATCH_UP)) {
+            return Sets.union(updateAction.getApplicableStatus(), ImmutableSet.of(SchemaStatus.INSTALLED));
+        }
+        return updateAction.getApplicableStatus();
+    }
+
+    private boolean isApplicableStatus(SchemaAction updateAction, SchemaStatus status) {
+        return getApplicableStatus(updateAction).contains(status) || updateAction.isApplicableStatus(status);
+    }
+
     @Override
     public IndexJobFuture updateIndex(Index index, SchemaAction updateAction) {
         Preconditions.checkArgument(index != null, "Need to provide an index");
@@ -806,14 +824,14 @@ public class ManagementSystem implements JanusGraphManagement {
         Set<PropertyKeyVertex> keySubset = ImmutableSet.of();
         if (index instanceof RelationTypeIndex) {
             dependentTypes = ImmutableSet.of((JanusGraphSchemaVertex) ((InternalRelationType) schemaVertex).getBaseType());
-            if (!updateAction.isApplicableStatus(schemaVertex.getStatus())) {
+            if (!isApplicableStatus(updateAction, schemaVertex.getStatus())) {
                 return null;
             }
         } else if (index instanceof JanusGraphIndex) {
             IndexType indexType = schemaVertex.asIndexType();
             dependentTypes = Sets.newHashSet();
             if (indexType.isCompositeIndex()) {
-                if (!updateAction.isApplicableStatus(schemaVertex.getStatus())) {
+                if (!isApplicableStatus(updateAction, schemaVertex.getStatus())) {
                     return null;
                 }
                 for (PropertyKey key : ((JanusGraphIndex) index).getFieldKeys()) {
@@ -822,7 +840,7 @@ public class ManagementSystem implements JanusGraphManagement {
             } else {
                 keySubset = Sets.newHashSet();
                 MixedIndexType mixedIndexType = (MixedIndexType) indexType;
-                Set<SchemaStatus> applicableStatus = updateAction.getApplicableStatus();
+                Set<SchemaStatus> applicableStatus = getApplicableStatus(updateAction);
                 for (ParameterIndexField field : mixedIndexType.getFieldKeys()) {
                     if (applicableStatus.contains(field.getStatus()))
                         keySubset.add((PropertyKeyVertex) field.getFieldKey());
@@ -848,7 +866,14 @@ public class ManagementSystem implements JanusGraphManagement {
                 break;
             case REINDEX:
                 builder = graph.getBackend().buildEdgeScanJob();
-                builder.setFinishJob(indexId.getIndexJobFinisher(graph, SchemaAction.ENABLE_INDEX));
+                if (graph.getConfiguration().getConfiguration().get(REINDEX_CATCH_UP)) {
+                    Preconditions.checkState(graph.getConfiguration().hasLogTransactions(),
+                            "Transaction logging must be enabled to catch up on index [%s] after reindexing", indexId);
+                    Instant scanStart = graph.getConfiguration().getTimestampProvider().getTime();
+                    builder.setFinishJob(indexId.getIndexJobFinisher(graph, SchemaAction.ENABLE_INDEX, scanStart));
+                } else {
+                    builder.setFinishJob(indexId.getIndexJobFinisher(graph, SchemaAction.ENABLE_INDEX));
+                }
                 builder.setJobId(indexId);
                 builder.setJob(VertexJobConverter.convert(graph, new IndexRepairJob(indexId.indexName, indexId.relationTypeName)));
                 try {
@@ -1111,14 +1136,55 @@ public class ManagementSystem implements JanusGraphManagement {
             return indexName.equals(oth.indexName) && (relationTypeName == oth.relationTypeName || (relationTypeName != null && relationTypeName.equals(oth.relationTypeName)));
         }
 
+        /**
+         * Registers the index if it is still INSTALLED and waits until all instances have acknowledged it, so that
+         * all transactions committed afterwards write to the index.
+         */
+        private boolean awaitRegistered(JanusGraph graph) throws InterruptedException {
+            ManagementSystem management = (ManagementSystem) graph.openManagement();
+            try {
+                Index index = retrieve(management);
+                management.updateIndex(index, SchemaAction.REGISTER_INDEX);
+            } finally {
+                management.commit();
+            }
+            if (relationTypeName == null) {
+                return awaitGraphIndexStatus(graph, indexName).status(SchemaStatus.REGISTERED, SchemaStatus.ENABLED).call().getSucceeded();
+            } else {
+                return awaitRelationIndexStatus(graph, indexName, relationTypeName).status(SchemaStatus.REGISTERED, SchemaStatus.ENABLED).call().getSucceeded();
+            }
+        }
+
         public Consumer<ScanMetrics> getIndexJobFinisher() {
             return getIndexJobFinisher(null, null);
         }
 
         public Consumer<ScanMetrics> getIndexJobFinisher(JanusGraph graph, SchemaAction action) {
+            return getIndexJobFinisher(graph, action, null);
+        }
+
+        /**
+         * If a catch-up start time is given, the index is registered with all instances after a successful job if
+         * it is still INSTALLED, and the transaction log is then replayed from that time through an
+         * {@link IndexCatchUpJob} before the given action is applied to the index.
+         */
+        public Consumer<ScanMetrics> getIndexJobFinisher(JanusGraph graph, SchemaAction action, Instant catchUpStart) {
             Preconditions.checkArgument((graph != null && action != null) || (graph == null && action == null));
+            Preconditions.checkArgument(catchUpStart == null || graph != null);
             return metrics -> {
                 try {
+                    if (metrics.get(ScanMetrics.Metric.FAILURE) == 0 && catchUpStart != null && !awaitRegistered(graph)) {
+                        LOG.error("Index [{}] was not registered with all instances in time", IndexIdentifier.this.toString());
+                        metrics.increment(ScanMetrics.Metric.FAILURE);
+                    }
+                    if (metrics.get(ScanMetrics.Metric.FAILURE) == 0 && catchUpStart != null) {
+                        ScanMetrics catchUpMetrics = new IndexCatchUpJob((StandardJanusGraph) graph, indexName, relationTypeName).run(catchUpStart);
+                        LOG.info("Caught up on index [{}] by reindexing {} vertices", IndexIdentifier.this.toString(),
+                                catchUpMetrics.getCustom(IndexCatchUpJob.REINDEXED_VERTEX_COUNT));
+                        if (catchUpMetrics.get(ScanMetrics.Metric.FAILURE) > 0) {
+                            metrics.increment(ScanMetrics.Metric.FAILURE);
+                        }
+                    }
                     if (metrics.get(ScanMetrics.Metric.FAILURE) == 0) {
                         if (action != null) {
                             ManagementSystem management = (ManagementSystem) graph.openManagement();
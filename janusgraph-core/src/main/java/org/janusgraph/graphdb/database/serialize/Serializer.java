@@ -30,4 +30,24 @@ public interface Serializer extends AttributeHandler, Closeable {
 
     DataOutput getDataOutput(int initialCapacity);
 
+    /**
+     * Returns a {@link DataOutput} that is confined to the calling thread and reused across calls, which avoids
+     * allocating and growing a new buffer for every serialized entry. The output is released by retrieving its
+     * content through {@link DataOutput#getStaticBuffer()} or {@link DataOutput#getStaticBufferFlipBytes(int, int)};
+     * it must not be used afterwards. Callers must release it through {@link #releaseDataOutput(DataOutput)} if
+     * they do not retrieve its content, e.g. because serialization failed.
+     *
+     * @param initialCapacity capacity hint for the output
+     */
+    default DataOutput getReusableDataOutput(int initialCapacity) {
+        return getDataOutput(initialCapacity);
+    }
+
+    /**
+     * Releases an output obtained through {@link #getReusableDataOutput(int)} without retrieving its content.
+     * Has no effect if the output has already been released.
+     */
+    default void releaseDataOutput(DataOutput out) {
+    }
+
 }
@@ -24,6 +24,7 @@ import org.janusgraph.diskstorage.ScanBuffer;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.WriteBuffer;
 import org.janusgraph.diskstorage.idmanagement.ConflictAvoidanceMode;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.WriteByteBuffer;
 import org.janusgraph.diskstorage.util.time.TimestampProviders;
 import org.janusgraph.graphdb.database.idhandling.VariableLong;
@@ -46,6 +47,7 @@ import org.apache.tinkerpop.shaded.jackson.databind.node.ArrayNode;
 import org.apache.tinkerpop.shaded.jackson.databind.node.ObjectNode;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -64,8 +66,15 @@ public class StandardSerializer implements AttributeHandler, Serializer {
     private static final int CLASS_REGISTRATION_OFFSET = 100;
     private static final int MAX_REGISTRATION_NO = 100000;
 
+    private static final int REUSABLE_OUTPUT_CAPACITY = 8 * 1024;
+
     private final BiMap<Integer,Class> registrations;
     private final Map<Class,AttributeSerializer> handlers;
+    /**
+     * The reusable outputs do not reference this serializer while they are not in use, so that the entries of
+     * threads which outlive it do not keep it reachable.
+     */
+    private final ThreadLocal<StandardDataOutput> reusableOutputs = ThreadLocal.withInitial(StandardDataOutput::new);
 
     public StandardSerializer() {
         handlers = new HashMap<>(60);
@@ -275,23 +284,90 @@ public class StandardSerializer implements AttributeHandler, Serializer {
 
     @Override
     public DataOutput getDataOutput(int initialCapacity) {
-        return new StandardDataOutput(initialCapacity);
+        return new StandardDataOutput(this, initialCapacity);
+    }
+
+    @Override
+    public DataOutput getReusableDataOutput(int initialCapacity) {
+        StandardDataOutput out = reusableOutputs.get();
+        if (out.inUse) {
+            //Nested use on the same thread, e.g. from within an attribute serializer
+            return getDataOutput(initialCapacity);
+        }
+        out.acquire(this, initialCapacity);
+        return out;
+    }
+
+    @Override
+    public void releaseDataOutput(DataOutput out) {
+        if (out instanceof StandardDataOutput) ((StandardDataOutput) out).release();
     }
 
     @Override
     public void close() throws IOException {
-        //Nothing to close
+        reusableOutputs.remove();
     }
 
-    private class StandardDataOutput extends WriteByteBuffer implements DataOutput {
+    private static class StandardDataOutput extends WriteByteBuffer implements DataOutput {
 
-        private StandardDataOutput(int initialCapacity) {
+        private final boolean reusable;
+        private StandardSerializer serializer;
+        private boolean inUse = false;
+        /**
+         * Reusable outputs write into this array and copy their content into a buffer of the exact length when it
+         * is retrieved. Serialized keys and entries are retained by caches and stores, so they must not pin it.
+         */
+        private byte[] scratch = null;
+
+        private StandardDataOutput(StandardSerializer serializer, int initialCapacity) {
             super(initialCapacity);
+            this.serializer = serializer;
+            this.reusable = false;
+        }
+
+        private StandardDataOutput() {
+            super(0);
+            this.reusable = true;
+        }
+
+        private void acquire(StandardSerializer serializer, int initialCapacity) {
+            if (scratch == null || scratch.length < initialCapacity) {
+                scratch = new byte[Math.max(REUSABLE_OUTPUT_CAPACITY, initialCapacity)];
+            }
+            reset(ByteBuffer.wrap(scratch));
+            this.serializer = serializer;
+            inUse = true;
+        }
+
+        /**
+         * Makes a reusable output available again without retrieving its content.
+         */
+        private void release() {
+            if (!reusable) return;
+            //Drops a buffer which outgrew the scratch array as well as the serializer
+            reset(ByteBuffer.wrap(scratch));
+            serializer = null;
+            inUse = false;
+        }
+
+        @Override
+        public StaticBuffer getStaticBuffer() {
+            return getStaticBufferFlipBytes(0, 0);
+        }
+
+        @Override
+        public StaticBuffer getStaticBufferFlipBytes(int from, int to) {
+            StaticBuffer result = super.getStaticBufferFlipBytes(from, to);
+            if (reusable) {
+                result = result.as((array, offset, limit) -> new StaticArrayBuffer(Arrays.copyOfRange(array, offset, limit)));
+                release();
+            }
+            return result;
         }
 
         @Override
         public DataOutput writeObjectByteOrder(Object object, Class type) {
-            Preconditions.checkArgument(StandardSerializer.this.isOrderPreservingDatatype(type),"Invalid serializer for class: %s",type);
+            Preconditions.checkArgument(serializer.isOrderPreservingDatatype(type),"Invalid serializer for class: %s",type);
             return writeObjectInternal(object,type,true);
         }
 
@@ -306,8 +382,8 @@ public class StandardSerializer implements AttributeHandler, Serializer {
         }
 
         private DataOutput writeObjectInternal(Object object, Class type, boolean byteOrder) {
-            if (supportsNullSerialization(type)) {
-                AttributeSerializer s = getSerializer(type);
+            if (serializer.supportsNullSerialization(type)) {
+                AttributeSerializer s = serializer.getSerializer(type);
                 if (byteOrder) ensureOrderPreserving(s,type).writeByteOrder(this,object);
                 else s.write(this, object);
             } else {
@@ -325,7 +401,7 @@ public class StandardSerializer implements AttributeHandler, Serializer {
         private DataOutput writeObjectNotNullInternal(Object object, boolean byteOrder) {
             Preconditions.checkNotNull(object);
             Class type = object.getClass();
-            AttributeSerializer s = getSerializer(type);
+            AttributeSerializer s = serializer.getSerializer(type);
             if (byteOrder) {
                 ensureOrderPreserving(s,type).writeByteOrder(this,object);
             } else {
@@ -339,7 +415,7 @@ public class StandardSerializer implements AttributeHandler, Serializer {
             if (object==null) VariableLong.writePositive(this,0);
             else {
                 Class type = object.getClass();
-                VariableLong.writePositive(this,getDataTypeRegistration(type));
+                VariableLong.writePositive(this,serializer.getDataTypeRegistration(type));
                 writeObjectNotNullInternal(object,false);
             }
             return this;
@@ -0,0 +1,117 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.job;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.RateLimiter;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BackendOperation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes index entries directly into a store of the storage backend. Entries are buffered in key order and
+ * persisted in batches of the configured size through
+ * {@link KeyColumnValueStoreManager#mutateMany(Map, StoreTransaction)}, which avoids the per-mutation bookkeeping
+ * and cache invalidation of the transaction cache. An optional rate limit throttles the number of entries written
+ * per second.
+ * <p>
+ * Instances are not thread-safe; every worker of an {@link IndexRepairJob} uses its own writer.
+ */
+class IndexBulkWriter {
+
+    private final KeyColumnValueStoreManager manager;
+    private final String storeName;
+    private final BaseTransactionConfig txConfig;
+    private final int batchSize;
+    private final RateLimiter rateLimiter;
+    private final Duration maxWriteTime;
+
+    private final TreeMap<StaticBuffer, List<Entry>> batch = new TreeMap<>();
+    private int batchEntries = 0;
+
+    IndexBulkWriter(KeyColumnValueStoreManager manager, String storeName, BaseTransactionConfig txConfig,
+                    int batchSize, int maxWriteRate, Duration maxWriteTime) {
+        Preconditions.checkArgument(manager != null && storeName != null && txConfig != null);
+        Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+        Preconditions.checkArgument(maxWriteRate >= 0, "Invalid write rate: %s", maxWriteRate);
+        this.manager = manager;
+        this.storeName = storeName;
+        this.txConfig = txConfig;
+        this.batchSize = batchSize;
+        this.rateLimiter = maxWriteRate > 0 ? RateLimiter.create(maxWriteRate) : null;
+        this.maxWriteTime = maxWriteTime;
+    }
+
+    /**
+     * Adds the given entry under the given key to the current batch and persists the batch once it is full.
+     *
+     * @return the number of entries persisted by this call
+     */
+    int add(StaticBuffer key, Entry entry) {
+        batch.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        batchEntries++;
+        return batchEntries >= batchSize ? flush() : 0;
+    }
+
+    /**
+     * Persists all buffered entries.
+     *
+     * @return the number of entries persisted
+     */
+    int flush() {
+        if (batchEntries == 0) return 0;
+        if (rateLimiter != null) rateLimiter.acquire(batchEntries);
+        Map<StaticBuffer, KCVMutation> mutations = new TreeMap<>();
+        for (Map.Entry<StaticBuffer, List<Entry>> entry : batch.entrySet()) {
+            mutations.put(entry.getKey(), new KCVMutation(entry.getValue(), KeyColumnValueStore.NO_DELETIONS));
+        }
+        BackendOperation.execute(() -> {
+            StoreTransaction tx = manager.beginTransaction(txConfig);
+            try {
+                manager.mutateMany(ImmutableMap.of(storeName, mutations), tx);
+                tx.commit();
+            } catch (BackendException e) {
+                tx.rollback();
+                throw e;
+            }
+            return true;
+        }, maxWriteTime);
+        int persisted = batchEntries;
+        batch.clear();
+        batchEntries = 0;
+        return persisted;
+    }
+
+    /**
+     * Drops all buffered entries without persisting them.
+     */
+    void clear() {
+        batch.clear();
+        batchEntries = 0;
+    }
+}
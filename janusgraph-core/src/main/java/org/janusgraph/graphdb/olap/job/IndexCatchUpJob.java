@@ -0,0 +1,211 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.job;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.log.Change;
+import org.janusgraph.diskstorage.configuration.BasicConfiguration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanMetrics;
+import org.janusgraph.diskstorage.log.Message;
+import org.janusgraph.diskstorage.log.MessageReader;
+import org.janusgraph.diskstorage.util.time.TimestampProvider;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.janusgraph.graphdb.database.log.LogTxStatus;
+import org.janusgraph.graphdb.database.log.TransactionLogHeader;
+import org.janusgraph.graphdb.database.serialize.Serializer;
+import org.janusgraph.graphdb.relations.RelationCache;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Brings an index up to date with the elements that were modified while an {@link IndexRepairJob} was scanning
+ * the graph. The transaction log is replayed from the recorded start of the scan in batches of
+ * {@link GraphDatabaseConfiguration#REINDEX_BATCH_SIZE} modifications. For each batch, the index entries derived
+ * from removed relations are deleted first and every vertex touched by a logged transaction, including both
+ * endpoints of edges, is then reindexed from its current state through an {@link IndexRepairJob}. This removes
+ * entries the scan wrote for values which were changed or removed afterwards, and handles vertices touched by
+ * transactions which failed or were modified again later.
+ * <p>
+ * This requires transaction logging to be enabled, see {@link GraphDatabaseConfiguration#SYSTEM_LOG_TRANSACTIONS}.
+ */
+public class IndexCatchUpJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexCatchUpJob.class);
+
+    /**
+     * The number of transaction log messages read during catch-up
+     */
+    public static final String LOG_MESSAGE_COUNT = "log-messages";
+
+    /**
+     * The number of existing vertices reindexed during catch-up
+     */
+    public static final String REINDEXED_VERTEX_COUNT = "reindexed-vertices";
+
+    private final StandardJanusGraph graph;
+    private final String indexName;
+    private final String indexRelationTypeName;
+
+    public IndexCatchUpJob(StandardJanusGraph graph, String indexName, String indexRelationTypeName) {
+        Preconditions.checkArgument(graph != null && graph.isOpen());
+        Preconditions.checkArgument(graph.getConfiguration().hasLogTransactions(),
+                "Transaction logging must be enabled to catch up on index [%s]", indexName);
+        this.graph = graph;
+        this.indexName = indexName;
+        this.indexRelationTypeName = indexRelationTypeName;
+    }
+
+    /**
+     * Replays the transaction log from the given start time up to now and brings the index entries of all elements
+     * modified in that interval up to date. The index must be registered with all instances before this is called,
+     * so that all later modifications are written to the index by the transactions themselves.
+     *
+     * @param startTime The time at which the scan of the index build started
+     * @return The metrics of the reindexing
+     */
+    public ScanMetrics run(Instant startTime) {
+        Preconditions.checkArgument(startTime != null);
+        TimestampProvider times = graph.getConfiguration().getTimestampProvider();
+        Serializer serializer = graph.getDataSerializer();
+        //Transactions that started committing before the scan may have been persisted after it read their vertices
+        Instant replayStart = startTime.minus(graph.getConfiguration().getMaxCommitTime());
+        Instant replayEnd = times.getTime();
+
+        StandardScanMetrics metrics = new StandardScanMetrics();
+        Batch batch = new Batch(replayEnd, metrics);
+        try {
+            long numMessages = graph.getBackend().getSystemTxLog().readMessages(replayStart, replayEnd, new MessageReader() {
+                @Override
+                public void read(Message message) {
+                    TransactionLogHeader.Entry entry = TransactionLogHeader.parse(message.getContent(), serializer, times);
+                    if (entry.getStatus() != LogTxStatus.PRECOMMIT) return;
+                    for (TransactionLogHeader.Modification modification : entry.getContentAsModifications(serializer)) {
+                        batch.add(modification);
+                    }
+                    //Only flush between messages so that all removals of a transaction are processed together
+                    if (batch.size() >= batch.maxSize) batch.flush();
+                }
+
+                @Override
+                public void updateState() {
+                }
+            });
+            batch.flush();
+            metrics.incrementCustom(LOG_MESSAGE_COUNT, numMessages);
+            LOG.info("Read {} transaction log messages in [{},{}) and reindexed {} vertices for index [{}]",
+                    numMessages, replayStart, replayEnd, metrics.getCustom(REINDEXED_VERTEX_COUNT), indexName);
+            metrics.increment(ScanMetrics.Metric.SUCCESS);
+        } catch (RuntimeException e) {
+            LOG.error("Could not catch up on index [" + indexName + "]", e);
+            batch.clear();
+            metrics.increment(ScanMetrics.Metric.FAILURE);
+        }
+        return metrics;
+    }
+
+    /**
+     * The modifications read from the log which have not been applied to the index yet
+     */
+    private class Batch {
+
+        private final int maxSize;
+        private final IDManager idManager;
+        private final Instant replayEnd;
+        private final ScanMetrics metrics;
+        private final Set<Long> vertexIds = new LinkedHashSet<>();
+        private final List<TransactionLogHeader.Modification> removals = new ArrayList<>();
+        private StandardJanusGraphTx tx = null;
+
+        private Batch(Instant replayEnd, ScanMetrics metrics) {
+            this.maxSize = graph.getConfiguration().getConfiguration().get(GraphDatabaseConfiguration.REINDEX_BATCH_SIZE);
+            this.idManager = graph.getIDManager();
+            this.replayEnd = replayEnd;
+            this.metrics = metrics;
+        }
+
+        private void add(TransactionLogHeader.Modification modification) {
+            if (tx == null) tx = graph.buildTransaction().readOnly().start();
+            if (modification.state == Change.REMOVED) removals.add(modification);
+            addVertex(modification.outVertexId);
+            RelationCache relation = tx.getEdgeSerializer().readRelation(modification.relationEntry, false, tx);
+            if (tx.getExistingRelationType(relation.typeId).isEdgeLabel()) addVertex(relation.getOtherVertexId());
+        }
+
+        private void addVertex(long vertexId) {
+            if (idManager.isUserVertexId(vertexId)) vertexIds.add(vertexId);
+        }
+
+        private int size() {
+            return vertexIds.size() + removals.size();
+        }
+
+        private void flush() {
+            if (tx == null) return;
+            try {
+                //Deletions are stamped just before the reindexed entries so that they never shadow entries with the same column
+                IndexRepairJob removeJob = new IndexRepairJob(indexName, indexRelationTypeName);
+                removeJob.workerIterationStart(graph, getJobConfiguration(replayEnd.minusMillis(1)), metrics);
+                if (!removals.isEmpty()) removeJob.removeRelations(removals, metrics);
+                List<JanusGraphVertex> existingVertices = new ArrayList<>(vertexIds.size());
+                for (long vertexId : vertexIds) {
+                    JanusGraphVertex vertex = tx.getVertex(vertexId);
+                    if (vertex != null) existingVertices.add(vertex);
+                    else removeJob.removeVertex(vertexId, metrics);
+                }
+                removeJob.workerIterationEnd(metrics);
+
+                IndexRepairJob job = new IndexRepairJob(indexName, indexRelationTypeName);
+                //Stamp the index entries with the end of the replay so that they are not superseded by the scan
+                job.workerIterationStart(graph, getJobConfiguration(replayEnd), metrics);
+                for (JanusGraphVertex vertex : existingVertices) {
+                    job.process(vertex, metrics);
+                    metrics.incrementCustom(REINDEXED_VERTEX_COUNT);
+                }
+                job.workerIterationEnd(metrics);
+            } finally {
+                clear();
+            }
+        }
+
+        private void clear() {
+            vertexIds.clear();
+            removals.clear();
+            if (tx != null) tx.rollback();
+            tx = null;
+        }
+    }
+
+    private static ModifiableConfiguration getJobConfiguration(Instant jobStartTime) {
+        ModifiableConfiguration jobConfig = new ModifiableConfiguration(GraphDatabaseConfiguration.JOB_NS,
+                new CommonsConfiguration(new BaseConfiguration()), BasicConfiguration.Restriction.NONE);
+        jobConfig.set(GraphDatabaseConfiguration.JOB_START_TIME, jobStartTime.toEpochMilli());
+        return jobConfig;
+    }
+
+}
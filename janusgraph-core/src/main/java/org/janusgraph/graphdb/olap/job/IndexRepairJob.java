@@ -16,10 +16,16 @@ package org.janusgraph.graphdb.olap.job;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.janusgraph.core.BaseVertexQuery;
+import org.janusgraph.core.Cardinality;
+import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphException;
@@ -27,22 +33,34 @@ import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.JanusGraphVertexProperty;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.RelationType;
+import org.janusgraph.core.log.Change;
 import org.janusgraph.core.schema.JanusGraphIndex;
 import org.janusgraph.core.schema.JanusGraphSchemaType;
 import org.janusgraph.core.schema.RelationTypeIndex;
 import org.janusgraph.core.schema.SchemaAction;
 import org.janusgraph.core.schema.SchemaStatus;
+import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.BackendTransaction;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.indexing.IndexEntry;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.database.log.TransactionLogHeader;
 import org.janusgraph.graphdb.database.management.RelationTypeIndexWrapper;
+import org.janusgraph.graphdb.internal.ElementCategory;
 import org.janusgraph.graphdb.internal.InternalRelation;
 import org.janusgraph.graphdb.internal.InternalRelationType;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.graphdb.log.ModificationDeserializer;
 import org.janusgraph.graphdb.olap.QueryContainer;
 import org.janusgraph.graphdb.olap.VertexScanJob;
 import org.janusgraph.graphdb.relations.EdgeDirection;
@@ -53,7 +71,9 @@ import org.janusgraph.graphdb.types.system.BaseLabel;
 import org.janusgraph.graphdb.types.vertices.JanusGraphSchemaVertex;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -73,6 +93,18 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
      */
     public static final String DOCUMENT_UPDATES_COUNT = "doc-updates";
 
+    /**
+     * The number of composite-index or relation-index entries deleted from the
+     * storage backend by this job
+     */
+    public static final String REMOVED_RECORDS_COUNT = "removes";
+
+    /**
+     * Writes composite index entries directly to the index store if
+     * {@link GraphDatabaseConfiguration#REINDEX_BULK_WRITE} is enabled, null otherwise
+     */
+    private IndexBulkWriter bulkWriter = null;
+
     public IndexRepairJob() {
         super();
     }
@@ -86,12 +118,17 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
     }
 
     /**
-     * Check that our target index is in either the ENABLED or REGISTERED state.
+     * Check that our target index is in either the ENABLED or REGISTERED state. If
+     * {@link GraphDatabaseConfiguration#REINDEX_CATCH_UP} is enabled, the INSTALLED state is accepted as well since
+     * the index is only registered right before the transaction log is replayed.
      */
     @Override
     protected void validateIndexStatus() {
         JanusGraphSchemaVertex schemaVertex = managementSystem.getSchemaVertex(index);
         Set<SchemaStatus> acceptableStatuses = SchemaAction.REINDEX.getApplicableStatus();
+        if (graph.getConfiguration().getConfiguration().get(GraphDatabaseConfiguration.REINDEX_CATCH_UP)) {
+            acceptableStatuses = Sets.union(acceptableStatuses, ImmutableSet.of(SchemaStatus.INSTALLED));
+        }
         boolean isValidIndex = true;
         String invalidIndexHint;
         if (index instanceof RelationTypeIndex || (index instanceof JanusGraphIndex && ((JanusGraphIndex) index).isCompositeIndex())) {
@@ -128,6 +165,36 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
     }
 
 
+    @Override
+    public void workerIterationStart(JanusGraph graph, Configuration config, ScanMetrics metrics) {
+        super.workerIterationStart(graph, config, metrics);
+        Configuration graphConfig = this.graph.getConfiguration().getConfiguration();
+        if (graphConfig.get(GraphDatabaseConfiguration.REINDEX_BULK_WRITE) && index instanceof JanusGraphIndex
+                && ((JanusGraphIndex) index).isCompositeIndex()) {
+            bulkWriter = new IndexBulkWriter(this.graph.getBackend().getStoreManager(), Backend.INDEXSTORE_NAME,
+                    new StandardBaseTransactionConfig.Builder(writeTx.getConfiguration()).commitTime(jobStartTime).build(),
+                    graphConfig.get(GraphDatabaseConfiguration.REINDEX_BATCH_SIZE),
+                    graphConfig.get(GraphDatabaseConfiguration.REINDEX_MAX_WRITE_RATE),
+                    this.graph.getConfiguration().getMaxWriteTime());
+        }
+    }
+
+    @Override
+    public void workerIterationEnd(ScanMetrics metrics) {
+        if (bulkWriter != null) {
+            try {
+                bulkWriter.flush();
+            } catch (RuntimeException e) {
+                LOG.error("Could not persist buffered index entries:", e);
+                managementSystem.rollback();
+                writeTx.rollback();
+                metrics.incrementCustom(FAILED_TX);
+                throw e;
+            }
+        }
+        super.workerIterationEnd(metrics);
+    }
+
     @Override
     public void process(JanusGraphVertex vertex, ScanMetrics metrics) {
         try {
@@ -180,7 +247,11 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
                                 indexSerializer.reindexElement(element, (CompositeIndexType) indexType);
                         for (IndexSerializer.IndexUpdate<StaticBuffer, Entry> update : updates) {
                             LOG.debug("Mutating index {}: {}", indexType, update.getEntry());
-                            mutator.mutateIndex(update.getKey(), Lists.newArrayList(update.getEntry()), KCVSCache.NO_DELETIONS);
+                            if (bulkWriter != null) {
+                                bulkWriter.add(update.getKey(), update.getEntry());
+                            } else {
+                                mutator.mutateIndex(update.getKey(), Lists.newArrayList(update.getEntry()), KCVSCache.NO_DELETIONS);
+                            }
                             metrics.incrementCustom(ADDED_RECORDS_COUNT);
                         }
                     }
@@ -195,6 +266,7 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
 
             } else throw new UnsupportedOperationException("Unsupported index found: " + index);
         } catch (Exception e) {
+            if (bulkWriter != null) bulkWriter.clear();
             managementSystem.rollback();
             writeTx.rollback();
             metrics.incrementCustom(FAILED_TX);
@@ -202,6 +274,114 @@ public class IndexRepairJob extends IndexUpdateJob implements VertexScanJob {
         }
     }
 
+    /**
+     * Deletes the index entries which were derived from the relations removed by the given logged modifications.
+     * This is used by {@link IndexCatchUpJob} to remove the entries the scan wrote for values which were changed or
+     * removed afterwards. Removed relations which are not covered by the index are ignored.
+     */
+    void removeRelations(Collection<TransactionLogHeader.Modification> removals, ScanMetrics metrics) {
+        try {
+            BackendTransaction mutator = writeTx.getBackendTransaction();
+            List<InternalRelation> relations = new ArrayList<>(removals.size());
+            for (TransactionLogHeader.Modification modification : removals) {
+                Preconditions.checkArgument(modification.state == Change.REMOVED, "Not a removal: %s", modification.state);
+                relations.add(ModificationDeserializer.parseRelation(modification, writeTx));
+            }
+            if (index instanceof RelationTypeIndex) {
+                RelationTypeIndexWrapper wrapper = (RelationTypeIndexWrapper) index;
+                InternalRelationType wrappedType = wrapper.getWrappedType();
+                EdgeSerializer edgeSerializer = writeTx.getEdgeSerializer();
+                for (InternalRelation relation : relations) {
+                    if (!relation.getType().name().equals(indexRelationTypeName)) continue;
+                    for (int pos = 0; pos < relation.getArity(); pos++) {
+                        if (!wrappedType.isUnidirected(Direction.BOTH) && !wrappedType.isUnidirected(EdgeDirection.fromPosition(pos)))
+                            continue; //Directionality is not covered
+                        Entry entry = edgeSerializer.writeRelation(relation, wrappedType, pos, writeTx);
+                        StaticBuffer vertexKey = writeTx.getIdManager().getKey(relation.getVertex(pos).longId());
+                        mutator.mutateEdges(vertexKey, KeyColumnValueStore.NO_ADDITIONS, Lists.newArrayList(entry));
+                        metrics.incrementCustom(REMOVED_RECORDS_COUNT);
+                    }
+                }
+            } else if (index instanceof JanusGraphIndex) {
+                IndexType indexType = managementSystem.getSchemaVertex(index).asIndexType();
+                IndexSerializer indexSerializer = graph.getIndexSerializer();
+                if (indexType.isCompositeIndex()) {
+                    CompositeIndexType compositeIndex = (CompositeIndexType) indexType;
+                    Set<IndexSerializer.IndexUpdate<StaticBuffer, Entry>> deletions = new HashSet<>();
+                    if (indexType.getElement() == ElementCategory.VERTEX) {
+                        ListMultimap<InternalVertex, JanusGraphVertexProperty> removedProperties = ArrayListMultimap.create();
+                        for (InternalRelation relation : relations) {
+                            if (relation.isProperty()) removedProperties.put(relation.getVertex(0), (JanusGraphVertexProperty) relation);
+                        }
+                        for (InternalVertex vertex : removedProperties.keySet()) {
+                            deletions.addAll(indexSerializer.getRemovedEntries(vertex, removedProperties.get(vertex), compositeIndex));
+                        }
+                    } else {
+                        for (InternalRelation relation : relations) {
+                            for (IndexSerializer.IndexUpdate update : indexSerializer.getIndexUpdates(relation)) {
+                                if (update.isCompositeIndex() && update.isDeletion() && update.getIndex().getName().equals(indexType.getName())) {
+                                    deletions.add(update);
+                                }
+                            }
+                        }
+                    }
+                    for (IndexSerializer.IndexUpdate<StaticBuffer, Entry> deletion : deletions) {
+                        //Entries of unique indexes do not identify the element, so only delete them if they still point to it
+                        if (compositeIndex.getCardinality() == Cardinality.SINGLE && !isIndexEntryPresent(mutator, deletion)) continue;
+                        LOG.debug("Deleting from index {}: {}", indexType, deletion.getEntry());
+                        mutator.mutateIndex(deletion.getKey(), KeyColumnValueStore.NO_ADDITIONS, Lists.newArrayList(deletion.getEntry()));
+                        metrics.incrementCustom(REMOVED_RECORDS_COUNT);
+                    }
+                } else if (indexType.getElement() != ElementCategory.VERTEX) {
+                    //Mixed indexes on vertices are restored from the current state of the vertex or through removeVertex
+                    MixedIndexType mixedIndex = (MixedIndexType) indexType;
+                    Map<String, Map<String, List<IndexEntry>>> documentsPerStore = new HashMap<>();
+                    for (InternalRelation relation : relations) {
+                        if (!indexType.getElement().isInstance(relation)) continue;
+                        indexSerializer.removeElement(relation.id(), mixedIndex, documentsPerStore);
+                        metrics.incrementCustom(DOCUMENT_UPDATES_COUNT);
+                    }
+                    mutator.getIndexTransaction(indexType.getBackingIndexName()).restore(documentsPerStore);
+                }
+            } else throw new UnsupportedOperationException("Unsupported index found: " + index);
+        } catch (Exception e) {
+            managementSystem.rollback();
+            writeTx.rollback();
+            metrics.incrementCustom(FAILED_TX);
+            throw new JanusGraphException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes the document of a vertex which no longer exists from the index if it is a mixed vertex index. The
+     * entries of composite and relation indexes are removed through {@link #removeRelations(Collection, ScanMetrics)}.
+     */
+    void removeVertex(long vertexId, ScanMetrics metrics) {
+        if (!(index instanceof JanusGraphIndex)) return;
+        try {
+            IndexType indexType = managementSystem.getSchemaVertex(index).asIndexType();
+            if (!indexType.isMixedIndex() || indexType.getElement() != ElementCategory.VERTEX) return;
+            Map<String, Map<String, List<IndexEntry>>> documentsPerStore = new HashMap<>();
+            graph.getIndexSerializer().removeElement(vertexId, (MixedIndexType) indexType, documentsPerStore);
+            writeTx.getBackendTransaction().getIndexTransaction(indexType.getBackingIndexName()).restore(documentsPerStore);
+            metrics.incrementCustom(DOCUMENT_UPDATES_COUNT);
+        } catch (Exception e) {
+            managementSystem.rollback();
+            writeTx.rollback();
+            metrics.incrementCustom(FAILED_TX);
+            throw new JanusGraphException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean isIndexEntryPresent(BackendTransaction mutator, IndexSerializer.IndexUpdate<StaticBuffer, Entry> update) {
+        Entry entry = update.getEntry();
+        StaticBuffer column = entry.getColumn();
+        for (Entry current : mutator.indexQuery(new KeySliceQuery(update.getKey(), column, BufferUtil.nextBiggerBuffer(column)))) {
+            if (current.getValue().equals(entry.getValue())) return true;
+        }
+        return false;
+    }
+
     @Override
     public void getQueries(QueryContainer queries) {
         if (index instanceof RelationTypeIndex) {
@@ -94,7 +94,7 @@ public class GraphCentricQuery extends BaseQuery implements ElementQuery<JanusGr
     public String toString() {
         final StringBuilder b = new StringBuilder();
         b.append("[").append(condition.toString()).append("]");
-        if (!orders.isEmpty()) b.append(getLimit());
+        if (!orders.isEmpty()) b.append(orders);
         if (hasLimit()) b.append("(").append(getLimit()).append(")");
         b.append(":").append(resultType.toString());
         return b.toString();
@@ -147,9 +147,25 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
     }
 
     public <E extends JanusGraphElement> Iterable<E> iterables(GraphCentricQuery query, Class<E> aClass) {
+        tx.recordQuery(query);
         return Iterables.filter(new QueryProcessor<>(query, tx.elementProcessor), aClass);
     }
 
+    /**
+     * Counts the elements matching the given query from the single index which fully answers it, without retrieving
+     * the elements. The limit of the query is ignored.
+     *
+     * @return the number of matching elements or null if the query is not answered by exactly one fitted index query
+     * or if the transaction has modifications which are not yet reflected in the index
+     */
+    public Long indexCount(GraphCentricQuery query) {
+        if (query.numSubQueries() != 1 || tx.hasModifications()) return null;
+        BackendQueryHolder<JointIndexQuery> subquery = query.getSubQuery(0);
+        JointIndexQuery indexQuery = subquery.getBackendQuery();
+        if (!subquery.isFitted() || indexQuery.size() != 1) return null;
+        return serializer.count(indexQuery.getQuery(0), tx.getBackendTransaction());
+    }
+
 
     /* ---------------------------------------------------------------
      * Query Construction
@@ -16,19 +16,31 @@ package org.janusgraph.graphdb.query.graph;
 
 import org.janusgraph.diskstorage.BackendTransaction;
 import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.query.BackendQuery;
 import org.janusgraph.graphdb.query.BaseQuery;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 
 public class MultiKeySliceQuery extends BaseQuery implements BackendQuery<MultiKeySliceQuery>  {
 
+    /**
+     * Maximum number of keys retrieved in one multi-key query. Bounds the latency until the first results can be
+     * streamed and the number of keys retrieved needlessly when the limit is reached early.
+     */
+    private static final int MAX_BATCH_SIZE = 128;
+
     private final List<KeySliceQuery> queries;
 
     public MultiKeySliceQuery(List<KeySliceQuery> queries) {
@@ -43,16 +55,59 @@ public class MultiKeySliceQuery extends BaseQuery implements BackendQuery<MultiK
         return newQuery;
     }
 
-    public List<EntryList> execute(BackendTransaction tx) {
-        int total = 0;
-        final List<EntryList> result = new ArrayList<>(Math.min(getLimit(), queries.size()));
-        for (KeySliceQuery ksq : queries) {
-            EntryList next =tx.indexQuery(ksq.updateLimit(getLimit()-total));
-            result.add(next);
-            total+=next.size();
-            if (total>=getLimit()) break;
-        }
-        return result;
+    /**
+     * Executes the individual key queries in batches of consecutive queries over the same slice, each batch as one
+     * multi-key query against the index store. Batches are only retrieved as the returned iterator advances and no
+     * further batches are retrieved once the limit has been reached. The last batch may return more entries than the
+     * limit in total, which the caller has to cut off.
+     *
+     * @return the results of the individual key queries in query order
+     */
+    public Iterator<EntryList> execute(BackendTransaction tx) {
+        return new AbstractIterator<EntryList>() {
+
+            private int position = 0;
+            private int total = 0;
+            private Iterator<EntryList> batch = Collections.emptyIterator();
+
+            @Override
+            protected EntryList computeNext() {
+                while (!batch.hasNext()) {
+                    if (position >= queries.size() || total >= getLimit()) return endOfData();
+                    batch = executeBatch(getLimit() - total).iterator();
+                }
+                final EntryList next = batch.next();
+                total += next.size();
+                return next;
+            }
+
+            private List<EntryList> executeBatch(int limit) {
+                final KeySliceQuery first = queries.get(position);
+                int end = position + 1;
+                while (end < queries.size() && end - position < MAX_BATCH_SIZE && sameSlice(first, queries.get(end))) {
+                    end++;
+                }
+                final List<KeySliceQuery> batchQueries = queries.subList(position, end);
+                position = end;
+                if (batchQueries.size() == 1) {
+                    return Collections.singletonList(tx.indexQuery(first.updateLimit(limit)));
+                }
+                final List<StaticBuffer> keys = new ArrayList<>(batchQueries.size());
+                for (KeySliceQuery ksq : batchQueries) keys.add(ksq.getKey());
+                final Map<StaticBuffer, EntryList> results = tx.indexMultiQuery(keys,
+                    new SliceQuery(first.getSliceStart(), first.getSliceEnd()).setLimit(limit));
+                final List<EntryList> result = new ArrayList<>(keys.size());
+                for (StaticBuffer key : keys) {
+                    final EntryList entries = results.get(key);
+                    result.add(entries == null ? EntryList.EMPTY_LIST : entries);
+                }
+                return result;
+            }
+        };
+    }
+
+    private static boolean sameSlice(SliceQuery q1, SliceQuery q2) {
+        return q1.getSliceStart().equals(q2.getSliceStart()) && q1.getSliceEnd().equals(q2.getSliceEnd());
     }
 
     @Override
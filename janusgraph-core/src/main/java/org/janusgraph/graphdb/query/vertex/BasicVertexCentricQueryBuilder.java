@@ -266,6 +266,20 @@ public abstract class BasicVertexCentricQueryBuilder<Q extends BaseVertexQuery<Q
 
     }
 
+    protected class CountConstructor implements ResultConstructor<Long> {
+
+        @Override
+        public Long getResult(InternalVertex v, BaseVertexCentricQuery bq) {
+            return executeCount(v, bq);
+        }
+
+        @Override
+        public Long emptyResult() {
+            return 0L;
+        }
+
+    }
+
     protected class VertexIdConstructor implements ResultConstructor<VertexList> {
 
         @Override
@@ -385,6 +399,26 @@ public abstract class BasicVertexCentricQueryBuilder<Q extends BaseVertexQuery<Q
     }
 
 
+    private long executeCount(InternalVertex vertex, BaseVertexCentricQuery baseQuery) {
+        if (isPartitionedVertex(vertex)) {
+            if (!hasAllCanonicalTypes()) {
+                long count = 0;
+                for (InternalVertex rep : tx.getAllRepresentatives(vertex, restrict2Partitions)) {
+                    if (count >= baseQuery.getLimit()) break;
+                    count += executeIndividualCount(rep, baseQuery);
+                }
+                return Math.min(count, baseQuery.getLimit());
+            } else vertex = tx.getCanonicalVertex(vertex);
+        }
+        return executeIndividualCount(vertex, baseQuery);
+    }
+
+    private long executeIndividualCount(InternalVertex vertex, BaseVertexCentricQuery baseQuery) {
+        VertexCentricQuery query = constructQuery(vertex, baseQuery);
+        if (useSimpleQueryProcessor(query, vertex)) return new SimpleVertexQueryProcessor(query, tx).count();
+        return Iterables.size(new QueryProcessor<>(query, tx.edgeProcessor));
+    }
+
     /* ---------------------------------------------------------------
      * Query Optimization and Construction
      * ---------------------------------------------------------------
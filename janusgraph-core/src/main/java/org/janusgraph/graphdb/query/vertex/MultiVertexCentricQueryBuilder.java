@@ -17,6 +17,7 @@ package org.janusgraph.graphdb.query.vertex;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import org.janusgraph.core.*;
+import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.internal.InternalVertex;
 import org.janusgraph.graphdb.internal.RelationCategory;
@@ -96,17 +97,7 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
         profiler.setAnnotation(QueryProfiler.NUMVERTICES_ANNOTATION,vertices.size());
         if (!bq.isEmpty()) {
             for (BackendQueryHolder<SliceQuery> sq : bq.getQueries()) {
-                Set<InternalVertex> adjVertices = Sets.newHashSet(vertices);
-                for (InternalVertex v : vertices) {
-                    if (isPartitionedVertex(v)) {
-                        profiler.setAnnotation(QueryProfiler.PARTITIONED_VERTEX_ANNOTATION,true);
-                        adjVertices.remove(v);
-                        adjVertices.addAll(allRequiredRepresentatives(v));
-                    }
-                }
-                //Overwrite with more accurate size accounting for partitioned vertices
-                profiler.setAnnotation(QueryProfiler.NUMVERTICES_ANNOTATION,adjVertices.size());
-                tx.executeMultiQuery(adjVertices, sq.getBackendQuery(), sq.getProfiler());
+                tx.executeMultiQuery(getAdjacentVertices(), sq.getBackendQuery(), sq.getProfiler());
             }
             for (InternalVertex v : vertices) {
                 result.put(v, resultConstructor.getResult(v, bq));
@@ -118,6 +109,23 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
         return result;
     }
 
+    /**
+     * @return the vertices to query, with partitioned vertices replaced by their required representatives
+     */
+    private Set<InternalVertex> getAdjacentVertices() {
+        Set<InternalVertex> adjVertices = Sets.newHashSet(vertices);
+        for (InternalVertex v : vertices) {
+            if (isPartitionedVertex(v)) {
+                profiler.setAnnotation(QueryProfiler.PARTITIONED_VERTEX_ANNOTATION,true);
+                adjVertices.remove(v);
+                adjVertices.addAll(allRequiredRepresentatives(v));
+            }
+        }
+        //Overwrite with more accurate size accounting for partitioned vertices
+        profiler.setAnnotation(QueryProfiler.NUMVERTICES_ANNOTATION,adjVertices.size());
+        return adjVertices;
+    }
+
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphRelation>> executeImplicitKeyQuery() {
         return new HashMap<JanusGraphVertex, Iterable<? extends JanusGraphRelation>>(vertices.size()){{
             for (InternalVertex v : vertices ) put(v,executeImplicitKeyQuery(v));
@@ -139,9 +147,28 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
     @Override
     public void preFetch() {
         profiler.setAnnotation(QueryProfiler.MULTIPREFETCH_ANNOTATION, true);
+        if (!vertices.isEmpty() && !isImplicitKeyQuery(RelationCategory.PROPERTY)) {
+            preFetchSpanningSlice(super.constructQuery(RelationCategory.PROPERTY));
+        }
         properties();
     }
 
+    /**
+     * If the given query consists of several slices, e.g. one per property key, loads a single slice spanning all of
+     * them with one backend call for all vertices. The vertices then answer the individual slices from the spanning
+     * one. The spanning slice also retrieves the relations of other types whose columns lie between those slices.
+     */
+    private void preFetchSpanningSlice(BaseVertexCentricQuery bq) {
+        if (bq.isEmpty() || bq.numSubQueries() < 2) return;
+        StaticBuffer sliceStart = null, sliceEnd = null;
+        for (BackendQueryHolder<SliceQuery> sq : bq.getQueries()) {
+            SliceQuery slice = sq.getBackendQuery();
+            if (sliceStart == null || slice.getSliceStart().compareTo(sliceStart) < 0) sliceStart = slice.getSliceStart();
+            if (sliceEnd == null || slice.getSliceEnd().compareTo(sliceEnd) > 0) sliceEnd = slice.getSliceEnd();
+        }
+        tx.executeMultiQuery(getAdjacentVertices(), new SliceQuery(sliceStart, sliceEnd), profiler);
+    }
+
     @Override
     public Map<JanusGraphVertex, Iterable<JanusGraphRelation>> relations() {
         return (Map)(isImplicitKeyQuery(RelationCategory.RELATION)?
@@ -159,4 +186,9 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
         return execute(RelationCategory.EDGE, new VertexIdConstructor());
     }
 
+    @Override
+    public Map<JanusGraphVertex, Long> edgeCount() {
+        return execute(RelationCategory.EDGE, new CountConstructor());
+    }
+
 }
@@ -18,6 +18,7 @@ import com.carrotsearch.hppc.LongArrayList;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import org.janusgraph.core.JanusGraphRelation;
 import org.janusgraph.core.VertexList;
 import org.janusgraph.diskstorage.Entry;
@@ -111,14 +112,31 @@ public class SimpleVertexQueryProcessor implements Iterable<Entry> {
         return new VertexLongList(tx, list, previousId >= 0);
     }
 
+    /**
+     * Returns the number of relations for this query. Since the query is fitted, every entry is a matching relation
+     * and hence the entries are counted without deserializing them.
+     *
+     * @return
+     */
+    public long count() {
+        if (sliceQuery.hasLimit() && sliceQuery.getLimit() != query.getLimit()) {
+            return Iterators.size(new LimitAdjustingIterator());
+        }
+        final long count = getBasicEntries().size();
+        return query.hasLimit() ? Math.min(count, query.getLimit()) : count;
+    }
+
     /**
      * Executes the query by executing its on {@link SliceQuery} sub-query.
      *
      * @return
      */
     private Iterator<Entry> getBasicIterator() {
-        EntryList result = vertex.loadRelations(sliceQuery, query -> QueryProfiler.profile(profiler, query, q -> tx.getGraph().edgeQuery(vertex.longId(), q, tx.getBackendTransaction())));
-        return result.iterator();
+        return getBasicEntries().iterator();
+    }
+
+    private EntryList getBasicEntries() {
+        return vertex.loadRelations(sliceQuery, query -> QueryProfiler.profile(profiler, query, q -> tx.getGraph().edgeQuery(vertex.longId(), q, tx.getBackendTransaction())));
     }
 
 
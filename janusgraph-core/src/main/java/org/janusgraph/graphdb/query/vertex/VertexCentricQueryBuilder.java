@@ -15,6 +15,7 @@
 package org.janusgraph.graphdb.query.vertex;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 import org.janusgraph.core.*;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.internal.InternalVertex;
@@ -67,7 +68,7 @@ public class VertexCentricQueryBuilder extends BasicVertexCentricQueryBuilder<Ve
         BaseVertexCentricQuery bq = super.constructQuery(returnType);
         if (bq.isEmpty()) return resultConstructor.emptyResult();
         if (returnType == RelationCategory.PROPERTY && hasSingleType() && !hasQueryOnlyLoaded()
-                && tx.getConfiguration().hasPropertyPrefetching()) {
+                && tx.getConfiguration().hasPropertyPrefetching() && !hasLoadedRelations(bq)) {
             //Preload properties
             vertex.query().properties().iterator().hasNext();
         }
@@ -85,6 +86,17 @@ public class VertexCentricQueryBuilder extends BasicVertexCentricQueryBuilder<Ve
         return resultConstructor.getResult(vertex, bq);
     }
 
+    /**
+     * Whether the results of all slice queries of the given query have already been loaded for the base vertex,
+     * e.g. by a multiQuery which prefetched the properties of many vertices.
+     */
+    private boolean hasLoadedRelations(BaseVertexCentricQuery bq) {
+        for (BackendQueryHolder<SliceQuery> sq : bq.getQueries()) {
+            if (!vertex.hasLoadedRelations(sq.getBackendQuery())) return false;
+        }
+        return true;
+    }
+
     //#### RELATIONS
 
     @Override
@@ -106,6 +118,25 @@ public class VertexCentricQueryBuilder extends BasicVertexCentricQueryBuilder<Ve
                 execute(RelationCategory.RELATION, new RelationConstructor()));
     }
 
+    @Override
+    public long count() {
+        return isImplicitKeyQuery(RelationCategory.RELATION) ?
+                Iterables.size(executeImplicitKeyQuery(vertex)) :
+                execute(RelationCategory.RELATION, new CountConstructor());
+    }
+
+    @Override
+    public long edgeCount() {
+        return execute(RelationCategory.EDGE, new CountConstructor());
+    }
+
+    @Override
+    public long propertyCount() {
+        return isImplicitKeyQuery(RelationCategory.PROPERTY) ?
+                Iterables.size(executeImplicitKeyQuery(vertex)) :
+                execute(RelationCategory.PROPERTY, new CountConstructor());
+    }
+
     //#### VERTICES
 
     @Override
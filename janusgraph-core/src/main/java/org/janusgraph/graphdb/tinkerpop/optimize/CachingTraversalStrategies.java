@@ -0,0 +1,45 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.tinkerpop.optimize;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+
+/**
+ * The traversal strategies registered for JanusGraph graphs and transactions. Root traversals are optimized through
+ * the {@link TraversalPlanCache} of their graph, so that a traversal of a previously optimized shape reuses that plan.
+ * This includes the traversals Gremlin Server translates from bytecode against a traversal source of the graph.
+ */
+public class CachingTraversalStrategies extends DefaultTraversalStrategies {
+
+    @Override
+    public void applyStrategies(Traversal.Admin<?, ?> traversal) {
+        final TraversalPlanCache planCache = getPlanCache(traversal);
+        if (planCache == null) super.applyStrategies(traversal);
+        else planCache.applyStrategies(traversal, super::applyStrategies);
+    }
+
+    private static TraversalPlanCache getPlanCache(Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || !traversal.getGraph().isPresent()) return null;
+        final Graph graph = traversal.getGraph().get();
+        if (graph instanceof StandardJanusGraphTx) return ((StandardJanusGraphTx) graph).getGraph().getTraversalPlanCache();
+        if (graph instanceof StandardJanusGraph) return ((StandardJanusGraph) graph).getTraversalPlanCache();
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.graphdb.tinkerpop.optimize;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Start step which replaces a {@link JanusGraphStep} that is immediately followed by {@code count()}. It emits the
+ * number of elements returned by the graph step, which is computed by the index if possible
+ * (see {@link JanusGraphStep#count()}).
+ */
+public final class JanusGraphCountStep<S> extends AbstractStep<S, Long> implements Profiling {
+
+    private JanusGraphStep<S, ?> graphStep;
+    private boolean done = false;
+
+    public JanusGraphCountStep(JanusGraphStep<S, ?> graphStep) {
+        super(graphStep.getTraversal());
+        this.graphStep = graphStep;
+    }
+
+    @Override
+    protected Traverser.Admin<Long> processNextStart() throws NoSuchElementException {
+        if (done) throw FastNoSuchElementException.instance();
+        done = true;
+        return getTraversal().getTraverserGenerator().generate(graphStep.count(), (Step) this, 1L);
+    }
+
+    @Override
+    public void setMetrics(MutableMetrics metrics) {
+        graphStep.setMetrics(metrics);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, graphStep);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        graphStep.reset();
+        done = false;
+    }
+
+    JanusGraphStep<S, ?> getGraphStep() {
+        return graphStep;
+    }
+
+    @Override
+    public void setTraversal(Traversal.Admin<?, ?> traversal) {
+        super.setTraversal(traversal);
+        graphStep.setTraversal(traversal);
+    }
+
+    @Override
+    public JanusGraphCountStep<S> clone() {
+        final JanusGraphCountStep<S> clone = (JanusGraphCountStep<S>) super.clone();
+        clone.graphStep = graphStep.clone();
+        return clone;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ graphStep.hashCode();
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.graphdb.tinkerpop.optimize;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Folds a {@code count()} which immediately follows the start {@link JanusGraphStep} of a traversal into a
+ * {@link JanusGraphCountStep}, so that the count can be answered by the index without retrieving the elements.
+ */
+public class JanusGraphCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final JanusGraphCountStrategy INSTANCE = new JanusGraphCountStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = Collections.singleton(JanusGraphStepStrategy.class);
+
+    private JanusGraphCountStrategy() {
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !(traversal.getParent() instanceof EmptyStep))
+            return;
+
+        final Step<?, ?> startStep = traversal.getStartStep();
+        if (!(startStep instanceof JanusGraphStep) || !startStep.getLabels().isEmpty()) return;
+        final JanusGraphStep<?, ?> graphStep = (JanusGraphStep<?, ?>) startStep;
+        if (!graphStep.isStartStep() || !(graphStep.getNextStep() instanceof CountGlobalStep)) return;
+
+        final Step<?, ?> countStep = graphStep.getNextStep();
+        final JanusGraphCountStep<?> janusGraphCountStep = new JanusGraphCountStep<>(graphStep);
+        countStep.getLabels().forEach(janusGraphCountStep::addLabel);
+        TraversalHelper.replaceStep((Step) countStep, janusGraphCountStep, traversal);
+        traversal.removeStep(graphStep);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static JanusGraphCountStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal.Admin;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
@@ -83,6 +84,11 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
                 vertexStep.setLimit(0, QueryUtil.mergeHighLimits(limit, vertexStep.getHighLimit()));
             }
 
+            if (nextStep instanceof CountGlobalStep && vertexStep.getLabels().isEmpty()) {
+                //Only the number of adjacent elements is needed, not the elements themselves
+                vertexStep.setCountOnly(true);
+            }
+
             if (useMultiQuery) {
                 vertexStep.setUseMultiQuery(true);
             }
@@ -38,7 +38,7 @@ import com.google.common.collect.Lists;
  */
 public final class JanusGraphMultiQueryStep extends AbstractStep<Vertex, Vertex> {
 
-    private final Set<Traverser.Admin<Vertex>> cachedStarts = new HashSet<Traverser.Admin<Vertex>>();
+    private Set<Traverser.Admin<Vertex>> cachedStarts = new HashSet<Traverser.Admin<Vertex>>();
     private final String forStep;
     private boolean cachedStartsAccessed = false;
 
@@ -82,4 +82,12 @@ public final class JanusGraphMultiQueryStep extends AbstractStep<Vertex, Vertex>
         super.reset();
         this.cachedStarts.clear();
     }
+
+    @Override
+    public JanusGraphMultiQueryStep clone() {
+        final JanusGraphMultiQueryStep clone = (JanusGraphMultiQueryStep) super.clone();
+        clone.cachedStarts = new HashSet<>();
+        clone.cachedStartsAccessed = false;
+        return clone;
+    }
 }
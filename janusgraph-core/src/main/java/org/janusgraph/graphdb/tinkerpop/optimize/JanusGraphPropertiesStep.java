@@ -162,6 +162,10 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
     public JanusGraphPropertiesStep<E> clone() {
         JanusGraphPropertiesStep<E> clone = (JanusGraphPropertiesStep<E>) super.clone();
         clone.initialized = false;
+        clone.multiQueryResults = null;
+        clone.hasContainers = new ArrayList<>(hasContainers.size());
+        hasContainers.forEach(c -> clone.hasContainers.add(c.clone()));
+        clone.orders = new ArrayList<>(orders);
         return clone;
     }
 
@@ -169,9 +173,9 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
     ===== HOLDER =====
      */
 
-    private final List<HasContainer> hasContainers;
+    private List<HasContainer> hasContainers;
     private int limit;
-    private final List<HasStepFolder.OrderEntry> orders = new ArrayList<>();
+    private List<HasStepFolder.OrderEntry> orders = new ArrayList<>();
 
 
     @Override
@@ -225,6 +229,10 @@ public class JanusGraphPropertiesStep<E> extends PropertiesStep<E> implements Ha
         throw new UnsupportedOperationException("getLocalHighLimit is not supported for properties step.");
     }
 
+    List<HasContainer> getHasContainers() {
+        return hasContainers;
+    }
+
     @Override
     public String toString() {
         return this.hasContainers.isEmpty() ? super.toString() : StringFactory.stepString(this, this.hasContainers);
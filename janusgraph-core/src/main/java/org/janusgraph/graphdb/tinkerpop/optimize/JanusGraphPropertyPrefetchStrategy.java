@@ -0,0 +1,102 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.graphdb.tinkerpop.optimize;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Folds the property keys projected by a {@code values()}, {@code properties()} or {@code valueMap()} step into the
+ * preceding {@link JanusGraphStep} or {@link JanusGraphVertexStep}. Those steps then load the projected properties
+ * of their result vertices in batches with a multiQuery, which retrieves the column ranges of all projected keys with
+ * one backend call per batch, instead of the projecting step loading the properties one vertex at a time.
+ * <p>
+ * This is only applied if {@link org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#PROJECTED_PROPERTY_PREFETCHING}
+ * is enabled.
+ */
+public class JanusGraphPropertyPrefetchStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final JanusGraphPropertyPrefetchStrategy INSTANCE = new JanusGraphPropertyPrefetchStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        PRIORS.add(JanusGraphStepStrategy.class);
+        PRIORS.add(JanusGraphLocalQueryOptimizerStrategy.class);
+    }
+
+    private JanusGraphPropertyPrefetchStrategy() {
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        if (!traversal.getGraph().isPresent() || TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        Graph graph = traversal.getGraph().get();
+        StandardJanusGraph janusGraph = graph instanceof StandardJanusGraphTx ? ((StandardJanusGraphTx) graph).getGraph() : (StandardJanusGraph) graph;
+        if (!janusGraph.getConfiguration().projectedPropertyPrefetching())
+            return;
+        int txVertexCacheSize = janusGraph.getConfiguration().getTxVertexCacheSize();
+
+        TraversalHelper.getStepsOfClass(JanusGraphStep.class, traversal).forEach(graphStep -> {
+            String[] keys = getProjectedKeys(JanusGraphTraversalUtil.getNextNonIdentityStep(graphStep));
+            if (keys != null && graphStep.returnsVertex()) {
+                graphStep.setPropertyPrefetching(keys, txVertexCacheSize);
+            }
+        });
+
+        TraversalHelper.getStepsOfClass(JanusGraphVertexStep.class, traversal).forEach(vertexStep -> {
+            String[] keys = getProjectedKeys(JanusGraphTraversalUtil.getNextNonIdentityStep(vertexStep));
+            if (keys != null && Vertex.class.isAssignableFrom(vertexStep.getReturnClass())) {
+                vertexStep.setBatchPropertyPrefetching(true);
+                vertexStep.setTxVertexCacheSize(txVertexCacheSize);
+                vertexStep.setPrefetchPropertyKeys(keys);
+            }
+        });
+    }
+
+    /**
+     * @return the property keys projected by the given step, an empty array if it projects all properties or null if
+     * it does not project properties
+     */
+    private static String[] getProjectedKeys(Step<?, ?> step) {
+        if (step instanceof PropertiesStep) return ((PropertiesStep<?>) step).getPropertyKeys();
+        if (step instanceof PropertyMapStep) return ((PropertyMapStep<?, ?>) step).getPropertyKeys();
+        return null;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static JanusGraphPropertyPrefetchStrategy instance() {
+        return INSTANCE;
+    }
+}
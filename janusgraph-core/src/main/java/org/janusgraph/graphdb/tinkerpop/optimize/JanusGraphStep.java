@@ -15,6 +15,7 @@
 package org.janusgraph.graphdb.tinkerpop.optimize;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
@@ -29,6 +30,7 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphElement;
+import org.janusgraph.core.JanusGraphMultiVertexQuery;
 import org.janusgraph.core.JanusGraphQuery;
 import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.core.JanusGraphVertex;
@@ -38,6 +40,7 @@ import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.janusgraph.graphdb.query.graph.GraphCentricQuery;
 import org.janusgraph.graphdb.query.graph.GraphCentricQueryBuilder;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
+import org.janusgraph.graphdb.query.vertex.BasicVertexCentricQueryBuilder;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
 import org.janusgraph.graphdb.util.MultiDistinctOrderedIterator;
 
@@ -53,43 +56,120 @@ import java.util.Map.Entry;
 
 public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasStepFolder<S, E>, Profiling, HasContainerHolder {
 
-    private final List<HasContainer> hasContainers = new ArrayList<>();
-    private final Map<List<HasContainer>, QueryInfo> hasLocalContainers = new LinkedHashMap<>();
+    private static final int MIN_PREFETCH_BATCH_SIZE = 16;
+
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    private Map<List<HasContainer>, QueryInfo> hasLocalContainers = new LinkedHashMap<>();
     private int lowLimit = 0;
     private int highLimit = BaseQuery.NO_LIMIT;
-    private final List<OrderEntry> orders = new ArrayList<>();
+    private List<OrderEntry> orders = new ArrayList<>();
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
-
+    private String[] prefetchPropertyKeys = null;
+    private int prefetchBatchSize;
 
     public JanusGraphStep(GraphStep<S, E> originalStep) {
         super(originalStep.getTraversal(), originalStep.getReturnClass(), originalStep.isStartStep(), originalStep.getIds());
         originalStep.getLabels().forEach(this::addLabel);
-        this.setIteratorSupplier(() -> {
-            if (this.ids == null) {
-                return Collections.emptyIterator();
-            } else if (this.ids.length > 0) {
-                final Graph graph = (Graph) traversal.asAdmin().getGraph().get();
-                return iteratorList((Iterator) graph.vertices(this.ids));
+        this.setIteratorSupplier(this::executeQueries);
+    }
+
+    private Iterator<E> executeQueries() {
+        final Iterator<E> result = queryElements();
+        return prefetchPropertyKeys == null ? result : prefetchProperties(result);
+    }
+
+    private Iterator<E> queryElements() {
+        if (this.ids == null) {
+            return Collections.emptyIterator();
+        } else if (this.ids.length > 0) {
+            final Graph graph = (Graph) traversal.asAdmin().getGraph().get();
+            return iteratorList((Iterator) graph.vertices(this.ids));
+        }
+        if (hasLocalContainers.isEmpty()) {
+            hasLocalContainers.put(new ArrayList<>(), new QueryInfo(new ArrayList<>(), 0, BaseQuery.NO_LIMIT));
+        }
+        JanusGraphTransaction tx = JanusGraphTraversalUtil.getTx(traversal);
+        GraphCentricQuery globalQuery = buildGlobalGraphCentricQuery(tx);
+
+        final Multimap<Integer, GraphCentricQuery> queries = ArrayListMultimap.create();
+        if (globalQuery != null && !globalQuery.getSubQuery(0).getBackendQuery().isEmpty()) {
+            queries.put(0, globalQuery);
+        } else {
+            hasLocalContainers.entrySet().forEach(c -> queries.put(c.getValue().getLowLimit(), buildGraphCentricQuery(tx, c)));
+        }
+
+        final GraphCentricQueryBuilder builder = (GraphCentricQueryBuilder) tx.query();
+        final List<Iterator<E>> responses = new ArrayList<>();
+        queries.entries().forEach(q -> executeGraphCentryQuery(builder, responses, q));
+
+        return new MultiDistinctOrderedIterator<E>(lowLimit, highLimit, responses, orders);
+    }
+
+    /**
+     * Loads the given properties of the returned vertices with one multiQuery per batch of vertices, instead of
+     * one backend call per vertex by the subsequent step which projects those properties.
+     *
+     * @param keys the projected property keys, all properties are loaded if empty
+     * @param batchSize the maximum number of vertices to load the properties for at once
+     */
+    public void setPropertyPrefetching(String[] keys, int batchSize) {
+        Preconditions.checkArgument(returnsVertex(), "Properties can only be prefetched for vertices");
+        Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+        this.prefetchPropertyKeys = keys;
+        this.prefetchBatchSize = batchSize;
+    }
+
+    private Iterator<E> prefetchProperties(Iterator<E> iterator) {
+        return new AbstractIterator<E>() {
+
+            private Iterator<E> batch = Collections.emptyIterator();
+            //Start with small batches in case only few elements are consumed, e.g. due to a subsequent limit
+            private int batchSize = Math.min(MIN_PREFETCH_BATCH_SIZE, prefetchBatchSize);
+
+            @Override
+            protected E computeNext() {
+                if (!batch.hasNext()) {
+                    if (!iterator.hasNext()) return endOfData();
+                    final List<E> elements = new ArrayList<>(batchSize);
+                    while (elements.size() < batchSize && iterator.hasNext()) elements.add(iterator.next());
+                    if (elements.size() > 1) {
+                        JanusGraphMultiVertexQuery propertyMultiQuery = JanusGraphTraversalUtil.getTx(traversal).multiQuery();
+                        ((BasicVertexCentricQueryBuilder) propertyMultiQuery).profiler(queryProfiler);
+                        propertyMultiQuery.addAllVertices((List<Vertex>) elements);
+                        if (prefetchPropertyKeys.length > 0) propertyMultiQuery.keys(prefetchPropertyKeys);
+                        propertyMultiQuery.preFetch();
+                    }
+                    batch = elements.iterator();
+                    batchSize = Math.min(batchSize * 2, prefetchBatchSize);
+                }
+                return batch.next();
             }
+        };
+    }
+
+    /**
+     * Counts the elements returned by this step. If the step neither has ids nor limits and its query is fully
+     * answered by a single index, the elements are counted by the index without being retrieved.
+     */
+    long count() {
+        if (ids != null && ids.length == 0 && lowLimit == 0 && highLimit == BaseQuery.NO_LIMIT
+            && hasLocalContainers.values().stream().allMatch(q -> q.getLowLimit() == 0 && q.getHighLimit() == BaseQuery.NO_LIMIT)) {
             if (hasLocalContainers.isEmpty()) {
                 hasLocalContainers.put(new ArrayList<>(), new QueryInfo(new ArrayList<>(), 0, BaseQuery.NO_LIMIT));
             }
             JanusGraphTransaction tx = JanusGraphTraversalUtil.getTx(traversal);
-            GraphCentricQuery globalQuery = buildGlobalGraphCentricQuery(tx);
-
-            final Multimap<Integer, GraphCentricQuery> queries = ArrayListMultimap.create();
-            if (globalQuery != null && !globalQuery.getSubQuery(0).getBackendQuery().isEmpty()) {
-                queries.put(0, globalQuery);
-            } else {
-                hasLocalContainers.entrySet().forEach(c -> queries.put(c.getValue().getLowLimit(), buildGraphCentricQuery(tx, c)));
+            //Without or-steps there is a single local query, which unlike the global query can be fitted by an index
+            GraphCentricQuery query = hasLocalContainers.size() == 1
+                ? buildGraphCentricQuery(tx, hasLocalContainers.entrySet().iterator().next())
+                : buildGlobalGraphCentricQuery(tx);
+            if (query != null) {
+                Long count = ((GraphCentricQueryBuilder) tx.query()).indexCount(query);
+                if (count != null) return count;
             }
-
-            final GraphCentricQueryBuilder builder = (GraphCentricQueryBuilder) tx.query();
-            final List<Iterator<E>> responses = new ArrayList<>();
-            queries.entries().forEach(q -> executeGraphCentryQuery(builder, responses, q));
-
-            return new MultiDistinctOrderedIterator<E>(lowLimit, highLimit, responses, orders);
-        });
+        }
+        long count = 0;
+        for (Iterator<E> it = iteratorSupplier.get(); it.hasNext(); it.next()) count++;
+        return count;
     }
 
     private GraphCentricQuery buildGlobalGraphCentricQuery(JanusGraphTransaction tx) {
@@ -157,6 +237,31 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
         responses.add(response);
     }
 
+    @Override
+    public JanusGraphStep<S, E> clone() {
+        final JanusGraphStep<S, E> clone = (JanusGraphStep<S, E>) super.clone();
+        clone.hasContainers = cloneContainers(hasContainers);
+        clone.hasLocalContainers = new LinkedHashMap<>();
+        hasLocalContainers.forEach((containers, queryInfo) -> clone.hasLocalContainers.put(cloneContainers(containers),
+            new QueryInfo(new ArrayList<>(queryInfo.getOrders()), queryInfo.getLowLimit(), queryInfo.getHighLimit())));
+        clone.orders = new ArrayList<>(orders);
+        clone.setIteratorSupplier(clone::executeQueries);
+        return clone;
+    }
+
+    private static List<HasContainer> cloneContainers(List<HasContainer> containers) {
+        final List<HasContainer> clones = new ArrayList<>(containers.size());
+        containers.forEach(c -> clones.add(c.clone()));
+        return clones;
+    }
+
+    /**
+     * Rebuilds the local containers map after predicate values of its keys have been changed in place.
+     */
+    void refreshLocalContainers() {
+        hasLocalContainers = new LinkedHashMap<>(hasLocalContainers);
+    }
+
     @Override
     public String toString() {
         if (hasLocalContainers.isEmpty() && hasContainers.isEmpty()) {
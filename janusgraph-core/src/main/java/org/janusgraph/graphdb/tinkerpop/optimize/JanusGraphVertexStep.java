@@ -59,7 +59,10 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
     private boolean initialized = false;
     private boolean useMultiQuery = false;
     private boolean batchPropertyPrefetching = false;
+    private String[] prefetchPropertyKeys = null;
+    private boolean countOnly = false;
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> multiQueryResults = null;
+    private Map<JanusGraphVertex, Long> multiQueryCounts = null;
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
     private int txVertexCacheSize = 20000;
     private JanusGraphMultiQueryStep parentMultiQueryStep;
@@ -80,10 +83,31 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         this.batchPropertyPrefetching = batchPropertyPrefetching;
     }
 
+    /**
+     * Restricts the batch property prefetching to the given property keys, e.g. because only those are projected by
+     * the subsequent step.
+     *
+     * @param keys the property keys to prefetch, all properties are prefetched if null or empty
+     */
+    public void setPrefetchPropertyKeys(String[] keys) {
+        this.prefetchPropertyKeys = keys;
+    }
+
     public void setTxVertexCacheSize(int txVertexCacheSize) {
         this.txVertexCacheSize = txVertexCacheSize;
     }
 
+    /**
+     * If only the number of elements returned by this step is needed (e.g. because it is followed by a count step),
+     * this step emits a single traverser per start whose bulk is the number of adjacent elements. The adjacent
+     * elements are counted without constructing them.
+     *
+     * @param countOnly
+     */
+    public void setCountOnly(boolean countOnly) {
+        this.countOnly = countOnly;
+    }
+
     private <Q extends BaseVertexQuery> Q makeQuery(Q query) {
         query.labels(getEdgeLabels());
         query.direction(getDirection());
@@ -129,6 +153,15 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         parentStarts.forEach(v -> multiQuery.addVertex(v.get()));
         makeQuery(multiQuery);
 
+        if (countOnly) {
+            if (multiQueryCounts == null) {
+                multiQueryCounts = multiQuery.edgeCount();
+            } else {
+                multiQueryCounts.putAll(multiQuery.edgeCount());
+            }
+            return;
+        }
+
         Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> results = (Vertex.class.isAssignableFrom(getReturnClass())) ? multiQuery.vertices() : multiQuery.edges();
         if (multiQueryResults == null) {
             multiQueryResults = results;
@@ -172,9 +205,31 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
     @Override
     protected Traverser.Admin<E> processNextStart() {
         if (!initialized) initialize();
+        if (countOnly) {
+            while (true) {
+                final Traverser.Admin<Vertex> start = starts.next();
+                final long count = count(start);
+                if (count > 0) {
+                    //Only the bulk of the traverser is counted
+                    final Traverser.Admin<E> split = start.split((E) start.get(), this);
+                    split.setBulk(start.bulk() * count);
+                    return split;
+                }
+            }
+        }
         return super.processNextStart();
     }
 
+    private long count(Traverser.Admin<Vertex> traverser) {
+        if (useMultiQuery) {
+            if (multiQueryCounts == null || !multiQueryCounts.containsKey(traverser.get())) {
+                initializeMultiQuery(Arrays.asList(traverser));
+            }
+            return multiQueryCounts.get(traverser.get());
+        }
+        return makeQuery((JanusGraphTraversalUtil.getJanusGraphVertex(traverser)).query()).edgeCount();
+    }
+
     @Override
     protected Iterator<E> flatMap(Traverser.Admin<Vertex> traverser) {
 
@@ -203,7 +258,9 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
             if (vertices.size() > 1) {
                 JanusGraphMultiVertexQuery propertyMultiQuery = JanusGraphTraversalUtil.getTx(traversal).multiQuery();
                 ((BasicVertexCentricQueryBuilder) propertyMultiQuery).profiler(queryProfiler);
-                propertyMultiQuery.addAllVertices(vertices).preFetch();
+                propertyMultiQuery.addAllVertices(vertices);
+                if (prefetchPropertyKeys != null && prefetchPropertyKeys.length > 0) propertyMultiQuery.keys(prefetchPropertyKeys);
+                propertyMultiQuery.preFetch();
             }
         }
 
@@ -220,6 +277,12 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
     public JanusGraphVertexStep<E> clone() {
         JanusGraphVertexStep<E> clone = (JanusGraphVertexStep<E>) super.clone();
         clone.initialized = false;
+        clone.multiQueryResults = null;
+        clone.multiQueryCounts = null;
+        clone.parentMultiQueryStep = null;
+        clone.hasContainers = new ArrayList<>(hasContainers.size());
+        hasContainers.forEach(c -> clone.hasContainers.add(c.clone()));
+        clone.orders = new ArrayList<>(orders);
         return clone;
     }
 
@@ -227,9 +290,9 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
     ===== HOLDER =====
      */
 
-    private final List<HasContainer> hasContainers;
+    private List<HasContainer> hasContainers;
     private int limit;
-    private final List<OrderEntry> orders = new ArrayList<>();
+    private List<OrderEntry> orders = new ArrayList<>();
 
     @Override
     public void addAll(Iterable<HasContainer> has) {
@@ -282,6 +345,10 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         throw new UnsupportedOperationException("getLocalHighLimit is not supported for graph vertex step.");
     }
 
+    List<HasContainer> getHasContainers() {
+        return hasContainers;
+    }
+
     @Override
     public String toString() {
         return this.hasContainers.isEmpty() ? super.toString() : StringFactory.stepString(this, this.hasContainers);
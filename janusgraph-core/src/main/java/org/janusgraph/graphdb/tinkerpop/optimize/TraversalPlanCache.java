@@ -0,0 +1,395 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.graphdb.tinkerpop.optimize;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.decoration.VertexProgramStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.util.function.Lambda;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Graph-level cache of optimized traversals, keyed by the shape of their {@link Bytecode}.
+ * <p>
+ * Applications typically issue a small number of distinct traversal shapes with varying parameters, yet the traversal
+ * strategies are applied anew to every traversal. {@link CachingTraversalStrategies} routes the strategy application of
+ * root traversals through this cache, so the strategies are only applied to the root traversal once per shape: the
+ * optimized traversal is kept as a template and subsequent traversals of the same shape take over the steps of a clone
+ * of that template. Child traversals are optimized as usual.
+ * <p>
+ * Variables bound through {@link org.apache.tinkerpop.gremlin.process.traversal.Bindings} which are only used as ids of
+ * {@code V()} and {@code E()} or as values of {@code has()} conditions are not part of the cache key, their values are
+ * rebound into the clone of the template. All other arguments, including variables bound in other steps, are part of
+ * the key. Traversals with element, lambda or strategy arguments are not cached.
+ * <p>
+ * The cache key also contains the traversal strategies and the classes of the steps before optimization. Traversals
+ * without step instructions in their bytecode and traversals executed on a graph computer are not cached.
+ * <p>
+ * The cache is invalidated whenever the schema changes.
+ */
+public class TraversalPlanCache {
+
+    private static final Set<String> REBINDABLE_STEPS = ImmutableSet.of(GraphTraversal.Symbols.V,
+        GraphTraversal.Symbols.E, GraphTraversal.Symbols.has, GraphTraversal.Symbols.hasLabel, GraphTraversal.Symbols.hasValue);
+
+    private final int maxSize;
+    private final Cache<Object, Template> templates;
+
+    public TraversalPlanCache(int maxSize) {
+        Preconditions.checkArgument(maxSize >= 0, "Invalid cache size: %s", maxSize);
+        this.maxSize = maxSize;
+        this.templates = CacheBuilder.newBuilder().maximumSize(maxSize).concurrencyLevel(4).recordStats().build();
+    }
+
+    /**
+     * Optimizes the given root traversal. If a traversal of the same shape has been optimized before, the traversal
+     * takes over the steps of the cached plan, otherwise the given strategies are applied and the result is cached.
+     *
+     * @param traversal the root traversal whose strategies are being applied
+     * @param strategies applies the traversal strategies to the root traversal
+     */
+    public void applyStrategies(Traversal.Admin<?, ?> traversal, Consumer<Traversal.Admin<?, ?>> strategies) {
+        Preconditions.checkArgument(traversal.getParent() instanceof EmptyStep, "Not a root traversal: %s", traversal);
+        if (maxSize == 0 || !traversal.getGraph().isPresent()
+                || traversal.getStrategies().getStrategy(VertexProgramStrategy.class).isPresent()
+                || hasNewTypes(JanusGraphTraversalUtil.getTx(traversal))) {
+            strategies.accept(traversal);
+            return;
+        }
+        final BytecodeAnalysis analysis = new BytecodeAnalysis(traversal);
+        if (!analysis.cacheable) {
+            strategies.accept(traversal);
+            return;
+        }
+
+        Template template = analysis.rebindable ? templates.getIfPresent(analysis.getShapeKey()) : null;
+        if (template == null) template = templates.getIfPresent(analysis.getExactKey());
+        if (template != null) {
+            replaceSteps(traversal, template.instantiate(traversal.getGraph().get(), analysis.bindings));
+        } else {
+            strategies.accept(traversal);
+            template = new Template(traversal.clone(), analysis);
+            templates.put(template.rebindable ? analysis.getShapeKey() : analysis.getExactKey(), template);
+        }
+    }
+
+    /**
+     * Removes all cached traversal plans, e.g. because the schema they were compiled against has changed.
+     */
+    public void invalidate() {
+        templates.invalidateAll();
+    }
+
+    public long size() {
+        return templates.size();
+    }
+
+    /**
+     * @return the number of traversals which took over the steps of a cached plan
+     */
+    public long hitCount() {
+        return templates.stats().hitCount();
+    }
+
+    /**
+     * The strategies resolve property keys in the transaction, a plan must not depend on types which are not committed.
+     */
+    private static boolean hasNewTypes(JanusGraphTransaction tx) {
+        return tx instanceof StandardJanusGraphTx && ((StandardJanusGraphTx) tx).hasNewTypes();
+    }
+
+    private static void replaceSteps(Traversal.Admin<?, ?> traversal, Traversal.Admin<?, ?> plan) {
+        while (!traversal.getSteps().isEmpty()) traversal.removeStep(0);
+        for (Step step : new ArrayList<>(plan.getSteps())) traversal.addStep(step);
+    }
+
+    /**
+     * Applies the given function to all values which may stem from a bound variable, i.e. the ids of graph steps and
+     * the predicate values of has containers, and replaces those values which are mapped to different objects.
+     */
+    private static void rebindValues(Traversal.Admin<?, ?> traversal, UnaryOperator<Object> rebinder) {
+        for (Step<?, ?> step : TraversalHelper.getStepsOfAssignableClassRecursively(Step.class, traversal)) {
+            if (step instanceof JanusGraphCountStep) step = ((JanusGraphCountStep<?>) step).getGraphStep();
+            if (step instanceof GraphStep) {
+                final GraphStep<?, ?> graphStep = (GraphStep<?, ?>) step;
+                final Object[] ids = graphStep.getIds();
+                if (ids != null) {
+                    final Object[] rebound = new Object[ids.length];
+                    for (int i = 0; i < ids.length; i++) rebound[i] = rebinder.apply(ids[i]);
+                    if (!Arrays.equals(ids, rebound)) {
+                        graphStep.clearIds();
+                        graphStep.addIds(rebound);
+                    }
+                }
+            }
+            final List<HasContainer> hasContainers;
+            if (step instanceof HasContainerHolder) hasContainers = ((HasContainerHolder) step).getHasContainers();
+            else if (step instanceof JanusGraphVertexStep) hasContainers = ((JanusGraphVertexStep<?>) step).getHasContainers();
+            else if (step instanceof JanusGraphPropertiesStep) hasContainers = ((JanusGraphPropertiesStep<?>) step).getHasContainers();
+            else continue;
+            for (HasContainer hasContainer : hasContainers) rebindValues(hasContainer.getPredicate(), rebinder);
+            if (step instanceof JanusGraphStep) ((JanusGraphStep<?, ?>) step).refreshLocalContainers();
+        }
+    }
+
+    private static void rebindValues(P predicate, UnaryOperator<Object> rebinder) {
+        if (predicate instanceof ConnectiveP) {
+            for (P p : ((ConnectiveP<?>) predicate).getPredicates()) rebindValues(p, rebinder);
+        } else {
+            final Object value = predicate.getValue();
+            final Object rebound = rebinder.apply(value);
+            if (rebound != value) predicate.setValue(rebound);
+        }
+    }
+
+    /**
+     * A traversal whose root has been optimized, which is never iterated itself but cloned for every traversal of
+     * its shape.
+     */
+    private static class Template {
+
+        private final Traversal.Admin<?, ?> traversal;
+        private final Map<String, Object> bindings;
+        private final boolean rebindable;
+
+        private Template(Traversal.Admin<?, ?> traversal, BytecodeAnalysis analysis) {
+            this.traversal = traversal;
+            this.bindings = analysis.bindings;
+            this.rebindable = analysis.rebindable && isRebindable(traversal, analysis);
+        }
+
+        /**
+         * The values of the bound variables are later identified by reference. This is only possible if the
+         * strategies neither dropped, copied nor transformed any of them.
+         */
+        private static boolean isRebindable(Traversal.Admin<?, ?> traversal, BytecodeAnalysis analysis) {
+            final Map<Object, String> variables = new IdentityHashMap<>();
+            analysis.bindings.forEach((variable, value) -> variables.put(value, variable));
+            final Map<String, Integer> occurrences = new HashMap<>();
+            rebindValues(traversal, value -> {
+                final String variable = variables.get(value);
+                if (variable != null) occurrences.merge(variable, 1, Integer::sum);
+                return value;
+            });
+            return occurrences.equals(analysis.occurrences);
+        }
+
+        private <S, E> Traversal.Admin<S, E> instantiate(Graph graph, Map<String, Object> values) {
+            final Traversal.Admin<S, E> clone = (Traversal.Admin<S, E>) traversal.clone();
+            TraversalHelper.applyTraversalRecursively(t -> t.setGraph(graph), clone);
+            //The default iterator supplier of a graph step refers to the step it was created for
+            for (GraphStep<?, ?> graphStep : TraversalHelper.getStepsOfAssignableClassRecursively(GraphStep.class, clone)) {
+                if (!(graphStep instanceof JanusGraphStep)) resetIteratorSupplier(graphStep);
+            }
+            if (rebindable) {
+                final Map<Object, Object> rebound = new IdentityHashMap<>();
+                bindings.forEach((variable, value) -> {
+                    if (values.get(variable) != value) rebound.put(value, values.get(variable));
+                });
+                if (!rebound.isEmpty()) rebindValues(clone, value -> rebound.getOrDefault(value, value));
+            }
+            return clone;
+        }
+
+        private static <E extends Element> void resetIteratorSupplier(GraphStep<?, E> graphStep) {
+            graphStep.setIteratorSupplier(() -> {
+                final Graph graph = graphStep.getTraversal().getGraph().get();
+                return (Iterator<E>) (graphStep.returnsVertex() ? graph.vertices(graphStep.getIds()) : graph.edges(graphStep.getIds()));
+            });
+        }
+    }
+
+    /**
+     * Determines whether a bytecode can be cached and collects the values of its bound variables.
+     */
+    private static class BytecodeAnalysis {
+
+        private final Bytecode bytecode;
+        private final List<Object> context;
+        private final Map<String, Object> bindings = new HashMap<>();
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final Set<Object> literals = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean cacheable = true;
+        private boolean rebindable = true;
+        private Object shapeKey;
+        private Object exactKey;
+
+        private BytecodeAnalysis(Traversal.Admin<?, ?> traversal) {
+            this.bytecode = traversal.getBytecode();
+            //Steps added without a step instruction would not be reflected by the key
+            this.context = Arrays.asList(traversal.getStrategies().toList(),
+                traversal.getSteps().stream().map(Object::getClass).collect(Collectors.toList()));
+            if (bytecode.getStepInstructions().isEmpty()) cacheable = false;
+            analyze(bytecode);
+            //Bound values are identified by reference, so they must be distinct from each other and from all literals
+            final Set<Object> values = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Object value : bindings.values()) {
+                if (value == null || literals.contains(value) || !values.add(value)) rebindable = false;
+            }
+        }
+
+        private void analyze(Bytecode bytecode) {
+            for (Bytecode.Instruction instruction : bytecode.getInstructions()) {
+                final Object[] arguments = instruction.getArguments();
+                final boolean rebindableStep = REBINDABLE_STEPS.contains(instruction.getOperator())
+                    && !(arguments.length > 0 && arguments[0] == T.id);
+                for (Object argument : arguments) {
+                    if (argument instanceof Bytecode.Binding) {
+                        final Bytecode.Binding<?> binding = (Bytecode.Binding<?>) argument;
+                        if (!rebindableStep || (bindings.containsKey(binding.variable())
+                                && bindings.get(binding.variable()) != binding.value())) {
+                            rebindable = false;
+                        }
+                        bindings.put(binding.variable(), binding.value());
+                        occurrences.merge(binding.variable(), 1, Integer::sum);
+                        analyzeValue(binding.value(), false);
+                    } else {
+                        analyzeValue(argument, true);
+                    }
+                }
+            }
+        }
+
+        private void analyzeValue(Object value, boolean literal) {
+            if (value instanceof Bytecode) {
+                analyze((Bytecode) value);
+            } else if (value instanceof Bytecode.Binding) {
+                //Only variables bound as direct arguments of a step can be rebound
+                rebindable = false;
+                analyzeValue(((Bytecode.Binding<?>) value).value(), literal);
+            } else if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) analyzeValue(element, literal);
+            } else if (value instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    analyzeValue(entry.getKey(), literal);
+                    analyzeValue(entry.getValue(), literal);
+                }
+            } else if (value instanceof Object[]) {
+                for (Object element : (Object[]) value) analyzeValue(element, literal);
+            } else if (value instanceof ConnectiveP) {
+                for (P<?> p : ((ConnectiveP<?>) value).getPredicates()) analyzeValue(p, literal);
+            } else if (value instanceof P) {
+                if (((P<?>) value).getBiPredicate().getClass().isSynthetic()) cacheable = false;
+                analyzeValue(((P<?>) value).getValue(), literal);
+            } else if (value instanceof Element || value instanceof Lambda || value instanceof TraversalStrategy
+                    || (value != null && value.getClass().isSynthetic())) {
+                //Neither identified by their state nor independent of the transaction they were created in
+                cacheable = false;
+            } else if (literal && value != null) {
+                literals.add(value);
+            }
+        }
+
+        private Object getShapeKey() {
+            if (shapeKey == null) shapeKey = Arrays.asList(context, normalize(bytecode, true));
+            return shapeKey;
+        }
+
+        private Object getExactKey() {
+            if (exactKey == null) exactKey = Arrays.asList(context, normalize(bytecode, false));
+            return exactKey;
+        }
+
+        /**
+         * Converts the given argument into a value object, replacing bound variables either by a placeholder or
+         * by their value.
+         */
+        private static Object normalize(Object value, boolean placeholders) {
+            if (value instanceof Bytecode) {
+                final Bytecode bytecode = (Bytecode) value;
+                return Arrays.asList(normalize(bytecode.getSourceInstructions(), placeholders),
+                    normalize(bytecode.getStepInstructions(), placeholders));
+            } else if (value instanceof Bytecode.Instruction) {
+                final Bytecode.Instruction instruction = (Bytecode.Instruction) value;
+                final List<Object> normalized = new ArrayList<>(instruction.getArguments().length + 1);
+                normalized.add(instruction.getOperator());
+                for (Object argument : instruction.getArguments()) normalized.add(normalize(argument, placeholders));
+                return normalized;
+            } else if (value instanceof Bytecode.Binding) {
+                final Bytecode.Binding<?> binding = (Bytecode.Binding<?>) value;
+                return placeholders ? new Placeholder(binding.variable()) : normalize(binding.value(), false);
+            } else if (value instanceof Set) {
+                final Set<Object> normalized = new LinkedHashSet<>();
+                for (Object element : (Set<?>) value) normalized.add(normalize(element, placeholders));
+                return normalized;
+            } else if (value instanceof Collection) {
+                final List<Object> normalized = new ArrayList<>();
+                for (Object element : (Collection<?>) value) normalized.add(normalize(element, placeholders));
+                return normalized;
+            } else if (value instanceof Map) {
+                final Map<Object, Object> normalized = new LinkedHashMap<>();
+                ((Map<?, ?>) value).forEach((k, v) -> normalized.put(normalize(k, placeholders), normalize(v, placeholders)));
+                return normalized;
+            } else if (value instanceof Object[]) {
+                return normalize(Arrays.asList((Object[]) value), placeholders);
+            }
+            return value;
+        }
+    }
+
+    private static class Placeholder {
+
+        private final String variable;
+
+        private Placeholder(String variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof Placeholder && variable.equals(((Placeholder) other).variable));
+        }
+
+        @Override
+        public int hashCode() {
+            return variable.hashCode();
+        }
+    }
+}
@@ -63,6 +63,7 @@ import org.janusgraph.core.schema.SchemaInspector;
 import org.janusgraph.core.schema.VertexLabelMaker;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.BackendTransaction;
+import org.janusgraph.diskstorage.util.BackendCosts;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.util.Hex;
@@ -183,6 +184,8 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
      */
     private static final long MIN_VERTEX_CACHE_SIZE = 100L;
 
+    private static final int MAX_RECORDED_QUERIES = 20;
+
 
     private final StandardJanusGraph graph;
     private final TransactionConfiguration config;
@@ -233,6 +236,12 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
      */
     private final Map<String, Long> newTypeCache;
 
+    /**
+     * The first graph-centric queries executed in this transaction, together with the index queries they were
+     * answered by. Only recorded when the slow transaction log is enabled.
+     */
+    private final List<String> executedQueries = Collections.synchronizedList(new ArrayList<>());
+
     /**
      * Used to assign temporary ids to new vertices and relations added in this transaction.
      * If ids are assigned immediately, this is not used. This IDPool is shared across all elements.
@@ -524,6 +533,23 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
         return backendTransaction;
     }
 
+    /**
+     * Returns the cost of the reads this transaction has issued against the storage and index backends so far.
+     */
+    public BackendCosts getBackendCosts() {
+        return backendTransaction.getCosts();
+    }
+
+    public void recordQuery(GraphCentricQuery query) {
+        if (!graph.getConfiguration().hasSlowTransactionLog() || executedQueries.size() >= MAX_RECORDED_QUERIES) return;
+        final StringBuilder b = new StringBuilder(query.toString());
+        for (int i = 0; i < query.numSubQueries(); i++) {
+            final JointIndexQuery indexQuery = query.getSubQuery(i).getBackendQuery();
+            b.append(indexQuery.isEmpty() ? " <full scan>" : " " + indexQuery);
+        }
+        executedQueries.add(b.toString());
+    }
+
     public EdgeSerializer getEdgeSerializer() {
         return edgeSerializer;
     }
@@ -1244,7 +1270,7 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
                     });
                     Preconditions.checkArgument(!keys.isEmpty(), "Invalid query condition: %s", query.getCondition());
                     Set<JanusGraphVertex> vertexSet = Sets.newHashSet();
-                    for (JanusGraphRelation r : addedRelations.getView(relation -> keys.contains(relation.getType()))) {
+                    for (JanusGraphRelation r : addedRelations.getView(keys, relation -> true)) {
                         vertexSet.add(((JanusGraphVertexProperty) r).element());
                     }
                     for (JanusGraphRelation r : deletedRelations.values()) {
@@ -1429,7 +1455,21 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
         }
     }
 
+    /**
+     * Returns the line the slow transaction log reports this transaction with when it is closed, or null if the
+     * backend costs of this transaction are below the configured thresholds.
+     */
+    public String getSlowTransactionReport() {
+        final BackendCosts costs = getBackendCosts();
+        if (!graph.getConfiguration().isSlowTransaction(costs)) return null;
+        return "Slow transaction " + this + ": " + costs + ". Graph-centric queries: " + executedQueries;
+    }
+
     private void releaseTransaction() {
+        final String slowTransactionReport = getSlowTransactionReport();
+        if (slowTransactionReport != null) {
+            LOG.warn(slowTransactionReport);
+        }
         isOpen = false;
         graph.closeTransaction(this);
     }
@@ -1449,4 +1489,11 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
         return !addedRelations.isEmpty() || !deletedRelations.isEmpty();
     }
 
+    /**
+     * @return whether this transaction has created schema types which are not committed yet
+     */
+    public boolean hasNewTypes() {
+        return !newTypeCache.isEmpty();
+    }
+
 }
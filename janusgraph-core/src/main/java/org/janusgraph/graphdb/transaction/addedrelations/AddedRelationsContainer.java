@@ -16,6 +16,7 @@ package org.janusgraph.graphdb.transaction.addedrelations;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import org.janusgraph.core.RelationType;
 import org.janusgraph.graphdb.internal.InternalRelation;
 
 import java.util.Collection;
@@ -31,6 +32,18 @@ public interface AddedRelationsContainer {
 
     List<InternalRelation> getView(Predicate<InternalRelation> filter);
 
+    /**
+     * Returns the relations of any of the given types that satisfy the filter. Containers that index their
+     * relations by type only need to inspect relations of those types.
+     *
+     * @param types
+     * @param filter
+     * @return
+     */
+    default List<InternalRelation> getView(Collection<? extends RelationType> types, Predicate<InternalRelation> filter) {
+        return getView(relation -> types.contains(relation.getType()) && filter.apply(relation));
+    }
+
     boolean isEmpty();
 
     /**
@@ -15,32 +15,96 @@
 package org.janusgraph.graphdb.transaction.addedrelations;
 
 import com.google.common.base.Predicate;
+import org.janusgraph.core.RelationType;
 import org.janusgraph.graphdb.internal.InternalRelation;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 
+/**
+ * Thread-safe {@link AddedRelationsContainer} for transactions that are shared by multiple threads.
+ * Relations are spread by identity over a fixed number of independently locked {@link SimpleBufferAddedRelations}
+ * stripes, so that concurrent writers rarely contend on the same lock. Views lock one stripe at a time and are
+ * therefore only weakly consistent with respect to concurrent modifications.
+ */
+public class ConcurrentBufferAddedRelations implements AddedRelationsContainer {
 
-public class ConcurrentBufferAddedRelations extends SimpleBufferAddedRelations {
+    private static final int NUM_STRIPES = 16;
+
+    private final SimpleBufferAddedRelations[] stripes;
+
+    public ConcurrentBufferAddedRelations() {
+        stripes = new SimpleBufferAddedRelations[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new SimpleBufferAddedRelations();
+        }
+    }
+
+    private SimpleBufferAddedRelations getStripe(InternalRelation relation) {
+        //The identity hash code is used since the id of a new relation, and hence its hash code, may still change
+        int hash = System.identityHashCode(relation);
+        return stripes[(hash ^ (hash >>> 16)) & (NUM_STRIPES - 1)];
+    }
+
+    @Override
+    public boolean add(InternalRelation relation) {
+        final SimpleBufferAddedRelations stripe = getStripe(relation);
+        synchronized (stripe) {
+            return stripe.add(relation);
+        }
+    }
+
+    @Override
+    public boolean remove(InternalRelation relation) {
+        final SimpleBufferAddedRelations stripe = getStripe(relation);
+        synchronized (stripe) {
+            return stripe.remove(relation);
+        }
+    }
 
     @Override
-    public synchronized boolean add(InternalRelation relation) {
-        return super.add(relation);
+    public boolean isEmpty() {
+        for (SimpleBufferAddedRelations stripe : stripes) {
+            synchronized (stripe) {
+                if (!stripe.isEmpty()) return false;
+            }
+        }
+        return true;
     }
 
     @Override
-    public synchronized boolean remove(InternalRelation relation) {
-        return super.remove(relation);
+    public List<InternalRelation> getView(Predicate<InternalRelation> filter) {
+        final List<InternalRelation> result = new ArrayList<>();
+        for (SimpleBufferAddedRelations stripe : stripes) {
+            synchronized (stripe) {
+                result.addAll(stripe.getView(filter));
+            }
+        }
+        return result;
     }
 
     @Override
-    public synchronized boolean isEmpty() {
-        return super.isEmpty();
+    public List<InternalRelation> getView(Collection<? extends RelationType> types, Predicate<InternalRelation> filter) {
+        final List<InternalRelation> result = new ArrayList<>();
+        for (SimpleBufferAddedRelations stripe : stripes) {
+            synchronized (stripe) {
+                result.addAll(stripe.getView(types, filter));
+            }
+        }
+        return result;
     }
 
     @Override
-    public synchronized List<InternalRelation> getView(Predicate<InternalRelation> filter) {
-        return super.getView(filter);
+    public Collection<InternalRelation> getAll() {
+        final List<InternalRelation> result = new ArrayList<>();
+        for (SimpleBufferAddedRelations stripe : stripes) {
+            synchronized (stripe) {
+                result.addAll(stripe.getAll());
+            }
+        }
+        return result;
     }
 
 }
@@ -15,12 +15,15 @@
 package org.janusgraph.graphdb.transaction.addedrelations;
 
 import com.google.common.base.Predicate;
+import org.janusgraph.core.RelationType;
 import org.janusgraph.graphdb.internal.InternalRelation;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -32,14 +35,18 @@ public class SimpleBufferAddedRelations implements AddedRelationsContainer {
 
     private List<InternalRelation> added;
     private List<InternalRelation> deleted;
+    //Index of the added relations by type so that views on a few types don't have to scan all added relations
+    private Map<RelationType, List<InternalRelation>> addedByType;
 
     public SimpleBufferAddedRelations() {
         added = new ArrayList<>(INITIAL_ADDED_SIZE);
         deleted = null;
+        addedByType = new HashMap<>();
     }
 
     @Override
     public boolean add(InternalRelation relation) {
+        addedByType.computeIfAbsent(relation.getType(), type -> new ArrayList<>(INITIAL_ADDED_SIZE)).add(relation);
         return added.add(relation);
     }
 
@@ -67,6 +74,15 @@ public class SimpleBufferAddedRelations implements AddedRelationsContainer {
             if (!deletedSet.contains(r)) newlyAdded.add(r);
         }
         added = newlyAdded;
+        final Map<RelationType, List<InternalRelation>> newlyAddedByType = new HashMap<>(addedByType.size());
+        for (Map.Entry<RelationType, List<InternalRelation>> entry : addedByType.entrySet()) {
+            final List<InternalRelation> relations = new ArrayList<>(entry.getValue().size());
+            for (InternalRelation r : entry.getValue()) {
+                if (!deletedSet.contains(r)) relations.add(r);
+            }
+            if (!relations.isEmpty()) newlyAddedByType.put(entry.getKey(), relations);
+        }
+        addedByType = newlyAddedByType;
     }
 
     @Override
@@ -79,6 +95,20 @@ public class SimpleBufferAddedRelations implements AddedRelationsContainer {
         return result;
     }
 
+    @Override
+    public List<InternalRelation> getView(Collection<? extends RelationType> types, Predicate<InternalRelation> filter) {
+        cleanup();
+        final List<InternalRelation> result = new ArrayList<>();
+        for (RelationType type : types) {
+            final List<InternalRelation> relations = addedByType.get(type);
+            if (relations == null) continue;
+            for (InternalRelation r : relations) {
+                if (filter.apply(r)) result.add(r);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Collection<InternalRelation> getAll() {
         cleanup();
@@ -14,39 +14,75 @@
 
 package org.janusgraph.graphdb.transaction.indexcache;
 
-import com.google.common.collect.HashMultimap;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.JanusGraphVertexProperty;
 
 import java.util.ArrayList;
-import java.util.List;
-
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
+/**
+ * Thread-safe {@link IndexCache} which keys the properties by both their key and value so that lookups don't
+ * have to filter out properties of other keys. Modifications only lock the affected hash bin of the
+ * underlying {@link ConcurrentHashMap} and lookups don't lock at all.
+ */
 public class ConcurrentIndexCache implements IndexCache {
 
-    private final HashMultimap<Object,JanusGraphVertexProperty> map;
+    private final ConcurrentMap<KeyValue,Set<JanusGraphVertexProperty>> map;
 
     public ConcurrentIndexCache() {
-        this.map = HashMultimap.create();
+        this.map = new ConcurrentHashMap<>();
     }
 
     @Override
-    public synchronized void add(JanusGraphVertexProperty property) {
-        map.put(property.value(),property);
+    public void add(JanusGraphVertexProperty property) {
+        map.compute(new KeyValue(property.propertyKey(), property.value()), (kv, properties) -> {
+            if (properties == null) properties = ConcurrentHashMap.newKeySet(4);
+            properties.add(property);
+            return properties;
+        });
     }
 
     @Override
-    public synchronized void remove(JanusGraphVertexProperty property) {
-        map.remove(property.value(),property);
+    public void remove(JanusGraphVertexProperty property) {
+        map.computeIfPresent(new KeyValue(property.propertyKey(), property.value()), (kv, properties) -> {
+            properties.remove(property);
+            return properties.isEmpty() ? null : properties;
+        });
     }
 
     @Override
-    public synchronized Iterable<JanusGraphVertexProperty> get(Object value, PropertyKey key) {
-        final List<JanusGraphVertexProperty> result = new ArrayList<>(4);
-        for (JanusGraphVertexProperty p : map.get(value)) {
-            if (p.propertyKey().equals(key)) result.add(p);
+    public Iterable<JanusGraphVertexProperty> get(Object value, PropertyKey key) {
+        final Set<JanusGraphVertexProperty> properties = map.get(new KeyValue(key, value));
+        if (properties == null) return Collections.emptyList();
+        return new ArrayList<>(properties);
+    }
+
+    private static final class KeyValue {
+
+        private final PropertyKey key;
+        private final Object value;
+
+        private KeyValue(PropertyKey key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Objects.hashCode(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof KeyValue)) return false;
+            final KeyValue kv = (KeyValue) other;
+            return key.equals(kv.key) && Objects.equals(value, kv.value);
         }
-        return result;
     }
 }
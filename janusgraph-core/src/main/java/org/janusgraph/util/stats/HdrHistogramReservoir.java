@@ -0,0 +1,145 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.stats;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.carrotsearch.hppc.LongArrayList;
+import com.google.common.base.Preconditions;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link Reservoir} backed by an HdrHistogram {@link Recorder}. Unlike the sampling reservoirs of Metrics, every
+ * value is recorded (within the configured number of significant digits), so tail percentiles such as p99.9 are
+ * accurate. Recording is wait-free.
+ * <p>
+ * In cumulative mode, snapshots cover all values recorded since the reservoir was created. In interval mode, each
+ * snapshot covers the values recorded since the previous snapshot was taken. Note that an interval reservoir
+ * splits its values between all reporters taking snapshots of it.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private final Recorder recorder;
+    private final boolean interval;
+
+    /**
+     * The values recorded since the reservoir was created (cumulative mode) or since the last snapshot (interval mode)
+     */
+    private final Histogram accumulated;
+    private Histogram recycled;
+
+    public HdrHistogramReservoir(int significantDigits, boolean interval) {
+        Preconditions.checkArgument(significantDigits >= 0 && significantDigits <= 5,
+            "Invalid number of significant digits: %s", significantDigits);
+        this.recorder = new Recorder(significantDigits);
+        this.interval = interval;
+        this.accumulated = new Histogram(significantDigits);
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(Math.max(0, value));
+    }
+
+    @Override
+    public synchronized int size() {
+        collect();
+        return (int) Math.min(Integer.MAX_VALUE, accumulated.getTotalCount());
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        collect();
+        final Histogram histogram = accumulated.copy();
+        if (interval) accumulated.reset();
+        return new HdrSnapshot(histogram);
+    }
+
+    private void collect() {
+        recycled = recorder.getIntervalHistogram(recycled);
+        accumulated.add(recycled);
+    }
+
+    private static class HdrSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        private HdrSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            Preconditions.checkArgument(quantile >= 0.0 && quantile <= 1.0, "%s is not in [0..1]", quantile);
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        /**
+         * Returns one value per recorded bucket of the histogram in ascending order, rather than one value per
+         * recorded value, so that the array stays small regardless of how many values were recorded. Use
+         * {@link #size()} and {@link #getValue(double)} for counts and percentiles.
+         */
+        @Override
+        public long[] getValues() {
+            final LongArrayList values = new LongArrayList();
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                values.add(histogram.highestEquivalentValue(value.getValueIteratedTo()));
+            }
+            return values.toArray();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0 ? 0.0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0 ? 0.0 : histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+    }
+}
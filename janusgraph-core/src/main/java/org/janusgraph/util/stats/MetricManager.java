@@ -28,11 +28,13 @@ import javax.management.MBeanServer;
 import javax.management.MBeanServerFactory;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 
 /**
@@ -53,6 +55,22 @@ public enum MetricManager {
     private Slf4jReporter slf4jReporter       = null;
     private GangliaReporter gangliaReporter   = null;
     private GraphiteReporter graphiteReporter = null;
+    private PrometheusReporter prometheusReporter = null;
+
+    /**
+     * Creates the reservoirs of new timers and histograms; null for the default Metrics reservoir
+     */
+    private volatile Supplier<Reservoir> reservoirs = null;
+
+    private final MetricRegistry.MetricSupplier<Timer> timers = () -> {
+        final Supplier<Reservoir> r = reservoirs;
+        return null == r ? new Timer() : new Timer(r.get());
+    };
+
+    private final MetricRegistry.MetricSupplier<Histogram> histograms = () -> {
+        final Supplier<Reservoir> r = reservoirs;
+        return new Histogram(null == r ? new ExponentiallyDecayingReservoir() : r.get());
+    };
 
     /**
      * Return the JanusGraph Metrics registry.
@@ -64,6 +82,28 @@ public enum MetricManager {
         return registry;
     }
 
+    /**
+     * Back all timers and histograms created from now on by an {@link HdrHistogramReservoir}, which records every
+     * value and hence reports accurate tail latencies, instead of the sampling reservoir of Metrics. Timers and
+     * histograms which already exist keep their reservoir.
+     *
+     * @param significantDigits
+     *            the number of significant decimal digits to which recorded values are kept
+     * @param interval
+     *            true to report the values recorded since the previous report, false to report all values recorded
+     *            since the metric was created
+     */
+    public synchronized void useHdrHistograms(int significantDigits, boolean interval) {
+        reservoirs = () -> new HdrHistogramReservoir(significantDigits, interval);
+    }
+
+    /**
+     * Create new timers and histograms with the default sampling reservoir of Metrics again.
+     */
+    public synchronized void useDefaultHistograms() {
+        reservoirs = null;
+    }
+
     /**
      * Create a {@link ConsoleReporter} attached to the JanusGraph Metrics registry.
      *
@@ -366,6 +406,60 @@ public enum MetricManager {
         graphiteReporter = null;
     }
 
+    /**
+     * Create a {@link PrometheusReporter} attached to the JanusGraph Metrics registry.
+     *
+     * @param reportInterval
+     *            time to wait between rewriting the output file
+     * @param output
+     *            the path of the file into which metrics are written in the Prometheus text format. Its directory is
+     *            created if it doesn't already exist.
+     */
+    public synchronized void addPrometheusReporter(Duration reportInterval, String output) {
+        if (null != prometheusReporter) {
+            log.debug("Metrics PrometheusReporter already active; not creating another");
+            return;
+        }
+
+        File outputFile = new File(output).getAbsoluteFile();
+        File outputDir = outputFile.getParentFile();
+        if (!outputDir.exists()) {
+            if (!outputDir.mkdirs()) {
+                log.warn("Failed to create Prometheus metrics dir {}", outputDir);
+            }
+        }
+
+        prometheusReporter = new PrometheusReporter(getRegistry(), outputFile);
+        prometheusReporter.start(reportInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop a {@link PrometheusReporter} previously created by a call to
+     * {@link #addPrometheusReporter(Duration, String)} and release it for GC.
+     * Idempotent between calls to the associated add method. Does nothing
+     * before the first call to the associated add method.
+     */
+    public synchronized void removePrometheusReporter() {
+        if (null != prometheusReporter)
+            prometheusReporter.stop();
+
+        prometheusReporter = null;
+    }
+
+    /**
+     * Render the current state of the JanusGraph Metrics registry in the
+     * Prometheus text exposition format, e.g. to serve it from an HTTP endpoint.
+     */
+    public String getPrometheusText() {
+        StringWriter out = new StringWriter();
+        try {
+            PrometheusReporter.write(out, getRegistry());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return out.toString();
+    }
+
     /**
      * Remove all JanusGraph Metrics reporters previously configured through the
      * {@code add*} methods on this class.
@@ -377,6 +471,7 @@ public enum MetricManager {
         removeSlf4jReporter();
         removeGangliaReporter();
         removeGraphiteReporter();
+        removePrometheusReporter();
     }
 
     public Counter getCounter(String name) {
@@ -388,19 +483,19 @@ public enum MetricManager {
     }
 
     public Timer getTimer(String name) {
-        return getRegistry().timer(name);
+        return getRegistry().timer(name, timers);
     }
 
     public Timer getTimer(String prefix, String... names) {
-        return getRegistry().timer(MetricRegistry.name(prefix, names));
+        return getRegistry().timer(MetricRegistry.name(prefix, names), timers);
     }
 
     public Histogram getHistogram(String name) {
-        return getRegistry().histogram(name);
+        return getRegistry().histogram(name, histograms);
     }
 
     public Histogram getHistogram(String prefix, String... names) {
-        return getRegistry().histogram(MetricRegistry.name(prefix, names));
+        return getRegistry().histogram(MetricRegistry.name(prefix, names), histograms);
     }
 
     public boolean remove(String name) {
@@ -0,0 +1,144 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.stats;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.ScheduledReporter;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes all metrics of a {@link MetricRegistry} to a file in the Prometheus text exposition format,
+ * e.g. for the textfile collector of the Prometheus node exporter. The file is replaced atomically on each report.
+ * <p>
+ * Metric names are sanitized to the Prometheus alphabet by replacing all other characters with underscores.
+ * Timers and histograms are exported as summaries with the 0.5, 0.75, 0.95, 0.98, 0.99 and 0.999 quantiles; timer
+ * values are reported in seconds.
+ */
+public class PrometheusReporter extends ScheduledReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusReporter.class);
+
+    private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999};
+
+    private final Path output;
+
+    public PrometheusReporter(MetricRegistry registry, File output) {
+        super(registry, "prometheus-reporter", MetricFilter.ALL, TimeUnit.SECONDS, TimeUnit.SECONDS);
+        this.output = output.toPath();
+    }
+
+    @Override
+    public void report(SortedMap<String, Gauge> gauges, SortedMap<String, Counter> counters,
+                       SortedMap<String, Histogram> histograms, SortedMap<String, Meter> meters,
+                       SortedMap<String, Timer> timers) {
+        try {
+            final Path parent = output.toAbsolutePath().getParent();
+            final Path tmp = Files.createTempFile(parent, output.getFileName().toString(), ".tmp");
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                write(out, gauges, counters, histograms, meters, timers);
+            }
+            Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write Prometheus metrics to {}", output, e);
+        }
+    }
+
+    /**
+     * Writes all metrics of the given registry in the Prometheus text exposition format.
+     */
+    public static void write(Writer out, MetricRegistry registry) throws IOException {
+        write(out, registry.getGauges(), registry.getCounters(), registry.getHistograms(), registry.getMeters(),
+            registry.getTimers());
+    }
+
+    private static void write(Writer out, SortedMap<String, Gauge> gauges, SortedMap<String, Counter> counters,
+                              SortedMap<String, Histogram> histograms, SortedMap<String, Meter> meters,
+                              SortedMap<String, Timer> timers) throws IOException {
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            final Object value = entry.getValue().getValue();
+            if (value instanceof Integer || value instanceof Long) {
+                writeSample(out, sanitize(entry.getKey()), "gauge", value.toString());
+            } else if (value instanceof Number) {
+                writeSample(out, sanitize(entry.getKey()), "gauge", format(((Number) value).doubleValue()));
+            } else if (value instanceof Boolean) {
+                writeSample(out, sanitize(entry.getKey()), "gauge", (Boolean) value ? "1" : "0");
+            }
+        }
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            writeSample(out, sanitize(entry.getKey()), "counter", Long.toString(entry.getValue().getCount()));
+        }
+        for (Map.Entry<String, Meter> entry : meters.entrySet()) {
+            writeSample(out, sanitize(entry.getKey()) + "_total", "counter", Long.toString(entry.getValue().getCount()));
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            writeSummary(out, sanitize(entry.getKey()), entry.getValue().getSnapshot(), entry.getValue().getCount(), 1.0);
+        }
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            writeSummary(out, sanitize(entry.getKey()) + "_seconds", entry.getValue().getSnapshot(),
+                entry.getValue().getCount(), 1.0 / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private static void writeSample(Writer out, String name, String type, String value) throws IOException {
+        out.write("# TYPE " + name + " " + type + "\n");
+        out.write(name + " " + value + "\n");
+    }
+
+    private static void writeSummary(Writer out, String name, Snapshot snapshot, long count, double factor) throws IOException {
+        out.write("# TYPE " + name + " summary\n");
+        for (double quantile : QUANTILES) {
+            out.write(name + "{quantile=\"" + quantile + "\"} " + format(snapshot.getValue(quantile) * factor) + "\n");
+        }
+        out.write(name + "_count " + count + "\n");
+        out.write("# TYPE " + name + "_max gauge\n");
+        out.write(name + "_max " + format(snapshot.getMax() * factor) + "\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        return Double.toString(value);
+    }
+
+    static String sanitize(String name) {
+        final StringBuilder b = new StringBuilder(name.length() + 1);
+        if (name.isEmpty() || Character.isDigit(name.charAt(0))) b.append('_');
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            b.append((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == ':' ? c : '_');
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.system;
+
+import com.google.common.base.Preconditions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Registry of resources which are shared by multiple owners, e.g. the graphs of a JVM. A resource is created by the
+ * first owner which acquires it under a given key and closed when the last owner releases it.
+ *
+ * @param <K> the key identifying a shared resource
+ * @param <R> the type of the shared resource
+ */
+public class ReferenceCountedRegistry<K, R> {
+
+    /**
+     * Creates a resource, possibly throwing a checked exception.
+     */
+    @FunctionalInterface
+    public interface Factory<R, E extends Exception> {
+        R create() throws E;
+    }
+
+    private static class Reference<R> {
+        private final R resource;
+        private int count;
+
+        private Reference(R resource) {
+            this.resource = resource;
+        }
+    }
+
+    private final Map<K, Reference<R>> references = new HashMap<>();
+
+    /**
+     * Returns the resource registered under the given key, creating it with the given factory if there is none.
+     * Each call must be matched by a call to {@link #release(Object, Consumer)}.
+     */
+    public synchronized <E extends Exception> R acquire(K key, Factory<R, E> factory) throws E {
+        Preconditions.checkNotNull(key);
+        Reference<R> reference = references.get(key);
+        if (reference == null) {
+            reference = new Reference<>(factory.create());
+            references.put(key, reference);
+        }
+        reference.count++;
+        return reference.resource;
+    }
+
+    /**
+     * Releases one reference to the resource registered under the given key and closes it with the given closer once
+     * no references are left.
+     */
+    public synchronized void release(K key, Consumer<R> closer) {
+        final Reference<R> reference = references.get(key);
+        Preconditions.checkState(reference != null, "No shared resource registered under the given key");
+        if (--reference.count == 0) {
+            references.remove(key);
+            closer.accept(reference.resource);
+        }
+    }
+
+    /**
+     * @return the number of unreleased references to the resource registered under the given key
+     */
+    public synchronized int getReferenceCount(K key) {
+        final Reference<R> reference = references.get(key);
+        return reference == null ? 0 : reference.count;
+    }
+}
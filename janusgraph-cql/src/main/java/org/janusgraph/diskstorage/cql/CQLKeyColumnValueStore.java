@@ -15,6 +15,7 @@
 package org.janusgraph.diskstorage.cql;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
@@ -58,6 +59,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
@@ -291,14 +295,49 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
 
     @Override
     public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
-        ResultSet result = this.storeManager.executeOnSession(this.getSlice.bind()
+        ResultSet result = this.storeManager.executeOnSession(bindGetSlice(query, txh));
+
+        return fromResultSet(result, this.getter);
+    }
+
+    /**
+     * Executes the slice query without blocking on the driver: all pages of the result are fetched asynchronously
+     * under a single request permit of the store manager. The returned future completes on the common fork-join pool
+     * rather than on a driver I/O thread, so that the stages applied to it by the store stack and its callers do not
+     * hold up the driver. Failures are mapped by {@link #EXCEPTION_MAPPER}.
+     */
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        final CompletableFuture<EntryList> result = new CompletableFuture<>();
+        try {
+            this.storeManager.executeAsyncQueryOnSession(bindGetSlice(query, txh), page -> fetchAllRows(page, new ArrayList<>()))
+                .whenCompleteAsync((rows, exception) -> {
+                    if (exception == null) {
+                        result.complete(fromRows(Lazy.of(() -> rows), this.getter));
+                    } else {
+                        result.completeExceptionally(EXCEPTION_MAPPER.apply(
+                            exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception));
+                    }
+                });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(EXCEPTION_MAPPER.apply(e));
+        }
+        return result;
+    }
+
+    private BoundStatement bindGetSlice(KeySliceQuery query, StoreTransaction txh) {
+        return this.getSlice.bind()
                 .setByteBuffer(KEY_BINDING, query.getKey().asByteBuffer())
                 .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
                 .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
                 .setInt(LIMIT_BINDING, query.getLimit())
-                .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()));
+                .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel());
+    }
 
-        return fromResultSet(result, this.getter);
+    private static CompletionStage<ArrayList<Row>> fetchAllRows(AsyncResultSet page, ArrayList<Row> rows) {
+        page.currentPage().forEach(rows::add);
+        if (!page.hasMorePages()) return CompletableFuture.completedFuture(rows);
+        return page.fetchNextPage().thenCompose(next -> fetchAllRows(next, rows));
     }
 
     @Override
@@ -307,8 +346,10 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     }
 
     private static EntryList fromResultSet(ResultSet resultSet, StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter) {
-        Lazy<ArrayList<Row>> lazyList = Lazy.of(() -> Lists.newArrayList(resultSet));
+        return fromRows(Lazy.of(() -> Lists.newArrayList(resultSet)), getter);
+    }
 
+    private static EntryList fromRows(Lazy<ArrayList<Row>> lazyList, StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter) {
         // Use the Iterable overload of of ByteBuffer as it's able to allocate
         // the byte array up front.
         // To ensure that the Iterator instance is recreated, it is created
@@ -35,6 +35,7 @@ import com.datastax.oss.driver.internal.core.auth.PlainTextAuthProvider;
 import com.datastax.oss.driver.internal.core.ssl.DefaultSslEngineFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
 import io.vavr.Tuple;
 import io.vavr.collection.Array;
 import io.vavr.collection.HashMap;
@@ -57,20 +58,26 @@ import org.janusgraph.diskstorage.keycolumnvalue.StandardStoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
+import org.janusgraph.util.system.ReferenceCountedRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Resource;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -107,6 +114,7 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DR
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.GRAPH_NAME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_PREFIX;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_SYSTEM_PREFIX_DEFAULT;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SHARED_RESOURCES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_HOSTS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_PORT;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TIMESTAMP_PROVIDER;
@@ -123,6 +131,13 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
     static final String CONSISTENCY_QUORUM = "QUORUM";
     private static final int DEFAULT_PORT = 9042;
 
+    /**
+     * Sessions shared by the store managers of all graphs which connect to the same cluster with the same driver
+     * settings and enable {@link org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#SHARED_RESOURCES}.
+     * Statements always qualify tables with their keyspace, so a session can serve any number of keyspaces.
+     */
+    private static final ReferenceCountedRegistry<List<Object>, CqlSession> SHARED_SESSIONS = new ReferenceCountedRegistry<>();
+
     private final String keyspace;
     private final int batchSize;
     private final boolean atomicBatch;
@@ -131,9 +146,18 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
 
     @Resource
     private CqlSession session;
+    /**
+     * Key of the session in {@link #SHARED_SESSIONS}, or null if the session is owned by this store manager
+     */
+    private final List<Object> sharedSessionKey;
+    private boolean sharedSessionReleased;
     private final StoreFeatures storeFeatures;
     private final Map<String, CQLKeyColumnValueStore> openStores;
     private final Semaphore semaphore;
+    /**
+     * Asynchronous requests waiting for a permit of the {@link #semaphore}, see {@link #acquirePermitAsync()}
+     */
+    private final Queue<CompletableFuture<Void>> permitWaiters = new ConcurrentLinkedQueue<>();
 
     /**
      * Constructor for the {@link CQLStoreManager} given a JanusGraph {@link Configuration}.
@@ -146,50 +170,62 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         this.times = configuration.get(TIMESTAMP_PROVIDER);
         this.semaphore = new Semaphore(configuration.get(MAX_REQUESTS_PER_CONNECTION));
 
-        this.session = initialiseSession();
+        if (configuration.get(SHARED_RESOURCES)) {
+            this.sharedSessionKey = getSharedSessionKey(configuration);
+            this.session = SHARED_SESSIONS.acquire(sharedSessionKey, this::initialiseSession);
+        } else {
+            this.sharedSessionKey = null;
+            this.session = initialiseSession();
+        }
 
-        initialiseKeyspace();
+        try {
+            initialiseKeyspace();
 
-        Configuration global = buildGraphConfiguration()
-                .set(READ_CONSISTENCY, CONSISTENCY_QUORUM)
-                .set(WRITE_CONSISTENCY, CONSISTENCY_QUORUM)
-                .set(METRICS_PREFIX, METRICS_SYSTEM_PREFIX_DEFAULT);
+            Configuration global = buildGraphConfiguration()
+                    .set(READ_CONSISTENCY, CONSISTENCY_QUORUM)
+                    .set(WRITE_CONSISTENCY, CONSISTENCY_QUORUM)
+                    .set(METRICS_PREFIX, METRICS_SYSTEM_PREFIX_DEFAULT);
 
-        Configuration local = buildGraphConfiguration()
-                .set(READ_CONSISTENCY, CONSISTENCY_LOCAL_QUORUM)
-                .set(WRITE_CONSISTENCY, CONSISTENCY_LOCAL_QUORUM)
-                .set(METRICS_PREFIX, METRICS_SYSTEM_PREFIX_DEFAULT);
+            Configuration local = buildGraphConfiguration()
+                    .set(READ_CONSISTENCY, CONSISTENCY_LOCAL_QUORUM)
+                    .set(WRITE_CONSISTENCY, CONSISTENCY_LOCAL_QUORUM)
+                    .set(METRICS_PREFIX, METRICS_SYSTEM_PREFIX_DEFAULT);
 
-        Boolean onlyUseLocalConsistency = configuration.get(ONLY_USE_LOCAL_CONSISTENCY_FOR_SYSTEM_OPERATIONS);
+            Boolean onlyUseLocalConsistency = configuration.get(ONLY_USE_LOCAL_CONSISTENCY_FOR_SYSTEM_OPERATIONS);
 
-        Boolean useExternalLocking = configuration.get(USE_EXTERNAL_LOCKING);
+            Boolean useExternalLocking = configuration.get(USE_EXTERNAL_LOCKING);
 
-        StandardStoreFeatures.Builder fb = new StandardStoreFeatures.Builder();
+            StandardStoreFeatures.Builder fb = new StandardStoreFeatures.Builder();
 
-        fb.batchMutation(true).distributed(true);
-        fb.timestamps(true).cellTTL(true);
-        fb.keyConsistent((onlyUseLocalConsistency ? local : global), local);
-        fb.locking(useExternalLocking);
-        fb.optimisticLocking(true);
-        fb.multiQuery(false);
+            fb.batchMutation(true).distributed(true);
+            fb.timestamps(true).cellTTL(true);
+            fb.keyConsistent((onlyUseLocalConsistency ? local : global), local);
+            fb.locking(useExternalLocking);
+            fb.optimisticLocking(true);
+            fb.multiQuery(false);
 
-        String partitioner = this.session.getMetadata().getTokenMap().get().getPartitionerName();
-        switch (partitioner.substring(partitioner.lastIndexOf('.') + 1)) {
-            case "RandomPartitioner":
-            case "Murmur3Partitioner": {
-                fb.keyOrdered(false).orderedScan(false).unorderedScan(true);
-                break;
-            }
-            case "ByteOrderedPartitioner": {
-                fb.keyOrdered(true).orderedScan(true).unorderedScan(false);
-                break;
-            }
-            default: {
-                throw new IllegalArgumentException("Unrecognized partitioner: " + partitioner);
+            String partitioner = this.session.getMetadata().getTokenMap().get().getPartitionerName();
+            switch (partitioner.substring(partitioner.lastIndexOf('.') + 1)) {
+                case "RandomPartitioner":
+                case "Murmur3Partitioner": {
+                    fb.keyOrdered(false).orderedScan(false).unorderedScan(true);
+                    break;
+                }
+                case "ByteOrderedPartitioner": {
+                    fb.keyOrdered(true).orderedScan(true).unorderedScan(false);
+                    break;
+                }
+                default: {
+                    throw new IllegalArgumentException("Unrecognized partitioner: " + partitioner);
+                }
             }
+            this.storeFeatures = fb.build();
+            this.openStores = new ConcurrentHashMap<>();
+        } catch (RuntimeException e) {
+            //Release the session, which may be shared with other store managers
+            close();
+            throw e;
         }
-        this.storeFeatures = fb.build();
-        this.openStores = new ConcurrentHashMap<>();
     }
 
     private CqlSession initialiseSession() throws PermanentBackendException {
@@ -256,6 +292,35 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         return builder.build();
     }
 
+    /**
+     * Returns the values of all options which {@link #initialiseSession()} configures the session with, so that graphs
+     * only share sessions which are configured identically.
+     */
+    private static List<Object> getSharedSessionKey(Configuration configuration) {
+        return Arrays.asList(
+                Arrays.asList(configuration.get(STORAGE_HOSTS)),
+                configuration.has(STORAGE_PORT) ? configuration.get(STORAGE_PORT) : DEFAULT_PORT,
+                configuration.get(LOCAL_DATACENTER),
+                configuration.get(SESSION_NAME),
+                configuration.get(PROTOCOL_VERSION),
+                configuration.has(AUTH_USERNAME) ? configuration.get(AUTH_USERNAME) : null,
+                configuration.has(AUTH_PASSWORD) ? hashSecret(configuration.get(AUTH_PASSWORD)) : null,
+                configuration.get(SSL_ENABLED),
+                configuration.get(SSL_TRUSTSTORE_LOCATION),
+                hashSecret(configuration.get(SSL_TRUSTSTORE_PASSWORD)),
+                configuration.get(LOCAL_MAX_CONNECTIONS_PER_HOST),
+                configuration.get(REMOTE_MAX_CONNECTIONS_PER_HOST),
+                configuration.get(MAX_REQUESTS_PER_CONNECTION));
+    }
+
+    /**
+     * Returns a hash of the given password, so that the key of a shared session does not keep the password in memory
+     * for as long as the session is open.
+     */
+    private static String hashSecret(String secret) {
+        return Hashing.sha256().hashString(secret, StandardCharsets.UTF_8).toString();
+    }
+
     void initialiseKeyspace() {
         // if the keyspace already exists, just return
         if (this.session.getMetadata().getKeyspace(this.keyspace).isPresent()) {
@@ -292,7 +357,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
             Thread.currentThread().interrupt();
             throw new JanusGraphException("Interrupted while acquiring resource to execute query on Session.");
         } finally {
-            this.semaphore.release();
+            releasePermit();
         }
     }
 
@@ -301,7 +366,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
             this.semaphore.acquire();
             CompletionStage<AsyncResultSet> async = this.session.executeAsync(statement);
             async.handle((result, exception) -> {
-                this.semaphore.release();
+                releasePermit();
                 if (exception != null) {
                     return exception;
                 } else {
@@ -310,12 +375,64 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
             });
             return async;
         } catch (InterruptedException e) {
-            this.semaphore.release();
+            releasePermit();
             Thread.currentThread().interrupt();
             throw new JanusGraphException("Interrupted while acquiring resource to execute query on Session.");
         }
     }
 
+    /**
+     * Executes the statement without blocking the calling thread and passes the first page of its result to the given
+     * function, which may fetch further pages. A request permit is held until the stage returned by the function
+     * completes, so that fetching all pages of a query counts as one request towards the
+     * {@link CQLConfigOptions#MAX_REQUESTS_PER_CONNECTION} limit. When no permit is available, the request is queued
+     * and sent once a permit is released rather than blocking the caller.
+     */
+    <T> CompletableFuture<T> executeAsyncQueryOnSession(Statement statement, Function<AsyncResultSet, CompletionStage<T>> pages) {
+        return acquirePermitAsync().thenCompose(permit -> {
+            final CompletionStage<T> result;
+            try {
+                result = this.session.executeAsync(statement).thenCompose(pages);
+            } catch (RuntimeException e) {
+                releasePermit();
+                throw e;
+            }
+            return result.whenComplete((value, exception) -> releasePermit());
+        });
+    }
+
+    /**
+     * Returns a future which completes once a permit of the {@link #semaphore} has been acquired for the caller.
+     */
+    private CompletableFuture<Void> acquirePermitAsync() {
+        if (this.semaphore.tryAcquire()) return CompletableFuture.completedFuture(null);
+        final CompletableFuture<Void> waiter = new CompletableFuture<>();
+        this.permitWaiters.add(waiter);
+        //A permit released before the waiter was queued is not handed to it, so try again
+        if (this.semaphore.tryAcquire()) {
+            if (this.permitWaiters.remove(waiter)) {
+                waiter.complete(null);
+            } else {
+                //The waiter has been handed a permit in the meantime, so this one is not needed
+                releasePermit();
+            }
+        }
+        return waiter;
+    }
+
+    /**
+     * Hands a permit of the {@link #semaphore} over to the longest waiting asynchronous request, or returns it to the
+     * semaphore if there is none.
+     */
+    private void releasePermit() {
+        final CompletableFuture<Void> waiter = this.permitWaiters.poll();
+        if (waiter != null) {
+            waiter.complete(null);
+        } else {
+            this.semaphore.release();
+        }
+    }
+
     String getKeyspaceName() {
         return this.keyspace;
     }
@@ -343,7 +460,14 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
 
     @Override
     public void close() {
-        this.session.close();
+        if (sharedSessionKey != null) {
+            if (!sharedSessionReleased) {
+                sharedSessionReleased = true;
+                SHARED_SESSIONS.release(sharedSessionKey, CqlSession::close);
+            }
+        } else {
+            this.session.close();
+        }
     }
 
     @Override
@@ -1239,6 +1239,21 @@ public class ElasticSearchIndex implements IndexProvider {
         return count;
     }
 
+    @Override
+    public Long totals(IndexQuery query, KeyInformation.IndexRetriever information,
+                       BaseTransaction tx) throws BackendException {
+        final Map<String, Object> esQuery = getFilter(query.getCondition(), information.get(query.getStore()));
+        try {
+            final long startTime = System.currentTimeMillis();
+            final long count = client.countTotal(getIndexStoreName(query.getStore()),
+                    compat.createRequestBody(compat.prepareQuery(esQuery), NULL_PARAMETERS));
+            LOG.debug("Executed count query [{}] in {} ms", query.getCondition(), System.currentTimeMillis() - startTime);
+            return count;
+        } catch (IOException | UncheckedIOException e) {
+            throw new PermanentBackendException(e);
+        }
+    }
+
     @Override
     public boolean supports(KeyInformation information, JanusGraphPredicate janusgraphPredicate) {
         Class<?> dataType = information.getDataType();
@@ -16,13 +16,10 @@ import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.NoSuchElementException;
 
 /**
  * @author Ted Wilmes (twilmes@gmail.com)
@@ -104,51 +101,71 @@ public class FoundationDBKeyValueStore implements OrderedKeyValueStore {
     public RecordIterator<KeyValueEntry> getSlice(KVQuery query, StoreTransaction txh) throws BackendException {
         log.trace("beginning db={}, op=getSlice, tx={}", name, txh);
         final FoundationDBTransaction tx = getTransaction(txh);
-        final StaticBuffer keyStart = query.getStart();
-        final StaticBuffer keyEnd = query.getEnd();
-        final KeySelector selector = query.getKeySelector();
-        final List<KeyValueEntry> result = new ArrayList<>();
-        final byte[] foundKey = db.pack(keyStart.as(ENTRY_FACTORY));
-        final byte[] endKey = db.pack(keyEnd.as(ENTRY_FACTORY));
-
         try {
-            final List<KeyValue> results = tx.getRange(foundKey, endKey, query.getLimit());
+            return getRecordIterator(query, tx);
+        } catch (Exception e) {
+            throw new PermanentBackendException(e);
+        }
+    }
 
-            for (KeyValue keyValue : results) {
-                StaticBuffer key = getBuffer(db.unpack(keyValue.getKey()).getBytes(0));
-                if (selector.include(key))
-                    result.add(new KeyValueEntry(key, getBuffer(keyValue.getValue())));
+    @Override
+    public Map<KVQuery,RecordIterator<KeyValueEntry>> getSlices(List<KVQuery> queries, StoreTransaction txh) throws BackendException {
+        log.trace("beginning db={}, op=getSlices, tx={}", name, txh);
+        final FoundationDBTransaction tx = getTransaction(txh);
+        final Map<KVQuery, RecordIterator<KeyValueEntry>> resultMap = new HashMap<>(queries.size());
+        try {
+            // Each range starts fetching its first batch as soon as its iterator is created,
+            // so the ranges are read concurrently
+            for (KVQuery query : queries) {
+                resultMap.put(query, getRecordIterator(query, tx));
             }
         } catch (Exception e) {
+            for (RecordIterator<KeyValueEntry> iterator : resultMap.values()) {
+                ((FoundationDBRecordIterator) iterator).close();
+            }
             throw new PermanentBackendException(e);
         }
-
-        log.trace("db={}, op=getSlice, tx={}, resultcount={}", name, txh, result.size());
-
-        return new FoundationDBRecordIterator(result);
+        return resultMap;
     }
 
-
+    private RecordIterator<KeyValueEntry> getRecordIterator(KVQuery query, FoundationDBTransaction tx) {
+        final byte[] foundKey = db.pack(query.getStart().as(ENTRY_FACTORY));
+        final byte[] endKey = db.pack(query.getEnd().as(ENTRY_FACTORY));
+        return new FoundationDBRecordIterator(tx.getRangeIterator(foundKey, endKey, query.getLimit()), query.getKeySelector());
+    }
 
     private class FoundationDBRecordIterator implements RecordIterator<KeyValueEntry> {
-        private final Iterator<KeyValueEntry> entries;
+        private final FoundationDBTransaction.RangeIterator entries;
+        private final KeySelector selector;
+        private KeyValueEntry nextEntry;
 
-        public FoundationDBRecordIterator(List<KeyValueEntry> result) {
-            this.entries = result.iterator();
+        public FoundationDBRecordIterator(FoundationDBTransaction.RangeIterator entries, KeySelector selector) {
+            this.entries = entries;
+            this.selector = selector;
         }
 
         @Override
         public boolean hasNext() {
-            return entries.hasNext();
+            while (nextEntry == null && !selector.reachedLimit() && entries.hasNext()) {
+                final KeyValue keyValue = entries.next();
+                final StaticBuffer key = getBuffer(db.unpack(keyValue.getKey()).getBytes(0));
+                if (selector.include(key))
+                    nextEntry = new KeyValueEntry(key, getBuffer(keyValue.getValue()));
+            }
+            return nextEntry != null;
         }
 
         @Override
         public KeyValueEntry next() {
-            return entries.next();
+            if (!hasNext()) throw new NoSuchElementException();
+            final KeyValueEntry entry = nextEntry;
+            nextEntry = null;
+            return entry;
         }
 
         @Override
         public void close() {
+            entries.close();
         }
 
         @Override
@@ -157,42 +174,6 @@ public class FoundationDBKeyValueStore implements OrderedKeyValueStore {
         }
     }
 
-    @Override
-    public Map<KVQuery,RecordIterator<KeyValueEntry>> getSlices(List<KVQuery> queries, StoreTransaction txh) throws BackendException {
-        log.trace("beginning db={}, op=getSlice, tx={}", name, txh);
-        FoundationDBTransaction tx = getTransaction(txh);
-        final Map<KVQuery, RecordIterator<KeyValueEntry>> resultMap = new ConcurrentHashMap<>();
-        final List<CompletableFuture<Void>> futures = new ArrayList<>();
-
-        try {
-            final List<Object[]> preppedQueries = new LinkedList<>();
-            for (KVQuery query : queries) {
-                final StaticBuffer keyStart = query.getStart();
-                final StaticBuffer keyEnd = query.getEnd();
-                final KeySelector selector = query.getKeySelector();
-                final byte[] foundKey = db.pack(keyStart.as(ENTRY_FACTORY));
-                final byte[] endKey = db.pack(keyEnd.as(ENTRY_FACTORY));
-                preppedQueries.add(new Object[]{query, foundKey, endKey});
-            }
-            final Map<KVQuery, List<KeyValue>> result = tx.getMultiRange(preppedQueries);
-
-            for (Map.Entry<KVQuery, List<KeyValue>> entry : result.entrySet()) {
-                final List<KeyValueEntry> results = new ArrayList<>();
-                for (KeyValue keyValue : entry.getValue()) {
-                    final StaticBuffer key = getBuffer(db.unpack(keyValue.getKey()).getBytes(0));
-                    if (entry.getKey().getKeySelector().include(key))
-                        results.add(new KeyValueEntry(key, getBuffer(keyValue.getValue())));
-                }
-                resultMap.put(entry.getKey(), new FoundationDBRecordIterator(results));
-
-            }
-        } catch (Exception e) {
-            throw new PermanentBackendException(e);
-        }
-
-        return resultMap;
-    }
-
     @Override
     public void insert(StaticBuffer key, StaticBuffer value, StoreTransaction txh) throws BackendException {
         insert(key, value, txh, true);
@@ -1,24 +1,23 @@
 package io.grakn.janusgraph.diskstorage.foundationdb;
 
 import com.apple.foundationdb.Database;
+import com.apple.foundationdb.KeySelector;
 import com.apple.foundationdb.KeyValue;
-import com.apple.foundationdb.Range;
+import com.apple.foundationdb.StreamingMode;
 import com.apple.foundationdb.Transaction;
+import com.apple.foundationdb.async.AsyncIterator;
+import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.common.AbstractStoreTransaction;
-import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -164,74 +163,76 @@ public class FoundationDBTransaction extends AbstractStoreTransaction {
         return value;
     }
 
-    public List<KeyValue> getRange(byte[] startKey, byte[] endKey,
-                                   final int limit) throws PermanentBackendException {
-        boolean failing = true;
-        List<KeyValue> result = Collections.emptyList();
-        for (int i = 0; i < maxRuns; i++) {
-            final int startTxId = txCtr.get();
-            try {
-                result = tx.getRange(new Range(startKey, endKey), limit).asList().get();
-                if (result == null) return Collections.emptyList();
-                failing = false;
-                break;
-            } catch (ExecutionException e) {
-                if (txCtr.get() == startTxId)
-                    this.restart();
-            } catch (Exception e) {
-                throw new PermanentBackendException(e);
-            }
+    /**
+     * Returns an iterator over the key-values in the given range. The range is streamed from FoundationDB in
+     * batches of increasing size as the iterator is consumed, rather than being materialized up front.
+     * For the read committed isolation levels, a read that fails, e.g. because consuming the range took longer
+     * than FoundationDB's transaction time limit, restarts the transaction and continues the range after the
+     * last returned key in the new transaction's read version.
+     */
+    public RangeIterator getRangeIterator(byte[] startKey, byte[] endKey, int limit) {
+        return new RangeIterator(startKey, endKey, limit);
+    }
+
+    public class RangeIterator implements Iterator<KeyValue> {
+
+        private final byte[] startKey;
+        private final byte[] endKey;
+        private final int limit;
+        private byte[] lastKey;
+        private int returned = 0;
+        private int startTxId;
+        private AsyncIterator<KeyValue> iterator;
+
+        private RangeIterator(byte[] startKey, byte[] endKey, int limit) {
+            this.startKey = startKey;
+            this.endKey = endKey;
+            this.limit = limit;
+            open();
         }
-        if (failing) {
-            throw new PermanentBackendException("Max transaction reset count exceeded");
+
+        private void open() {
+            final Transaction t = tx;
+            if (t == null) throw new JanusGraphException("FoundationDB transaction is closed");
+            startTxId = txCtr.get();
+            final KeySelector begin = lastKey == null ? KeySelector.firstGreaterOrEqual(startKey)
+                                                      : KeySelector.firstGreaterThan(lastKey);
+            iterator = t.getRange(begin, KeySelector.firstGreaterOrEqual(endKey), limit - returned,
+                                  false, StreamingMode.ITERATOR).iterator();
         }
-        return result;
-    }
 
-    public synchronized  Map<KVQuery, List<KeyValue>> getMultiRange(List<Object[]> queries)
-            throws PermanentBackendException {
-        Map<KVQuery, List<KeyValue>> resultMap = new ConcurrentHashMap<>();
-        final List<Object[]> retries = new CopyOnWriteArrayList<>(queries);
-        final List<CompletableFuture> futures = new LinkedList<>();
-        for (int i = 0; i < (maxRuns * 5); i++) {
-            for(Object[] obj : retries) {
-                final KVQuery query = (KVQuery) obj[0];
-                final byte[] start = (byte[]) obj[1];
-                final byte[] end = (byte[]) obj[2];
-
-                final int startTxId = txCtr.get();
+        @Override
+        public boolean hasNext() {
+            // FoundationDB treats a limit of 0 as unlimited
+            if (returned >= limit) return false;
+            for (int i = 1; ; i++) {
                 try {
-                    futures.add(tx.getRange(start, end, query.getLimit()).asList()
-                            .whenComplete((res, th) -> {
-                                if (th == null) {
-                                    retries.remove(query);
-                                    if (res == null) {
-                                        res = Collections.emptyList();
-                                    }
-                                    resultMap.put(query, res);
-                                } else {
-                                    if (startTxId == txCtr.get())
-                                        this.restart();
-                                }
-                            }));
-                } catch (IllegalStateException fdbe) {
-                    // retry on IllegalStateException thrown when tx state changes prior to getRange call
+                    return iterator.hasNext();
+                } catch (RuntimeException e) {
+                    if (isolationLevel.equals(IsolationLevel.SERIALIZABLE) || i >= maxRuns) {
+                        throw new JanusGraphException("Could not read range from FoundationDB", e);
+                    }
+                    LOG.debug("Continuing range read in a new transaction after {} key-values", returned, e);
+                    iterator.cancel();
+                    if (txCtr.get() == startTxId)
+                        restart();
+                    open();
                 }
             }
         }
-        for (CompletableFuture future : futures) {
-            try {
-                future.get();
-            } catch (ExecutionException ee) {
-                // some tasks will fail due to tx time limits being exceeded
-            } catch (IllegalStateException is) {
-                // illegal state can arise from tx being closed while tx is inflight
-            } catch (Exception e) {
-                throw new PermanentBackendException(e);
-            }
+
+        @Override
+        public KeyValue next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final KeyValue keyValue = iterator.next();
+            lastKey = keyValue.getKey();
+            returned++;
+            return keyValue;
         }
 
-        return resultMap;
+        public void close() {
+            iterator.cancel();
+        }
     }
 
     public void set(byte[] key, byte[] value) {
@@ -0,0 +1,222 @@
+package io.grakn.janusgraph.diskstorage.foundationdb;
+
+import com.apple.foundationdb.Database;
+import com.apple.foundationdb.KeySelector;
+import com.apple.foundationdb.KeyValue;
+import com.apple.foundationdb.StreamingMode;
+import com.apple.foundationdb.Transaction;
+import com.apple.foundationdb.async.AsyncIterable;
+import com.apple.foundationdb.async.AsyncIterator;
+import com.apple.foundationdb.tuple.ByteArrayUtil;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that {@link FoundationDBTransaction.RangeIterator} continues a range read in a new transaction
+ * after a failure, without returning any key twice or skipping any key.
+ */
+public class FoundationDBRangeIteratorTest {
+
+    private static final byte[] START_KEY = new byte[]{0};
+    private static final byte[] END_KEY = new byte[]{100};
+
+    private static final List<KeyValue> DATA = new ArrayList<>();
+
+    static {
+        for (byte i = 1; i <= 6; i++) {
+            DATA.add(new KeyValue(new byte[]{i}, new byte[]{(byte) (i * 10)}));
+        }
+    }
+
+    private final Database db = mock(Database.class);
+
+    @Test
+    public void restartsAndContinuesAfterLastReturnedKey() {
+        Transaction first = rangeTransaction(2);
+        Transaction second = rangeTransaction(-1);
+        when(db.createTransaction()).thenReturn(second);
+        FoundationDBTransaction tx = transaction(first, FoundationDBTransaction.IsolationLevel.READ_COMMITTED_NO_WRITE);
+        tx.set(new byte[]{42}, new byte[]{42});
+
+        List<byte[]> keys = keys(tx.getRangeIterator(START_KEY, END_KEY, Integer.MAX_VALUE));
+
+        assertKeys(DATA, keys);
+        verify(first).cancel();
+        verify(first).close();
+        verify(db, times(1)).createTransaction();
+        // the restarted transaction keeps the mutations of the failed one
+        verify(second).set(new byte[]{42}, new byte[]{42});
+
+        ArgumentCaptor<KeySelector> begin = ArgumentCaptor.forClass(KeySelector.class);
+        verify(second).getRange(begin.capture(), any(KeySelector.class), anyInt(), anyBoolean(), any(StreamingMode.class));
+        assertEquals(KeySelector.firstGreaterThan(DATA.get(1).getKey()).toString(), begin.getValue().toString());
+    }
+
+    @Test
+    public void continuesWithRemainingLimitAfterRestart() {
+        Transaction first = rangeTransaction(3);
+        Transaction second = rangeTransaction(-1);
+        when(db.createTransaction()).thenReturn(second);
+        FoundationDBTransaction tx = transaction(first, FoundationDBTransaction.IsolationLevel.READ_COMMITTED_WITH_WRITE);
+
+        List<byte[]> keys = keys(tx.getRangeIterator(START_KEY, END_KEY, 4));
+
+        assertKeys(DATA.subList(0, 4), keys);
+        verify(first).getRange(any(KeySelector.class), any(KeySelector.class), eq(4), anyBoolean(), any(StreamingMode.class));
+        verify(second).getRange(any(KeySelector.class), any(KeySelector.class), eq(1), anyBoolean(), any(StreamingMode.class));
+    }
+
+    @Test
+    public void restartsOnFailureBeforeFirstKey() {
+        Transaction first = rangeTransaction(0);
+        Transaction second = rangeTransaction(-1);
+        when(db.createTransaction()).thenReturn(second);
+        FoundationDBTransaction tx = transaction(first, FoundationDBTransaction.IsolationLevel.READ_COMMITTED_NO_WRITE);
+
+        assertKeys(DATA, keys(tx.getRangeIterator(START_KEY, END_KEY, Integer.MAX_VALUE)));
+
+        ArgumentCaptor<KeySelector> begin = ArgumentCaptor.forClass(KeySelector.class);
+        verify(second).getRange(begin.capture(), any(KeySelector.class), anyInt(), anyBoolean(), any(StreamingMode.class));
+        assertEquals(KeySelector.firstGreaterOrEqual(START_KEY).toString(), begin.getValue().toString());
+    }
+
+    @Test
+    public void failsAfterMaxRunsExhausted() {
+        Transaction first = rangeTransaction(1);
+        Transaction second = rangeTransaction(0);
+        Transaction third = rangeTransaction(0);
+        when(db.createTransaction()).thenReturn(second, third);
+        FoundationDBTransaction tx = transaction(first, FoundationDBTransaction.IsolationLevel.READ_COMMITTED_NO_WRITE);
+
+        Iterator<KeyValue> iterator = tx.getRangeIterator(START_KEY, END_KEY, Integer.MAX_VALUE);
+        assertArrayEquals(DATA.get(0).getKey(), iterator.next().getKey());
+        assertThrows(JanusGraphException.class, iterator::hasNext);
+
+        verify(db, times(2)).createTransaction();
+        verify(third).getRange(any(KeySelector.class), any(KeySelector.class), anyInt(), anyBoolean(), any(StreamingMode.class));
+    }
+
+    @Test
+    public void serializableDoesNotRetry() {
+        Transaction first = rangeTransaction(2);
+        FoundationDBTransaction tx = transaction(first, FoundationDBTransaction.IsolationLevel.SERIALIZABLE);
+
+        Iterator<KeyValue> iterator = tx.getRangeIterator(START_KEY, END_KEY, Integer.MAX_VALUE);
+        iterator.next();
+        iterator.next();
+        assertThrows(JanusGraphException.class, iterator::hasNext);
+
+        verify(db, never()).createTransaction();
+        verify(first, never()).cancel();
+        verify(first, times(1)).getRange(any(KeySelector.class), any(KeySelector.class), anyInt(), anyBoolean(), any(StreamingMode.class));
+    }
+
+    @Test
+    public void doesNotReturnMoreThanLimit() {
+        Transaction first = rangeTransaction(-1);
+        FoundationDBTransaction tx = transaction(first, FoundationDBTransaction.IsolationLevel.READ_COMMITTED_NO_WRITE);
+
+        Iterator<KeyValue> iterator = tx.getRangeIterator(START_KEY, END_KEY, 2);
+        iterator.next();
+        iterator.next();
+        assertFalse(iterator.hasNext());
+    }
+
+    private FoundationDBTransaction transaction(Transaction t, FoundationDBTransaction.IsolationLevel isolationLevel) {
+        return new FoundationDBTransaction(db, t, mock(BaseTransactionConfig.class), isolationLevel);
+    }
+
+    /**
+     * Returns a transaction whose range reads serve {@link #DATA} and fail after returning {@code failAfter}
+     * key-values, or never fail if {@code failAfter} is negative.
+     */
+    @SuppressWarnings("unchecked")
+    private static Transaction rangeTransaction(int failAfter) {
+        Transaction t = mock(Transaction.class);
+        when(t.getRange(any(KeySelector.class), any(KeySelector.class), anyInt(), anyBoolean(), any(StreamingMode.class)))
+            .thenAnswer(invocation -> {
+                KeySelector begin = invocation.getArgument(0);
+                int limit = invocation.getArgument(2);
+                boolean exclusive = KeySelector.firstGreaterThan(begin.getKey()).toString().equals(begin.toString());
+                List<KeyValue> range = DATA.stream()
+                    .filter(kv -> {
+                        int c = ByteArrayUtil.compareUnsigned(kv.getKey(), begin.getKey());
+                        return exclusive ? c > 0 : c >= 0;
+                    })
+                    .limit(limit)
+                    .collect(Collectors.toList());
+                AsyncIterable<KeyValue> iterable = mock(AsyncIterable.class);
+                when(iterable.iterator()).thenReturn(new FailingIterator(range, failAfter));
+                return iterable;
+            });
+        return t;
+    }
+
+    private static List<byte[]> keys(Iterator<KeyValue> iterator) {
+        List<byte[]> keys = new ArrayList<>();
+        iterator.forEachRemaining(kv -> keys.add(kv.getKey()));
+        return keys;
+    }
+
+    private static void assertKeys(List<KeyValue> expected, List<byte[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).getKey(), actual.get(i));
+        }
+    }
+
+    private static class FailingIterator implements AsyncIterator<KeyValue> {
+
+        private final Iterator<KeyValue> delegate;
+        private final int failAfter;
+        private int returned = 0;
+
+        private FailingIterator(List<KeyValue> range, int failAfter) {
+            this.delegate = range.iterator();
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> onHasNext() {
+            return CompletableFuture.completedFuture(hasNext());
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (returned == failAfter) throw new IllegalStateException("transaction too old");
+            return delegate.hasNext();
+        }
+
+        @Override
+        public KeyValue next() {
+            returned++;
+            return delegate.next();
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -61,6 +61,12 @@ public class JanusGraphHadoopConfiguration {
                     "The name of the column family from which the Hadoop input format should read.  " +
                             "Usually edgestore or graphindex.", ConfigOption.Type.LOCAL, Backend.EDGESTORE_NAME);
 
+    public static final ConfigOption<String[]> RELATION_TYPE_PROJECTION =
+            new ConfigOption<>(IOFORMAT_NS, "relation-types",
+                    "Names of the property keys and edge labels to load into each vertex read from JanusGraph.  " +
+                    "Relations of any other type are dropped as soon as they are decoded, before the vertex is built.  " +
+                    "When empty, all relations are loaded.", ConfigOption.Type.LOCAL, new String[0]);
+
     // JanusGraph bulkload vertex program configuration
 
     public static final ConfigNamespace BULKLOAD_NS =
@@ -15,6 +15,7 @@
 package org.janusgraph.hadoop.formats.cql;
 
 import com.datastax.driver.core.Row;
+import com.google.common.base.Preconditions;
 import org.apache.cassandra.hadoop.cql3.CqlRecordReader;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
@@ -24,12 +25,25 @@ import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.cql.CQLKeyColumnValueStore;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
-import java.io.IOException;
-import java.util.ArrayList;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Groups the rows of the underlying {@link CqlRecordReader} by row key. The entries of a key are not accumulated
+ * up front; they are read from the underlying reader while the {@link Iterable} returned by
+ * {@link #getCurrentValue()} is consumed, so that a supernode never has to be held in memory as a whole.
+ * Consequently, that {@link Iterable} can only be iterated once and only until the next call to
+ * {@link #nextKeyValue()}, which skips over any entries left unread.
+ */
 public class CqlBinaryRecordReader extends RecordReader<StaticBuffer, Iterable<Entry>> {
-    private KV currentKV;
-    private KV incompleteKV;
+    private StaticBuffer currentKey;
+    private KeyEntries currentEntries;
+    // First row of the next key, read while looking for the end of the current one
+    private Row pendingRow;
 
     private final CqlRecordReader reader;
 
@@ -44,54 +58,31 @@ public class CqlBinaryRecordReader extends RecordReader<StaticBuffer, Iterable<E
 
     @Override
     public boolean nextKeyValue() throws IOException {
-        return null != (currentKV = completeNextKV());
-    }
-
-    private KV completeNextKV() throws IOException {
-        KV completedKV = null;
-        boolean hasNext;
-        do {
-            hasNext = reader.nextKeyValue();
-
-            if (!hasNext) {
-                completedKV = incompleteKV;
-                incompleteKV = null;
-            } else {
-                Row row = reader.getCurrentValue();
-                StaticArrayBuffer key = StaticArrayBuffer.of(row.getBytesUnsafe(CQLKeyColumnValueStore.KEY_COLUMN_NAME));
-                StaticBuffer column1 = StaticArrayBuffer.of(row.getBytesUnsafe(CQLKeyColumnValueStore.COLUMN_COLUMN_NAME));
-                StaticBuffer value = StaticArrayBuffer.of(row.getBytesUnsafe(CQLKeyColumnValueStore.VALUE_COLUMN_NAME));
-                Entry entry = StaticArrayEntry.of(column1, value);
-
-                if (null == incompleteKV) {
-                    // Initialization; this should happen just once in an instance's lifetime
-                    incompleteKV = new KV(key);
-                } else if (!incompleteKV.key.equals(key)) {
-                    // The underlying Cassandra reader has just changed to a key we haven't seen yet
-                    // This implies that there will be no more entries for the prior key
-                    completedKV = incompleteKV;
-                    incompleteKV = new KV(key);
-                }
-
-                incompleteKV.addEntry(entry);
+        if (null != currentEntries) {
+            currentEntries.skipRemaining();
+        }
+        if (null == pendingRow) {
+            if (!reader.nextKeyValue()) {
+                currentKey = null;
+                currentEntries = null;
+                return false;
             }
-            /* Loop ends when either
-             * A) the cassandra reader ran out of data
-             * or
-             * B) the cassandra reader switched keys, thereby completing a KV */
-        } while (hasNext && null == completedKV);
-
-        return completedKV;
+            pendingRow = reader.getCurrentValue();
+        }
+        ByteBuffer key = pendingRow.getBytesUnsafe(CQLKeyColumnValueStore.KEY_COLUMN_NAME);
+        currentKey = StaticArrayBuffer.of(key);
+        currentEntries = new KeyEntries(key);
+        return true;
     }
 
     @Override
     public StaticBuffer getCurrentKey() {
-        return currentKV.key;
+        return currentKey;
     }
 
     @Override
     public Iterable<Entry> getCurrentValue() {
-        return currentKV.entries;
+        return currentEntries;
     }
 
     @Override
@@ -104,16 +95,65 @@ public class CqlBinaryRecordReader extends RecordReader<StaticBuffer, Iterable<E
         return reader.getProgress();
     }
 
-    private static class KV {
-        private final StaticArrayBuffer key;
-        private ArrayList<Entry> entries = new ArrayList<>();
+    private class KeyEntries implements Iterable<Entry>, Iterator<Entry> {
+        private final ByteBuffer key;
+        private boolean iterated = false;
+        private boolean exhausted = false;
+        private Entry next;
 
-        public KV(StaticArrayBuffer key) {
+        private KeyEntries(ByteBuffer key) {
             this.key = key;
         }
 
-        public void addEntry(Entry toAdd) {
-            entries.add(toAdd);
+        @Override
+        public Iterator<Entry> iterator() {
+            Preconditions.checkState(!iterated, "The entries of key %s can only be iterated once", currentKey);
+            iterated = true;
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != next) return true;
+            if (exhausted) return false;
+            Row row = pendingRow;
+            pendingRow = null;
+            if (null == row) {
+                try {
+                    if (!reader.nextKeyValue()) {
+                        exhausted = true;
+                        return false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                row = reader.getCurrentValue();
+            }
+            if (!key.equals(row.getBytesUnsafe(CQLKeyColumnValueStore.KEY_COLUMN_NAME))) {
+                // The underlying Cassandra reader has just changed to a key we haven't seen yet
+                // This implies that there will be no more entries for this key
+                pendingRow = row;
+                exhausted = true;
+                return false;
+            }
+            StaticBuffer column1 = StaticArrayBuffer.of(row.getBytesUnsafe(CQLKeyColumnValueStore.COLUMN_COLUMN_NAME));
+            StaticBuffer value = StaticArrayBuffer.of(row.getBytesUnsafe(CQLKeyColumnValueStore.VALUE_COLUMN_NAME));
+            next = StaticArrayEntry.of(column1, value);
+            return true;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Entry entry = next;
+            next = null;
+            return entry;
+        }
+
+        private void skipRemaining() {
+            while (hasNext()) {
+                next = null;
+            }
         }
     }
-}
\ No newline at end of file
+}
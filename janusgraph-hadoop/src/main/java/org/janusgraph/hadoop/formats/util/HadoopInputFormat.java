@@ -15,8 +15,12 @@
 package org.janusgraph.hadoop.formats.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
+import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
 import org.janusgraph.hadoop.formats.util.input.JanusGraphHadoopSetup;
 import org.janusgraph.util.system.ConfigurationUtil;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.GraphFilterAware;
@@ -47,7 +51,12 @@ public abstract class HadoopInputFormat extends InputFormat<NullWritable, Vertex
 
             JanusGraphHadoopSetup ts = ConfigurationUtil.instantiate(className, new Object[]{ conf }, new Class[]{ Configuration.class });
 
-            return new JanusGraphVertexDeserializer(ts);
+            final ModifiableHadoopConfiguration mrConf =
+                ModifiableHadoopConfiguration.of(JanusGraphHadoopConfiguration.MAPRED_NS, conf);
+            final String[] relationTypes = mrConf.get(JanusGraphHadoopConfiguration.RELATION_TYPE_PROJECTION);
+
+            return new JanusGraphVertexDeserializer(ts, ImmutableSet.copyOf(relationTypes),
+                Backend.getCompression(mrConf.getJanusGraphConf()));
         });
     }
 
@@ -17,8 +17,11 @@ package org.janusgraph.hadoop.formats.util;
 import com.carrotsearch.hppc.cursors.LongObjectCursor;
 import com.google.common.base.Preconditions;
 import org.janusgraph.core.*;
+import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.graphdb.database.RelationReader;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.internal.InternalRelationType;
@@ -28,6 +31,7 @@ import org.janusgraph.hadoop.formats.util.input.SystemTypeInspector;
 import org.janusgraph.hadoop.formats.util.input.JanusGraphHadoopSetup;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
@@ -36,8 +40,11 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 public class JanusGraphVertexDeserializer implements AutoCloseable {
 
@@ -45,11 +52,32 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
     private final TypeInspector typeManager;
     private final SystemTypeInspector systemTypes;
     private final IDManager idManager;
+    private final Set<String> relationTypes;
+    private final BackendCompression compression;
 
     private static final Logger LOG = LoggerFactory.getLogger(JanusGraphVertexDeserializer.class);
 
     public JanusGraphVertexDeserializer(JanusGraphHadoopSetup setup) {
+        this(setup, Collections.emptySet());
+    }
+
+    /**
+     * @param relationTypes names of the relation types to load into each vertex, or an empty set to load all of them
+     */
+    public JanusGraphVertexDeserializer(JanusGraphHadoopSetup setup, Set<String> relationTypes) {
+        this(setup, relationTypes, BackendCompression.NO_COMPRESSION);
+    }
+
+    /**
+     * @param relationTypes names of the relation types to load into each vertex, or an empty set to load all of them
+     * @param compression the compression of the edgestore values, see {@link org.janusgraph.diskstorage.Backend#getCompression}
+     */
+    public JanusGraphVertexDeserializer(JanusGraphHadoopSetup setup, Set<String> relationTypes, BackendCompression compression) {
+        Preconditions.checkNotNull(relationTypes);
+        Preconditions.checkNotNull(compression);
         this.setup = setup;
+        this.relationTypes = relationTypes;
+        this.compression = compression;
         this.typeManager = setup.getTypeInspector();
         this.systemTypes = setup.getSystemTypeInspector();
         this.idManager = setup.getIDManager();
@@ -85,103 +113,125 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
             return null;
         }
 
-        // Create TinkerVertex
-        TinkerGraph tg = TinkerGraph.open();
-
+        // Decode each edgestore column exactly once and add the relations to be loaded as they are read. Columns
+        // are sorted with system relations first, so the vertex label is known before the first user relation.
+        RelationReader relationReader = setup.getRelationReader();
         TinkerVertex tv = null;
-
-        // Iterate over edgestore columns to find the vertex's label relation
-        for (Entry data : entries) {
-            RelationReader relationReader = setup.getRelationReader();
-            RelationCache relation = relationReader.parseRelation(data, false, typeManager);
+        String vertexLabel = null;
+        for (Entry entry : entries) {
+            RelationCache relation = relationReader.parseRelation(decompress(entry), false, typeManager);
             if (systemTypes.isVertexLabelSystemType(relation.typeId)) {
                 // Found vertex Label
-                long vertexLabelId = relation.getOtherVertexId();
-                VertexLabel vl = typeManager.getExistingVertexLabel(vertexLabelId);
-                // Create TinkerVertex with this label
-                tv = getOrCreateVertex(vertexId, vl.name(), tg);
+                vertexLabel = typeManager.getExistingVertexLabel(relation.getOtherVertexId()).name();
+                if (null != tv) tv = copyWithLabel(tv, vertexLabel);
+                continue;
+            }
+            if (systemTypes.isSystemType(relation.typeId)) continue; //Ignore system types
+            RelationType type = typeManager.getExistingRelationType(relation.typeId);
+            if (((InternalRelationType)type).isInvisibleType()) continue; //Ignore hidden types
+            // Create TinkerVertex
+            if (null == tv) tv = getOrCreateVertex(vertexId, vertexLabel, TinkerGraph.open());
+            // Drop relations outside of the configured projection before any TinkerPop elements are built
+            if (!relationTypes.isEmpty() && !relationTypes.contains(type.name())) continue;
+            try {
+                addRelation(tv, relation, type);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
             }
         }
 
-        // Added this following testing
+        /*Since we are filtering out system relation types, we might end up with vertices that have no incident relations.
+         This is especially true for schema vertices. Those are filtered out.     */
         if (null == tv) {
-            tv = getOrCreateVertex(vertexId, null, tg);
+            LOG.trace("Vertex {} has no relations", vertexId);
+            return null;
         }
 
-        Preconditions.checkNotNull(tv, "Unable to determine vertex label for vertex with ID %s", vertexId);
+        return tv;
+    }
 
-        // Iterate over and decode edgestore columns (relations) on this vertex
-        for (Entry data : entries) {
-            try {
-                RelationReader relationReader = setup.getRelationReader();
-                RelationCache relation = relationReader.parseRelation(data, false, typeManager);
-
-                if (systemTypes.isSystemType(relation.typeId)) continue; //Ignore system types
-                RelationType type = typeManager.getExistingRelationType(relation.typeId);
-                if (((InternalRelationType)type).isInvisibleType()) continue; //Ignore hidden types
-
-                // Decode and create the relation (edge or property)
-                if (type.isPropertyKey()) {
-                    // Decode property
-                    Object value = relation.getValue();
-                    Preconditions.checkNotNull(value);
-                    VertexProperty.Cardinality card = getPropertyKeyCardinality(type.name());
-                    tv.property(card, type.name(), value, T.id, relation.relationId);
-                } else {
-                    // Partitioned vertex handling
-                    if (idManager.isPartitionedVertex(relation.getOtherVertexId())) {
-                        Preconditions.checkState(setup.getFilterPartitionedVertices(),
-                                "Read edge incident on a partitioned vertex, but partitioned vertex filtering is disabled.  " +
-                                "Relation ID: %s.  This vertex ID: %s.  Other vertex ID: %s.  Edge label: %s.",
-                                relation.relationId, vertexId, relation.getOtherVertexId(), type.name());
-                        LOG.debug("Skipping edge with ID {} incident on partitioned vertex with ID {} (and nonpartitioned vertex with ID {})",
-                                relation.relationId, relation.getOtherVertexId(), vertexId);
-                        continue;
-                    }
+    // The input formats read the edgestore columns directly, bypassing the decompression of the storage backend
+    private Entry decompress(Entry entry) {
+        final StaticBuffer stored = entry.getValue();
+        final StaticBuffer value;
+        try {
+            value = compression.decompress(stored);
+        } catch (BackendException e) {
+            throw new JanusGraphException("Could not decompress the value of edgestore column " + entry.getColumn(), e);
+        }
+        return value == stored ? entry : StaticArrayEntry.of(entry.getColumn(), value);
+    }
 
-                    // Decode edge
-                    TinkerEdge te;
+    // Create the relation (edge or property) on the given vertex
+    private void addRelation(TinkerVertex tv, RelationCache relation, RelationType type) {
+        long vertexId = (long) tv.id();
+        if (type.isPropertyKey()) {
+            // Decode property
+            Object value = relation.getValue();
+            Preconditions.checkNotNull(value);
+            VertexProperty.Cardinality card = getPropertyKeyCardinality(type);
+            tv.property(card, type.name(), value, T.id, relation.relationId);
+        } else {
+            // Partitioned vertex handling
+            if (idManager.isPartitionedVertex(relation.getOtherVertexId())) {
+                Preconditions.checkState(setup.getFilterPartitionedVertices(),
+                        "Read edge incident on a partitioned vertex, but partitioned vertex filtering is disabled.  " +
+                        "Relation ID: %s.  This vertex ID: %s.  Other vertex ID: %s.  Edge label: %s.",
+                        relation.relationId, vertexId, relation.getOtherVertexId(), type.name());
+                LOG.debug("Skipping edge with ID {} incident on partitioned vertex with ID {} (and nonpartitioned vertex with ID {})",
+                        relation.relationId, relation.getOtherVertexId(), vertexId);
+                return;
+            }
 
-                    // We don't know the label of the other vertex, but one must be provided
-                    TinkerVertex adjacentVertex = getOrCreateVertex(relation.getOtherVertexId(), null, tg);
+            // Decode edge
+            TinkerEdge te;
 
-                    // handle self-loop edges
-                    if (tv.equals(adjacentVertex) && isLoopAdded(tv, type.name())) {
-                        continue;
-                    }
+            // We don't know the label of the other vertex, but one must be provided
+            TinkerVertex adjacentVertex = getOrCreateVertex(relation.getOtherVertexId(), null, (TinkerGraph) tv.graph());
 
-                    if (relation.direction.equals(Direction.IN)) {
-                        te = (TinkerEdge)adjacentVertex.addEdge(type.name(), tv, T.id, relation.relationId);
-                    } else if (relation.direction.equals(Direction.OUT)) {
-                        te = (TinkerEdge)tv.addEdge(type.name(), adjacentVertex, T.id, relation.relationId);
-                    } else {
-                        throw new RuntimeException("Direction.BOTH is not supported");
-                    }
+            // handle self-loop edges
+            if (tv.equals(adjacentVertex) && isLoopAdded(tv, type.name())) {
+                return;
+            }
 
-                    if (relation.hasProperties()) {
-                        // Load relation properties
-                        for (LongObjectCursor<Object> next : relation) {
-                            RelationType rt = typeManager.getExistingRelationType(next.key);
-                            if (rt.isPropertyKey()) {
-                                te.property(rt.name(), next.value);
-                            } else {
-                                throw new RuntimeException("Metaedges are not supported");
-                            }
-                        }
+            if (relation.direction.equals(Direction.IN)) {
+                te = (TinkerEdge)adjacentVertex.addEdge(type.name(), tv, T.id, relation.relationId);
+            } else if (relation.direction.equals(Direction.OUT)) {
+                te = (TinkerEdge)tv.addEdge(type.name(), adjacentVertex, T.id, relation.relationId);
+            } else {
+                throw new RuntimeException("Direction.BOTH is not supported");
+            }
+
+            if (relation.hasProperties()) {
+                // Load relation properties
+                for (LongObjectCursor<Object> next : relation) {
+                    RelationType rt = typeManager.getExistingRelationType(next.key);
+                    if (rt.isPropertyKey()) {
+                        te.property(rt.name(), next.value);
+                    } else {
+                        throw new RuntimeException("Metaedges are not supported");
                     }
                 }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
             }
         }
+    }
 
-        /*Since we are filtering out system relation types, we might end up with vertices that have no incident relations.
-         This is especially true for schema vertices. Those are filtered out.     */
-        if (!tv.edges(Direction.BOTH).hasNext() && !tv.properties().hasNext()) {
-            LOG.trace("Vertex {} has no relations", vertexId);
-            return null;
-        }
-        return tv;
+    // Copies the vertex along with its properties and edges into a new graph under the given label. This is only
+    // needed if the vertex label is read after other relations, since TinkerPop vertices cannot be relabeled.
+    private TinkerVertex copyWithLabel(TinkerVertex vertex, String label) {
+        TinkerGraph tg = TinkerGraph.open();
+        TinkerVertex copy = getOrCreateVertex((long) vertex.id(), label, tg);
+        vertex.properties().forEachRemaining(p ->
+                copy.property(VertexProperty.Cardinality.list, p.key(), p.value(), T.id, p.id()));
+        Set<Object> copiedEdges = new HashSet<>();
+        vertex.edges(Direction.BOTH).forEachRemaining(e -> {
+            if (!copiedEdges.add(e.id())) return; //Self-loops are returned once for each direction
+            Vertex out = e.outVertex().equals(vertex) ? copy : getOrCreateVertex((long) e.outVertex().id(), null, tg);
+            Vertex in = e.inVertex().equals(vertex) ? copy : getOrCreateVertex((long) e.inVertex().id(), null, tg);
+            Edge edgeCopy = out.addEdge(e.label(), in, T.id, e.id());
+            e.properties().forEachRemaining(p -> edgeCopy.property(p.key(), p.value()));
+        });
+        return copy;
     }
 
     private TinkerVertex getOrCreateVertex(long vertexId, String label, TinkerGraph tg) {
@@ -200,10 +250,7 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
         return v;
     }
 
-    private VertexProperty.Cardinality getPropertyKeyCardinality(String name) {
-        RelationType rt = typeManager.getRelationType(name);
-        if (null == rt || !rt.isPropertyKey())
-            return VertexProperty.Cardinality.single;
+    private VertexProperty.Cardinality getPropertyKeyCardinality(RelationType rt) {
         PropertyKey pk = typeManager.getExistingPropertyKey(rt.longId());
         switch (pk.cardinality()) {
             case SINGLE: return VertexProperty.Cardinality.single;
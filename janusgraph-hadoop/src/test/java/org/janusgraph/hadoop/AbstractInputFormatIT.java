@@ -18,8 +18,22 @@ import com.google.common.collect.ImmutableSet;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.example.GraphOfTheGodsFactory;
+import org.janusgraph.diskstorage.configuration.ConfigElement;
 import org.janusgraph.graphdb.JanusGraphBaseTest;
+import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
 import org.apache.commons.configuration.ConfigurationException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobID;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.JobContextImpl;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.process.computer.Computer;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
@@ -142,5 +156,55 @@ public abstract class AbstractInputFormatIT extends JanusGraphBaseTest {
         assertEquals(14L, (long) t.E().count().next());
     }
 
+    @Test
+    public void testReadGraphOfTheGodsWithRelationTypeProjection() throws Exception {
+        GraphOfTheGodsFactory.load(graph, null, true);
+        assertEquals(17L, (long) graph.traversal().E().count().next());
+
+        // Read graph loading only "name" properties and "battled" edges
+        Graph g = getGraph();
+        g.configuration().setProperty(ConfigElement.getPath(JanusGraphHadoopConfiguration.RELATION_TYPE_PROJECTION),
+            "name,battled");
+        GraphTraversalSource t = g.traversal().withComputer(SparkGraphComputer.class);
+        assertEquals(12L, (long) t.V().count().next());
+        assertEquals(12L, (long) t.V().values("name").count().next());
+        assertEquals(0L, (long) t.V().values("age").count().next());
+        assertEquals(3L, (long) t.E().count().next());
+        assertEquals(ImmutableSet.of("battled"), t.E().label().toSet());
+    }
+
+    @Test
+    public void testReadGraphOfTheGodsWithRelationTypeProjectionThroughInputFormat() throws Exception {
+        GraphOfTheGodsFactory.load(graph, null, true);
+
+        // Read the vertices through the input format directly, as a MapReduce job would
+        Graph g = getGraph();
+        g.configuration().setProperty(ConfigElement.getPath(JanusGraphHadoopConfiguration.RELATION_TYPE_PROJECTION),
+            "name,battled");
+        Configuration conf = ConfUtil.makeHadoopConfiguration(g.configuration());
+        InputFormat<NullWritable, VertexWritable> inputFormat = ConfUtil.getReaderAsInputFormat(conf);
+        int numVertices = 0;
+        int numNames = 0;
+        Set<String> propertyKeys = Sets.newHashSet();
+        Set<String> edgeLabels = Sets.newHashSet();
+        for (InputSplit split : inputFormat.getSplits(new JobContextImpl(conf, new JobID()))) {
+            TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+            try (RecordReader<NullWritable, VertexWritable> reader = inputFormat.createRecordReader(split, context)) {
+                reader.initialize(split, context);
+                while (reader.nextKeyValue()) {
+                    Vertex vertex = reader.getCurrentValue().get();
+                    numVertices++;
+                    vertex.properties().forEachRemaining(p -> propertyKeys.add(p.key()));
+                    if (vertex.properties("name").hasNext()) numNames++;
+                    vertex.edges(Direction.BOTH).forEachRemaining(e -> edgeLabels.add(e.label()));
+                }
+            }
+        }
+        assertEquals(12, numVertices);
+        assertEquals(12, numNames);
+        assertEquals(ImmutableSet.of("name"), propertyKeys);
+        assertEquals(ImmutableSet.of("battled"), edgeLabels);
+    }
+
     abstract protected Graph getGraph() throws IOException, ConfigurationException;
 }
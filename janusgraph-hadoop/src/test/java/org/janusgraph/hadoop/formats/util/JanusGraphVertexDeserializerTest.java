@@ -0,0 +1,157 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.hadoop.formats.util;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.diskstorage.Backend;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.RelationReader;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.types.TypeInspector;
+import org.janusgraph.graphdb.types.system.BaseKey;
+import org.janusgraph.graphdb.types.system.BaseLabel;
+import org.janusgraph.hadoop.formats.util.input.JanusGraphHadoopSetupCommon;
+import org.janusgraph.hadoop.formats.util.input.SystemTypeInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_ENABLED;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_MIN_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_BACKEND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class JanusGraphVertexDeserializerTest {
+
+    private StandardJanusGraph graph;
+    private StandardJanusGraphTx tx;
+
+    @BeforeEach
+    public void setUp() {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(STORAGE_BACKEND, "inmemory");
+        config.set(COMPRESSION_ENABLED, true);
+        config.set(COMPRESSION_MIN_SIZE, 0);
+        graph = (StandardJanusGraph) JanusGraphFactory.open(config);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (tx != null) tx.rollback();
+        graph.close();
+    }
+
+    @Test
+    public void testReadCompressedEdgestoreValues() throws BackendException {
+        String bio = String.join(" ", Collections.nCopies(50, "graph databases"));
+        JanusGraphTransaction writeTx = graph.newTransaction();
+        JanusGraphVertex person = writeTx.addVertex("person");
+        person.property("name", "alice");
+        person.property("bio", bio);
+        writeTx.addVertex("person").addEdge("knows", person, "note", bio);
+        writeTx.commit();
+        long id = (long) person.id();
+
+        //The input formats read the rows as they are stored, i.e. without the decompression of the storage backend
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        StaticBuffer key = graph.getIDManager().getKey(id);
+        BackendCompression compression = Backend.getCompression(graph.getConfiguration().getConfiguration());
+        List<Entry> stored = new ArrayList<>();
+        int compressed = 0;
+        for (Entry entry : tx.getBackendTransaction().edgeStoreQuery(
+                new KeySliceQuery(key, BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(32)))) {
+            StaticBuffer value = compression.compress(entry.getValue());
+            if (!value.equals(entry.getValue())) compressed++;
+            stored.add(StaticArrayEntry.of(entry.getColumn(), value));
+        }
+        assertNotEquals(0, compressed);
+
+        try (JanusGraphVertexDeserializer deserializer =
+                 new JanusGraphVertexDeserializer(new Setup(), Collections.emptySet(), compression)) {
+            TinkerVertex vertex = deserializer.readHadoopVertex(key, stored);
+            assertEquals("person", vertex.label());
+            assertEquals("alice", vertex.value("name"));
+            assertEquals(bio, vertex.value("bio"));
+            assertEquals(bio, vertex.edges(Direction.IN, "knows").next().value("note"));
+        }
+    }
+
+    private class Setup extends JanusGraphHadoopSetupCommon {
+
+        @Override
+        public TypeInspector getTypeInspector() {
+            return tx;
+        }
+
+        @Override
+        public SystemTypeInspector getSystemTypeInspector() {
+            return new SystemTypeInspector() {
+                @Override
+                public boolean isSystemType(long typeId) {
+                    return IDManager.isSystemRelationTypeId(typeId);
+                }
+
+                @Override
+                public boolean isVertexExistsSystemType(long typeId) {
+                    return typeId == BaseKey.VertexExists.longId();
+                }
+
+                @Override
+                public boolean isVertexLabelSystemType(long typeId) {
+                    return typeId == BaseLabel.VertexLabelEdge.longId();
+                }
+
+                @Override
+                public boolean isTypeSystemType(long typeId) {
+                    return typeId == BaseKey.SchemaCategory.longId();
+                }
+            };
+        }
+
+        @Override
+        public RelationReader getRelationReader() {
+            return graph.getEdgeSerializer();
+        }
+
+        @Override
+        public IDManager getIDManager() {
+            return graph.getIDManager();
+        }
+
+        @Override
+        public boolean getFilterPartitionedVertices() {
+            return false;
+        }
+    }
+}
@@ -854,6 +854,28 @@ public class LuceneIndex implements IndexProvider {
         }
     }
 
+    @Override
+    public Long totals(IndexQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
+        final String store = query.getStore();
+        final LuceneCustomAnalyzer delegatingAnalyzer = delegatingAnalyzerFor(store, information);
+        final SearchParams searchParams = convertQuery(query.getCondition(), information.get(store), delegatingAnalyzer);
+
+        try {
+            final IndexSearcher searcher = ((Transaction) tx).getSearcher(store);
+            if (searcher == null) return 0L; //Index does not yet exist
+            Query q = searchParams.getQuery();
+            if (null == q)
+                q = new MatchAllDocsQuery();
+
+            final long time = System.currentTimeMillis();
+            final long count = searcher.count(q);
+            log.debug("Executed count query [{}] in {} ms", q, System.currentTimeMillis() - time);
+            return count;
+        } catch (IOException e) {
+            throw new TemporaryBackendException("Could not execute Lucene query", e);
+        }
+    }
+
     @Override
     public BaseTransactionConfigurable beginTransaction(BaseTransactionConfig config) throws BackendException {
         return new Transaction(config);
@@ -39,6 +39,8 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -218,6 +220,21 @@ public class SolrIndex implements IndexProvider {
             "When mutating - wait for the index to reflect new mutations before returning. This can have a negative impact on performance.",
             ConfigOption.Type.LOCAL, false);
 
+    public static final ConfigOption<Boolean> CURSOR_MARK = new ConfigOption<>(SOLR_NS, "cursor-mark",
+            "Whether to page through query results with Solr's cursorMark instead of start offsets. Queries without an offset " +
+            "are then additionally sorted on the key field, which must be the unique key of the collection's schema.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Integer> UPDATE_THREADS = new ConfigOption<>(SOLR_NS, "update-threads",
+            "Number of threads sending document updates to Solr. When positive, updates committed concurrently by different " +
+            "transactions are merged into per-collection batches and collections are updated in parallel. " +
+            "The default of 0 sends each transaction's updates from the committing thread.",
+            ConfigOption.Type.MASKABLE, 0);
+
+    public static final ConfigOption<Integer> UPDATE_BATCH_SIZE = new ConfigOption<>(SOLR_NS, "update-batch-size",
+            "Maximum number of documents merged into a single update request when update threads are enabled.",
+            ConfigOption.Type.MASKABLE, 1000);
+
 
     /** Security Configuration */
 
@@ -247,6 +264,8 @@ public class SolrIndex implements IndexProvider {
     private final int batchSize;
     private final boolean waitSearcher;
     private final boolean kerberosEnabled;
+    private final boolean useCursorMark;
+    private final SolrUpdateQueue updateQueue;
 
     public SolrIndex(Configuration config) throws BackendException {
         Preconditions.checkArgument(config!=null);
@@ -258,6 +277,7 @@ public class SolrIndex implements IndexProvider {
         batchSize = config.get(INDEX_MAX_RESULT_SET_SIZE);
         ttlField = config.get(TTL_FIELD);
         waitSearcher = config.get(WAIT_SEARCHER);
+        useCursorMark = config.get(CURSOR_MARK);
 
         if (kerberosEnabled) {
             LOG.debug("Kerberos is enabled. Configuring SOLR for Kerberos.");
@@ -316,6 +336,10 @@ public class SolrIndex implements IndexProvider {
             default:
                 throw new IllegalArgumentException("Unsupported Solr operation mode: " + mode);
         }
+        final int updateThreads = config.get(UPDATE_THREADS);
+        updateQueue = updateThreads > 0
+            ? new SolrUpdateQueue(solrClient, this::newUpdateRequest, updateThreads, config.get(UPDATE_BATCH_SIZE))
+            : null;
     }
 
     private void configureSolrClientsForKerberos() throws PermanentBackendException {
@@ -420,11 +444,13 @@ public class SolrIndex implements IndexProvider {
                        BaseTransaction tx) throws BackendException {
         LOG.debug("Mutating SOLR");
         try {
+            final List<CompletableFuture<Void>> pendingUpdates = new ArrayList<>();
             for (Map.Entry<String, Map<String, IndexMutation>> stores : mutations.entrySet()) {
                 final String collectionName = stores.getKey();
                 final String keyIdField = getKeyFieldId(collectionName);
 
                 final List<String> deleteIds = new ArrayList<>();
+                final Collection<SolrInputDocument> removals = new ArrayList<>();
                 final Collection<SolrInputDocument> changes = new ArrayList<>();
 
                 for (Map.Entry<String, IndexMutation> entry : stores.getValue().entrySet()) {
@@ -446,7 +472,8 @@ public class SolrIndex implements IndexProvider {
                                     fieldDeletions.remove(indexEntry);
                                 }
                             }
-                            handleRemovalsFromIndex(collectionName, keyIdField, docId, fieldDeletions, information);
+                            removals.add(handleRemovalsFromIndex(collectionName, keyIdField, docId, fieldDeletions,
+                                information));
                         }
                     }
 
@@ -480,9 +507,11 @@ public class SolrIndex implements IndexProvider {
                     }
                 }
 
-                commitDeletes(collectionName, deleteIds);
-                commitChanges(collectionName, changes);
+                commitChanges(collectionName, removals, pendingUpdates);
+                commitDeletes(collectionName, deleteIds, pendingUpdates);
+                commitChanges(collectionName, changes, pendingUpdates);
             }
+            awaitUpdates(pendingUpdates);
         } catch (IllegalArgumentException e) {
             throw new PermanentBackendException("Unable to complete query on Solr.", e);
         } catch (Exception e) {
@@ -490,9 +519,9 @@ public class SolrIndex implements IndexProvider {
         }
     }
 
-    private void handleRemovalsFromIndex(String collectionName, String keyIdField, String docId,
-                                         List<IndexEntry> fieldDeletions, KeyInformation.IndexRetriever information)
-                                             throws SolrServerException, IOException, BackendException {
+    private SolrInputDocument handleRemovalsFromIndex(String collectionName, String keyIdField, String docId,
+                                                      List<IndexEntry> fieldDeletions,
+                                                      KeyInformation.IndexRetriever information) throws BackendException {
         Map<String, String> fieldDeletes = new HashMap<>(1);
         fieldDeletes.put("set", null);
         SolrInputDocument doc = new SolrInputDocument();
@@ -514,11 +543,7 @@ public class SolrIndex implements IndexProvider {
                 doc.setField(vertex, remove);
             });
         }
-
-        UpdateRequest singleDocument = newUpdateRequest();
-        singleDocument.add(doc);
-        solrClient.request(singleDocument, collectionName);
-
+        return doc;
     }
 
     private Object convertValue(Object value) throws BackendException {
@@ -540,6 +565,7 @@ public class SolrIndex implements IndexProvider {
     @Override
     public void restore(Map<String, Map<String, List<IndexEntry>>> documents, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
         try {
+            final List<CompletableFuture<Void>> pendingUpdates = new ArrayList<>();
             for (Map.Entry<String, Map<String, List<IndexEntry>>> stores : documents.entrySet()) {
                 final String collectionName = stores.getKey();
 
@@ -563,9 +589,10 @@ public class SolrIndex implements IndexProvider {
                     adds.forEach(doc::setField);
                     newDocuments.add(doc);
                 }
-                commitDeletes(collectionName, deleteIds);
-                commitChanges(collectionName, newDocuments);
+                commitDeletes(collectionName, deleteIds, pendingUpdates);
+                commitChanges(collectionName, newDocuments, pendingUpdates);
             }
+            awaitUpdates(pendingUpdates);
         } catch (Exception e) {
             throw new TemporaryBackendException("Could not restore Solr index", e);
         }
@@ -599,31 +626,65 @@ public class SolrIndex implements IndexProvider {
         return docs;
     }
 
-    private void commitChanges(String collectionName,
-                               Collection<SolrInputDocument> documents) throws SolrServerException, IOException {
+    private void commitChanges(String collectionName, Collection<SolrInputDocument> documents,
+                               List<CompletableFuture<Void>> pendingUpdates) throws SolrServerException, IOException {
         if (documents.size() == 0) return;
 
+        if (updateQueue != null) {
+            pendingUpdates.add(updateQueue.add(collectionName, documents).whenComplete((v, e) -> {
+                if (e instanceof HttpSolrClient.RemoteSolrException) logFailedDocuments(documents, e);
+            }));
+            return;
+        }
         try {
             solrClient.request(newUpdateRequest().add(documents), collectionName);
         } catch (HttpSolrClient.RemoteSolrException rse) {
-            LOG.error("Unable to save documents to Solr as one of the shape objects stored were not compatible with Solr.", rse);
-            LOG.error("Details in failed document batch: ");
-            for (SolrInputDocument d : documents) {
-                final Collection<String> fieldNames = d.getFieldNames();
-                for (String name : fieldNames) {
-                    LOG.error(name + ":" + d.getFieldValue(name));
-                }
-            }
-
+            logFailedDocuments(documents, rse);
             throw rse;
         }
     }
 
-    private void commitDeletes(String collectionName, List<String> deleteIds) throws SolrServerException, IOException {
+    private void logFailedDocuments(Collection<SolrInputDocument> documents, Throwable cause) {
+        LOG.error("Unable to save documents to Solr as one of the shape objects stored were not compatible with Solr.", cause);
+        LOG.error("Details in failed document batch: ");
+        for (SolrInputDocument d : documents) {
+            final Collection<String> fieldNames = d.getFieldNames();
+            for (String name : fieldNames) {
+                LOG.error(name + ":" + d.getFieldValue(name));
+            }
+        }
+    }
+
+    private void commitDeletes(String collectionName, List<String> deleteIds,
+                               List<CompletableFuture<Void>> pendingUpdates) throws SolrServerException, IOException {
         if (deleteIds.size() == 0) return;
+        if (updateQueue != null) {
+            pendingUpdates.add(updateQueue.delete(collectionName, deleteIds));
+            return;
+        }
         solrClient.request(newUpdateRequest().deleteById(deleteIds), collectionName);
     }
 
+    /**
+     * Waits for all updates handed to the {@link SolrUpdateQueue} and rethrows the first failure as if the update
+     * had been sent from the calling thread.
+     */
+    private void awaitUpdates(List<CompletableFuture<Void>> pendingUpdates) throws SolrServerException, IOException {
+        if (pendingUpdates.isEmpty()) return;
+        try {
+            CompletableFuture.allOf(pendingUpdates.toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Solr updates", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SolrServerException) throw (SolrServerException) cause;
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SolrServerException(cause);
+        }
+    }
+
     @Override
     public Stream<String> query(IndexQuery query, KeyInformation.IndexRetriever information,
                                 BaseTransaction tx) throws BackendException {
@@ -636,6 +697,9 @@ public class SolrIndex implements IndexProvider {
         if (!query.getOrder().isEmpty()) {
             addOrderToQuery(solrQuery, query.getOrder());
         }
+        if (useCursorMark) {
+            addCursorSort(solrQuery, keyIdField);
+        }
         solrQuery.setStart(0);
         if (query.hasLimit()) {
             solrQuery.setRows(Math.min(query.getLimit(), batchSize));
@@ -643,7 +707,7 @@ public class SolrIndex implements IndexProvider {
             solrQuery.setRows(batchSize);
         }
         return executeQuery(query.hasLimit() ? query.getLimit() : null, 0, collection, solrQuery,
-            doc -> doc.getFieldValue(keyIdField).toString());
+            doc -> doc.getFieldValue(keyIdField).toString(), useCursorMark);
     }
 
     private void addOrderToQuery(SolrQuery solrQuery, List<IndexQuery.OrderEntry> orders) {
@@ -654,11 +718,21 @@ public class SolrIndex implements IndexProvider {
         }
     }
 
+    /**
+     * Cursor based paging requires a total order, hence the unique key is appended as the final tie breaker.
+     */
+    private void addCursorSort(SolrQuery solrQuery, String keyIdField) {
+        final List<SolrQuery.SortClause> sorts = solrQuery.getSorts();
+        if (sorts.isEmpty() || !sorts.get(sorts.size() - 1).getItem().equals(keyIdField)) {
+            solrQuery.addSort(new SolrQuery.SortClause(keyIdField, SolrQuery.ORDER.asc));
+        }
+    }
+
     private <E> Stream<E> executeQuery(Integer limit, int offset, String collection, SolrQuery solrQuery,
-                                       Function<SolrDocument, E> function) throws PermanentBackendException {
+                                       Function<SolrDocument, E> function, boolean cursorMark) throws PermanentBackendException {
         try {
             final SolrResultIterator<E> resultIterator = new SolrResultIterator<>(solrClient, limit, offset,
-                solrQuery.getRows(), collection, solrQuery, function);
+                solrQuery.getRows(), collection, solrQuery, function, cursorMark);
             return StreamSupport.stream(Spliterators.spliteratorUnknownSize(resultIterator, Spliterator.ORDERED),
                 false);
         } catch (IOException | UncheckedIOException e) {
@@ -685,6 +759,13 @@ public class SolrIndex implements IndexProvider {
         if (!query.getOrders().isEmpty()) {
             addOrderToQuery(solrQuery, query.getOrders());
         }
+        if (useCursorMark(query)) {
+            if (query.getOrders().isEmpty()) {
+                // keep relevance ordering, which is otherwise implied
+                solrQuery.addSort(new SolrQuery.SortClause("score", SolrQuery.ORDER.desc));
+            }
+            addCursorSort(solrQuery, keyIdField);
+        }
 
         for(Parameter parameter: query.getParameters()) {
             if (parameter.value() instanceof String[]) {
@@ -705,7 +786,11 @@ public class SolrIndex implements IndexProvider {
             runCommonQuery(query, information, tx, collection, keyIdField), doc -> {
             final double score = Double.parseDouble(doc.getFieldValue("score").toString());
             return new RawQuery.Result<>(doc.getFieldValue(keyIdField).toString(), score);
-        });
+        }, useCursorMark(query));
+    }
+
+    private boolean useCursorMark(RawQuery query) {
+        return useCursorMark && query.getOffset() == 0;
     }
 
     @Override
@@ -727,6 +812,26 @@ public class SolrIndex implements IndexProvider {
         }
     }
 
+    @Override
+    public Long totals(IndexQuery query, KeyInformation.IndexRetriever information,
+                       BaseTransaction tx) throws BackendException {
+        final String collection = query.getStore();
+        final SolrQuery solrQuery = new SolrQuery("*:*");
+        solrQuery.addFilterQuery(buildQueryFilter(query.getCondition(), information.get(collection)));
+        solrQuery.setRows(0);
+        try {
+            final QueryResponse response = solrClient.query(collection, solrQuery);
+            LOG.debug("Executed count query [{}] in {} ms", query.getCondition(), response.getElapsedTime());
+            return response.getResults().getNumFound();
+        } catch (IOException e) {
+            LOG.error("Query did not complete : ", e);
+            throw new PermanentBackendException(e);
+        } catch (SolrServerException e) {
+            LOG.error("Unable to query Solr index.", e);
+            throw new PermanentBackendException(e);
+        }
+    }
+
     private static String escapeValue(Object value) {
         return ClientUtils.escapeQueryChars(value.toString());
     }
@@ -973,6 +1078,9 @@ public class SolrIndex implements IndexProvider {
     @Override
     public void close() throws BackendException {
         LOG.trace("Shutting down connection to Solr", solrClient);
+        if (updateQueue != null) {
+            updateQueue.close();
+        }
         try {
             solrClient.close();
         } catch (IOException e) {
@@ -25,9 +25,17 @@ import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.StreamingResponseCallback;
+import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CursorMarkParams;
 
 /**
+ * Streams the results of a Solr query batch by batch.
+ * <p>
+ * When {@code useCursorMark} is set, consecutive batches are fetched with Solr's {@code cursorMark} deep paging
+ * instead of increasing {@code start} offsets, which keeps the cost of fetching a batch independent of its position
+ * in the result set. The query must then start at offset 0 and be sorted on the collection's unique key.
+ *
  * @author David Clement (david.clement90@laposte.net)
  */
 class SolrResultIterator<E> implements Iterator<E> {
@@ -42,8 +50,18 @@ class SolrResultIterator<E> implements Iterator<E> {
     private final String collection;
     private final SolrQuery solrQuery;
     private final Function<SolrDocument, E> getFieldValue;
+    private final boolean useCursorMark;
+    private String cursorMark;
+    private boolean exhausted;
 
     public SolrResultIterator(SolrClient solrClient, Integer limit, int offset, int nbDocByQuery, String collection, SolrQuery solrQuery, Function<SolrDocument, E> function) throws SolrServerException, IOException {
+        this(solrClient, limit, offset, nbDocByQuery, collection, solrQuery, function, false);
+    }
+
+    public SolrResultIterator(SolrClient solrClient, Integer limit, int offset, int nbDocByQuery, String collection, SolrQuery solrQuery, Function<SolrDocument, E> function, boolean useCursorMark) throws SolrServerException, IOException {
+        if (useCursorMark && offset != 0) {
+            throw new IllegalArgumentException("Cursor based paging does not support offsets: " + offset);
+        }
         this.solrClient = solrClient;
         count = 0;
         this.offset = offset;
@@ -52,7 +70,12 @@ class SolrResultIterator<E> implements Iterator<E> {
         this.collection = collection;
         this.solrQuery = solrQuery;
         this.getFieldValue = function;
-        final long nbFound = solrClient.queryAndStreamResponse(collection, solrQuery, new SolrCallbackHandler(this, function)).getResults().getNumFound() - offset;
+        this.useCursorMark = useCursorMark;
+        if (useCursorMark) {
+            cursorMark = CursorMarkParams.CURSOR_MARK_START;
+            solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+        }
+        final long nbFound = fetchBatch().getResults().getNumFound() - offset;
         this.limit = limit != null ? Math.min(nbFound, limit) : nbFound;
         numBatches = 1;
     }
@@ -61,20 +84,35 @@ class SolrResultIterator<E> implements Iterator<E> {
         return queue;
     }
 
+    private QueryResponse fetchBatch() throws SolrServerException, IOException {
+        final QueryResponse response = solrClient.queryAndStreamResponse(collection, solrQuery,
+            new SolrCallbackHandler(this, getFieldValue));
+        if (useCursorMark) {
+            cursorMark = response.getNextCursorMark();
+        }
+        return response;
+    }
+
     @Override
     public boolean hasNext() {
-        if (count != 0 && count % batchSize == 0 && count < limit) {
+        if (count != 0 && count % batchSize == 0 && count < limit && queue.isEmpty() && !exhausted) {
             try {
-                solrQuery.setStart(numBatches * batchSize + offset);
-                solrClient.queryAndStreamResponse(collection, solrQuery, new SolrCallbackHandler(this, getFieldValue));
+                if (useCursorMark) {
+                    solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+                } else {
+                    solrQuery.setStart(numBatches * batchSize + offset);
+                }
+                fetchBatch();
                 numBatches++;
+                // The index may have shrunk since the first batch reported its number of hits
+                exhausted = queue.isEmpty();
             } catch (SolrServerException e) {
                 throw new UncheckedSolrException(e.getMessage(), e);
             } catch (IOException e) {
                 throw new UncheckedIOException(e.getMessage(), e);
             }
         }
-        return count < limit;
+        return !exhausted && count < limit;
     }
 
     @Override
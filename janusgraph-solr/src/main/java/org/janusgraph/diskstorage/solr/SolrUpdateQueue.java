@@ -0,0 +1,220 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.solr;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Coalesces document updates and deletions issued by concurrently committing transactions into
+ * per-collection batches which are sent to Solr by a small pool of sender threads.
+ * <p>
+ * Updates of a single collection are sent strictly in submission order: a batch only merges consecutive
+ * submissions of the same kind (additions or deletions) so that a deletion is never reordered with
+ * respect to an addition of the same document. Different collections are sent concurrently.
+ * <p>
+ * Callers receive a future per submission which completes once the batch containing it has been acknowledged
+ * by Solr, so index commit semantics are unchanged; only the number of round trips (and forced commits when
+ * waiting for a searcher) is reduced. If a batch fails, its submissions are sent again one at a time so that a
+ * failing submission does not fail the submissions of other transactions which were merged into the same batch.
+ */
+class SolrUpdateQueue implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SolrUpdateQueue.class);
+
+    private final SolrClient solrClient;
+    private final Supplier<UpdateRequest> requestFactory;
+    private final int maxBatchSize;
+    private final ExecutorService senders;
+    private final Map<String, CollectionQueue> queues = new ConcurrentHashMap<>();
+
+    SolrUpdateQueue(SolrClient solrClient, Supplier<UpdateRequest> requestFactory, int numThreads, int maxBatchSize) {
+        Preconditions.checkArgument(numThreads > 0, "Need at least one sender thread: %s", numThreads);
+        Preconditions.checkArgument(maxBatchSize > 0, "Invalid batch size: %s", maxBatchSize);
+        this.solrClient = solrClient;
+        this.requestFactory = requestFactory;
+        this.maxBatchSize = maxBatchSize;
+        this.senders = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("SolrUpdateQueue[%d]")
+            .build());
+    }
+
+    CompletableFuture<Void> add(String collection, Collection<SolrInputDocument> documents) {
+        if (documents.isEmpty()) return CompletableFuture.completedFuture(null);
+        return getQueue(collection).submit(new PendingUpdate(documents, null));
+    }
+
+    CompletableFuture<Void> delete(String collection, List<String> deleteIds) {
+        if (deleteIds.isEmpty()) return CompletableFuture.completedFuture(null);
+        return getQueue(collection).submit(new PendingUpdate(null, deleteIds));
+    }
+
+    private CollectionQueue getQueue(String collection) {
+        return queues.computeIfAbsent(collection, CollectionQueue::new);
+    }
+
+    @Override
+    public void close() {
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.warn("Solr update senders did not terminate in time, pending updates are dropped");
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class PendingUpdate {
+
+        private final Collection<SolrInputDocument> documents;
+        private final List<String> deleteIds;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingUpdate(Collection<SolrInputDocument> documents, List<String> deleteIds) {
+            this.documents = documents;
+            this.deleteIds = deleteIds;
+        }
+
+        private boolean isDeletion() {
+            return deleteIds != null;
+        }
+
+        private int size() {
+            return isDeletion() ? deleteIds.size() : documents.size();
+        }
+    }
+
+    private class CollectionQueue {
+
+        private final String collection;
+        private final Deque<PendingUpdate> pending = new ArrayDeque<>();
+        private boolean draining = false;
+
+        private CollectionQueue(String collection) {
+            this.collection = collection;
+        }
+
+        private CompletableFuture<Void> submit(PendingUpdate update) {
+            final boolean startDrain;
+            synchronized (this) {
+                pending.add(update);
+                startDrain = !draining;
+                draining = true;
+            }
+            if (startDrain) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    //No sender will drain the queue, fail what is pending so that later submissions can start a drain
+                    final List<PendingUpdate> rejected;
+                    synchronized (this) {
+                        rejected = new ArrayList<>(pending);
+                        pending.clear();
+                        draining = false;
+                    }
+                    rejected.forEach(pendingUpdate -> pendingUpdate.future.completeExceptionally(e));
+                    throw e;
+                }
+            }
+            return update.future;
+        }
+
+        private List<PendingUpdate> nextBatch() {
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return null;
+                }
+                final List<PendingUpdate> batch = new ArrayList<>();
+                final PendingUpdate first = pending.poll();
+                batch.add(first);
+                int size = first.size();
+                while (!pending.isEmpty() && size < maxBatchSize
+                        && pending.peek().isDeletion() == first.isDeletion()) {
+                    final PendingUpdate next = pending.poll();
+                    batch.add(next);
+                    size += next.size();
+                }
+                return batch;
+            }
+        }
+
+        private void drain() {
+            List<PendingUpdate> batch;
+            while ((batch = nextBatch()) != null) {
+                try {
+                    send(batch);
+                    batch.forEach(update -> update.future.complete(null));
+                } catch (Throwable e) {
+                    if (batch.size() == 1) {
+                        batch.get(0).future.completeExceptionally(e);
+                        continue;
+                    }
+                    LOG.debug("Failed to send batch of {} updates to collection [{}], sending them one by one",
+                        batch.size(), collection, e);
+                    //The submissions of a batch may come from different transactions, only fail the ones which fail by themselves
+                    for (PendingUpdate update : batch) {
+                        try {
+                            send(Collections.singletonList(update));
+                            update.future.complete(null);
+                        } catch (Throwable ex) {
+                            update.future.completeExceptionally(ex);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void send(List<PendingUpdate> batch) throws Exception {
+            final UpdateRequest request = requestFactory.get();
+            for (PendingUpdate update : batch) {
+                if (update.isDeletion()) {
+                    request.deleteById(update.deleteIds);
+                } else {
+                    request.add(update.documents);
+                }
+            }
+            solrClient.request(request, collection);
+        }
+    }
+}
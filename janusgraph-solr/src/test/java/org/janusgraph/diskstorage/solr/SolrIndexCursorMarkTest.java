@@ -0,0 +1,39 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.solr;
+
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+
+/**
+ * Runs the Solr index provider tests with cursorMark paging and batched update threads enabled.
+ */
+public class SolrIndexCursorMarkTest extends SolrIndexTest {
+
+    @Override
+    protected Configuration getLocalSolrTestConfig() {
+        final String index = "solr";
+        final ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+
+        config.set(SolrIndex.ZOOKEEPER_URL, SolrRunner.getZookeeperUrls(), index);
+        config.set(SolrIndex.WAIT_SEARCHER, true, index);
+        config.set(SolrIndex.CURSOR_MARK, true, index);
+        config.set(SolrIndex.UPDATE_THREADS, 2, index);
+        config.set(SolrIndex.UPDATE_BATCH_SIZE, 2, index);
+        config.set(GraphDatabaseConfiguration.INDEX_MAX_RESULT_SET_SIZE, 3, index);
+        return config.restrictTo(index);
+    }
+}
@@ -0,0 +1,101 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.diskstorage.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SolrUpdateQueueTest {
+
+    @Test
+    public void testFailedBatchOnlyFailsFailingSubmissions() throws Exception {
+        CountDownLatch firstRequestStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRequest = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        SolrClient client = mock(SolrClient.class);
+        when(client.request(any(UpdateRequest.class), eq("store"))).thenAnswer(invocation -> {
+            UpdateRequest request = invocation.getArgument(0);
+            if (requests.getAndIncrement() == 0) {
+                firstRequestStarted.countDown();
+                assertTrue(releaseFirstRequest.await(10, TimeUnit.SECONDS));
+            }
+            if (request.getDocuments().stream().anyMatch(doc -> "bad".equals(doc.getFieldValue("id")))) {
+                throw new SolrServerException("Rejected document");
+            }
+            return new NamedList<>();
+        });
+
+        try (SolrUpdateQueue queue = new SolrUpdateQueue(client, UpdateRequest::new, 1, 100)) {
+            CompletableFuture<Void> first = queue.add("store", document("first"));
+            assertTrue(firstRequestStarted.await(10, TimeUnit.SECONDS));
+            //Submitted while the first request is in flight, so they are sent as one batch
+            CompletableFuture<Void> good = queue.add("store", document("good"));
+            CompletableFuture<Void> bad = queue.add("store", document("bad"));
+            CompletableFuture<Void> other = queue.add("store", document("other"));
+            releaseFirstRequest.countDown();
+
+            first.get(10, TimeUnit.SECONDS);
+            good.get(10, TimeUnit.SECONDS);
+            other.get(10, TimeUnit.SECONDS);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof SolrServerException);
+            //The first request, the failed batch and one request per submission of the failed batch
+            assertEquals(5, requests.get());
+        }
+    }
+
+    @Test
+    public void testSubmitAfterCloseDoesNotWedgeQueue() throws Exception {
+        SolrClient client = mock(SolrClient.class);
+        when(client.request(any(UpdateRequest.class), eq("store"))).thenReturn(new NamedList<>());
+
+        SolrUpdateQueue queue = new SolrUpdateQueue(client, UpdateRequest::new, 1, 100);
+        queue.add("store", document("first")).get(10, TimeUnit.SECONDS);
+        queue.close();
+
+        assertThrows(RejectedExecutionException.class, () -> queue.add("store", document("second")));
+        //A wedged queue would consider itself draining and hand out a future which never completes
+        assertThrows(RejectedExecutionException.class, () -> queue.add("store", document("third")));
+        assertThrows(RejectedExecutionException.class, () -> queue.delete("store", Collections.singletonList("first")));
+    }
+
+    private static Collection<SolrInputDocument> document(String id) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.setField("id", id);
+        return Collections.singletonList(document);
+    }
+}
@@ -902,6 +902,29 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest {
 
     }
 
+    @Test
+    public void testGetSliceAsync() throws Exception {
+        populateDBWith100Keys();
+
+        tx.commit();
+        tx = startTx();
+
+        StaticBuffer start = KeyColumnValueStoreUtil.stringToByteBuffer("a");
+        StaticBuffer end = KeyColumnValueStoreUtil.stringToByteBuffer("d");
+
+        final List<CompletableFuture<EntryList>> futures = new ArrayList<>(100);
+        for (int i = 1; i <= 100; i++) {
+            futures.add(store.getSliceAsync(new KeySliceQuery(KeyColumnValueStoreUtil.longToByteBuffer(i), start, end), tx));
+        }
+        for (int i = 1; i <= 100; i++) {
+            EntryList expected = store.getSlice(new KeySliceQuery(KeyColumnValueStoreUtil.longToByteBuffer(i), start, end), tx);
+            assertEquals(3, expected.size());
+            assertEquals(expected, futures.get(i - 1).get(10, TimeUnit.SECONDS));
+        }
+        assertTrue(store.getSliceAsync(new KeySliceQuery(KeyColumnValueStoreUtil.longToByteBuffer(101), start, end), tx)
+            .get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
     @Test
     public void containsKeyReturnsTrueOnExtantKey() throws Exception {
         StaticBuffer key1 = KeyColumnValueStoreUtil.longToByteBuffer(1);
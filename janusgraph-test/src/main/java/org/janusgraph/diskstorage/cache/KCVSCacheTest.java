@@ -157,6 +157,32 @@ public abstract class KCVSCacheTest {
     }
 
 
+    @Test
+    public void testAsyncReads() throws Exception {
+        final int numKeys = 20, numCols = 10;
+        loadStore(numKeys,numCols);
+        cache.clearCache();
+        store.resetCounter();
+
+        CacheTransaction tx = getCacheTx();
+        for (int i=1;i<=numKeys;i++) {
+            assertEquals(3,cache.getSliceAsync(getQuery(i,2,5),tx).get().size());
+        }
+        final long calls = store.getSliceCalls();
+        assertEquals(numKeys,calls);
+        //Async reads populate the cache for both blocking and async reads
+        for (int i=1;i<=numKeys;i++) {
+            assertEquals(3,cache.getSliceAsync(getQuery(i,2,5),tx).get().size());
+            assertEquals(3,cache.getSlice(getQuery(i,2,5),tx).size());
+        }
+        assertEquals(calls,store.getSliceCalls());
+        //Reads which bypass the cache always hit the store
+        assertEquals(3,cache.getSliceNoCacheAsync(getQuery(1,2,5),tx).get().size());
+        assertEquals(calls+1,store.getSliceCalls());
+        tx.commit();
+    }
+
+
     public static KeySliceQuery getQuery(int key, int startCol, int endCol) {
         return new KeySliceQuery(BufferUtil.getIntBuffer(key),getQuery(startCol, endCol));
     }
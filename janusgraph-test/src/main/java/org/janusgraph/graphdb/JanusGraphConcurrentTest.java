@@ -17,6 +17,7 @@ package org.janusgraph.graphdb;
 import com.google.common.collect.Iterables;
 import org.janusgraph.TestCategory;
 import org.janusgraph.core.*;
+import org.janusgraph.core.attribute.Cmp;
 import org.janusgraph.core.schema.EdgeLabelMaker;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.testutil.JUnitBenchmarkProvider;
@@ -208,6 +209,49 @@ public abstract class JanusGraphConcurrentTest extends JanusGraphBaseTest {
         relFuture.cancel(true);
     }
 
+    /**
+     * Ingest vertices with an indexed property from an increasing number of
+     * threads that all share a single threaded transaction, and log the
+     * throughput for each number of threads. Every writer reads its own
+     * writes back through the transaction's index cache, and the transaction
+     * has to see all ingested vertices at the end of each round.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void concurrentIngestOnThreadedTransaction() throws Exception {
+        makeVertexIndexedKey("ingestId", Integer.class);
+        makeKey("ingestName", String.class);
+        finishSchema();
+
+        final int verticesPerThread = 2000;
+        for (int numThreads = 1; numThreads <= THREAD_COUNT; numThreads *= 2) {
+            final JanusGraphTransaction threadedTx = graph.tx().createThreadedTx();
+            final Collection<Future<?>> futures = new ArrayList<>(numThreads);
+            final long start = System.nanoTime();
+            for (int t = 0; t < numThreads; t++) {
+                final int offset = t * verticesPerThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + verticesPerThread; i++) {
+                        threadedTx.addVertex("ingestId", i, "ingestName", "v" + i);
+                        if (i % 10 == 0) {
+                            assertCount(1, threadedTx.query().has("ingestId", i).vertices());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Ingested {} vertices with {} threads on a shared transaction in {} ms",
+                    numThreads * verticesPerThread, numThreads, elapsedMs);
+
+            assertCount(numThreads * verticesPerThread, threadedTx.query().has("ingestId", Cmp.GREATER_THAN_EQUAL, 0).vertices());
+            threadedTx.rollback();
+        }
+    }
+
     @Test
     public void concurrentIndexReadWriteTest() throws Exception {
         clopen(option(GraphDatabaseConfiguration.ADJUST_LIMIT),false);
@@ -58,10 +58,12 @@ import org.janusgraph.graphdb.database.management.ManagementSystem;
 import org.janusgraph.graphdb.internal.ElementCategory;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.log.StandardTransactionLogProcessor;
+import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphCountStep;
 import org.janusgraph.graphdb.types.ParameterType;
 import org.janusgraph.graphdb.types.StandardEdgeLabelMaker;
 import org.janusgraph.testutil.TestGraphConfigs;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
@@ -955,6 +957,45 @@ public abstract class JanusGraphIndexTest extends JanusGraphBaseTest {
         }
     }
 
+    @Test
+    public void testCountFromMixedIndex() {
+        final PropertyKey name = makeKey("name", String.class);
+        final PropertyKey age = makeKey("age", Integer.class);
+        final PropertyKey weight = makeKey("weight", Double.class);
+        makeLabel("knows");
+        mgmt.buildIndex("namev", Vertex.class).addKey(name).addKey(age).buildMixedIndex(INDEX);
+        mgmt.buildIndex("weighte", Edge.class).addKey(weight).buildMixedIndex(INDEX);
+        finishSchema();
+
+        JanusGraphVertex previous = null;
+        for (int i = 0; i < 30; i++) {
+            final JanusGraphVertex v = tx.addVertex("name", i % 3 == 0 ? "Marko Rodriguez" : "Josh Smith", "age", i);
+            if (previous != null) previous.addEdge("knows", v, "weight", i / 10.0);
+            previous = v;
+        }
+        clopen();
+
+        //Counts of queries fully answered by a single mixed index are computed by the index provider
+        GraphTraversalSource gts = tx.traversal();
+        GraphTraversal.Admin<Vertex, Long> countTraversal = gts.V().has("name", Text.textContains("marko")).count().asAdmin();
+        countTraversal.applyStrategies();
+        assertTrue(countTraversal.getStartStep() instanceof JanusGraphCountStep);
+        assertEquals(10, countTraversal.next().longValue());
+        assertEquals(5, gts.V().has("name", Text.textContains("marko")).has("age", P.lt(15)).count().next().longValue());
+        assertEquals(10, gts.V().has("age", P.between(10, 20)).count().next().longValue());
+        assertEquals(0, gts.V().has("name", Text.textContains("unknown")).count().next().longValue());
+        assertEquals(14, gts.E().has("weight", P.gt(1.5)).count().next().longValue());
+        //Queries with limits are counted on the retrieved elements
+        assertEquals(4, gts.V().has("name", Text.textContains("marko")).limit(4).count().next().longValue());
+
+        //Modifications of the transaction are not reflected by the index
+        tx.addVertex("name", "Marko", "age", 100);
+        assertEquals(11, gts.V().has("name", Text.textContains("marko")).count().next().longValue());
+        newTx();
+        assertEquals(11, tx.traversal().V().has("name", Text.textContains("marko")).count().next().longValue());
+        assertEquals(1, tx.traversal().V().has("age", P.gte(30)).count().next().longValue());
+    }
+
     /**
      * Tests index parameters (mapping and names) and various string predicates
      */
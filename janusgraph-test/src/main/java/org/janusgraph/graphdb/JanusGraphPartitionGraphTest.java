@@ -49,6 +49,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
@@ -433,6 +436,53 @@ public abstract class JanusGraphPartitionGraphTest extends JanusGraphBaseTest {
     }
 
 
+    @Test
+    public void testNeighborBasedGraphPartitioning() {
+        Object[] options = {option(GraphDatabaseConfiguration.IDS_FLUSH), false,
+                option(VertexIDAssigner.PLACEMENT_STRATEGY), "neighbor"};
+        clopen(options);
+        makeKey("name", String.class);
+        makeLabel("knows");
+        finishSchema();
+
+        JanusGraphVertex[] hubs = new JanusGraphVertex[numPartitions];
+        for (int i = 0; i < hubs.length; i++) {
+            hubs[i] = tx.addVertex("name", "hub" + i);
+            newTx();
+        }
+        for (int i = 0; i < hubs.length; i++) {
+            //Vertices added in their own transaction are placed next to their identified neighbor
+            for (int j = 0; j < 5; j++) {
+                tx.addVertex("name", "member" + i + ":" + j).addEdge("knows", vInTx(hubs[i], tx));
+                newTx();
+            }
+            //Chains of new vertices are placed next to the identified neighbor of any of them
+            JanusGraphVertex previous = vInTx(hubs[i], tx);
+            for (int j = 0; j < 3; j++) {
+                JanusGraphVertex v = tx.addVertex("name", "chain" + i + ":" + j);
+                v.addEdge("knows", previous);
+                previous = v;
+            }
+            newTx();
+        }
+
+        for (JanusGraphVertex hub : hubs) {
+            JanusGraphVertex h = vInTx(hub, tx);
+            int partitionId = getPartitionID(h);
+            int numNeighbors = 0;
+            Deque<JanusGraphVertex> neighbors = new ArrayDeque<>(Collections.singleton(h));
+            while (!neighbors.isEmpty()) {
+                for (Object o : neighbors.pop().query().direction(Direction.IN).labels("knows").vertices()) {
+                    JanusGraphVertex v = (JanusGraphVertex) o;
+                    assertEquals(partitionId, getPartitionID(v));
+                    neighbors.push(v);
+                    numNeighbors++;
+                }
+            }
+            assertEquals(8, numNeighbors);
+        }
+    }
+
     public int getPartitionID(JanusGraphVertex vertex) {
         long p = idManager.getPartitionId(vertex.longId());
         assertTrue(p >= 0 && p < idManager.getPartitionBound() && p < Integer.MAX_VALUE);
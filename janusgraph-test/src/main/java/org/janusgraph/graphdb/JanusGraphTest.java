@@ -15,6 +15,7 @@
 package org.janusgraph.graphdb;
 
 
+import com.codahale.metrics.Counter;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -22,6 +23,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Bindings;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.TextP;
@@ -83,15 +86,20 @@ import org.janusgraph.core.schema.SchemaStatus;
 import org.janusgraph.core.util.ManagementUtil;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.BasicConfiguration;
 import org.janusgraph.diskstorage.configuration.ConfigElement;
 import org.janusgraph.diskstorage.configuration.ConfigOption;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanMetrics;
 import org.janusgraph.diskstorage.log.Log;
 import org.janusgraph.diskstorage.log.Message;
 import org.janusgraph.diskstorage.log.MessageReader;
 import org.janusgraph.diskstorage.log.ReadMarker;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
+import org.janusgraph.diskstorage.util.BackendCosts;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.example.GraphOfTheGodsFactory;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -107,6 +115,7 @@ import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.internal.OrderList;
 import org.janusgraph.graphdb.internal.RelationCategory;
 import org.janusgraph.graphdb.log.StandardTransactionLogProcessor;
+import org.janusgraph.graphdb.olap.job.IndexCatchUpJob;
 import org.janusgraph.graphdb.olap.job.IndexRemoveJob;
 import org.janusgraph.graphdb.olap.job.IndexRepairJob;
 import org.janusgraph.graphdb.query.graph.GraphCentricQueryBuilder;
@@ -120,15 +129,18 @@ import org.janusgraph.graphdb.schema.SchemaContainer;
 import org.janusgraph.graphdb.schema.VertexLabelDefinition;
 import org.janusgraph.graphdb.serializer.SpecialInt;
 import org.janusgraph.graphdb.serializer.SpecialIntSerializer;
+import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphCountStep;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphPropertiesStep;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphStep;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphVertexStep;
+import org.janusgraph.graphdb.tinkerpop.optimize.TraversalPlanCache;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.janusgraph.graphdb.types.StandardEdgeLabelMaker;
 import org.janusgraph.graphdb.types.StandardPropertyKeyMaker;
 import org.janusgraph.graphdb.types.system.BaseVertexLabel;
 import org.janusgraph.graphdb.types.system.ImplicitKey;
 import org.janusgraph.testutil.TestGraphConfigs;
+import org.janusgraph.util.stats.MetricManager;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -160,6 +172,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -184,6 +197,13 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LO
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_SEND_DELAY;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MANAGEMENT_LOG;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MAX_COMMIT_TIME;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.PARALLEL_PREPARE_THRESHOLD;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.PROJECTED_PROPERTY_PREFETCHING;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REINDEX_BATCH_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REINDEX_BULK_WRITE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REINDEX_CATCH_UP;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REINDEX_MAX_WRITE_RATE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SLOW_TRANSACTION_SLICES;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_READONLY;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SYSTEM_LOG_TRANSACTIONS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TRANSACTION_LOG;
@@ -1335,6 +1355,120 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         assertEquals(30, graphIndexMetrics.getCustom(IndexRemoveJob.DELETED_RECORDS_COUNT));
     }
 
+    @Test
+    public void testReindexWithTransactionLogCatchUp() throws InterruptedException, ExecutionException {
+        clopen(option(SYSTEM_LOG_TRANSACTIONS), true,
+                option(REINDEX_CATCH_UP), true,
+                option(REINDEX_BATCH_SIZE), 2,
+                option(LOG_SEND_DELAY, MANAGEMENT_LOG), Duration.ofMillis(0),
+                option(KCVSLog.LOG_READ_LAG_TIME, MANAGEMENT_LOG), Duration.ofMillis(50),
+                option(LOG_READ_INTERVAL, MANAGEMENT_LOG), Duration.ofMillis(250),
+                option(LOG_SEND_DELAY, TRANSACTION_LOG), Duration.ofMillis(0),
+                option(KCVSLog.LOG_READ_LAG_TIME, TRANSACTION_LOG), Duration.ofMillis(50),
+                option(MAX_COMMIT_TIME), Duration.ofMillis(100)
+        );
+        mgmt.makePropertyKey("sku").dataType(String.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        finishSchema();
+
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = getId(tx.addVertex("sku", "s" + i));
+        }
+        long hubId = getId(tx.addVertex());
+        newTx();
+
+        mgmt.buildIndex("bySku", Vertex.class).addKey(mgmt.getPropertyKey("sku")).buildCompositeIndex();
+        finishSchema();
+        Thread.sleep(200L);
+        Instant startTime = graph.getConfiguration().getTimestampProvider().getTime();
+
+        //A scan reads two vertices before they are modified and writes their index entries afterwards
+        JanusGraphTransaction scanTx = graph.newTransaction();
+        JanusGraphVertex scanned1 = getV(scanTx, ids[1]);
+        JanusGraphVertex scanned2 = getV(scanTx, ids[2]);
+        assertEquals("s1", scanned1.value("sku"));
+        assertEquals("s2", scanned2.value("sku"));
+        getV(tx, ids[1]).property("sku").remove();
+        getV(tx, ids[1]).property("sku", "t1");
+        getV(tx, ids[2]).remove();
+        getV(tx, ids[0]).addEdge("knows", getV(tx, hubId));
+        newTx();
+        ScanMetrics scanMetrics = new StandardScanMetrics();
+        IndexRepairJob scanJob = new IndexRepairJob("bySku", null);
+        ModifiableConfiguration jobConfig = new ModifiableConfiguration(GraphDatabaseConfiguration.JOB_NS,
+                new CommonsConfiguration(new BaseConfiguration()), BasicConfiguration.Restriction.NONE);
+        jobConfig.set(GraphDatabaseConfiguration.JOB_START_TIME, startTime.toEpochMilli());
+        scanJob.workerIterationStart(graph, jobConfig, scanMetrics);
+        scanJob.process(scanned1, scanMetrics);
+        scanJob.process(scanned2, scanMetrics);
+        scanJob.workerIterationEnd(scanMetrics);
+        scanTx.rollback();
+        assertEquals(2, scanMetrics.getCustom(IndexRepairJob.ADDED_RECORDS_COUNT));
+
+        //The catch-up removes the stale entries and reindexes both endpoints of the new edge
+        ScanMetrics catchUpMetrics = new IndexCatchUpJob(graph, "bySku", null).run(startTime);
+        assertEquals(0, catchUpMetrics.get(ScanMetrics.Metric.FAILURE));
+        assertEquals(2, catchUpMetrics.getCustom(IndexRepairJob.REMOVED_RECORDS_COUNT));
+        assertEquals(3, catchUpMetrics.getCustom(IndexCatchUpJob.REINDEXED_VERTEX_COUNT));
+
+        //A reindex of an INSTALLED index registers it and catches up on the transaction log before it enables the index
+        JanusGraphIndex index = mgmt.getGraphIndex("bySku");
+        assertEquals(SchemaStatus.INSTALLED, index.getIndexStatus(index.getFieldKeys()[0]));
+        JanusGraphManagement.IndexJobFuture reindexFuture = mgmt.updateIndex(index, SchemaAction.REINDEX);
+        //Registration is only acknowledged once the transactions open at that time are closed
+        mgmt.commit();
+        tx.commit();
+        ScanMetrics reindexMetrics = reindexFuture.get();
+        finishSchema();
+        assertEquals(0, reindexMetrics.get(ScanMetrics.Metric.FAILURE));
+        index = mgmt.getGraphIndex("bySku");
+        assertEquals(SchemaStatus.ENABLED, index.getIndexStatus(index.getFieldKeys()[0]));
+        finishSchema();
+        evaluateQuery(tx.query().has("sku", "s3"), ElementCategory.VERTEX, 1, new boolean[]{true, true}, "bySku");
+        evaluateQuery(tx.query().has("sku", "t1"), ElementCategory.VERTEX, 1, new boolean[]{true, true}, "bySku");
+        evaluateQuery(tx.query().has("sku", "s1"), ElementCategory.VERTEX, 0, new boolean[]{true, true}, "bySku");
+        evaluateQuery(tx.query().has("sku", "s2"), ElementCategory.VERTEX, 0, new boolean[]{true, true}, "bySku");
+    }
+
+    @Test
+    public void testReindexWithBulkWrite() throws InterruptedException, ExecutionException {
+        clopen(option(REINDEX_BULK_WRITE), true,
+                option(REINDEX_BATCH_SIZE), 3,
+                option(REINDEX_MAX_WRITE_RATE), 1000,
+                option(LOG_SEND_DELAY, MANAGEMENT_LOG), Duration.ofMillis(0),
+                option(KCVSLog.LOG_READ_LAG_TIME, MANAGEMENT_LOG), Duration.ofMillis(50),
+                option(LOG_READ_INTERVAL, MANAGEMENT_LOG), Duration.ofMillis(250)
+        );
+        mgmt.makePropertyKey("sku").dataType(String.class).make();
+        mgmt.makePropertyKey("color").dataType(String.class).make();
+        finishSchema();
+        for (int i = 0; i < 10; i++) {
+            tx.addVertex("sku", "s" + i, "color", i % 2 == 0 ? "red" : "blue");
+        }
+        newTx();
+
+        mgmt.buildIndex("bySku", Vertex.class).addKey(mgmt.getPropertyKey("sku")).buildCompositeIndex();
+        mgmt.buildIndex("byColor", Vertex.class).addKey(mgmt.getPropertyKey("color")).buildCompositeIndex();
+        mgmt.commit();
+        tx.commit();
+        for (String indexName : new String[]{"bySku", "byColor"}) {
+            assertTrue(ManagementSystem.awaitGraphIndexStatus(graph, indexName).status(SchemaStatus.REGISTERED)
+                    .timeout(10L, ChronoUnit.SECONDS).call().getSucceeded());
+        }
+        finishSchema();
+
+        ScanMetrics skuMetrics = mgmt.updateIndex(mgmt.getGraphIndex("bySku"), SchemaAction.REINDEX).get();
+        finishSchema();
+        ScanMetrics colorMetrics = mgmt.updateIndex(mgmt.getGraphIndex("byColor"), SchemaAction.REINDEX).get();
+        finishSchema();
+        assertEquals(10, skuMetrics.getCustom(IndexRepairJob.ADDED_RECORDS_COUNT));
+        assertEquals(10, colorMetrics.getCustom(IndexRepairJob.ADDED_RECORDS_COUNT));
+
+        evaluateQuery(tx.query().has("sku", "s7"), ElementCategory.VERTEX, 1, new boolean[]{true, true}, "bySku");
+        evaluateQuery(tx.query().has("color", "red"), ElementCategory.VERTEX, 5, new boolean[]{true, true}, "byColor");
+    }
+
     @Tag(TestCategory.BRITTLE_TESTS)
     @Test
     public void testIndexUpdateSyncWithMultipleInstances() throws InterruptedException {
@@ -1622,6 +1756,79 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         assertCount(2, v.query().direction(Direction.BOTH).labels("self").edges());
     }
 
+    @Test
+    public void testParallelPrepareCommit() {
+        clopen(option(PARALLEL_PREPARE_THRESHOLD), 2);
+        PropertyKey time = mgmt.makePropertyKey("time").dataType(Integer.class).cardinality(Cardinality.SINGLE).make();
+        mgmt.makePropertyKey("name").dataType(String.class).cardinality(Cardinality.SINGLE).make();
+        mgmt.makePropertyKey("tag").dataType(String.class).cardinality(Cardinality.LIST).make();
+        EdgeLabel knows = mgmt.makeEdgeLabel("knows").signature(time).make();
+        mgmt.buildEdgeIndex(knows, "knowsByTime", Direction.BOTH, desc, time);
+        finishSchema();
+
+        //Commits of transactions in this metrics group count whether their relations were serialized in parallel
+        String metricsGroup = "org.janusgraph.test.parallelprepare";
+        Counter parallelPrepares = MetricManager.INSTANCE.getCounter(metricsGroup, "tx", "prepare.parallel");
+        long initialParallelPrepares = parallelPrepares.getCount();
+        tx.rollback();
+        tx = graph.buildTransaction().groupName(metricsGroup).start();
+
+        int numVertices = 100;
+        JanusGraphVertex[] vertices = new JanusGraphVertex[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            vertices[i] = tx.addVertex("name", "v" + i);
+            vertices[i].property("tag", "a");
+            vertices[i].property("tag", "b");
+        }
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 1; j <= 5; j++) {
+                vertices[i].addEdge("knows", vertices[(i + j) % numVertices], "time", j, "weight", 0.5 * j);
+            }
+        }
+        vertices[0].addEdge("knows", vertices[0], "time", 0);
+        tx.commit();
+        assertEquals(initialParallelPrepares + 1, parallelPrepares.getCount());
+        tx = graph.buildTransaction().groupName(metricsGroup).start();
+
+        for (int i = 0; i < numVertices; i++) {
+            JanusGraphVertex v = getV(tx, vertices[i]);
+            assertEquals("v" + i, v.value("name"));
+            assertCount(i == 0 ? 6 : 5, v.query().direction(OUT).labels("knows").edges());
+            assertCount(i == 0 ? 6 : 5, v.query().direction(IN).labels("knows").edges());
+            assertCount(2, v.query().direction(OUT).labels("knows").interval("time", 2, 4).edges());
+        }
+        JanusGraphEdge edge = getOnlyElement(getV(tx, vertices[0]).query().direction(OUT).labels("knows").has("time", 3).edges());
+        assertEquals(1.5, (double) edge.value("weight"), 0.0);
+
+        //Loaded edges and properties read their properties through the transaction when they are removed
+        for (int i = 0; i < numVertices; i++) {
+            JanusGraphVertex v = getV(tx, vertices[i]);
+            getOnlyElement(v.query().direction(OUT).labels("knows").has("time", 1).edges()).remove();
+            for (JanusGraphVertexProperty tag : v.query().keys("tag").properties()) {
+                if ("a".equals(tag.value())) tag.remove();
+            }
+            v.property(VertexProperty.Cardinality.single, "name", "w" + i);
+            v.addEdge("knows", getV(tx, vertices[(i + 10) % numVertices]), "time", 10, "weight", 5.0);
+        }
+        getOnlyElement(getV(tx, vertices[0]).query().direction(OUT).labels("knows").has("time", 0).edges()).remove();
+        tx.commit();
+        assertEquals(initialParallelPrepares + 2, parallelPrepares.getCount());
+        newTx();
+
+        for (int i = 0; i < numVertices; i++) {
+            JanusGraphVertex v = getV(tx, vertices[i]);
+            assertEquals("w" + i, v.value("name"));
+            assertEquals(ImmutableList.of("b"), ImmutableList.copyOf(v.values("tag")));
+            assertCount(5, v.query().direction(OUT).labels("knows").edges());
+            assertCount(5, v.query().direction(IN).labels("knows").edges());
+            assertCount(0, v.query().direction(OUT).labels("knows").has("time", 1).edges());
+            assertCount(2, v.query().direction(OUT).labels("knows").interval("time", 2, 4).edges());
+        }
+        edge = getOnlyElement(getV(tx, vertices[0]).query().direction(OUT).labels("knows").has("time", 10).edges());
+        assertEquals(5.0, (double) edge.value("weight"), 0.0);
+        assertEquals(getV(tx, vertices[10]), edge.inVertex());
+    }
+
     /**
      * Tests that elements can be accessed beyond their transactional boundaries if they
      * are bound to single-threaded graph transactions
@@ -2904,6 +3111,43 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         assertEquals(numSubQueries, subQueryCounter);
     }
 
+    @Test
+    public void testBackendCostsAndSlowTransactionLog() {
+        clopen(option(DB_CACHE), true, option(SLOW_TRANSACTION_SLICES), 1);
+        PropertyKey name = makeKey("name", String.class);
+        mgmt.buildIndex("byName", Vertex.class).addKey(name).buildCompositeIndex();
+        finishSchema();
+
+        for (int i = 0; i < 10; i++) {
+            tx.addVertex("name", "v" + i).property("age", i);
+        }
+        newTx();
+
+        BackendCosts costs = ((StandardJanusGraphTx) tx).getBackendCosts();
+        assertEquals(0, costs.getSlices());
+        JanusGraphVertex v = getOnlyElement(tx.query().has("name", "v3").vertices());
+        assertEquals(3, v.<Integer>value("age").intValue());
+        assertTrue(costs.getIndexStoreSlices() >= 1);
+        assertTrue(costs.getEdgeStoreSlices() >= 1);
+        assertTrue(costs.getEntries() >= 2);
+        assertTrue(costs.getBytes() > 0);
+        assertTrue(costs.getCacheRetrievals() >= costs.getEdgeStoreSlices());
+        assertTrue(costs.getBackendTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(0, costs.getMixedIndexCalls());
+        assertTrue(graph.getConfiguration().isSlowTransaction(costs));
+        //Closing the transaction logs its costs and the index queries its graph-centric queries were answered by
+        String report = ((StandardJanusGraphTx) tx).getSlowTransactionReport();
+        assertNotNull(report);
+        assertTrue(report.startsWith("Slow transaction "), report);
+        assertTrue(report.contains(costs.toString()), report);
+        assertTrue(report.contains("Graph-centric queries: [[(name = v3)]:VERTEX [byName:"), report);
+        //The next transaction starts with fresh costs that are below the slow transaction thresholds
+        newTx();
+        assertEquals(0, ((StandardJanusGraphTx) tx).getBackendCosts().getSlices());
+        assertFalse(graph.getConfiguration().isSlowTransaction(((StandardJanusGraphTx) tx).getBackendCosts()));
+        assertNull(((StandardJanusGraphTx) tx).getSlowTransactionReport());
+    }
+
     @Test
     public void testEdgesExceedCacheSize() {
         // Add a vertex with as many edges as the tx-cache-size. (20000 by default)
@@ -4118,6 +4362,258 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         }
     }
 
+    @Test
+    public void testCompositeIndexLookupOfManyValues() {
+        makeVertexIndexedKey("sku", String.class);
+        finishSchema();
+
+        int numVertices = 500;
+        for (int i = 0; i < numVertices; i++) {
+            tx.addVertex("sku", "sku" + i);
+        }
+        newTx();
+
+        //Spans several multi-key batches, including values without matches
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < numVertices + 100; i++) {
+            skus.add("sku" + i);
+        }
+        assertEquals(numVertices, tx.traversal().V().has("sku", P.within(skus)).count().next().longValue());
+        Set<String> found = tx.traversal().V().has("sku", P.within(skus)).<String>values("sku").toSet();
+        assertEquals(numVertices, found.size());
+        assertTrue(found.contains("sku0") && found.contains("sku" + (numVertices - 1)));
+        assertEquals(10, tx.traversal().V().has("sku", P.within(skus)).limit(10).count().next().longValue());
+        assertCount(200, tx.query().has("sku", Contain.IN, skus).limit(200).vertices());
+    }
+
+    @Test
+    public void testCountFromCompositeIndex() {
+        makeVertexIndexedKey("sku", String.class);
+        PropertyKey tag = mgmt.makePropertyKey("tag").dataType(String.class).cardinality(Cardinality.LIST).make();
+        mgmt.buildIndex("byTag", Vertex.class).addKey(tag).buildCompositeIndex();
+        finishSchema();
+
+        for (int i = 0; i < 50; i++) {
+            tx.addVertex("sku", "sku" + (i % 5), "tag", "a", "tag", "b");
+        }
+        newTx();
+
+        GraphTraversalSource gts = tx.traversal();
+        assertNumStep(1, 1, gts.V().has("sku", "sku1").count(), JanusGraphCountStep.class);
+        assertEquals(10, gts.V().has("sku", "sku1").count().next().longValue());
+        assertEquals(20, gts.V().has("sku", P.within("sku1", "sku2", "unknown")).count().next().longValue());
+        assertEquals(0, gts.V().has("sku", "unknown").count().next().longValue());
+        //Vertices matching several values of a multi-valued property are only counted once
+        assertEquals(50, gts.V().has("tag", P.within("a", "b")).count().next().longValue());
+        //Queries answered by more than one index are counted on the retrieved vertices
+        assertEquals(10, gts.V().has("sku", "sku1").has("tag", "a").count().next().longValue());
+        assertEquals(5, gts.V().has("sku", "sku1").limit(5).count().next().longValue());
+
+        //Modifications of the transaction are not reflected by the index
+        tx.addVertex("sku", "sku1");
+        gts.V().has("sku", "sku2").limit(1).next().remove();
+        assertEquals(11, gts.V().has("sku", "sku1").count().next().longValue());
+        assertEquals(9, gts.V().has("sku", "sku2").count().next().longValue());
+        newTx();
+        assertEquals(11, tx.traversal().V().has("sku", "sku1").count().next().longValue());
+        assertEquals(9, tx.traversal().V().has("sku", "sku2").count().next().longValue());
+    }
+
+    private static Stream<Arguments> generateParametersTestVertexCentricCount() {
+        return Arrays.stream(new Arguments[]{arguments(false), arguments(true)});
+    }
+
+    @ParameterizedTest
+    @MethodSource("generateParametersTestVertexCentricCount")
+    public void testVertexCentricCount(boolean useMultiQuery) {
+        clopen(option(USE_MULTIQUERY), useMultiQuery);
+        mgmt.makeEdgeLabel("follows").make();
+        makeKey("weight", Integer.class);
+        finishSchema();
+
+        JanusGraphVertex hub = tx.addVertex();
+        JanusGraphVertex other = tx.addVertex();
+        for (int i = 0; i < 100; i++) {
+            hub.addEdge("follows", tx.addVertex(), "weight", i % 10);
+        }
+        other.addEdge("follows", hub);
+        hub.addEdge("follows", hub);
+        newTx();
+
+        GraphTraversalSource gts = tx.traversal();
+        assertNumStep(1, 1, gts.V(hub).outE("follows").count(), JanusGraphVertexStep.class);
+        assertEquals(101, gts.V(hub).outE("follows").count().next().longValue());
+        assertEquals(101, gts.V(hub).out("follows").count().next().longValue());
+        assertEquals(2, gts.V(hub).in("follows").count().next().longValue());
+        assertEquals(10, gts.V(hub).outE("follows").has("weight", 3).count().next().longValue());
+        assertEquals(0, gts.V(other).in("follows").count().next().longValue());
+        assertEquals(102, gts.V(hub, other).outE("follows").count().next().longValue());
+        assertEquals(5, gts.V(hub).outE("follows").limit(5).count().next().longValue());
+        assertEquals(101, getV(tx, hub).query().direction(OUT).labels("follows").edgeCount());
+        assertEquals(Iterables.size(getV(tx, hub).query().direction(BOTH).labels("follows").edges()),
+            getV(tx, hub).query().direction(BOTH).labels("follows").edgeCount());
+        Map<JanusGraphVertex, Long> counts = tx.multiQuery(getV(tx, hub), getV(tx, other)).direction(IN).labels("follows").edgeCount();
+        assertEquals(2, counts.get(getV(tx, hub)).longValue());
+        assertEquals(0, counts.get(getV(tx, other)).longValue());
+
+        //Modifications of the transaction are counted
+        hub = getV(tx, hub);
+        hub.addEdge("follows", tx.addVertex());
+        hub.addEdge("follows", tx.addVertex());
+        hub.query().direction(OUT).labels("follows").edges().iterator().next().remove();
+        assertEquals(102, tx.traversal().V(hub).outE("follows").count().next().longValue());
+        assertEquals(102, hub.query().direction(OUT).labels("follows").edgeCount());
+    }
+
+    @Test
+    public void testPropertyProjectionPrefetching() {
+        makeVertexIndexedKey("sku", String.class);
+        makeKey("name", String.class);
+        makeKey("age", Integer.class);
+        mgmt.makeEdgeLabel("follows").make();
+        finishSchema();
+
+        //Neither the graph step nor the vertex step prefetch properties if projected property prefetching is disabled
+        clopen(option(PROJECTED_PROPERTY_PREFETCHING), false);
+        Object hubId = addPropertyProjectionData();
+        GraphTraversalSource gts = graph.traversal();
+        Traversal t = gts.V().has("sku", "even").values("name", "age").profile("~metrics");
+        assertEquals(100, Iterators.size(t));
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+        t = gts.V(hubId).out("follows").values("age").profile("~metrics");
+        assertEquals(100, Iterators.size(t));
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        gts.V().drop().iterate();
+        gts.tx().commit();
+        clopen(option(PROJECTED_PROPERTY_PREFETCHING), true);
+        hubId = addPropertyProjectionData();
+        gts = graph.traversal();
+
+        //Projected properties are prefetched without batch property prefetching
+        t = gts.V().has("sku", "even").values("name", "age").profile("~metrics");
+        assertEquals(100, Iterators.size(t));
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+        assertEquals(2450, gts.V().has("sku", "even").values("age").sum().next().intValue());
+        assertEquals(50, gts.V().has("sku", "even").values("name").toSet().size());
+        assertEquals(3, gts.V().has("sku", "even").values("name").limit(3).toList().size());
+        //Vertices retrieved by id, the hub has no properties
+        assertEquals(2, gts.V(hubId, gts.V().has("name", "n1").next().id()).values("name", "age").count().next().intValue());
+        List<Map<Object, Object>> maps = gts.V().has("sku", "odd").valueMap("name", "age").toList();
+        assertEquals(50, maps.size());
+        assertTrue(maps.stream().allMatch(m -> m.size() == 2));
+        assertTrue(gts.V().has("sku", "odd").valueMap().toList().stream().allMatch(m -> m.size() == 3));
+        gts.tx().rollback();
+
+        //All projected keys of a vertex are retrieved with one slice
+        final Object hub = hubId;
+        assertEquals(getEdgeStoreSlices(g -> g.V(hub).out("follows").values("name")),
+            getEdgeStoreSlices(g -> g.V(hub).out("follows").values("name", "age")));
+        assertEquals(getEdgeStoreSlices(g -> g.V().values("name")), getEdgeStoreSlices(g -> g.V().values("name", "age")));
+
+        t = gts.V(hubId).out("follows").values("age").profile("~metrics");
+        assertEquals(100, Iterators.size(t));
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIQUERY_ANNOTATION));
+        assertEquals(4950, gts.V(hubId).out("follows").values("age").sum().next().intValue());
+        maps = gts.V(hubId).out("follows").valueMap("name", "age").toList();
+        assertEquals(100, maps.size());
+        assertTrue(maps.stream().allMatch(m -> m.size() == 2));
+
+        //All properties are prefetched for a valueMap() without keys
+        t = gts.V(hubId).out("follows").valueMap().profile("~metrics");
+        assertEquals(100, Iterators.size(t));
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+        assertTrue(gts.V(hubId).out("follows").valueMap().toList().stream().allMatch(m -> m.size() == 3));
+
+        //Modifications of the transaction are reflected
+        gts.V().has("name", "n0").next().property("name", "changed");
+        assertTrue(gts.V().has("sku", "even").values("name").toSet().contains("changed"));
+        Set<Object> names = gts.V(hubId).out("follows").values("name").toSet();
+        assertTrue(names.contains("changed"));
+        assertFalse(names.contains("n0"));
+        gts.tx().rollback();
+    }
+
+    private long getEdgeStoreSlices(Function<GraphTraversalSource, GraphTraversal<?, ?>> traversal) {
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) graph.newTransaction();
+        try {
+            long slices = tx.getBackendCosts().getEdgeStoreSlices();
+            traversal.apply(tx.traversal()).iterate();
+            return tx.getBackendCosts().getEdgeStoreSlices() - slices;
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    private Object addPropertyProjectionData() {
+        JanusGraphVertex hub = tx.addVertex();
+        for (int i = 0; i < 100; i++) {
+            JanusGraphVertex v = tx.addVertex("sku", i % 2 == 0 ? "even" : "odd", "name", "n" + i, "age", i);
+            hub.addEdge("follows", v);
+        }
+        newTx();
+        return hub.id();
+    }
+
+    @Test
+    public void testTraversalPlanCache() {
+        makeVertexIndexedKey("sku", String.class);
+        makeKey("age", Integer.class);
+        mgmt.makeEdgeLabel("follows").make();
+        finishSchema();
+
+        JanusGraphVertex hub = tx.addVertex();
+        for (int i = 0; i < 10; i++) {
+            JanusGraphVertex v = tx.addVertex("sku", "s" + (i % 2), "age", i);
+            hub.addEdge("follows", v);
+        }
+        newTx();
+
+        TraversalPlanCache cache = graph.getTraversalPlanCache();
+        cache.invalidate();
+        GraphTraversalSource gts = tx.traversal();
+        Bindings b = Bindings.instance();
+
+        //Traversals of the same shape share a single plan into which the bound values are rebound
+        GraphTraversal<Vertex, Object> t = gts.V().has("sku", b.of("sku", "s0")).values("age");
+        assertEquals(Sets.newHashSet(0, 2, 4, 6, 8), t.toSet());
+        assertTrue(t.asAdmin().getStartStep() instanceof JanusGraphStep);
+        t = gts.V().has("sku", b.of("sku", "s1")).values("age");
+        assertEquals(Sets.newHashSet(1, 3, 5, 7, 9), t.toSet());
+        assertTrue(t.asAdmin().getStartStep() instanceof JanusGraphStep);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.hitCount());
+
+        for (int age = 0; age < 12; age++) {
+            assertEquals(age < 10 ? 1L : 0L, gts.V(b.of("hub", hub.id())).out("follows").has("age", b.of("age", age)).count().next());
+        }
+        assertEquals(2, cache.size());
+        assertEquals(12, cache.hitCount());
+
+        //Variables which are not used by has conditions or as ids are part of the cache key
+        for (long limit = 1; limit <= 3; limit++) {
+            assertEquals(limit, gts.V().has("sku", "s0").limit(b.of("limit", limit)).toList().size());
+        }
+        assertEquals(5, cache.size());
+
+        //Traversals with lambdas are not cached
+        assertEquals(5, gts.V().has("sku", "s0").filter(v -> true).count().next().longValue());
+        assertEquals(5, cache.size());
+
+        //Traversals started from the graph rather than from a transaction are cached alike
+        assertEquals(Sets.newHashSet(0, 2, 4, 6, 8), graph.traversal().V().has("sku", b.of("sku", "s0")).values("age").toSet());
+        assertEquals(Sets.newHashSet(1, 3, 5, 7, 9), graph.traversal().V().has("sku", b.of("sku", "s1")).values("age").toSet());
+        assertEquals(14, cache.hitCount());
+        graph.tx().rollback();
+
+        //Schema changes invalidate the cache
+        mgmt = graph.openManagement();
+        mgmt.changeName(mgmt.getEdgeLabel("follows"), "likes");
+        mgmt.commit();
+        assertEquals(0, cache.size());
+    }
+
     @Test
     public void testLimitWithMixedIndexCoverage() {
         String key1 = "vt";
@@ -0,0 +1,133 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage;
+
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.indexing.IndexTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BackendTransactionTest {
+
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+
+    @Test
+    public void testIndexesCommitConcurrently() throws Exception {
+        final CountDownLatch allCommitting = new CountDownLatch(2);
+        final Map<String, IndexTransaction> indexTx = new HashMap<>();
+        for (String index : new String[]{"search", "lucene"}) {
+            final IndexTransaction itx = mock(IndexTransaction.class);
+            doAnswer(invocation -> {
+                allCommitting.countDown();
+                // Only succeeds if the other index is committed at the same time
+                assertTrue(allCommitting.await(10, TimeUnit.SECONDS));
+                return null;
+            }).when(itx).commit();
+            indexTx.put(index, itx);
+        }
+
+        final Map<String, Throwable> failures = newTransaction(indexTx).commitIndexes();
+        assertTrue(failures.isEmpty(), failures.toString());
+        for (IndexTransaction itx : indexTx.values()) verify(itx).commit();
+    }
+
+    @Test
+    public void testIndexCommitFailuresAreCollectedPerIndex() throws Exception {
+        final BackendException failure = new TemporaryBackendException("index unavailable");
+        final IndexTransaction failing = mock(IndexTransaction.class);
+        doThrow(failure).when(failing).commit();
+        final IndexTransaction succeeding = mock(IndexTransaction.class);
+        final Map<String, IndexTransaction> indexTx = new HashMap<>();
+        indexTx.put("failing", failing);
+        indexTx.put("succeeding", succeeding);
+
+        final Map<String, Throwable> failures = newTransaction(indexTx).commitIndexes();
+        assertEquals(1, failures.size());
+        assertSame(failure, failures.get("failing"));
+        verify(succeeding).commit();
+    }
+
+    @Test
+    public void testAsyncReadRetriesTemporaryFailures() throws Exception {
+        final KeySliceQuery query = new KeySliceQuery(BufferUtil.getLongBuffer(1), BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(1));
+        final EntryList entries = EntryList.EMPTY_LIST;
+        final KCVSCache edgeStore = mock(KCVSCache.class);
+        when(edgeStore.getSliceAsync(eq(query), any()))
+            .thenReturn(failedFuture(new TemporaryBackendException("timeout")))
+            .thenReturn(CompletableFuture.completedFuture(entries));
+
+        final BackendTransaction tx = new BackendTransaction(null, null, null, edgeStore, null, null,
+            Duration.ofSeconds(10), new HashMap<>(), threadPool);
+        assertSame(entries, tx.edgeStoreQueryAsync(query).get(10, TimeUnit.SECONDS));
+        verify(edgeStore, times(2)).getSliceAsync(eq(query), any());
+        assertEquals(1, tx.getCosts().getEdgeStoreSlices());
+    }
+
+    @Test
+    public void testAsyncReadFailsOnPermanentFailure() throws Exception {
+        final KeySliceQuery query = new KeySliceQuery(BufferUtil.getLongBuffer(1), BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(1));
+        final KCVSCache indexStore = mock(KCVSCache.class);
+        when(indexStore.getSliceAsync(eq(query), any())).thenReturn(failedFuture(new PermanentBackendException("invalid")));
+
+        final BackendTransaction tx = new BackendTransaction(null, null, null, null, indexStore, null,
+            Duration.ofSeconds(10), new HashMap<>(), threadPool);
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> tx.indexQueryAsync(query).get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof JanusGraphException);
+        assertTrue(e.getCause().getCause() instanceof PermanentBackendException);
+        verify(indexStore).getSliceAsync(eq(query), any());
+        assertEquals(0, tx.getCosts().getIndexStoreSlices());
+    }
+
+    private static <V> CompletableFuture<V> failedFuture(Throwable failure) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        future.completeExceptionally(failure);
+        return future;
+    }
+
+    private BackendTransaction newTransaction(Map<String, IndexTransaction> indexTx) {
+        return new BackendTransaction(null, null, null, null, null, null, null, indexTx, threadPool);
+    }
+}
@@ -0,0 +1,42 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.inmemory;
+
+import org.janusgraph.diskstorage.KeyColumnValueStoreTest;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.util.DeflateCompression;
+
+import java.util.Collections;
+import java.util.zip.Deflater;
+
+public class InMemoryCompressedKeyColumnValueStoreTest extends KeyColumnValueStoreTest {
+
+    @Override
+    public KeyColumnValueStoreManager openStorageManager() {
+        return new CompressionKCVSManager(new InMemoryStoreManager(),
+            new DeflateCompression(Deflater.BEST_SPEED, 0, Collections.emptyList()), storeName);
+    }
+
+    @Override
+    public void clopen() {
+        //Do nothing
+    }
+
+    @Override
+    public void testClearStorage() {}
+
+}
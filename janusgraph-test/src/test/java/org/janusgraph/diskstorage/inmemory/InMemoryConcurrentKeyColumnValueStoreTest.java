@@ -0,0 +1,120 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.inmemory;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.KeyColumnValueStoreTest;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryConcurrentKeyColumnValueStoreTest extends KeyColumnValueStoreTest {
+
+    @Override
+    public KeyColumnValueStoreManager openStorageManager() {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.INMEMORY_CONCURRENT_ROWS, true);
+        return new InMemoryStoreManager(config);
+    }
+
+    @Override
+    public void clopen() {
+        //Do nothing
+    }
+
+    @Override
+    public void testClearStorage() {}
+
+    @Test
+    public void testConcurrentMutationsOfSameRow() throws Exception {
+        final int numWriters = 8, numMutations = 500;
+        final StaticBuffer key = BufferUtil.getLongBuffer(1);
+        final KeySliceQuery query = new KeySliceQuery(key, BufferUtil.zeroBuffer(8), BufferUtil.oneBuffer(8));
+        final ExecutorService executor = Executors.newFixedThreadPool(numWriters + 1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            //Every snapshot read must contain both or none of the columns written by a single mutation
+            Future<Integer> reader = executor.submit(() -> {
+                int reads = 0;
+                while (writing.get()) {
+                    EntryList entries = store.getSlice(query, tx);
+                    assertEquals(0, entries.size() % 2);
+                    for (int i = 0; i < entries.size(); i += 2) {
+                        assertEquals(entries.get(i).getColumn().getLong(0) + 1, entries.get(i + 1).getColumn().getLong(0));
+                    }
+                    reads++;
+                }
+                return reads;
+            });
+            List<Future<?>> writers = new ArrayList<>(numWriters);
+            for (int w = 0; w < numWriters; w++) {
+                final int writer = w;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < numMutations; i++) {
+                        long column = 2L * (writer * numMutations + i);
+                        store.mutate(key, Arrays.asList(getEntry(column), getEntry(column + 1)), KeyColumnValueStore.NO_DELETIONS, tx);
+                        if (i % 10 == 0) {
+                            store.mutate(key, KeyColumnValueStore.NO_ADDITIONS, Arrays.asList(getColumn(column), getColumn(column + 1)), tx);
+                            store.mutate(key, Arrays.asList(getEntry(column), getEntry(column + 1)), KeyColumnValueStore.NO_DELETIONS, tx);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) writer.get();
+            writing.set(false);
+            assertTrue(reader.get() > 0);
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        EntryList entries = store.getSlice(query, tx);
+        assertEquals(2 * numWriters * numMutations, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i, entries.get(i).getColumn().getLong(0));
+            assertEquals(i, entries.get(i).getValue().getLong(0));
+        }
+    }
+
+    private static StaticBuffer getColumn(long column) {
+        return BufferUtil.getLongBuffer(column);
+    }
+
+    private static Entry getEntry(long column) {
+        return StaticArrayEntry.of(getColumn(column), BufferUtil.getLongBuffer(column));
+    }
+}
@@ -0,0 +1,200 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.inmemory;
+
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.diskstorage.AbstractKCVSTest;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemorySnapshotTest extends AbstractKCVSTest {
+
+    private static final String[] STORES = {"edgestore", "graphindex", "empty"};
+    private static final int NUM_ROWS = 2000, NUM_COLUMNS = 40;
+
+    @Test
+    public void testSnapshotAndRestore(@TempDir Path dir) throws BackendException {
+        testSnapshotAndRestore(dir.resolve("snapshot"), false, false);
+    }
+
+    @Test
+    public void testCompressedSnapshotAndRestore(@TempDir Path dir) throws BackendException {
+        testSnapshotAndRestore(dir.resolve("snapshot"), true, false);
+    }
+
+    @Test
+    public void testRestoreConcurrentRows(@TempDir Path dir) throws BackendException {
+        testSnapshotAndRestore(dir.resolve("snapshot"), false, true);
+    }
+
+    private void testSnapshotAndRestore(Path file, boolean compress, boolean concurrentRows) throws BackendException {
+        InMemoryStoreManager manager = new InMemoryStoreManager();
+        load(manager);
+        manager.snapshot(file, compress);
+        manager.close();
+
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.INMEMORY_CONCURRENT_ROWS, concurrentRows);
+        InMemoryStoreManager restored = new InMemoryStoreManager(config);
+        restored.restore(file, 4);
+        verify(restored);
+        restored.close();
+    }
+
+    @Test
+    public void testSnapshotOnClose(@TempDir Path dir) throws BackendException {
+        Path file = dir.resolve("snapshot");
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_FILE, file.toString());
+        config.set(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_ON_CLOSE, true);
+        config.set(GraphDatabaseConfiguration.INMEMORY_SNAPSHOT_COMPRESSION, true);
+
+        InMemoryStoreManager manager = new InMemoryStoreManager(config);
+        assertFalse(manager.exists());
+        load(manager);
+        manager.close();
+        assertTrue(Files.exists(file));
+        //Closing again must not overwrite the snapshot with the now empty stores
+        manager.close();
+
+        manager = new InMemoryStoreManager(config);
+        assertTrue(manager.exists());
+        verify(manager);
+
+        manager.clearStorage();
+        assertFalse(Files.exists(file));
+        manager.close();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testGraphSnapshotOnClose(@TempDir Path dir) {
+        final Path file = dir.resolve("snapshot");
+        JanusGraph graph = openGraph(file);
+        JanusGraphTransaction tx = graph.newTransaction();
+        for (int i = 0; i < 100; i++) {
+            tx.addVertex("name", "v" + i);
+        }
+        tx.commit();
+        //Closing the graph closes all stores before the store manager writes the snapshot
+        graph.close();
+        assertTrue(Files.exists(file));
+
+        graph = openGraph(file);
+        try {
+            assertEquals(100L, graph.traversal().V().count().next().longValue());
+            assertEquals(1L, graph.traversal().V().has("name", "v42").count().next().longValue());
+            graph.traversal().addV().property("name", "v100").iterate();
+            graph.tx().commit();
+        } finally {
+            graph.close();
+        }
+
+        graph = openGraph(file);
+        try {
+            assertEquals(101L, graph.traversal().V().count().next().longValue());
+        } finally {
+            graph.close();
+        }
+    }
+
+    private static JanusGraph openGraph(Path file) {
+        return JanusGraphFactory.build()
+            .set("storage.backend", "inmemory")
+            .set("storage.inmemory.snapshot-file", file.toString())
+            .set("storage.inmemory.snapshot-on-close", true)
+            .open();
+    }
+
+    @Test
+    public void testRestoreInvalidSnapshot(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("snapshot");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(PermanentBackendException.class, () -> new InMemoryStoreManager().restore(file, 1));
+    }
+
+    private void load(InMemoryStoreManager manager) throws BackendException {
+        StoreTransaction tx = manager.beginTransaction(getTxConfig());
+        for (String name : STORES) {
+            KeyColumnValueStore store = manager.openDatabase(name);
+            if (name.equals("empty")) continue;
+            for (int row = 0; row < NUM_ROWS; row++) {
+                store.mutate(getKey(row), getEntries(name, row), KeyColumnValueStore.NO_DELETIONS, tx);
+            }
+            //Deleted rows remain as empty rows in the store and are not part of the snapshot
+            store.mutate(getKey(NUM_ROWS), getEntries(name, NUM_ROWS), KeyColumnValueStore.NO_DELETIONS, tx);
+            List<StaticBuffer> deletions = new ArrayList<>();
+            for (Entry entry : getEntries(name, NUM_ROWS)) deletions.add(entry.getColumn());
+            store.mutate(getKey(NUM_ROWS), KeyColumnValueStore.NO_ADDITIONS, deletions, tx);
+        }
+        tx.commit();
+    }
+
+    private void verify(InMemoryStoreManager manager) throws BackendException {
+        StoreTransaction tx = manager.beginTransaction(getTxConfig());
+        for (String name : STORES) {
+            KeyColumnValueStore store = manager.openDatabase(name);
+            for (int row = 0; row <= NUM_ROWS; row++) {
+                EntryList entries = store.getSlice(new KeySliceQuery(getKey(row), BufferUtil.zeroBuffer(8), BufferUtil.oneBuffer(8)), tx);
+                List<Entry> expected = name.equals("empty") || row == NUM_ROWS ? new ArrayList<>() : getEntries(name, row);
+                assertEquals(expected.size(), entries.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i), entries.get(i));
+                    assertEquals(expected.get(i).getValue(), entries.get(i).getValue());
+                }
+            }
+        }
+        tx.commit();
+    }
+
+    private static StaticBuffer getKey(int row) {
+        return BufferUtil.getIntBuffer(row);
+    }
+
+    private static List<Entry> getEntries(String store, int row) {
+        List<Entry> entries = new ArrayList<>(NUM_COLUMNS);
+        for (int column = 0; column < NUM_COLUMNS; column++) {
+            long value = (long) store.hashCode() * row + column;
+            entries.add(StaticArrayEntry.of(BufferUtil.getLongBuffer(column), BufferUtil.getLongBuffer(value)));
+        }
+        return entries;
+    }
+}
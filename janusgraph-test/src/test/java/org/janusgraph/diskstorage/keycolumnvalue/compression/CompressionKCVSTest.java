@@ -0,0 +1,140 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.DeflateCompression;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompressionKCVSTest {
+
+    private final DeflateCompression compression = new DeflateCompression(Deflater.BEST_SPEED, 0, Collections.emptyList());
+    private final StaticBuffer key = BufferUtil.getLongBuffer(1);
+    private final StaticBuffer column = BufferUtil.getLongBuffer(2);
+    private final StaticBuffer value = StaticArrayBuffer.of(
+        String.join(",", Collections.nCopies(20, "a repetitive value")).getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    public void testReadValuesWrittenWithoutCompression() throws BackendException {
+        InMemoryStoreManager manager = new InMemoryStoreManager();
+        StoreTransaction tx = manager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+        KeyColumnValueStore store = manager.openDatabase("store");
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(StaticArrayEntry.of(BufferUtil.getLongBuffer(i), i % 2 == 0 ? value : BufferUtil.getLongBuffer(i)));
+        }
+        store.mutate(key, entries, Collections.emptyList(), tx);
+
+        CompressionKCVS compressed = new CompressionKCVS(store, compression);
+        KeySliceQuery query = new KeySliceQuery(key, BufferUtil.zeroBuffer(8), BufferUtil.oneBuffer(8));
+        assertEquals(StaticArrayEntryList.of(entries), compressed.getSlice(query, tx));
+
+        //New values are compressed and both kinds are read back
+        Entry added = StaticArrayEntry.of(BufferUtil.getLongBuffer(100), value);
+        compressed.mutate(key, Collections.singletonList(added), Collections.emptyList(), tx);
+        assertNotEquals(value, store.getSlice(new KeySliceQuery(key, added.getColumn(), BufferUtil.nextBiggerBuffer(added.getColumn())), tx).get(0).getValue());
+        entries.add(added);
+        assertEquals(StaticArrayEntryList.of(entries), compressed.getSlice(query, tx));
+        manager.close();
+    }
+
+    @Test
+    public void testLockComparesDecompressedValues() throws BackendException {
+        StoreTransaction tx = mock(StoreTransaction.class);
+        StaticBuffer compressedValue = compression.compress(value);
+        assertNotEquals(value, compressedValue);
+
+        //Value written before compression was enabled
+        KeyColumnValueStore store = storeWith(value);
+        new CompressionKCVS(store, compression).acquireLock(key, column, value, tx);
+        verify(store).acquireLock(key, column, value, tx);
+
+        //Value written with compression, the store locks against the stored value
+        store = storeWith(compressedValue);
+        new CompressionKCVS(store, compression).acquireLock(key, column, value, tx);
+        verify(store).acquireLock(key, column, compressedValue, tx);
+
+        //Mismatch and missing value
+        KeyColumnValueStore mismatching = storeWith(compression.compress(BufferUtil.getLongBuffer(42)));
+        assertThrows(PermanentLockingException.class, () -> new CompressionKCVS(mismatching, compression).acquireLock(key, column, value, tx));
+        verify(mismatching, never()).acquireLock(any(), any(), any(), any());
+        KeyColumnValueStore missing = storeWith(null);
+        assertThrows(PermanentLockingException.class, () -> new CompressionKCVS(missing, compression).acquireLock(key, column, value, tx));
+
+        //No expected value is passed through
+        new CompressionKCVS(missing, compression).acquireLock(key, column, null, tx);
+        verify(missing).acquireLock(key, column, null, tx);
+    }
+
+    @Test
+    public void testValuesCompressedWithMissingDictionaryFail() throws BackendException {
+        StoreTransaction tx = mock(StoreTransaction.class);
+        byte[] dictionary = "a repetitive value,".getBytes(StandardCharsets.UTF_8);
+        StaticBuffer compressedValue = new DeflateCompression(Deflater.BEST_SPEED, 0,
+            Collections.singletonList(dictionary)).compress(value);
+        KeyColumnValueStore store = storeWith(compressedValue);
+        EntryList entries = StaticArrayEntryList.of(StaticArrayEntry.of(column, compressedValue));
+        when(store.getSliceAsync(any(KeySliceQuery.class), any())).thenReturn(CompletableFuture.completedFuture(entries));
+        KeySliceQuery query = new KeySliceQuery(key, BufferUtil.zeroBuffer(8), BufferUtil.oneBuffer(8));
+
+        //The compressed bytes must never be returned as if they were the value
+        CompressionKCVS compressed = new CompressionKCVS(store, compression);
+        assertThrows(PermanentBackendException.class, () -> compressed.getSlice(query, tx));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> compressed.getSliceAsync(query, tx).get());
+        assertTrue(failure.getCause() instanceof PermanentBackendException, failure.toString());
+        assertThrows(PermanentBackendException.class, () -> compressed.acquireLock(key, column, value, tx));
+    }
+
+    private KeyColumnValueStore storeWith(StaticBuffer storedValue) throws BackendException {
+        KeyColumnValueStore store = mock(KeyColumnValueStore.class);
+        EntryList entries = storedValue == null ? EntryList.EMPTY_LIST : StaticArrayEntryList.of(StaticArrayEntry.of(column, storedValue));
+        when(store.getSlice(any(KeySliceQuery.class), any())).thenReturn(entries);
+        return store;
+    }
+}
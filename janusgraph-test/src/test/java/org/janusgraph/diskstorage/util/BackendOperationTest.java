@@ -0,0 +1,116 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackendOperationTest {
+
+    @Test
+    public void testAsyncRetriesTemporaryFailures() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = BackendOperation.executeAsync(failing(attempts, 2,
+            () -> new TemporaryBackendException("temporary")), Duration.ofSeconds(10));
+        assertEquals("done", result.get(10, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testAsyncFailsOnPermanentFailure() {
+        final AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = BackendOperation.executeAsync(failing(attempts, 2,
+            () -> new PermanentBackendException("permanent")), Duration.ofSeconds(10));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof PermanentBackendException);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testAsyncWrapsUnexpectedFailure() {
+        final AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = BackendOperation.executeAsync(failing(attempts, 1,
+            () -> new IllegalStateException("unexpected")), Duration.ofSeconds(10));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof PermanentBackendException);
+        assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testAsyncGivesUpAfterTotalWaitTime() {
+        final AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = BackendOperation.executeAsync(failing(attempts, Integer.MAX_VALUE,
+            () -> new TemporaryBackendException("temporary")), Duration.ofMillis(500));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TemporaryBackendException);
+        assertTrue(attempts.get() > 1);
+    }
+
+    @Test
+    public void testAsyncBlockedRetryDoesNotDelayOtherRetries() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final AtomicInteger blockedAttempts = new AtomicInteger();
+        CompletableFuture<String> blocked = BackendOperation.executeAsync(() -> {
+            if (blockedAttempts.incrementAndGet() == 1) {
+                final CompletableFuture<String> result = new CompletableFuture<>();
+                result.completeExceptionally(new TemporaryBackendException("temporary"));
+                return result;
+            }
+            //A blocking store, such as the default of getSliceAsync, reads in the thread which starts the attempt
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture("unblocked");
+        }, Duration.ofSeconds(10));
+        try {
+            final AtomicInteger attempts = new AtomicInteger();
+            CompletableFuture<String> result = BackendOperation.executeAsync(failing(attempts, 2,
+                () -> new TemporaryBackendException("temporary")), Duration.ofSeconds(10));
+            assertEquals("done", result.get(10, TimeUnit.SECONDS));
+            assertFalse(blocked.isDone());
+        } finally {
+            unblock.countDown();
+        }
+        assertEquals("unblocked", blocked.get(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Returns an operation which fails with the given exception for the given number of attempts and succeeds after.
+     */
+    private static Supplier<CompletableFuture<String>> failing(AtomicInteger attempts, int failures, Supplier<Exception> exception) {
+        return () -> {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            if (attempts.incrementAndGet() <= failures) result.completeExceptionally(exception.get());
+            else result.complete("done");
+            return result;
+        };
+    }
+}
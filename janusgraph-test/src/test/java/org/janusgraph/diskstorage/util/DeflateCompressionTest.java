@@ -0,0 +1,165 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeflateCompressionTest {
+
+    private static StaticBuffer value(String s) {
+        return StaticArrayBuffer.of(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String properties(int i) {
+        return "{\"name\":\"person-" + i + "\",\"city\":\"Santa Fe\",\"status\":\"active\",\"tags\":[\"customer\",\"newsletter\"]}";
+    }
+
+    @Test
+    public void testRoundTrip() throws BackendException {
+        DeflateCompression compression = new DeflateCompression(Deflater.DEFAULT_COMPRESSION, 16, Collections.emptyList());
+        StaticBuffer empty = StaticArrayBuffer.of(new byte[0]);
+        assertEquals(0, compression.compress(empty).length());
+        assertEquals(empty, compression.decompress(compression.compress(empty)));
+
+        StaticBuffer small = value("tiny");
+        StaticBuffer compressedSmall = compression.compress(small);
+        assertEquals(small, compressedSmall);
+        assertEquals(small, compression.decompress(compressedSmall));
+
+        StaticBuffer large = value(String.join(",", Collections.nCopies(50, properties(1))));
+        StaticBuffer compressedLarge = compression.compress(large);
+        assertEquals(DeflateCompression.MARKER, compressedLarge.getByte(0));
+        assertEquals(DeflateCompression.VERSION, compressedLarge.getByte(1));
+        assertTrue(compressedLarge.length() < large.length() / 4);
+        assertEquals(large, compression.decompress(compressedLarge));
+    }
+
+    @Test
+    public void testIncompressibleValuesAreStoredRaw() throws BackendException {
+        DeflateCompression compression = new DeflateCompression(Deflater.BEST_COMPRESSION, 0, Collections.emptyList());
+        byte[] random = new byte[256];
+        new Random(42).nextBytes(random);
+        random[0] = 0;
+        StaticBuffer compressed = compression.compress(StaticArrayBuffer.of(random));
+        assertEquals(StaticArrayBuffer.of(random), compressed);
+        assertEquals(StaticArrayBuffer.of(random), compression.decompress(compressed));
+
+        for (int length = 1; length < 4; length++) {
+            StaticBuffer tiny = StaticArrayBuffer.of(Arrays.copyOf(random, length));
+            assertEquals(tiny, compression.compress(tiny));
+        }
+    }
+
+    @Test
+    public void testValuesStartingWithMarker() throws BackendException {
+        DeflateCompression compression = new DeflateCompression(Deflater.BEST_SPEED, 64, Collections.emptyList());
+        Random random = new Random(7);
+        for (int length = 1; length < 300; length += 7) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            bytes[0] = DeflateCompression.MARKER;
+            if (length > 1) bytes[1] = DeflateCompression.VERSION;
+            StaticBuffer value = StaticArrayBuffer.of(bytes);
+            StaticBuffer compressed = compression.compress(value);
+            assertNotEquals(value, compressed);
+            assertEquals(value, compression.decompress(compressed));
+        }
+    }
+
+    @Test
+    public void testLegacyValuesAreReadAsIs() throws BackendException {
+        DeflateCompression compression = new DeflateCompression(Deflater.BEST_SPEED, 0, Collections.emptyList());
+
+        //Values written before compression was enabled which start with the marker but are not followed by a zlib stream
+        List<StaticBuffer> legacy = new ArrayList<>();
+        legacy.add(StaticArrayBuffer.of(new byte[]{DeflateCompression.MARKER}));
+        legacy.add(StaticArrayBuffer.of(new byte[]{DeflateCompression.MARKER, DeflateCompression.VERSION}));
+        legacy.add(StaticArrayBuffer.of(new byte[]{DeflateCompression.MARKER, DeflateCompression.VERSION, 5}));
+        legacy.add(StaticArrayBuffer.of(new byte[]{DeflateCompression.MARKER, DeflateCompression.VERSION, 0x7F, 0x7F}));
+        legacy.add(StaticArrayBuffer.of(new byte[]{DeflateCompression.MARKER, DeflateCompression.VERSION, (byte) 0x85, 0x78, 0x02}));
+        Random random = new Random(13);
+        for (int i = 0; i < 1000; i++) {
+            byte[] r = new byte[1 + random.nextInt(100)];
+            random.nextBytes(r);
+            r[0] = DeflateCompression.MARKER;
+            if (r.length > 1) r[1] = DeflateCompression.VERSION;
+            //A one byte length which is not followed by a zlib header
+            if (r.length > 2) r[2] |= (byte) 0x80;
+            if (r.length > 3) r[3] = 0x7F;
+            legacy.add(StaticArrayBuffer.of(r));
+        }
+        for (StaticBuffer value : legacy) {
+            assertEquals(value, compression.decompress(value));
+        }
+    }
+
+    @Test
+    public void testCorruptValuesFail() {
+        DeflateCompression compression = new DeflateCompression(Deflater.BEST_SPEED, 0, Collections.emptyList());
+        StaticBuffer compressed = compression.compress(value(String.join(",", Collections.nCopies(20, properties(1)))));
+        byte[] bytes = compressed.as(StaticBuffer.ARRAY_FACTORY);
+
+        List<StaticBuffer> corrupt = new ArrayList<>();
+        corrupt.add(StaticArrayBuffer.of(Arrays.copyOf(bytes, bytes.length - 1)));
+        corrupt.add(StaticArrayBuffer.of(Arrays.copyOf(bytes, bytes.length + 1)));
+        byte[] corrupted = bytes.clone();
+        corrupted[corrupted.length / 2] ^= 0x55;
+        corrupt.add(StaticArrayBuffer.of(corrupted));
+        byte[] wrongLength = bytes.clone();
+        wrongLength[2]++;
+        corrupt.add(StaticArrayBuffer.of(wrongLength));
+        for (StaticBuffer value : corrupt) {
+            assertThrows(PermanentBackendException.class, () -> compression.decompress(value));
+        }
+    }
+
+    @Test
+    public void testTrainedDictionary() throws BackendException {
+        List<StaticBuffer> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) samples.add(value(properties(i)));
+        byte[] dictionary = DeflateCompression.trainDictionary(samples, 1024);
+        assertTrue(dictionary.length > 0 && dictionary.length <= 1024);
+
+        DeflateCompression plain = new DeflateCompression(Deflater.DEFAULT_COMPRESSION, 0, Collections.emptyList());
+        DeflateCompression withDictionary = new DeflateCompression(Deflater.DEFAULT_COMPRESSION, 0, Collections.singletonList(dictionary));
+        StaticBuffer sample = value(properties(1000));
+        StaticBuffer compressed = withDictionary.compress(sample);
+        assertTrue(compressed.length() < plain.compress(sample).length());
+        assertEquals(sample, withDictionary.decompress(compressed));
+
+        //Values remain readable after a new dictionary has been trained, as long as the old one is still configured
+        byte[] newDictionary = DeflateCompression.trainDictionary(samples.subList(0, 10), 512);
+        DeflateCompression rotated = new DeflateCompression(Deflater.DEFAULT_COMPRESSION, 0, Arrays.asList(newDictionary, dictionary));
+        assertEquals(sample, rotated.decompress(compressed));
+        //... but not once it has been removed
+        assertThrows(PermanentBackendException.class, () -> plain.decompress(compressed));
+    }
+}
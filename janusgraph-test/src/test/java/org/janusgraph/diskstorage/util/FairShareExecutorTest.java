@@ -0,0 +1,93 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.util.stats.MetricManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FairShareExecutorTest {
+
+    private static final int POOL_SIZE = 4;
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = SharedExecutors.acquireBackendPool(POOL_SIZE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SharedExecutors.releaseBackendPool(POOL_SIZE);
+    }
+
+    @Test
+    public void testSharesAreBounded() throws InterruptedException {
+        FairShareExecutor busy = new FairShareExecutor(pool, 2, "test", "busy");
+        FairShareExecutor other = new FairShareExecutor(pool, 2, "test", "other");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busyDone = new CountDownLatch(10);
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            busy.execute(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                } finally {
+                    concurrent.decrementAndGet();
+                    busyDone.countDown();
+                }
+            });
+        }
+        assertEquals(2, busy.getRunning());
+        assertEquals(8, busy.getQueued());
+
+        //The busy share leaves threads of the pool to the other share
+        CountDownLatch otherDone = new CountDownLatch(1);
+        other.execute(otherDone::countDown);
+        assertTrue(otherDone.await(10, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertTrue(busyDone.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxConcurrent.get());
+        assertEquals(0, busy.getQueued());
+
+        assertEquals(10, MetricManager.INSTANCE.getCounter("test", "busy", FairShareExecutor.M_SHARED_POOL, FairShareExecutor.M_TASKS).getCount());
+        assertEquals(8, MetricManager.INSTANCE.getCounter("test", "busy", FairShareExecutor.M_SHARED_POOL, FairShareExecutor.M_QUEUED).getCount());
+    }
+
+    @Test
+    public void testPoolsAreSharedUntilReleased() {
+        ExecutorService acquired = SharedExecutors.acquireBackendPool(POOL_SIZE);
+        assertSame(pool, acquired);
+        SharedExecutors.releaseBackendPool(POOL_SIZE);
+        assertFalse(pool.isShutdown());
+    }
+}
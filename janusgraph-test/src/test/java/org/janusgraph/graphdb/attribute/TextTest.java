@@ -14,9 +14,12 @@
 
 package org.janusgraph.graphdb.attribute;
 
+import org.apache.commons.text.similarity.LevenshteinDistance;
 import org.janusgraph.core.attribute.Cmp;
 import org.junit.jupiter.api.Test;
 
+import java.util.regex.PatternSyntaxException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import static org.janusgraph.core.attribute.Text.*;
@@ -124,4 +127,33 @@ public class TextTest {
         assertTrue(CONTAINS_FUZZY.test(text,"surprise"));
         assertFalse(CONTAINS_FUZZY.test(text,"surppirsses"));
     }
+
+    @Test
+    public void testRegexAppliesToWholeToken() {
+        String text = "This world is full of 1funny surprises!";
+        assertTrue(CONTAINS_REGEX.test(text, "^wor.*$"));
+        assertTrue(CONTAINS_REGEX.test(text, "(?<!x)surprises"));
+        assertFalse(CONTAINS_REGEX.test(text, "orld"));
+        assertFalse(CONTAINS_REGEX.test(text, "world is"));
+        //Compiled patterns are reused across evaluations
+        for (int i = 0; i < 3; i++) {
+            assertTrue(REGEX.test("fully funny", "(fu[ln]*y) (fu[ln]*y)"));
+            assertFalse(REGEX.test("fully bunny", "(fu[ln]*y) (fu[ln]*y)"));
+        }
+        assertThrows(PatternSyntaxException.class, () -> REGEX.test(text, "wor[ld"));
+    }
+
+    @Test
+    public void testFuzzyAgreesWithLevenshteinDistance() {
+        String[] words = {"ah", "ai", "hop", "hopp", "hap", "ha", "hoopp", "full", "fill", "fullest", "fully",
+            "surprises", "surpprises", "sutprises", "surprise", "surppirsses", "sesirprus", "kitten", "sitting"};
+        for (String term : words) {
+            int maxDistance = term.length() < 3 ? 0 : term.length() < 6 ? 1 : 2;
+            for (String value : words) {
+                boolean expected = LevenshteinDistance.getDefaultInstance().apply(value, term) <= maxDistance;
+                assertEquals(expected, FUZZY.test(value, term), value + " ~ " + term);
+                assertEquals(expected, CONTAINS_FUZZY.test("a " + value + ", b", term), value + " ~ " + term);
+            }
+        }
+    }
 }
@@ -15,13 +15,26 @@
 package org.janusgraph.graphdb.inmemory;
 
 import org.janusgraph.core.JanusGraphFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.log.LogProcessorFramework;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressionKCVSManager;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -65,5 +78,61 @@ public class InMemoryConfigurationTest {
 
     }
 
+    @Test
+    public void testValueCompression() {
+        initialize(GraphDatabaseConfiguration.COMPRESSION_ENABLED, true);
+        assertTrue(graph.getBackend().getStoreManager() instanceof CompressionKCVSManager);
+
+        JanusGraphManagement mgmt = graph.openManagement();
+        PropertyKey name = mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.buildIndex("byName", Vertex.class).addKey(name).buildCompositeIndex();
+        mgmt.commit();
+
+        String description = String.join(" ", Collections.nCopies(20, "a long and repetitive description"));
+        JanusGraphTransaction tx = graph.newTransaction();
+        JanusGraphVertex v = tx.addVertex("name", "v1", "description", description);
+        v.addEdge("knows", tx.addVertex("name", "v2"), "since", 2019);
+        tx.commit();
+
+        tx = graph.newTransaction();
+        v = (JanusGraphVertex) tx.query().has("name", "v1").vertices().iterator().next();
+        assertEquals(description, v.value("description"));
+        Edge e = v.edges(Direction.OUT, "knows").next();
+        assertEquals(2019, (int) e.value("since"));
+        assertEquals("v2", e.inVertex().value("name"));
+        tx.rollback();
+    }
+
+    @Test
+    public void testSharedResources() throws InterruptedException {
+        initialize(GraphDatabaseConfiguration.SHARED_RESOURCES, true);
+        StandardJanusGraph other = (StandardJanusGraph) JanusGraphFactory.build()
+            .set("storage.backend", "inmemory")
+            .set("storage.shared-resources.enabled", true)
+            .set("log.user.read-interval", "100 ms")
+            .open();
+        try {
+            CountDownLatch received = new CountDownLatch(3);
+            LogProcessorFramework logs = JanusGraphFactory.openTransactionLog(other);
+            logs.addLogProcessor("shared").setStartTimeNow()
+                .addProcessor((tx, txId, changes) -> received.countDown()).build();
+
+            for (int i = 0; i < 3; i++) {
+                JanusGraphTransaction tx = other.buildTransaction().logIdentifier("shared").start();
+                tx.addVertex("name", "v" + i);
+                tx.commit();
+
+                JanusGraphTransaction tx2 = graph.newTransaction();
+                tx2.addVertex("name", "w" + i);
+                tx2.commit();
+            }
+            assertTrue(received.await(30, TimeUnit.SECONDS));
+            assertEquals(3, graph.traversal().V().has("name").toList().size());
+            assertEquals(3, other.traversal().V().has("name").toList().size());
+            logs.shutdown();
+        } finally {
+            other.close();
+        }
+    }
 
 }
@@ -47,4 +47,7 @@ public class InMemoryPartitionGraphTest extends JanusGraphPartitionGraphTest {
     @Override
     public void testKeyBasedGraphPartitioning() {}
 
+    @Override
+    public void testNeighborBasedGraphPartitioning() {}
+
 }
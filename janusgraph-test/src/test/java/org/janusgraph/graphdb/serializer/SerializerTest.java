@@ -94,6 +94,61 @@ public class SerializerTest extends SerializerTestCommon {
         }
     }
 
+    @Test
+    public void reusableDataOutput() throws IOException {
+        DataOutput out1 = serialize.getReusableDataOutput(8);
+        out1.putLong(1L);
+        //Nested use on the same thread must not share the buffer
+        DataOutput nested = serialize.getReusableDataOutput(8);
+        assertNotSame(out1, nested);
+        nested.putLong(2L);
+        StaticBuffer b2 = nested.getStaticBuffer();
+        StaticBuffer b1 = out1.getStaticBuffer();
+
+        DataOutput out2 = serialize.getReusableDataOutput(8);
+        assertSame(out1, out2);
+        out2.putLong(3L);
+        StaticBuffer b3 = out2.getStaticBuffer();
+
+        assertEquals(1L, b1.getLong(0));
+        assertEquals(2L, b2.getLong(0));
+        assertEquals(3L, b3.getLong(0));
+        assertEquals(8, b3.length());
+
+        //An output whose content is not retrieved can be released and handed out again
+        DataOutput failed = serialize.getReusableDataOutput(8);
+        failed.putLong(4L);
+        serialize.releaseDataOutput(failed);
+        DataOutput out3 = serialize.getReusableDataOutput(8);
+        assertSame(out1, out3);
+        out3.putLong(5L);
+        StaticBuffer b5 = out3.getStaticBuffer();
+        assertEquals(5L, b5.getLong(0));
+        assertEquals(8, b5.length());
+        //Retrieved buffers are never written to again
+        for (int i = 0; i < 10000; i++) {
+            DataOutput out = serialize.getReusableDataOutput(8);
+            out.putLong(i);
+            assertEquals(i, out.getStaticBuffer().getLong(0));
+        }
+        assertEquals(1L, b1.getLong(0));
+        assertEquals(3L, b3.getLong(0));
+        assertEquals(5L, b5.getLong(0));
+        //Retrieved buffers are exact-length copies which do not pin the reused buffer
+        for (StaticBuffer b : Arrays.asList(b1, b3, b5)) {
+            assertEquals(8, b.as(StaticBuffer.BB_FACTORY).array().length);
+        }
+        DataOutput flipped = serialize.getReusableDataOutput(8);
+        flipped.putLong(6L);
+        StaticBuffer b6 = flipped.getStaticBufferFlipBytes(0, 8);
+        assertEquals(~6L, b6.getLong(0));
+        assertEquals(8, b6.as(StaticBuffer.BB_FACTORY).array().length);
+
+        //Closing the serializer discards the output of the calling thread
+        serialize.close();
+        assertNotSame(out1, serialize.getReusableDataOutput(8));
+    }
+
     @Test
     public void classSerialization() {
         DataOutput out = serialize.getDataOutput(128);
@@ -0,0 +1,90 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.graphdb.transaction.addedrelations;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.easymock.EasyMockSupport;
+import org.janusgraph.core.RelationType;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleBufferAddedRelationsTest extends EasyMockSupport {
+
+    @Test
+    public void testViewByType() {
+        testViewByType(new SimpleBufferAddedRelations());
+    }
+
+    @Test
+    public void testConcurrentViewByType() {
+        testViewByType(new ConcurrentBufferAddedRelations());
+    }
+
+    private void testViewByType(AddedRelationsContainer container) {
+        RelationType name = createMock(RelationType.class);
+        RelationType age = createMock(RelationType.class);
+        RelationType knows = createMock(RelationType.class);
+
+        List<InternalRelation> names = new ArrayList<>();
+        List<InternalRelation> ages = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add(createRelation(name));
+            ages.add(createRelation(age));
+        }
+        replayAll();
+
+        for (int i = 0; i < 1000; i++) {
+            container.add(names.get(i));
+            container.add(ages.get(i));
+        }
+        //Remove enough relations to force the deleted buffer to be applied
+        for (int i = 0; i < 600; i++) {
+            container.remove(names.get(i));
+        }
+        List<InternalRelation> remainingNames = names.subList(600, 1000);
+
+        assertSameRelations(remainingNames, container.getView(ImmutableSet.of(name), relation -> true));
+        assertSameRelations(ages, container.getView(ImmutableList.of(age), relation -> true));
+        assertEquals(ImmutableList.of(ages.get(7)), container.getView(ImmutableSet.of(age), relation -> relation == ages.get(7)));
+        assertTrue(container.getView(ImmutableSet.of(knows), relation -> true).isEmpty());
+
+        List<InternalRelation> both = container.getView(ImmutableSet.of(name, age), relation -> true);
+        assertEquals(1400, both.size());
+        assertEquals(new HashSet<>(container.getAll()), new HashSet<>(both));
+        verifyAll();
+    }
+
+    private static void assertSameRelations(List<InternalRelation> expected, List<InternalRelation> actual) {
+        //The concurrent container does not preserve insertion order
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    private InternalRelation createRelation(RelationType type) {
+        InternalRelation relation = createMock(InternalRelation.class);
+        expect(relation.getType()).andReturn(type).anyTimes();
+        return relation;
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.stats;
+
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HdrHistogramReservoirTest {
+
+    @Test
+    public void testTailPercentiles() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(3, false);
+        for (long i = 1; i <= 100000; i++) {
+            reservoir.update(i);
+        }
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(100000, snapshot.size());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(100000, snapshot.getMax(), 100);
+        assertEquals(50000, snapshot.getMedian(), 50);
+        assertEquals(99000, snapshot.get99thPercentile(), 99);
+        assertEquals(99900, snapshot.get999thPercentile(), 100);
+        assertEquals(50000.5, snapshot.getMean(), 50);
+        //One value per bucket rather than per recorded value
+        long[] values = snapshot.getValues();
+        assertTrue(values.length > 1000 && values.length < 100000, String.valueOf(values.length));
+        for (int i = 1; i < values.length; i++) assertTrue(values[i - 1] < values[i]);
+        assertEquals(100000, values[values.length - 1], 100);
+
+        //Cumulative snapshots include all values
+        reservoir.update(1);
+        assertEquals(100001, reservoir.getSnapshot().size());
+    }
+
+    @Test
+    public void testIntervalSnapshots() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(2, true);
+        for (int i = 0; i < 100; i++) {
+            reservoir.update(1000);
+        }
+        assertEquals(100, reservoir.size());
+        Snapshot first = reservoir.getSnapshot();
+        assertEquals(100, first.size());
+        assertEquals(1000, first.getMedian(), 10);
+
+        reservoir.update(5);
+        reservoir.update(-1);
+        Snapshot second = reservoir.getSnapshot();
+        assertEquals(2, second.size());
+        assertEquals(0, second.getMin());
+        assertEquals(5, second.getMax());
+
+        Snapshot empty = reservoir.getSnapshot();
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getMax());
+        assertEquals(0.0, empty.getMean());
+    }
+
+    @Test
+    public void testMetricManagerTimers() {
+        MetricManager mgr = MetricManager.INSTANCE;
+        String name = "org.janusgraph.test.hdr";
+        Timer sampled = mgr.getTimer(name, "sampled");
+        mgr.useHdrHistograms(3, false);
+        try {
+            Timer timer = mgr.getTimer(name, "recorded");
+            assertSame(timer, mgr.getTimer(name, "recorded"));
+            assertSame(sampled, mgr.getTimer(name, "sampled"));
+            timer.update(3, TimeUnit.MILLISECONDS);
+            assertEquals(1, timer.getCount());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(3), timer.getSnapshot().getMax(), 10000);
+
+            mgr.remove(name + ".recorded");
+            Timer recreated = mgr.getTimer(name, "recorded");
+            assertNotSame(timer, recreated);
+            assertEquals(0, recreated.getCount());
+            assertTrue(mgr.getRegistry().getTimers().containsKey(name + ".recorded"));
+        } finally {
+            mgr.useDefaultHistograms();
+            mgr.remove(name + ".recorded");
+            mgr.remove(name + ".sampled");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright 2019 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.janusgraph.util.stats;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrometheusReporterTest {
+
+    @Test
+    public void testTextFormat() throws IOException {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("org.janusgraph.stores.getSlice.calls").inc(3);
+        registry.register("org.janusgraph.stores.getSlice.time",
+            new Timer(new HdrHistogramReservoir(3, false))).update(2, TimeUnit.SECONDS);
+        registry.histogram("org.janusgraph.stores.getSlice.entries-histogram").update(7);
+
+        StringWriter out = new StringWriter();
+        PrometheusReporter.write(out, registry);
+        String text = out.toString();
+
+        assertTrue(text.contains("# TYPE org_janusgraph_stores_getSlice_calls counter\norg_janusgraph_stores_getSlice_calls 3\n"), text);
+        assertTrue(text.contains("# TYPE org_janusgraph_stores_getSlice_time_seconds summary\n"), text);
+        assertTrue(text.contains("org_janusgraph_stores_getSlice_time_seconds{quantile=\"0.999\"} 2.0"), text);
+        assertTrue(text.contains("org_janusgraph_stores_getSlice_time_seconds_count 1\n"), text);
+        assertTrue(text.contains("org_janusgraph_stores_getSlice_entries_histogram{quantile=\"0.5\"} 7.0\n"), text);
+    }
+
+    @Test
+    public void testSanitize() {
+        assertEquals("org_janusgraph_log_tx_send_time", PrometheusReporter.sanitize("org.janusgraph.log.tx.send.time"));
+        assertEquals("_1a_b", PrometheusReporter.sanitize("1a-b"));
+    }
+
+    @Test
+    public void testReportToFile(@TempDir Path dir) throws IOException {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("calls").inc();
+        File output = dir.resolve("janusgraph.prom").toFile();
+        PrometheusReporter reporter = new PrometheusReporter(registry, output);
+        reporter.report();
+        assertEquals("# TYPE calls counter\ncalls 1\n", new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+        registry.counter("calls").inc();
+        reporter.report();
+        assertEquals("# TYPE calls counter\ncalls 2\n", new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+        reporter.stop();
+    }
+}